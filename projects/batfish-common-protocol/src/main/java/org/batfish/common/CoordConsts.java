@@ -88,6 +88,7 @@ public class CoordConsts {
   public static final String SVC_KEY_FAILURE = "failure";
   public static final String SVC_KEY_FILE = "file";
   public static final String SVC_KEY_FORCE = "force";
+  public static final String SVC_KEY_IDLE_WORKER = "idleworker";
   public static final String SVC_KEY_MAX_SUGGESTIONS = "maxsuggestions";
   public static final String SVC_KEY_NETWORK_LIST = "networklist";
   public static final String SVC_KEY_NETWORK_NAME = "networkname";
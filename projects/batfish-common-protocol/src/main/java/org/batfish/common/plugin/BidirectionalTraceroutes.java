@@ -0,0 +1,114 @@
+package org.batfish.common.plugin;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static org.batfish.common.util.CollectionUtil.toImmutableMap;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+import org.batfish.datamodel.Flow;
+import org.batfish.datamodel.FlowDisposition;
+import org.batfish.datamodel.flow.FirewallSessionTraceInfo;
+import org.batfish.datamodel.flow.TraceAndReverseFlow;
+
+/**
+ * The traces of a set of {@link Flow flows}, and of the reverse flows of their {@link
+ * FlowDisposition#ACCEPTED accepted} traces, computed by a {@link TracerouteEngine} in as few
+ * batches as possible.
+ *
+ * <p>Used to check the reachability of all candidate endpoint pairs of a session topology at once
+ * rather than pair by pair: the engine traces the flows of a batch concurrently, and a flow shared
+ * by several candidate pairs is traced only once.
+ */
+@ParametersAreNonnullByDefault
+public final class BidirectionalTraceroutes {
+
+  /**
+   * Traces {@code flows}, then the reverse flows of their accepted traces. If {@code withSessions}
+   * is set, each reverse flow is traced with the firewall sessions set up by its forward trace.
+   */
+  public static @Nonnull BidirectionalTraceroutes compute(
+      Set<Flow> flows, boolean withSessions, TracerouteEngine tracerouteEngine) {
+    Map<Flow, List<TraceAndReverseFlow>> forwardTraces =
+        flows.isEmpty()
+            ? ImmutableMap.of()
+            : tracerouteEngine.computeTracesAndReverseFlows(flows, false);
+
+    // Reverse flows of accepted traces, grouped by the sessions to trace them with
+    Map<Set<FirewallSessionTraceInfo>, Set<Flow>> reverseFlows = new HashMap<>();
+    forwardTraces.values().stream()
+        .flatMap(List::stream)
+        .filter(BidirectionalTraceroutes::isAccepted)
+        .forEach(
+            forwardTrace ->
+                reverseFlows
+                    .computeIfAbsent(sessions(forwardTrace, withSessions), k -> new HashSet<>())
+                    .add(forwardTrace.getReverseFlow()));
+    Map<Set<FirewallSessionTraceInfo>, Map<Flow, List<TraceAndReverseFlow>>> reverseTraces =
+        toImmutableMap(
+            reverseFlows,
+            Entry::getKey,
+            entry ->
+                tracerouteEngine.computeTracesAndReverseFlows(
+                    entry.getValue(), entry.getKey(), false));
+    return new BidirectionalTraceroutes(forwardTraces, reverseTraces, withSessions);
+  }
+
+  private static boolean isAccepted(TraceAndReverseFlow traceAndReverseFlow) {
+    return traceAndReverseFlow.getTrace().getDisposition() == FlowDisposition.ACCEPTED;
+  }
+
+  private static @Nonnull Set<FirewallSessionTraceInfo> sessions(
+      TraceAndReverseFlow forwardTrace, boolean withSessions) {
+    return withSessions ? forwardTrace.getNewFirewallSessions() : ImmutableSet.of();
+  }
+
+  private final @Nonnull Map<Flow, List<TraceAndReverseFlow>> _forwardTraces;
+
+  // sessions -> reverse flow -> traces of the reverse flow with those sessions
+  private final @Nonnull Map<Set<FirewallSessionTraceInfo>, Map<Flow, List<TraceAndReverseFlow>>>
+      _reverseTraces;
+
+  private final boolean _withSessions;
+
+  private BidirectionalTraceroutes(
+      Map<Flow, List<TraceAndReverseFlow>> forwardTraces,
+      Map<Set<FirewallSessionTraceInfo>, Map<Flow, List<TraceAndReverseFlow>>> reverseTraces,
+      boolean withSessions) {
+    _forwardTraces = forwardTraces;
+    _reverseTraces = reverseTraces;
+    _withSessions = withSessions;
+  }
+
+  /** Returns the traces of {@code flow}, which must be one of the traced flows. */
+  public @Nonnull List<TraceAndReverseFlow> getForwardTraces(Flow flow) {
+    List<TraceAndReverseFlow> traces = _forwardTraces.get(flow);
+    checkArgument(traces != null, "Flow was not traced: %s", flow);
+    return traces;
+  }
+
+  /**
+   * Returns the traces of the reverse flow of {@code forwardTrace}, or an empty list if {@code
+   * forwardTrace} was not accepted.
+   */
+  public @Nonnull List<TraceAndReverseFlow> getReverseTraces(TraceAndReverseFlow forwardTrace) {
+    if (!isAccepted(forwardTrace)) {
+      return ImmutableList.of();
+    }
+    Map<Flow, List<TraceAndReverseFlow>> traces =
+        _reverseTraces.get(sessions(forwardTrace, _withSessions));
+    checkArgument(
+        traces != null && traces.containsKey(forwardTrace.getReverseFlow()),
+        "Trace is not a trace of a traced flow: %s",
+        forwardTrace.getTrace());
+    return traces.get(forwardTrace.getReverseFlow());
+  }
+}
@@ -9,12 +9,12 @@ import java.util.Set;
 import java.util.SortedMap;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiFunction;
+import java.util.function.Consumer;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import org.apache.commons.configuration2.ImmutableConfiguration;
 import org.batfish.common.Answerer;
 import org.batfish.common.NetworkSnapshot;
-import org.batfish.common.bdd.BDDPacket;
 import org.batfish.common.topology.TopologyProvider;
 import org.batfish.datamodel.BgpAdvertisement;
 import org.batfish.datamodel.Configuration;
@@ -138,6 +138,17 @@ public interface IBatfish extends IPluginConsumer {
   /** Returns the configurations for given snapshot. */
   SortedMap<String, Configuration> loadConfigurations(NetworkSnapshot snapshot);
 
+  /**
+   * Passes each configuration of the given snapshot to {@code consumer}, in no particular order.
+   * Configurations may be passed as soon as they are loaded, before the rest of the snapshot is
+   * available; in particular, network-wide post-processing such as OSPF and EIGRP neighbor
+   * discovery may not yet have been applied. So {@code consumer} must only depend on node-local
+   * state. {@code consumer} is only invoked on the calling thread.
+   */
+  default void forEachConfiguration(NetworkSnapshot snapshot, Consumer<Configuration> consumer) {
+    loadConfigurations(snapshot).values().forEach(consumer);
+  }
+
   /** Returns the vendor configurations of a given snapshot */
   Map<String, VendorConfiguration> loadVendorConfigurations(NetworkSnapshot snapshot);
 
@@ -194,8 +205,11 @@ public interface IBatfish extends IPluginConsumer {
   @Nullable
   String loadQuestionSettings(@Nonnull Question question);
 
-  /** Performs bidirectional reachability analysis. */
+  /**
+   * Performs bidirectional reachability analysis. The BDDs of the result belong to {@link
+   * BidirectionalReachabilityResult#getBddPacket()}.
+   */
   @Nonnull
   BidirectionalReachabilityResult bidirectionalReachability(
-      NetworkSnapshot snapshot, BDDPacket bddPacket, ReachabilityParameters parameters);
+      NetworkSnapshot snapshot, ReachabilityParameters parameters);
 }
@@ -8,8 +8,6 @@ import java.io.BufferedOutputStream;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.io.OutputStream;
 import java.io.PushbackInputStream;
 import java.io.Serializable;
@@ -24,13 +22,15 @@ import java.util.SortedSet;
 import java.util.TreeSet;
 import java.util.zip.GZIPInputStream;
 import net.jpountz.lz4.LZ4FrameInputStream;
-import net.jpountz.lz4.LZ4FrameOutputStream;
 import org.batfish.common.BatfishException;
+import org.batfish.common.util.serialization.CompactObjectSerializer;
+import org.batfish.common.util.serialization.SerializationFormat;
 
 public abstract class PluginConsumer implements IPluginConsumer {
 
   /** Supported formats we can deserialize from */
   public enum Format {
+    COMPACT_SERIALIZED,
     JAVA_SERIALIZED,
     LZ4,
     GZIP,
@@ -57,16 +57,22 @@ public abstract class PluginConsumer implements IPluginConsumer {
 
   private ClassLoader _currentClassLoader;
 
+  /** Format used to serialize objects before compression. */
+  private final SerializationFormat _serializationFormat;
+
   protected PluginConsumer() {
+    this(SerializationFormat.JAVA);
+  }
+
+  protected PluginConsumer(SerializationFormat serializationFormat) {
     _currentClassLoader = Thread.currentThread().getContextClassLoader();
+    _serializationFormat = serializationFormat;
   }
 
   private static <S extends Serializable> S deserializeObject(
-      InputStream stream, Class<S> outputClass) {
+      PushbackInputStream stream, Class<S> outputClass) {
     try {
-      ObjectInputStream ois = new ObjectInputStream(stream);
-      Object o = ois.readObject();
-      return outputClass.cast(o);
+      return SerializationFormat.deserializeObject(stream, outputClass);
     } catch (Exception e) {
       throw new BatfishException(
           "Failed to deserialize object of type '" + outputClass.getCanonicalName() + "' from data",
@@ -122,7 +128,9 @@ public abstract class PluginConsumer implements IPluginConsumer {
     byte[] header = new byte[DEFAULT_HEADER_LENGTH_BYTES];
     ByteStreams.readFully(stream, header);
     Format format;
-    if (Arrays.equals(header, JAVA_SERIALIZED_OBJECT_HEADER)) {
+    if (Arrays.equals(header, CompactObjectSerializer.HEADER)) {
+      format = Format.COMPACT_SERIALIZED;
+    } else if (Arrays.equals(header, JAVA_SERIALIZED_OBJECT_HEADER)) {
       format = Format.JAVA_SERIALIZED;
     } else if (Arrays.equals(header, LZ4_MAGIC_BYTES)) {
       format = Format.LZ4;
@@ -137,6 +145,14 @@ public abstract class PluginConsumer implements IPluginConsumer {
 
   public abstract PluginClientType getType();
 
+  /**
+   * Returns the format in which objects are serialized before being compressed and written. Data
+   * written in any supported format can always be read, regardless of this format.
+   */
+  public SerializationFormat getSerializationFormat() {
+    return _serializationFormat;
+  }
+
   protected final void loadPlugins() {
     SortedSet<Plugin> plugins;
     try {
@@ -163,7 +179,7 @@ public abstract class PluginConsumer implements IPluginConsumer {
   }
 
   /** Serializes the given object to a file with the given output name. */
-  protected static void serializeObject(Serializable object, Path outputFile) {
+  protected void serializeObject(Serializable object, Path outputFile) {
     try {
       try (Closer closer = Closer.create()) {
         OutputStream out = closer.register(Files.newOutputStream(outputFile));
@@ -175,12 +191,13 @@ public abstract class PluginConsumer implements IPluginConsumer {
     }
   }
 
-  /** Serializes the given object to the given stream, using LZ4 compression. */
-  private static void serializeToLz4Data(Serializable object, OutputStream out) {
-    try (Closer closer = Closer.create()) {
-      OutputStream los = closer.register(new LZ4FrameOutputStream(out));
-      ObjectOutputStream oos = closer.register(new ObjectOutputStream(los));
-      oos.writeObject(object);
+  /**
+   * Serializes the given object to the given stream in the {@link #getSerializationFormat()
+   * serialization format} of this consumer, using LZ4 compression.
+   */
+  private void serializeToLz4Data(Serializable object, OutputStream out) {
+    try {
+      _serializationFormat.serializeToLz4Data(object, out);
     } catch (Throwable e) {
       throw new BatfishException("Failed to convert object to LZ4 data", e);
     }
@@ -16,6 +16,7 @@ import com.google.common.graph.EndpointPair;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -23,13 +24,13 @@ import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
-import java.util.SortedMap;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import org.batfish.common.plugin.BidirectionalTraceroutes;
 import org.batfish.common.plugin.TracerouteEngine;
 import org.batfish.common.topology.TunnelTopology.Builder;
 import org.batfish.common.util.CollectionUtil;
@@ -725,24 +726,39 @@ public final class TopologyUtil {
       TunnelTopology initialTunnelTopology,
       NetworkConfigurations configurations,
       TracerouteEngine tracerouteEngine) {
-    Builder builder = TunnelTopology.builder();
+    // Trace the flows of all edges at once
+    Map<EndpointPair<NodeInterfacePair>, Flow> tunnelFlows = new LinkedHashMap<>();
     initialTunnelTopology
         .getGraph()
         .edges()
         .forEach(
             edge -> {
-              if (tracerouteForTunnelEdge(configurations, tracerouteEngine, edge)) {
-                builder.add(edge.nodeU(), edge.nodeV());
+              Flow flow = tunnelFlow(configurations, edge);
+              if (flow != null) {
+                tunnelFlows.put(edge, flow);
               }
             });
+    BidirectionalTraceroutes traceroutes =
+        BidirectionalTraceroutes.compute(
+            ImmutableSet.copyOf(tunnelFlows.values()), false, tracerouteEngine);
+
+    Builder builder = TunnelTopology.builder();
+    tunnelFlows.forEach(
+        (edge, flow) -> {
+          if (tracerouteForTunnelEdge(flow, traceroutes)) {
+            builder.add(edge.nodeU(), edge.nodeV());
+          }
+        });
     return builder.build();
   }
 
-  /** Traceroute between two tunnel interfaces. Returns true if traceroute succeeds. */
-  private static boolean tracerouteForTunnelEdge(
-      NetworkConfigurations configurations,
-      TracerouteEngine tracerouteEngine,
-      EndpointPair<NodeInterfacePair> edge) {
+  /**
+   * Returns the flow to trace between two tunnel interfaces, or {@code null} if either is not a
+   * tunnel.
+   */
+  @Nullable
+  private static Flow tunnelFlow(
+      NetworkConfigurations configurations, EndpointPair<NodeInterfacePair> edge) {
     NodeInterfacePair src = edge.nodeU();
     NodeInterfacePair dst = edge.nodeV();
     Interface tailTunnel =
@@ -756,32 +772,25 @@ public final class TopologyUtil {
             .orElseThrow(
                 () -> new IllegalStateException(String.format("Invalid tunnel interface %s", dst)));
     if (tailTunnel.getTunnelConfig() == null || headTunnel.getTunnelConfig() == null) {
-      return false;
+      return null;
     }
     // TODO: see if traceroute flow needs to be customized (ICMP ping? some GRE port?
     //   something else?)
-    Flow flow =
-        Flow.builder()
-            .setIngressNode(src.getHostname())
-            .setIngressVrf(tailTunnel.getVrfName())
-            .setSrcIp(tailTunnel.getTunnelConfig().getSourceAddress())
-            .setDstIp(tailTunnel.getTunnelConfig().getDestinationAddress())
-            .build();
-    SortedMap<Flow, List<TraceAndReverseFlow>> tracerouteResult =
-        tracerouteEngine.computeTracesAndReverseFlows(ImmutableSet.of(flow), false);
-    List<TraceAndReverseFlow> traceAndReverseFlows = tracerouteResult.get(flow);
-    return traceAndReverseFlows != null
-        && traceAndReverseFlows.stream()
-            .filter(TopologyUtil::isSuccessfulFlow)
-            .map(
-                // Go backward direction
-                tr ->
-                    tracerouteEngine
-                        .computeTracesAndReverseFlows(ImmutableSet.of(tr.getReverseFlow()), false)
-                        .get(tr.getReverseFlow()))
-            .filter(Objects::nonNull)
-            .flatMap(List::stream)
-            .anyMatch(TopologyUtil::isSuccessfulFlow);
+    return Flow.builder()
+        .setIngressNode(src.getHostname())
+        .setIngressVrf(tailTunnel.getVrfName())
+        .setSrcIp(tailTunnel.getTunnelConfig().getSourceAddress())
+        .setDstIp(tailTunnel.getTunnelConfig().getDestinationAddress())
+        .build();
+  }
+
+  /** Traceroute between two tunnel interfaces. Returns true if traceroute succeeds. */
+  private static boolean tracerouteForTunnelEdge(Flow flow, BidirectionalTraceroutes traceroutes) {
+    return traceroutes.getForwardTraces(flow).stream()
+        .filter(TopologyUtil::isSuccessfulFlow)
+        // Go backward direction
+        .flatMap(tr -> traceroutes.getReverseTraces(tr).stream())
+        .anyMatch(TopologyUtil::isSuccessfulFlow);
   }
 
   private static boolean isSuccessfulFlow(TraceAndReverseFlow tr) {
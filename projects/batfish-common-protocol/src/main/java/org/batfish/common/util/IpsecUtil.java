@@ -18,6 +18,7 @@ import com.google.common.graph.ValueGraphBuilder;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -27,6 +28,7 @@ import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
+import org.batfish.common.plugin.BidirectionalTraceroutes;
 import org.batfish.common.plugin.TracerouteEngine;
 import org.batfish.datamodel.ConcreteInterfaceAddress;
 import org.batfish.datamodel.Configuration;
@@ -55,7 +57,6 @@ import org.batfish.datamodel.NetworkConfigurations;
 import org.batfish.datamodel.collections.NodeInterfacePair;
 import org.batfish.datamodel.flow.Hop;
 import org.batfish.datamodel.flow.Trace;
-import org.batfish.datamodel.flow.TraceAndReverseFlow;
 import org.batfish.datamodel.ipsec.IpsecTopology;
 
 @ParametersAreNonnullByDefault
@@ -560,6 +561,8 @@ public class IpsecUtil {
         ValueGraphBuilder.directed().allowsSelfLoops(false).build();
     NetworkConfigurations nf = NetworkConfigurations.of(configurations);
 
+    // Edges whose reachability must be checked, all traced at once below
+    Map<EndpointPair<IpsecPeerConfigId>, IpsecSession> edgesToCheck = new LinkedHashMap<>();
     for (EndpointPair<IpsecPeerConfigId> endpointPair : ipsecTopology.getGraph().edges()) {
       IpsecPeerConfigId peerIdU = endpointPair.nodeU();
       IpsecPeerConfigId peerIdV = endpointPair.nodeV();
@@ -592,35 +595,77 @@ public class IpsecUtil {
       // not checking reachability for cloud type IPsec sessions, it is a workaround till we are
       // confident that ISP modeling will let us do traceroutes properly between cloud type
       // networks
-      if (ipsecSession.isCloud()
-          || isIpsecPeerReachable(
-              peerIdU.getHostName(),
-              peerU,
-              peerIdV.getHostName(),
-              peerV,
-              ipsecPhase2Proposal.getProtocols().contains(IpsecProtocol.AH)
-                  ? IpProtocol.AHP
-                  : IpProtocol.ESP,
-              configurations,
-              tracerouteEngine)) {
+      if (ipsecSession.isCloud()) {
         reachableIpsecTopology.putEdgeValue(peerIdU, peerIdV, ipsecSession);
+      } else {
+        edgesToCheck.put(endpointPair, ipsecSession);
       }
     }
+
+    BidirectionalTraceroutes traceroutes =
+        BidirectionalTraceroutes.compute(
+            edgesToCheck.entrySet().stream()
+                .flatMap(
+                    edgeEntry ->
+                        ipsecPeerFlows(
+                            edgeEntry.getKey().nodeU(),
+                            nf.getIpsecPeerConfig(edgeEntry.getKey().nodeU()),
+                            edgeEntry.getKey().nodeV(),
+                            nf.getIpsecPeerConfig(edgeEntry.getKey().nodeV()),
+                            ipsecProtocol(edgeEntry.getValue()),
+                            configurations)
+                            .values().stream())
+                .collect(ImmutableSet.toImmutableSet()),
+            true,
+            tracerouteEngine);
+    edgesToCheck.forEach(
+        (endpointPair, ipsecSession) -> {
+          IpsecPeerConfigId peerIdU = endpointPair.nodeU();
+          IpsecPeerConfigId peerIdV = endpointPair.nodeV();
+          if (ipsecPeerFlows(
+                  peerIdU,
+                  nf.getIpsecPeerConfig(peerIdU),
+                  peerIdV,
+                  nf.getIpsecPeerConfig(peerIdV),
+                  ipsecProtocol(ipsecSession),
+                  configurations)
+              .entries().stream()
+              .allMatch(
+                  flowEntry ->
+                      isSuccessfulBiTraceroute(
+                          flowEntry.getValue(),
+                          flowEntry.getKey().nodeU(),
+                          flowEntry.getKey().nodeV(),
+                          traceroutes))) {
+            reachableIpsecTopology.putEdgeValue(peerIdU, peerIdV, ipsecSession);
+          }
+        });
     return new IpsecTopology(reachableIpsecTopology);
   }
 
+  /** The protocol of the encrypted traffic of an IPsec session with a negotiated proposal */
+  private static @Nonnull IpProtocol ipsecProtocol(IpsecSession ipsecSession) {
+    IpsecPhase2Proposal ipsecPhase2Proposal = ipsecSession.getNegotiatedIpsecP2Proposal();
+    assert ipsecPhase2Proposal != null;
+    return ipsecPhase2Proposal.getProtocols().contains(IpsecProtocol.AH)
+        ? IpProtocol.AHP
+        : IpProtocol.ESP;
+  }
+
   /**
-   * Returns true if the edge between peerU and peerV can be established and also can carry actual
-   * IPsec encrypted data
+   * Returns the flows that must traverse the edge between peerU and peerV in both directions for
+   * the edge to be established and carry actual IPsec encrypted data, keyed by the (sender,
+   * receiver) hostnames of each flow.
    */
-  private static boolean isIpsecPeerReachable(
-      String hostnameU,
+  private static SetMultimap<EndpointPair<String>, Flow> ipsecPeerFlows(
+      IpsecPeerConfigId peerIdU,
       IpsecPeerConfig peerU,
-      String hostnameV,
+      IpsecPeerConfigId peerIdV,
       IpsecPeerConfig peerV,
       IpProtocol ipsecProtocol,
-      Map<String, Configuration> configurations,
-      TracerouteEngine tracerouteEngine) {
+      Map<String, Configuration> configurations) {
+    String hostnameU = peerIdU.getHostName();
+    String hostnameV = peerIdV.getHostName();
     String vrfU =
         configurations
             .get(hostnameU)
@@ -633,37 +678,24 @@ public class IpsecUtil {
             .getAllInterfaces()
             .get(peerV.getSourceInterface())
             .getVrfName();
-
-    return canInitiateIpsecSessionAndTraffic(
-            hostnameU,
-            vrfU,
-            peerU.getLocalAddress(),
-            hostnameV,
-            peerV.getLocalAddress(),
-            tracerouteEngine,
-            ipsecProtocol)
-        && canInitiateIpsecSessionAndTraffic(
-            hostnameV,
-            vrfV,
-            peerV.getLocalAddress(),
-            hostnameU,
-            peerU.getLocalAddress(),
-            tracerouteEngine,
-            ipsecProtocol);
+    return ImmutableSetMultimap.<EndpointPair<String>, Flow>builder()
+        .putAll(
+            EndpointPair.ordered(hostnameU, hostnameV),
+            ipsecFlows(
+                hostnameU, vrfU, peerU.getLocalAddress(), peerV.getLocalAddress(), ipsecProtocol))
+        .putAll(
+            EndpointPair.ordered(hostnameV, hostnameU),
+            ipsecFlows(
+                hostnameV, vrfV, peerV.getLocalAddress(), peerU.getLocalAddress(), ipsecProtocol))
+        .build();
   }
 
   /**
-   * Returns true if IPsec negotiation data can flow from the sender to the receiver and also the
-   * actual IPsec encrypted data can also flow from the sender to the receiver
+   * Returns the flows for IPsec negotiation and for the actual IPsec encrypted data from the sender
+   * to the receiver.
    */
-  private static boolean canInitiateIpsecSessionAndTraffic(
-      String sender,
-      String senderVrf,
-      Ip srcIp,
-      String receiver,
-      Ip dstIp,
-      TracerouteEngine tracerouteEngine,
-      IpProtocol ipSecProtocol) {
+  private static List<Flow> ipsecFlows(
+      String sender, String senderVrf, Ip srcIp, Ip dstIp, IpProtocol ipSecProtocol) {
     checkArgument(
         ImmutableSet.of(IpProtocol.AHP, IpProtocol.ESP).contains(ipSecProtocol),
         "IPsec reachability can be checked only for AH or ESP");
@@ -678,45 +710,27 @@ public class IpsecUtil {
 
     Flow flowForIpsecNegotiation =
         flowBuilder.setIpProtocol(IpProtocol.UDP).setDstPort(IpsecSession.IPSEC_UDP_PORT).build();
-    if (!isSuccessfulBiTraceroute(flowForIpsecNegotiation, sender, receiver, tracerouteEngine)) {
-      return false;
-    }
-
     Flow flowForActualIpsecTraffic = flowBuilder.setIpProtocol(ipSecProtocol).build();
-    return isSuccessfulBiTraceroute(flowForActualIpsecTraffic, sender, receiver, tracerouteEngine);
+    return ImmutableList.of(flowForIpsecNegotiation, flowForActualIpsecTraffic);
   }
 
   /**
    * Returns true if a bi-directional Traceroute succeeds from the sourceNode to the destinationNode
    */
   private static boolean isSuccessfulBiTraceroute(
-      Flow flow, String sourceNode, String destinationNode, TracerouteEngine tracerouteEngine) {
-    List<TraceAndReverseFlow> forwardTracesAndReverseFlows =
-        tracerouteEngine.computeTracesAndReverseFlows(ImmutableSet.of(flow), false).get(flow);
-
-    List<TraceAndReverseFlow> reverseTraces =
-        forwardTracesAndReverseFlows.stream()
-            .filter(
-                traceAndReverseFlow ->
-                    traceAndReverseFlow.getTrace().getDisposition() == FlowDisposition.ACCEPTED)
-            .filter(
-                traceAndReverseFlow ->
-                    traceAndReverseFlow.getReverseFlow() != null
-                        && traceAndReverseFlow
-                            .getReverseFlow()
-                            .getIngressNode()
-                            .equals(destinationNode))
-            .flatMap(
-                traceAndReverseFlow ->
-                    tracerouteEngine
-                        .computeTracesAndReverseFlows(
-                            ImmutableSet.of(traceAndReverseFlow.getReverseFlow()),
-                            traceAndReverseFlow.getNewFirewallSessions(),
-                            false)
-                        .get(traceAndReverseFlow.getReverseFlow()).stream())
-            .collect(ImmutableList.toImmutableList());
-
-    return reverseTraces.stream()
+      Flow flow, String sourceNode, String destinationNode, BidirectionalTraceroutes traceroutes) {
+    return traceroutes.getForwardTraces(flow).stream()
+        .filter(
+            traceAndReverseFlow ->
+                traceAndReverseFlow.getTrace().getDisposition() == FlowDisposition.ACCEPTED)
+        .filter(
+            traceAndReverseFlow ->
+                traceAndReverseFlow.getReverseFlow() != null
+                    && traceAndReverseFlow
+                        .getReverseFlow()
+                        .getIngressNode()
+                        .equals(destinationNode))
+        .flatMap(traceAndReverseFlow -> traceroutes.getReverseTraces(traceAndReverseFlow).stream())
         .anyMatch(
             traceAndReverseFlow -> {
               Trace reverseTrace = traceAndReverseFlow.getTrace();
@@ -0,0 +1,126 @@
+package org.batfish.common.util.serialization;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.io.ByteStreams;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.io.StreamCorruptedException;
+import java.util.Arrays;
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+/**
+ * An {@link ObjectSerializer} producing a compact variant of Java serialization.
+ *
+ * <p>Standard Java serialization writes a full descriptor for every class in every stream: its
+ * name, flags, and the name and type of each of its fields. Since Batfish writes one stream per
+ * device, the same descriptors are repeated many times. This format replaces each descriptor with
+ * the class name and its {@code serialVersionUID}, and the reader uses the local class definition
+ * instead.
+ *
+ * <p>Apart from the descriptors, this is plain Java serialization. Objects are still written by an
+ * {@link ObjectOutputStream}, with the same object graph encoding and custom {@code
+ * writeObject}/{@code readObject} hooks; it is not a schema-based binary format.
+ *
+ * <p>No Batfish class declares a {@code serialVersionUID}, so the computed one acts as a schema
+ * fingerprint: data written by a class whose serializable structure differs from the local one is
+ * rejected with an {@link InvalidClassException} rather than decoded incorrectly. The stream begins
+ * with {@link #HEADER}, whose last byte is the version of this encoding.
+ */
+@ParametersAreNonnullByDefault
+public final class CompactObjectSerializer implements ObjectSerializer {
+
+  public static final CompactObjectSerializer INSTANCE = new CompactObjectSerializer();
+
+  /** Version of the compact encoding. Increment on any incompatible change to this class. */
+  @VisibleForTesting static final byte FORMAT_VERSION = 1;
+
+  /** Magic bytes at the start of every stream written by this serializer. */
+  public static final byte[] HEADER = {(byte) 0xba, (byte) 0x7f, (byte) 0x15, FORMAT_VERSION};
+
+  @Override
+  public void serialize(Serializable object, OutputStream out) throws IOException {
+    out.write(HEADER);
+    ObjectOutputStream oos = new CompactObjectOutputStream(out);
+    oos.writeObject(object);
+    oos.flush();
+  }
+
+  @Nonnull
+  @Override
+  public <S extends Serializable> S deserialize(InputStream in, Class<S> outputClass)
+      throws IOException, ClassNotFoundException {
+    byte[] header = new byte[HEADER.length];
+    ByteStreams.readFully(in, header);
+    if (!Arrays.equals(header, HEADER)) {
+      throw new StreamCorruptedException(
+          String.format(
+              "Invalid compact serialization header %s, expected %s",
+              Arrays.toString(header), Arrays.toString(HEADER)));
+    }
+    return outputClass.cast(new CompactObjectInputStream(in).readObject());
+  }
+
+  private static final class CompactObjectOutputStream extends ObjectOutputStream {
+
+    private CompactObjectOutputStream(OutputStream out) throws IOException {
+      super(out);
+    }
+
+    @Override
+    protected void writeClassDescriptor(ObjectStreamClass desc) throws IOException {
+      writeUTF(desc.getName());
+      writeLong(desc.getSerialVersionUID());
+    }
+  }
+
+  private static final class CompactObjectInputStream extends ObjectInputStream {
+
+    private CompactObjectInputStream(InputStream in) throws IOException {
+      super(in);
+    }
+
+    @Override
+    protected ObjectStreamClass readClassDescriptor() throws IOException, ClassNotFoundException {
+      String name = readUTF();
+      long serialVersionUid = readLong();
+      ObjectStreamClass local = ObjectStreamClass.lookupAny(loadClass(name));
+      if (local.getSerialVersionUID() != serialVersionUid) {
+        throw new InvalidClassException(
+            name,
+            String.format(
+                "local class incompatible: stream serialVersionUID = %d, local = %d",
+                serialVersionUid, local.getSerialVersionUID()));
+      }
+      return local;
+    }
+
+    @Override
+    protected Class<?> resolveClass(ObjectStreamClass desc)
+        throws IOException, ClassNotFoundException {
+      // Descriptors returned by readClassDescriptor are always bound to a local class.
+      Class<?> clazz = desc.forClass();
+      return clazz != null ? clazz : super.resolveClass(desc);
+    }
+
+    private static @Nonnull Class<?> loadClass(String name) throws ClassNotFoundException {
+      ClassLoader contextLoader = Thread.currentThread().getContextClassLoader();
+      if (contextLoader != null) {
+        try {
+          return Class.forName(name, false, contextLoader);
+        } catch (ClassNotFoundException e) {
+          // fall through to the loader of this class
+        }
+      }
+      return Class.forName(name, false, CompactObjectSerializer.class.getClassLoader());
+    }
+  }
+
+  private CompactObjectSerializer() {}
+}
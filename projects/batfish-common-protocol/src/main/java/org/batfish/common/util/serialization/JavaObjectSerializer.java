@@ -0,0 +1,33 @@
+package org.batfish.common.util.serialization;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+/** An {@link ObjectSerializer} using standard Java serialization. */
+@ParametersAreNonnullByDefault
+public final class JavaObjectSerializer implements ObjectSerializer {
+
+  public static final JavaObjectSerializer INSTANCE = new JavaObjectSerializer();
+
+  @Override
+  public void serialize(Serializable object, OutputStream out) throws IOException {
+    ObjectOutputStream oos = new ObjectOutputStream(out);
+    oos.writeObject(object);
+    oos.flush();
+  }
+
+  @Nonnull
+  @Override
+  public <S extends Serializable> S deserialize(InputStream in, Class<S> outputClass)
+      throws IOException, ClassNotFoundException {
+    return outputClass.cast(new ObjectInputStream(in).readObject());
+  }
+
+  private JavaObjectSerializer() {}
+}
@@ -0,0 +1,27 @@
+package org.batfish.common.util.serialization;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+/**
+ * Converts {@link Serializable} objects to and from uncompressed binary data. Compression, if any,
+ * is applied by the caller.
+ */
+@ParametersAreNonnullByDefault
+public interface ObjectSerializer {
+
+  /** Writes {@code object} to {@code out}. Does not close {@code out}. */
+  void serialize(Serializable object, OutputStream out) throws IOException;
+
+  /**
+   * Reads an object of type {@code outputClass} from {@code in}, which must contain data written by
+   * {@link #serialize(Serializable, OutputStream)}. Does not close {@code in}.
+   */
+  @Nonnull
+  <S extends Serializable> S deserialize(InputStream in, Class<S> outputClass)
+      throws IOException, ClassNotFoundException;
+}
@@ -0,0 +1,59 @@
+package org.batfish.common.util.serialization;
+
+import com.google.common.io.ByteStreams;
+import com.google.common.io.Closer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PushbackInputStream;
+import java.io.Serializable;
+import java.util.Arrays;
+import javax.annotation.Nonnull;
+import net.jpountz.lz4.LZ4FrameOutputStream;
+
+/** Binary formats in which Batfish can persist {@link java.io.Serializable} objects. */
+public enum SerializationFormat {
+  /**
+   * Java serialization with class descriptors replaced by names; see {@link
+   * CompactObjectSerializer}. This is still Java serialization: it has the same compatibility
+   * rules and object graph encoding, it only writes slimmer class descriptors.
+   *
+   * <p>Experimental and not used unless requested: its savings have not been measured, and data
+   * written in it becomes unreadable after any change to the serializable structure of a class.
+   */
+  COMPACT(CompactObjectSerializer.INSTANCE),
+  /** Standard Java serialization. */
+  JAVA(JavaObjectSerializer.INSTANCE);
+
+  private final @Nonnull ObjectSerializer _serializer;
+
+  SerializationFormat(ObjectSerializer serializer) {
+    _serializer = serializer;
+  }
+
+  public @Nonnull ObjectSerializer getSerializer() {
+    return _serializer;
+  }
+
+  /** Writes {@code object} in this format to {@code out} using LZ4 compression, and closes it. */
+  public void serializeToLz4Data(Serializable object, OutputStream out) throws IOException {
+    try (Closer closer = Closer.create()) {
+      OutputStream los = closer.register(new LZ4FrameOutputStream(out));
+      _serializer.serialize(object, los);
+    }
+  }
+
+  /**
+   * Reads an object of type {@code outputClass} from uncompressed data written in any {@link
+   * SerializationFormat}. The format is detected from the header of the data, so {@code in} must
+   * allow at least {@code CompactObjectSerializer.HEADER.length} bytes to be pushed back.
+   */
+  public static @Nonnull <S extends Serializable> S deserializeObject(
+      PushbackInputStream in, Class<S> outputClass) throws IOException, ClassNotFoundException {
+    byte[] header = new byte[CompactObjectSerializer.HEADER.length];
+    ByteStreams.readFully(in, header);
+    in.unread(header);
+    SerializationFormat format =
+        Arrays.equals(header, CompactObjectSerializer.HEADER) ? COMPACT : JAVA;
+    return format.getSerializer().deserialize(in, outputClass);
+  }
+}
@@ -5,10 +5,6 @@ import static com.google.common.base.Preconditions.checkArgument;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
-import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSortedSet;
 import java.util.Collection;
 import java.util.Collections;
@@ -28,23 +24,6 @@ import org.batfish.datamodel.bgp.community.StandardCommunity;
 public abstract class BgpRoute<B extends Builder<B, R>, R extends BgpRoute<B, R>>
     extends AbstractRoute {
 
-  // Soft values: let it be garbage collected in times of pressure.
-  // Maximum size 2^16: Just some upper bound on cache size, well less than GiB.
-  //   (8 bytes seems smallest possible entry (set(long)), would be 1 MiB total).
-  private static final LoadingCache<SortedSet<Community>, SortedSet<Community>> COMMUNITY_CACHE =
-      CacheBuilder.newBuilder()
-          .softValues()
-          .maximumSize(1 << 16)
-          .build(CacheLoader.from(ImmutableSortedSet::copyOf));
-  // Soft values: let it be garbage collected in times of pressure.
-  // Maximum size 2^16: Just some upper bound on cache size, well less than GiB.
-  //   (8 bytes seems smallest possible entry (set(long)), would be 1 MiB total).
-  private static final LoadingCache<SortedSet<Long>, SortedSet<Long>> CLUSTER_CACHE =
-      CacheBuilder.newBuilder()
-          .softValues()
-          .maximumSize(1 << 16)
-          .build(CacheLoader.from(ImmutableSortedSet::copyOf));
-
   /** Builder for {@link BgpRoute} */
   @ParametersAreNonnullByDefault
   public abstract static class Builder<B extends Builder<B, R>, R extends BgpRoute<B, R>>
@@ -277,26 +256,16 @@ public abstract class BgpRoute<B extends Builder<B, R>, R extends BgpRoute<B, R>
   static final String PROP_SRC_PROTOCOL = "srcProtocol";
   static final String PROP_WEIGHT = "weight";
 
-  @Nonnull protected final AsPath _asPath;
-  @Nonnull protected final SortedSet<Long> _clusterList;
-  @Nonnull protected final SortedSet<Community> _communities;
+  /** The path attributes, shared with other routes that have the same ones */
+  @Nonnull final BgpRouteAttributes _attributes;
   protected final boolean _discard;
-  protected final long _localPreference;
-  protected final long _med;
   @Nonnull protected final String _nextHopInterface;
   @Nonnull protected final Ip _nextHopIp;
   @Nonnull protected final Ip _originatorIp;
-  @Nonnull protected final OriginType _originType;
   @Nonnull protected final RoutingProtocol _protocol;
   @Nullable protected final Ip _receivedFromIp;
   protected final boolean _receivedFromRouteReflectorClient;
   @Nullable protected final RoutingProtocol _srcProtocol;
-  /* NOTE: Cisco-only attribute */
-  protected final int _weight;
-
-  // Cached values
-  @Nonnull private Set<StandardCommunity> _standardCommunities;
-  @Nonnull private Set<ExtendedCommunity> _extendedCommunities;
 
   protected BgpRoute(
       @Nullable Prefix network,
@@ -325,68 +294,50 @@ public abstract class BgpRoute<B extends Builder<B, R>, R extends BgpRoute<B, R>
             || protocol == RoutingProtocol.IBGP
             || protocol == RoutingProtocol.AGGREGATE,
         "Invalid BgpRoute protocol");
-    _asPath = firstNonNull(asPath, AsPath.empty());
-    _clusterList =
-        clusterList == null ? ImmutableSortedSet.of() : CLUSTER_CACHE.getUnchecked(clusterList);
-    _communities =
-        communities == null ? ImmutableSortedSet.of() : COMMUNITY_CACHE.getUnchecked(communities);
+    _attributes =
+        BgpRouteAttributes.create(
+            asPath, clusterList, communities, localPreference, med, originType, weight);
     _discard = discard;
-    _localPreference = localPreference;
-    _med = med;
     _nextHopInterface = nextHopInterface;
     _nextHopIp = firstNonNull(nextHopIp, Route.UNSET_ROUTE_NEXT_HOP_IP);
     _originatorIp = originatorIp;
-    _originType = originType;
     _protocol = protocol;
     _receivedFromIp = receivedFromIp;
     _receivedFromRouteReflectorClient = receivedFromRouteReflectorClient;
     _srcProtocol = srcProtocol;
-    _weight = weight;
-
-    // Cache community values
-    _standardCommunities =
-        _communities.stream()
-            .filter(StandardCommunity.class::isInstance)
-            .map(StandardCommunity.class::cast)
-            .collect(ImmutableSet.toImmutableSet());
-    _extendedCommunities =
-        _communities.stream()
-            .filter(ExtendedCommunity.class::isInstance)
-            .map(ExtendedCommunity.class::cast)
-            .collect(ImmutableSet.toImmutableSet());
   }
 
   @Nonnull
   @JsonProperty(PROP_AS_PATH)
   public AsPath getAsPath() {
-    return _asPath;
+    return _attributes.getAsPath();
   }
 
   @Nonnull
   @JsonProperty(PROP_CLUSTER_LIST)
   public SortedSet<Long> getClusterList() {
-    return _clusterList;
+    return _attributes.getClusterList();
   }
 
   /** Return the set of all community attributes */
   @Nonnull
   @JsonProperty(PROP_COMMUNITIES)
   public SortedSet<Community> getCommunities() {
-    return _communities;
+    return _attributes.getCommunities();
   }
 
   /** Return only standard community attributes */
   @Nonnull
   @JsonIgnore
   public Set<StandardCommunity> getStandardCommunities() {
-    return _standardCommunities;
+    return _attributes.getStandardCommunities();
   }
 
   /** Return only extended community attributes */
   @Nonnull
   @JsonIgnore
   public Set<ExtendedCommunity> getExtendedCommunities() {
-    return _extendedCommunities;
+    return _attributes.getExtendedCommunities();
   }
 
   @JsonProperty(PROP_DISCARD)
@@ -396,14 +347,14 @@ public abstract class BgpRoute<B extends Builder<B, R>, R extends BgpRoute<B, R>
 
   @JsonProperty(PROP_LOCAL_PREFERENCE)
   public long getLocalPreference() {
-    return _localPreference;
+    return _attributes.getLocalPreference();
   }
 
   @JsonIgnore(false)
   @JsonProperty(PROP_METRIC)
   @Override
   public Long getMetric() {
-    return _med;
+    return _attributes.getMed();
   }
 
   @JsonIgnore(false)
@@ -431,7 +382,7 @@ public abstract class BgpRoute<B extends Builder<B, R>, R extends BgpRoute<B, R>
   @Nonnull
   @JsonProperty(PROP_ORIGIN_TYPE)
   public OriginType getOriginType() {
-    return _originType;
+    return _attributes.getOriginType();
   }
 
   @Nonnull
@@ -461,7 +412,7 @@ public abstract class BgpRoute<B extends Builder<B, R>, R extends BgpRoute<B, R>
 
   @JsonProperty(PROP_WEIGHT)
   public int getWeight() {
-    return _weight;
+    return _attributes.getWeight();
   }
 
   @Override
@@ -0,0 +1,209 @@
+package org.batfish.datamodel;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSortedSet;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import java.io.Serializable;
+import java.util.Set;
+import java.util.SortedSet;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+import org.batfish.datamodel.bgp.community.Community;
+import org.batfish.datamodel.bgp.community.ExtendedCommunity;
+import org.batfish.datamodel.bgp.community.StandardCommunity;
+
+/**
+ * The path attributes of a {@link BgpRoute} that are commonly shared by many routes differing only
+ * in prefix or next hop. Instances are interned, so routes with the same attributes reference the
+ * same object.
+ */
+@ParametersAreNonnullByDefault
+final class BgpRouteAttributes implements Serializable {
+
+  // Soft values: let it be garbage collected in times of pressure.
+  // Maximum size 2^16: Just some upper bound on cache size, well less than GiB.
+  //   (8 bytes seems smallest possible entry (set(long)), would be 1 MiB total).
+  private static final LoadingCache<SortedSet<Community>, SortedSet<Community>> COMMUNITY_CACHE =
+      CacheBuilder.newBuilder()
+          .softValues()
+          .maximumSize(1 << 16)
+          .build(CacheLoader.from(ImmutableSortedSet::copyOf));
+  // Soft values: let it be garbage collected in times of pressure.
+  // Maximum size 2^16: Just some upper bound on cache size, well less than GiB.
+  //   (8 bytes seems smallest possible entry (set(long)), would be 1 MiB total).
+  private static final LoadingCache<SortedSet<Long>, SortedSet<Long>> CLUSTER_CACHE =
+      CacheBuilder.newBuilder()
+          .softValues()
+          .maximumSize(1 << 16)
+          .build(CacheLoader.from(ImmutableSortedSet::copyOf));
+
+  private static final Interner<BgpRouteAttributes> INTERNER = Interners.newWeakInterner();
+
+  @Nonnull private final AsPath _asPath;
+  @Nonnull private final SortedSet<Long> _clusterList;
+  @Nonnull private final SortedSet<Community> _communities;
+  private final long _localPreference;
+  private final long _med;
+  @Nonnull private final OriginType _originType;
+  /* NOTE: Cisco-only attribute */
+  private final int _weight;
+
+  // Cached values
+  @Nonnull private final Set<StandardCommunity> _standardCommunities;
+  @Nonnull private final Set<ExtendedCommunity> _extendedCommunities;
+  private transient int _hashCode;
+
+  private BgpRouteAttributes(
+      AsPath asPath,
+      SortedSet<Long> clusterList,
+      SortedSet<Community> communities,
+      long localPreference,
+      long med,
+      OriginType originType,
+      int weight) {
+    _asPath = asPath;
+    _clusterList = clusterList;
+    _communities = communities;
+    _localPreference = localPreference;
+    _med = med;
+    _originType = originType;
+    _weight = weight;
+    _standardCommunities =
+        _communities.stream()
+            .filter(StandardCommunity.class::isInstance)
+            .map(StandardCommunity.class::cast)
+            .collect(ImmutableSet.toImmutableSet());
+    _extendedCommunities =
+        _communities.stream()
+            .filter(ExtendedCommunity.class::isInstance)
+            .map(ExtendedCommunity.class::cast)
+            .collect(ImmutableSet.toImmutableSet());
+  }
+
+  /** Returns the interned attributes with the given values. */
+  @Nonnull
+  static BgpRouteAttributes create(
+      @Nullable AsPath asPath,
+      @Nullable SortedSet<Long> clusterList,
+      @Nullable SortedSet<Community> communities,
+      long localPreference,
+      long med,
+      @Nullable OriginType originType,
+      int weight) {
+    checkArgument(originType != null, "Missing %s", BgpRoute.PROP_ORIGIN_TYPE);
+    return INTERNER.intern(
+        new BgpRouteAttributes(
+            asPath == null ? AsPath.empty() : asPath,
+            clusterList == null ? ImmutableSortedSet.of() : CLUSTER_CACHE.getUnchecked(clusterList),
+            communities == null
+                ? ImmutableSortedSet.of()
+                : COMMUNITY_CACHE.getUnchecked(communities),
+            localPreference,
+            med,
+            originType,
+            weight));
+  }
+
+  @Nonnull
+  AsPath getAsPath() {
+    return _asPath;
+  }
+
+  @Nonnull
+  SortedSet<Long> getClusterList() {
+    return _clusterList;
+  }
+
+  @Nonnull
+  SortedSet<Community> getCommunities() {
+    return _communities;
+  }
+
+  @Nonnull
+  Set<ExtendedCommunity> getExtendedCommunities() {
+    return _extendedCommunities;
+  }
+
+  long getLocalPreference() {
+    return _localPreference;
+  }
+
+  long getMed() {
+    return _med;
+  }
+
+  @Nonnull
+  OriginType getOriginType() {
+    return _originType;
+  }
+
+  @Nonnull
+  Set<StandardCommunity> getStandardCommunities() {
+    return _standardCommunities;
+  }
+
+  int getWeight() {
+    return _weight;
+  }
+
+  @Override
+  public boolean equals(@Nullable Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof BgpRouteAttributes)) {
+      return false;
+    }
+    BgpRouteAttributes other = (BgpRouteAttributes) o;
+    return _localPreference == other._localPreference
+        && _med == other._med
+        && _originType == other._originType
+        && _weight == other._weight
+        && _asPath.equals(other._asPath)
+        && _clusterList.equals(other._clusterList)
+        && _communities.equals(other._communities);
+  }
+
+  @Override
+  public int hashCode() {
+    int h = _hashCode;
+    if (h == 0) {
+      h = _asPath.hashCode();
+      h = h * 31 + _clusterList.hashCode();
+      h = h * 31 + _communities.hashCode();
+      h = h * 31 + Long.hashCode(_localPreference);
+      h = h * 31 + Long.hashCode(_med);
+      h = h * 31 + _originType.ordinal();
+      h = h * 31 + _weight;
+
+      _hashCode = h;
+    }
+    return h;
+  }
+
+  /** Re-intern deserialized attributes so that routes read from disk share them, too. */
+  private Object readResolve() {
+    return INTERNER.intern(this);
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this)
+        .add("_asPath", _asPath)
+        .add("_clusterList", _clusterList)
+        .add("_communities", _communities)
+        .add("_localPreference", _localPreference)
+        .add("_med", _med)
+        .add("_originType", _originType)
+        .add("_weight", _weight)
+        .toString();
+  }
+}
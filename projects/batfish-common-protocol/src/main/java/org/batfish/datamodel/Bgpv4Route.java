@@ -174,22 +174,22 @@ public final class Bgpv4Route extends BgpRoute<Bgpv4Route.Builder, Bgpv4Route> {
         .setAdmin(getAdministrativeCost())
         .setNonRouting(getNonRouting())
         .setNonForwarding(getNonForwarding())
-        .setAsPath(_asPath)
-        .setClusterList(_clusterList)
-        .setCommunities(_communities)
+        .setAsPath(getAsPath())
+        .setClusterList(getClusterList())
+        .setCommunities(getCommunities())
         .setDiscard(_discard)
-        .setLocalPreference(_localPreference)
-        .setMetric(_med)
+        .setLocalPreference(getLocalPreference())
+        .setMetric(getMetric())
         .setNextHopInterface(_nextHopInterface)
         .setNextHopIp(_nextHopIp)
         .setOriginatorIp(_originatorIp)
-        .setOriginType(_originType)
+        .setOriginType(getOriginType())
         .setProtocol(_protocol)
         .setReceivedFromIp(_receivedFromIp)
         .setReceivedFromRouteReflectorClient(_receivedFromRouteReflectorClient)
         .setSrcProtocol(_srcProtocol)
         .setTag(_tag)
-        .setWeight(_weight);
+        .setWeight(getWeight());
   }
 
   @Override
@@ -209,19 +209,13 @@ public final class Bgpv4Route extends BgpRoute<Bgpv4Route.Builder, Bgpv4Route> {
         // Things above this line are more likely to cause false earlier.
         && _admin == other._admin
         && _discard == other._discard
-        && _localPreference == other._localPreference
-        && _med == other._med
-        && _originType == other._originType
+        && _attributes.equals(other._attributes)
         && _protocol == other._protocol
         && _receivedFromRouteReflectorClient == other._receivedFromRouteReflectorClient
         && _srcProtocol == other._srcProtocol
         && _tag == other._tag
-        && _weight == other._weight
         && getNonRouting() == other.getNonRouting()
-        && getNonForwarding() == other.getNonForwarding()
-        && _asPath.equals(other._asPath)
-        && _clusterList.equals(other._clusterList)
-        && _communities.equals(other._communities);
+        && getNonForwarding() == other.getNonForwarding();
   }
 
   @Override
@@ -229,25 +223,19 @@ public final class Bgpv4Route extends BgpRoute<Bgpv4Route.Builder, Bgpv4Route> {
     int h = _hashCode;
     if (h == 0) {
       h = _admin;
-      h = h * 31 + _asPath.hashCode();
-      h = h * 31 + _clusterList.hashCode();
-      h = h * 31 + _communities.hashCode();
+      h = h * 31 + _attributes.hashCode();
       h = h * 31 + Boolean.hashCode(_discard);
-      h = h * 31 + Long.hashCode(_localPreference);
-      h = h * 31 + Long.hashCode(_med);
       h = h * 31 + _network.hashCode();
       h = h * 31 + _nextHopInterface.hashCode();
       h = h * 31 + _nextHopIp.hashCode();
       h = h * 31 + Boolean.hashCode(getNonForwarding());
       h = h * 31 + Boolean.hashCode(getNonRouting());
       h = h * 31 + _originatorIp.hashCode();
-      h = h * 31 + _originType.ordinal();
       h = h * 31 + _protocol.ordinal();
       h = h * 31 + Objects.hashCode(_receivedFromIp);
       h = h * 31 + Boolean.hashCode(_receivedFromRouteReflectorClient);
       h = h * 31 + (_srcProtocol == null ? 0 : _srcProtocol.ordinal());
       h = h * 31 + Long.hashCode(_tag);
-      h = h * 31 + _weight;
 
       _hashCode = h;
     }
@@ -261,21 +249,21 @@ public final class Bgpv4Route extends BgpRoute<Bgpv4Route.Builder, Bgpv4Route> {
         .add("_network", _network)
         .add("_admin", _admin)
         .add("_tag", _tag)
-        .add("_asPath", _asPath)
-        .add("_clusterList", _clusterList)
-        .add("_communities", _communities)
+        .add("_asPath", getAsPath())
+        .add("_clusterList", getClusterList())
+        .add("_communities", getCommunities())
         .add("_discard", _discard)
-        .add("_localPreference", _localPreference)
-        .add("_med", _med)
+        .add("_localPreference", getLocalPreference())
+        .add("_med", getMetric())
         .add("_nextHopInterface", _nextHopInterface)
         .add("_nextHopIp", _nextHopIp)
         .add("_originatorIp", _originatorIp)
-        .add("_originType", _originType)
+        .add("_originType", getOriginType())
         .add("_protocol", _protocol)
         .add("_receivedFromIp", _receivedFromIp)
         .add("_receivedFromRouteReflectorClient", _receivedFromRouteReflectorClient)
         .add("_srcProtocol", _srcProtocol)
-        .add("_weight", _weight)
+        .add("_weight", getWeight())
         .toString();
   }
 }
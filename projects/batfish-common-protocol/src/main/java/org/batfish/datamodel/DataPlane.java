@@ -1,5 +1,6 @@
 package org.batfish.datamodel;
 
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Table;
 import java.io.Serializable;
 import java.util.Map;
@@ -12,9 +13,29 @@ public interface DataPlane extends Serializable {
   /** Return routes in the BGP rib for each node/VRF */
   Table<String, String, Set<Bgpv4Route>> getBgpRoutes();
 
+  /** Return routes in the BGP rib of the given node/VRF for exactly {@code network} */
+  default Set<Bgpv4Route> getBgpRoutes(String hostname, String vrfName, Prefix network) {
+    Set<Bgpv4Route> routes = getBgpRoutes().get(hostname, vrfName);
+    return routes == null
+        ? ImmutableSet.of()
+        : routes.stream()
+            .filter(route -> route.getNetwork().equals(network))
+            .collect(ImmutableSet.toImmutableSet());
+  }
+
   /** Return routes in the EVPN RIB on each node/VRF */
   Table<String, String, Set<EvpnRoute<?, ?>>> getEvpnRoutes();
 
+  /** Return routes in the EVPN RIB of the given node/VRF for exactly {@code network} */
+  default Set<EvpnRoute<?, ?>> getEvpnRoutes(String hostname, String vrfName, Prefix network) {
+    Set<EvpnRoute<?, ?>> routes = getEvpnRoutes().get(hostname, vrfName);
+    return routes == null
+        ? ImmutableSet.of()
+        : routes.stream()
+            .filter(route -> route.getNetwork().equals(network))
+            .collect(ImmutableSet.toImmutableSet());
+  }
+
   Map<String, Configuration> getConfigurations();
 
   /** Return a {@link Fib} for each node/VRF */
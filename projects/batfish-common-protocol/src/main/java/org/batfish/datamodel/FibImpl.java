@@ -8,7 +8,9 @@ import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSet.Builder;
 import com.google.common.collect.ImmutableSortedSet;
+import com.google.common.collect.Sets;
 import java.io.IOException;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
@@ -16,6 +18,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.Stack;
+import java.util.function.Function;
 import java.util.function.Supplier;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -74,6 +77,17 @@ public final class FibImpl implements Fib {
     }
   }
 
+  /** The entries a route resolved to, and the IPs looked up in the RIB to resolve it. */
+  private static final class Resolution {
+    private final @Nonnull Set<FibEntry> _entries;
+    private final @Nonnull Set<Ip> _lookupIps;
+
+    private Resolution(Set<FibEntry> entries, Set<Ip> lookupIps) {
+      _entries = entries;
+      _lookupIps = lookupIps;
+    }
+  }
+
   private static final int MAX_DEPTH = 10;
 
   private static @Nullable String getNextVrf(AbstractRoute route) {
@@ -89,19 +103,83 @@ public final class FibImpl implements Fib {
 
   private transient Supplier<Set<FibEntry>> _entries;
 
+  private transient Supplier<Map<Prefix, IpSpace>> _matchingIps;
+
+  /**
+   * Route -&gt; IPs looked up in the RIB to resolve that route. Lets {@link #update} tell which
+   * resolutions a RIB change can affect. Not serialized: a deserialized FIB updates by rebuilding.
+   */
+  private transient @Nullable Map<AbstractRoute, Set<Ip>> _lookupIpsByRoute;
+
   public FibImpl(@Nonnull GenericRib<? extends AbstractRouteDecorator> rib) {
+    this(rib, rib.getRoutes(), route -> null);
+  }
+
+  /**
+   * Builds a FIB for {@code routes} of {@code rib}, taking the resolution of each route from {@code
+   * previousResolutions} if it returns one, and resolving the route in {@code rib} otherwise.
+   */
+  private FibImpl(
+      GenericRib<? extends AbstractRouteDecorator> rib,
+      Set<AbstractRoute> routes,
+      Function<AbstractRoute, Resolution> previousResolutions) {
     _root = new PrefixTrieMultiMap<>(Prefix.ZERO);
-    rib.getRoutes()
-        .forEach(
-            r -> {
-              Set<FibEntry> s = resolveRoute(rib, r);
-              _root.putAll(r.getNetwork(), s);
-            });
+    ImmutableMap.Builder<AbstractRoute, Set<Ip>> lookupIpsByRoute = ImmutableMap.builder();
+    routes.forEach(
+        r -> {
+          Resolution resolution = previousResolutions.apply(r);
+          if (resolution == null) {
+            resolution = resolve(rib, r);
+          }
+          _root.putAll(r.getNetwork(), resolution._entries);
+          lookupIpsByRoute.put(r, resolution._lookupIps);
+        });
+    _lookupIpsByRoute = lookupIpsByRoute.build();
     initSuppliers();
   }
 
+  /**
+   * Returns a FIB for the current routes of {@code rib}, which should be the RIB this FIB was built
+   * from after some routes were added or removed. Only routes that are new, or whose resolution
+   * looked up an IP in a prefix whose routes changed, are resolved again; all other entries are
+   * carried over from this FIB. Returns this FIB if the routes of {@code rib} did not change.
+   */
+  @Nonnull
+  public FibImpl update(@Nonnull GenericRib<? extends AbstractRouteDecorator> rib) {
+    Map<AbstractRoute, Set<Ip>> previousLookupIps = _lookupIpsByRoute;
+    if (previousLookupIps == null) {
+      return new FibImpl(rib);
+    }
+    Set<AbstractRoute> routes = rib.getRoutes();
+    if (routes.equals(previousLookupIps.keySet())) {
+      return this;
+    }
+    PrefixTrieMultiMap<Prefix> changedPrefixes = new PrefixTrieMultiMap<>(Prefix.ZERO);
+    Sets.symmetricDifference(routes, previousLookupIps.keySet())
+        .forEach(r -> changedPrefixes.put(r.getNetwork(), r.getNetwork()));
+    Map<AbstractRoute, Set<FibEntry>> previousEntries = new HashMap<>();
+    _root
+        .getAllElements()
+        .forEach(
+            e ->
+                previousEntries.computeIfAbsent(e.getTopLevelRoute(), r -> new HashSet<>()).add(e));
+    return new FibImpl(
+        rib,
+        routes,
+        route -> {
+          Set<Ip> lookupIps = previousLookupIps.get(route);
+          if (lookupIps == null
+              || lookupIps.stream()
+                  .anyMatch(ip -> !changedPrefixes.longestPrefixMatch(ip).isEmpty())) {
+            return null;
+          }
+          return new Resolution(previousEntries.getOrDefault(route, ImmutableSet.of()), lookupIps);
+        });
+  }
+
   private void initSuppliers() {
     _entries = Suppliers.memoize(this::computeEntries);
+    _matchingIps = Suppliers.memoize(this::computeMatchingIps);
   }
 
   private Set<FibEntry> computeEntries() {
@@ -126,7 +204,13 @@ public final class FibImpl implements Fib {
   @VisibleForTesting
   Set<FibEntry> resolveRoute(
       GenericRib<? extends AbstractRouteDecorator> rib, AbstractRoute route) {
+    return resolve(rib, route)._entries;
+  }
+
+  private Resolution resolve(
+      GenericRib<? extends AbstractRouteDecorator> rib, AbstractRoute route) {
     ResolutionTreeNode resolutionRoot = ResolutionTreeNode.root(route);
+    Builder<Ip> lookupIps = ImmutableSet.builder();
     buildResolutionTree(
         rib,
         route,
@@ -135,10 +219,11 @@ public final class FibImpl implements Fib {
         0,
         Prefix.MAX_PREFIX_LENGTH,
         null,
-        resolutionRoot);
+        resolutionRoot,
+        lookupIps);
     Builder<FibEntry> collector = ImmutableSet.builder();
     collectEntries(resolutionRoot, new Stack<>(), collector);
-    return collector.build();
+    return new Resolution(collector.build(), lookupIps.build());
   }
 
   private void collectEntries(
@@ -167,7 +252,8 @@ public final class FibImpl implements Fib {
   /**
    * Tail-recursive method to build a route resolution tree. Each top-level route is mapped to a
    * number of leaf {@link ResolutionTreeNode}. Leaf nodes must contain non-null {@link
-   * ResolutionTreeNode#_finalNextHopIp}
+   * ResolutionTreeNode#_finalNextHopIp}. Every IP looked up in {@code rib} is added to {@code
+   * lookupIps}.
    */
   private void buildResolutionTree(
       GenericRib<? extends AbstractRouteDecorator> rib,
@@ -177,7 +263,8 @@ public final class FibImpl implements Fib {
       int depth,
       int maxPrefixLength,
       @Nullable AbstractRoute parentRoute,
-      ResolutionTreeNode treeNode) {
+      ResolutionTreeNode treeNode,
+      Builder<Ip> lookupIps) {
     Prefix network = route.getNetwork();
     if (seenNetworks.contains(network)) {
       // Don't enter a resolution loop
@@ -205,7 +292,8 @@ public final class FibImpl implements Fib {
             depth + 1,
             maxPrefixLength - 1,
             null,
-            treeNode);
+            treeNode,
+            lookupIps);
         return;
       }
     }
@@ -234,6 +322,7 @@ public final class FibImpl implements Fib {
         // https://github.com/batfish/batfish/issues/1469
         return;
       }
+      lookupIps.add(nextHopIp);
       Set<? extends AbstractRouteDecorator> nextHopLongestPrefixMatchRoutes =
           rib.longestPrefixMatch(nextHopIp, maxPrefixLength);
 
@@ -255,7 +344,8 @@ public final class FibImpl implements Fib {
             depth + 1,
             maxPrefixLength - 1,
             parentRoute,
-            treeNode);
+            treeNode,
+            lookupIps);
       } else {
         // We have at least one valid longest-prefix match
         for (AbstractRoute nextHopLongestPrefixMatchRoute : forwardingRoutes) {
@@ -267,7 +357,8 @@ public final class FibImpl implements Fib {
               depth + 1,
               Prefix.MAX_PREFIX_LENGTH,
               route,
-              ResolutionTreeNode.withParent(nextHopLongestPrefixMatchRoute, treeNode, null));
+              ResolutionTreeNode.withParent(nextHopLongestPrefixMatchRoute, treeNode, null),
+              lookupIps);
         }
       }
     }
@@ -282,6 +373,10 @@ public final class FibImpl implements Fib {
   @Nonnull
   @Override
   public Map<Prefix, IpSpace> getMatchingIps() {
+    return _matchingIps.get();
+  }
+
+  private Map<Prefix, IpSpace> computeMatchingIps() {
     ImmutableMap.Builder<Prefix, IpSpace> builder = ImmutableMap.builder();
 
     /* Do a fold over the trie. At each node, create the matching Ips for that prefix (adding it
@@ -1,9 +1,10 @@
 package org.batfish.datamodel;
 
+import java.io.Serializable;
 import java.util.Map;
 import javax.annotation.Nonnull;
 
-public interface ForwardingAnalysis {
+public interface ForwardingAnalysis extends Serializable {
   /**
    * Return IP spaces accepted at each interface <br>
    * Mapping: hostname -&gt; vrfName -&gt; ifaceName -&gt; space of IPs accepted by that interface
@@ -24,6 +24,7 @@ import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import net.sf.javabdd.BDD;
 import org.batfish.common.bdd.BDDPacket;
 import org.batfish.common.bdd.IpSpaceToBDD;
@@ -37,6 +38,33 @@ import org.batfish.specifier.LocationInfo;
 /** Implementation of {@link ForwardingAnalysis}. */
 public final class ForwardingAnalysisImpl implements ForwardingAnalysis {
 
+  /** The parts of the analysis that depend only on the {@link Fib} of a single VRF. */
+  private static final class FibAnalysis {
+    private final Fib _fib;
+    private final Map<Prefix, IpSpace> _matchingIps;
+    private final Map<String, Set<AbstractRoute>> _routesWithNextHop;
+    private final Map<AbstractRoute, Map<String, Map<Ip, Set<AbstractRoute>>>> _nextHopInterfaces;
+    private final IpSpace _nullRoutedIps;
+    private final Map<String, IpSpace> _nextVrfIps;
+    private final IpSpace _routableIps;
+
+    private FibAnalysis(Fib fib) {
+      _fib = fib;
+      _matchingIps = fib.getMatchingIps();
+      _routesWithNextHop = computeRoutesWithNextHop(fib);
+      _nextHopInterfaces = computeNextHopInterfaces(fib);
+      _nullRoutedIps = computeNullRoutedIps(fib, _matchingIps);
+      _nextVrfIps = computeNextVrfIps(fib, _matchingIps);
+      _routableIps = computeRoutableIps(fib);
+    }
+  }
+
+  /**
+   * node -&gt; vrf -&gt; parts of the analysis computed from the FIB of that vrf. Only needed to
+   * build a later analysis on this one, so it is not serialized.
+   */
+  @Nullable private final transient Map<String, Map<String, FibAnalysis>> _fibAnalyses;
+
   /** node -&gt; vrf -&gt; interface -&gt; ips accepted by that interface */
   private Map<String, Map<String, Map<String, IpSpace>>> _acceptedIps;
 
@@ -76,6 +104,21 @@ public final class ForwardingAnalysisImpl implements ForwardingAnalysis {
       Map<String, Map<String, Fib>> fibs,
       Topology topology,
       Map<Location, LocationInfo> locationInfo) {
+    this(configurations, fibs, topology, locationInfo, null);
+  }
+
+  /**
+   * Like {@link #ForwardingAnalysisImpl(Map, Map, Topology, Map)}, but reuses the parts of {@code
+   * previous} computed from the FIB of any VRF whose {@link Fib} instance is unchanged. The
+   * analysis of the data plane of one topology iteration can thus build on that of the previous
+   * one, recomputing only the node/VRF maps whose FIB changed.
+   */
+  public ForwardingAnalysisImpl(
+      Map<String, Configuration> configurations,
+      Map<String, Map<String, Fib>> fibs,
+      Topology topology,
+      Map<Location, LocationInfo> locationInfo,
+      @Nullable ForwardingAnalysisImpl previous) {
     try (ActiveSpan span =
         GlobalTracer.get().buildSpan("Construct ForwardingAnalysisImpl").startActive()) {
       assert span != null; // avoid unused warning
@@ -98,15 +141,18 @@ public final class ForwardingAnalysisImpl implements ForwardingAnalysis {
 
       _acceptedIps = computeAcceptedIps(ipOwners);
 
+      _fibAnalyses = computeFibAnalyses(fibs, previous);
+
       // IpSpaces matched by each prefix
       // -- only will have entries for active interfaces if FIB is correct
-      Map<String, Map<String, Map<Prefix, IpSpace>>> matchingIps = computeMatchingIps(fibs);
+      Map<String, Map<String, Map<Prefix, IpSpace>>> matchingIps =
+          fibAnalysisMaps(fibAnalysis -> fibAnalysis._matchingIps);
       // Set of routes that forward out each interface
       Map<String, Map<String, Map<String, Set<AbstractRoute>>>> routesWithNextHop =
-          computeRoutesWithNextHop(fibs);
-      _nullRoutedIps = computeNullRoutedIps(matchingIps, fibs);
-      _nextVrfIpsByNodeVrf = computeNextVrfIpsByNodeVrf(matchingIps, fibs);
-      _routableIps = computeRoutableIps(fibs);
+          fibAnalysisMaps(fibAnalysis -> fibAnalysis._routesWithNextHop);
+      _nullRoutedIps = fibAnalysisMaps(fibAnalysis -> fibAnalysis._nullRoutedIps);
+      _nextVrfIpsByNodeVrf = fibAnalysisMaps(fibAnalysis -> fibAnalysis._nextVrfIps);
+      _routableIps = fibAnalysisMaps(fibAnalysis -> fibAnalysis._routableIps);
 
       /* Compute _arpReplies: for each interface, the set of arp IPs for which that interface will
        * respond.
@@ -144,7 +190,8 @@ public final class ForwardingAnalysisImpl implements ForwardingAnalysis {
          * interfaceRoutes
          */
         Map<String, Map<String, Map<AbstractRoute, Map<String, Map<Ip, Set<AbstractRoute>>>>>>
-            nextHopInterfacesByNodeVrf = computeNextHopInterfacesByNodeVrf(fibs);
+            nextHopInterfacesByNodeVrf =
+                fibAnalysisMaps(fibAnalysis -> fibAnalysis._nextHopInterfaces);
 
         /* node -> vrf -> interface -> set of routes on that vrf that forward out that interface
          * with a next hop ip that gets no arp replies
@@ -287,6 +334,51 @@ public final class ForwardingAnalysisImpl implements ForwardingAnalysis {
     }
   }
 
+  /**
+   * Mapping: node -&gt; vrf -&gt; parts of the analysis computed from the FIB of that vrf. Reuses
+   * those of {@code previous} for unchanged FIBs.
+   */
+  private static Map<String, Map<String, FibAnalysis>> computeFibAnalyses(
+      Map<String, Map<String, Fib>> fibs, @Nullable ForwardingAnalysisImpl previous) {
+    try (ActiveSpan span =
+        GlobalTracer.get().buildSpan("ForwardingAnalysisImpl.computeFibAnalyses").startActive()) {
+      assert span != null; // avoid unused warning
+      Map<String, Map<String, FibAnalysis>> previousFibAnalyses =
+          previous == null || previous._fibAnalyses == null
+              ? ImmutableMap.of()
+              : previous._fibAnalyses;
+      return toImmutableMap(
+          fibs,
+          Entry::getKey, // node
+          nodeEntry -> {
+            Map<String, FibAnalysis> previousNodeFibAnalyses =
+                previousFibAnalyses.getOrDefault(nodeEntry.getKey(), ImmutableMap.of());
+            return toImmutableMap(
+                nodeEntry.getValue(),
+                Entry::getKey, // vrf
+                vrfEntry -> {
+                  FibAnalysis previousFibAnalysis = previousNodeFibAnalyses.get(vrfEntry.getKey());
+                  return previousFibAnalysis != null
+                          && previousFibAnalysis._fib == vrfEntry.getValue()
+                      ? previousFibAnalysis
+                      : new FibAnalysis(vrfEntry.getValue());
+                });
+          });
+    }
+  }
+
+  /** Mapping: node -&gt; vrf -&gt; the given part of the analysis of the FIB of that vrf */
+  private <T> Map<String, Map<String, T>> fibAnalysisMaps(Function<FibAnalysis, T> part) {
+    return toImmutableMap(
+        _fibAnalyses,
+        Entry::getKey, // node
+        nodeEntry ->
+            toImmutableMap(
+                nodeEntry.getValue(),
+                Entry::getKey, // vrf
+                vrfEntry -> part.apply(vrfEntry.getValue())));
+  }
+
   /**
    * Compute the space of IPs accepted by an interface<br>
    * Mapping: hostname -&gt; vrf name -&gt; interface name -&gt; space of IPs
@@ -634,69 +726,20 @@ public final class ForwardingAnalysisImpl implements ForwardingAnalysis {
     }
   }
 
+  /** The destination IPs that {@code fib} null-routes */
   @VisibleForTesting
-  static Map<String, Map<String, IpSpace>> computeNullRoutedIps(
-      Map<String, Map<String, Map<Prefix, IpSpace>>> matchingIps,
-      Map<String, Map<String, Fib>> fibs) {
-    try (ActiveSpan span =
-        GlobalTracer.get().buildSpan("ForwardingAnalysisImpl.computeNullRoutedIps").startActive()) {
-      assert span != null; // avoid unused warning
-      return fibs.entrySet().stream()
-          .collect(
-              ImmutableMap.toImmutableMap(
-                  Entry::getKey /* hostname */,
-                  fibsByHostnameEntry -> {
-                    String hostname = fibsByHostnameEntry.getKey();
-                    return fibsByHostnameEntry.getValue().entrySet().stream()
-                        .collect(
-                            ImmutableMap.toImmutableMap(
-                                Entry::getKey /* vrf */,
-                                fibsByVrfEntry -> {
-                                  String vrf = fibsByVrfEntry.getKey();
-                                  Fib fib = fibsByVrfEntry.getValue();
-                                  Map<Prefix, IpSpace> vrfMatchingIps =
-                                      matchingIps.get(hostname).get(vrf);
-                                  Set<AbstractRoute> nullRoutes =
-                                      fib.allEntries().stream()
-                                          .filter(
-                                              fibEntry ->
-                                                  fibEntry.getAction() instanceof FibNullRoute)
-                                          .map(FibEntry::getTopLevelRoute)
-                                          .collect(ImmutableSet.toImmutableSet());
-                                  return computeRouteMatchConditions(nullRoutes, vrfMatchingIps);
-                                }));
-                  }));
-    }
+  static IpSpace computeNullRoutedIps(Fib fib, Map<Prefix, IpSpace> matchingIps) {
+    Set<AbstractRoute> nullRoutes =
+        fib.allEntries().stream()
+            .filter(fibEntry -> fibEntry.getAction() instanceof FibNullRoute)
+            .map(FibEntry::getTopLevelRoute)
+            .collect(ImmutableSet.toImmutableSet());
+    return computeRouteMatchConditions(nullRoutes, matchingIps);
   }
 
+  /** Mapping: nextVrf -&gt; destination IPs that {@code fib} delegates to nextVrf */
   @VisibleForTesting
-  static Map<String, Map<String, Map<String, IpSpace>>> computeNextVrfIpsByNodeVrf(
-      Map<String, Map<String, Map<Prefix, IpSpace>>> matchingIps,
-      Map<String, Map<String, Fib>> fibs) {
-    try (ActiveSpan span =
-        GlobalTracer.get().buildSpan("ForwardingAnalysisImpl.computeNextVrfIps").startActive()) {
-      assert span != null; // avoid unused warning
-      return fibs.entrySet().stream()
-          .collect(
-              ImmutableMap.toImmutableMap(
-                  Entry::getKey /* hostname */,
-                  fibsByHostnameEntry -> {
-                    String hostname = fibsByHostnameEntry.getKey();
-                    return fibsByHostnameEntry.getValue().entrySet().stream()
-                        .collect(
-                            ImmutableMap.toImmutableMap(
-                                Entry::getKey /* vrf */,
-                                fibsByVrfEntry ->
-                                    computeNextVrfIps(
-                                        fibsByVrfEntry.getValue(), /* fib */
-                                        matchingIps
-                                            .get(hostname)
-                                            .get(fibsByVrfEntry.getKey()) /* matchingIps */)));
-                  }));
-    }
-  }
-
-  private static Map<String, IpSpace> computeNextVrfIps(Fib fib, Map<Prefix, IpSpace> matchingIps) {
+  static Map<String, IpSpace> computeNextVrfIps(Fib fib, Map<Prefix, IpSpace> matchingIps) {
     return fib.allEntries().stream()
         .filter(fibEntry -> fibEntry.getAction() instanceof FibNextVrf)
         .collect(
@@ -713,44 +756,14 @@ public final class ForwardingAnalysisImpl implements ForwardingAnalysis {
                         routesByNextVrfEntry.getValue() /* routes */, matchingIps)));
   }
 
+  /** The destination IPs that {@code fib} can route */
   @VisibleForTesting
-  static Map<String, Map<String, IpSpace>> computeRoutableIps(Map<String, Map<String, Fib>> fibs) {
-    try (ActiveSpan span =
-        GlobalTracer.get().buildSpan("ForwardingAnalysisImpl.computeRoutableIps").startActive()) {
-      assert span != null; // avoid unused warning
-      return toImmutableMap(
-          fibs,
-          Entry::getKey, // node
-          nodeEntry ->
-              toImmutableMap(
-                  nodeEntry.getValue(),
-                  Entry::getKey, // vrf
-                  vrfEntry ->
-                      new IpWildcardSetIpSpace(
-                          ImmutableSortedSet.of(),
-                          vrfEntry.getValue().allEntries().stream()
-                              .map(
-                                  fibEntry ->
-                                      IpWildcard.create(fibEntry.getTopLevelRoute().getNetwork()))
-                              .collect(ImmutableSortedSet.toImmutableSortedSet(natural())))));
-    }
-  }
-
-  @VisibleForTesting
-  static Map<String, Map<String, Map<Prefix, IpSpace>>> computeMatchingIps(
-      Map<String, Map<String, Fib>> fibs) {
-    try (ActiveSpan span =
-        GlobalTracer.get().buildSpan("ForwardingAnalysisImpl.computeMatchingIps").startActive()) {
-      assert span != null; // avoid unused warning
-      return toImmutableMap(
-          fibs,
-          Entry::getKey, // node
-          nodeEntry ->
-              toImmutableMap(
-                  nodeEntry.getValue(),
-                  Entry::getKey, // vrf
-                  vrfEntry -> vrfEntry.getValue().getMatchingIps()));
-    }
+  static IpSpace computeRoutableIps(Fib fib) {
+    return new IpWildcardSetIpSpace(
+        ImmutableSortedSet.of(),
+        fib.allEntries().stream()
+            .map(fibEntry -> IpWildcard.create(fibEntry.getTopLevelRoute().getNetwork()))
+            .collect(ImmutableSortedSet.toImmutableSortedSet(natural())));
   }
 
   @VisibleForTesting
@@ -851,33 +864,15 @@ public final class ForwardingAnalysisImpl implements ForwardingAnalysis {
     }
   }
 
-  /* Mapping: hostname -&gt; vrfname -&gt; interfacename -&gt; set of associated routes (i.e.,
-   * routes that use the interface as outgoing interface */
+  /** Mapping: interfacename -&gt; set of routes that use the interface as outgoing interface */
   @VisibleForTesting
-  static Map<String, Map<String, Map<String, Set<AbstractRoute>>>> computeRoutesWithNextHop(
-      Map<String, Map<String, Fib>> fibs) {
-    try (ActiveSpan span =
-        GlobalTracer.get()
-            .buildSpan("ForwardingAnalysisImpl.computeRoutesWithNextHop")
-            .startActive()) {
-      assert span != null; // avoid unused warning
-      return toImmutableMap(
-          fibs,
-          Entry::getKey,
-          nodeEntry ->
-              toImmutableMap(
-                  nodeEntry.getValue(),
-                  Entry::getKey,
-                  vrfEntry ->
-                      vrfEntry.getValue().allEntries().stream()
-                          .filter(fibEntry -> fibEntry.getAction() instanceof FibForward)
-                          .collect(
-                              Collectors.groupingBy(
-                                  fibEntry ->
-                                      ((FibForward) fibEntry.getAction()).getInterfaceName(),
-                                  Collectors.mapping(
-                                      FibEntry::getTopLevelRoute, Collectors.toSet())))));
-    }
+  static Map<String, Set<AbstractRoute>> computeRoutesWithNextHop(Fib fib) {
+    return fib.allEntries().stream()
+        .filter(fibEntry -> fibEntry.getAction() instanceof FibForward)
+        .collect(
+            Collectors.groupingBy(
+                fibEntry -> ((FibForward) fibEntry.getAction()).getInterfaceName(),
+                Collectors.mapping(FibEntry::getTopLevelRoute, Collectors.toSet())));
   }
 
   private static Map<String, Map<String, Map<String, Set<AbstractRoute>>>>
@@ -1642,29 +1637,6 @@ public final class ForwardingAnalysisImpl implements ForwardingAnalysis {
         });
   }
 
-  /**
-   * Mapping: node -&gt; vrf -&gt; route -&gt; nexthopinterface -&gt; resolved nextHopIp -&gt;
-   * interfaceRoutes
-   */
-  private static Map<
-          String, Map<String, Map<AbstractRoute, Map<String, Map<Ip, Set<AbstractRoute>>>>>>
-      computeNextHopInterfacesByNodeVrf(Map<String, Map<String, Fib>> fibsByNode) {
-    try (ActiveSpan span =
-        GlobalTracer.get()
-            .buildSpan("ForwardingAnalysisImpl.computeNextHopInterfacesByNodeVrf")
-            .startActive()) {
-      assert span != null; // avoid unused warning
-      return toImmutableMap(
-          fibsByNode,
-          Entry::getKey,
-          fibsByNodeEntry ->
-              toImmutableMap(
-                  fibsByNodeEntry.getValue(),
-                  Entry::getKey,
-                  fibsByVrfEntry -> computeNextHopInterfaces(fibsByVrfEntry.getValue())));
-    }
-  }
-
   /** Mapping: route -&gt; nexthopinterface -&gt; resolved nextHopIp -&gt; interfaceRoutes */
   private static Map<AbstractRoute, Map<String, Map<Ip, Set<AbstractRoute>>>>
       computeNextHopInterfaces(Fib fib) {
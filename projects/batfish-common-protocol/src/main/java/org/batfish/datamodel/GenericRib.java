@@ -1,5 +1,6 @@
 package org.batfish.datamodel;
 
+import com.google.common.collect.ImmutableSet;
 import java.io.Serializable;
 import java.util.Set;
 
@@ -21,6 +22,13 @@ public interface GenericRib<R extends AbstractRouteDecorator> extends Serializab
   /** Return set of {@link R typed routes} this RIB contains. */
   Set<R> getTypedRoutes();
 
+  /** Return set of {@link R typed routes} this RIB contains for exactly {@code network}. */
+  default Set<R> getTypedRoutes(Prefix network) {
+    return getTypedRoutes().stream()
+        .filter(route -> route.getNetwork().equals(network))
+        .collect(ImmutableSet.toImmutableSet());
+  }
+
   /**
    * Execute the longest prefix match for a given IP address.
    *
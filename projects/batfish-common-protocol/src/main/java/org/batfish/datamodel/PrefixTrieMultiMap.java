@@ -1,16 +1,12 @@
 package org.batfish.datamodel;
 
-import static org.batfish.datamodel.Prefix.longestCommonPrefix;
+import static com.google.common.base.Preconditions.checkArgument;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.MoreObjects;
-import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
-import com.google.common.collect.ImmutableSet.Builder;
-import com.google.common.graph.Traverser;
 import java.io.Serializable;
 import java.util.Collection;
-import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 import java.util.function.BiConsumer;
@@ -29,10 +25,30 @@ import javax.annotation.ParametersAreNonnullByDefault;
  *
  * <p>Internally, this data structure employs path compression which optimizes look-ups, since
  * branching does not have to be done on each bit of the prefix.
+ *
+ * <p>RIBs and FIBs hold one trie per VRF, so nodes are kept small: each node stores its prefix as
+ * primitive bits and length rather than as a {@link Prefix}, and its elements as a single immutable
+ * set. Look-ups work on the primitive representation and do not allocate; {@link Prefix} objects
+ * are only created when traversing the trie.
  */
 @ParametersAreNonnullByDefault
 public final class PrefixTrieMultiMap<T> implements Serializable {
 
+  /** Returns a mask of the first {@code length} bits of an IP address. */
+  private static long mask(int length) {
+    return length == 0 ? 0L : (0xFFFFFFFFL << (Prefix.MAX_PREFIX_LENGTH - length)) & 0xFFFFFFFFL;
+  }
+
+  /** Returns the bit of {@code bits} at {@code position}, counting from the most significant. */
+  private static boolean getBit(long bits, int position) {
+    return ((bits >>> (Prefix.MAX_PREFIX_LENGTH - 1 - position)) & 1L) != 0;
+  }
+
+  /** Returns whether the prefix {@code bits/length} contains {@code otherBits/otherLength}. */
+  private static boolean contains(long bits, int length, long otherBits, int otherLength) {
+    return length <= otherLength && ((bits ^ otherBits) & mask(length)) == 0;
+  }
+
   /**
    * Combine two nodes into a tree -- a newly created node, and an existing node. The existing node
    * cannot be the parent of the new node.
@@ -43,32 +59,30 @@ public final class PrefixTrieMultiMap<T> implements Serializable {
       return newNode;
     }
 
-    Prefix newPrefix = newNode._prefix;
-    Prefix oldPrefix = oldNode._prefix;
-
-    assert !oldPrefix.containsPrefix(newPrefix);
+    assert !oldNode.contains(newNode._bits, newNode._length);
 
     /* If the newNode's prefix contains the oldNode's prefix, the existing node is a child of
      * the newNode.
      */
-    if (newPrefix.containsPrefix(oldPrefix)) {
-      boolean currentBit = Ip.getBitAtPosition(oldPrefix.getStartIp(), newPrefix.getPrefixLength());
-      if (currentBit) {
-        newNode._right = oldNode;
+    if (newNode.contains(oldNode._bits, oldNode._length)) {
+      if (getBit(oldNode._bits, newNode._length)) {
+        newNode.setRight(oldNode);
       } else {
-        newNode._left = oldNode;
+        newNode.setLeft(oldNode);
       }
       return newNode;
     }
 
     /* Find the least-upper-bound of the two prefixes, i.e. the one for which the newNode branches
-     * one way and the oldNode branches the other.
+     * one way and the oldNode branches the other. Neither prefix contains the other, so they differ
+     * before the end of the shorter one.
      */
-    Prefix lcp = longestCommonPrefix(newPrefix, oldPrefix);
-    Node<T> parent = new Node<>(lcp);
+    int lcpLength =
+        Long.numberOfLeadingZeros(newNode._bits ^ oldNode._bits)
+            - (Long.SIZE - Prefix.MAX_PREFIX_LENGTH);
+    Node<T> parent = new Node<>(newNode._bits & mask(lcpLength), lcpLength);
 
-    boolean newNodeRight = Ip.getBitAtPosition(newPrefix.getStartIp(), lcp.getPrefixLength());
-    if (newNodeRight) {
+    if (getBit(newNode._bits, lcpLength)) {
       parent.setRight(newNode);
       parent.setLeft(oldNode);
     } else {
@@ -104,28 +118,35 @@ public final class PrefixTrieMultiMap<T> implements Serializable {
 
   private static final class Node<T> implements Serializable {
 
-    @Nonnull private final Prefix _prefix;
-    @Nonnull private Set<T> _elements;
+    /** The start IP of the prefix of this node, as a long */
+    private final long _bits;
+
+    /** The length of the prefix of this node */
+    private final int _length;
+
+    @Nonnull private ImmutableSet<T> _elements;
 
     @Nullable private Node<T> _left;
     @Nullable private Node<T> _right;
 
-    Node(Prefix prefix) {
-      this(prefix, ImmutableSet.of());
+    Node(long bits, int length) {
+      this(bits, length, ImmutableSet.of());
     }
 
-    Node(Prefix prefix, Collection<T> elements) {
-      _prefix = prefix;
-      _elements = ImmutableSet.copyOf(elements);
+    Node(long bits, int length, ImmutableSet<T> elements) {
+      _bits = bits;
+      _length = length;
+      _elements = elements;
     }
 
-    private @Nonnull Node<T> createChild(Prefix prefix) {
-      assert _prefix.containsPrefix(prefix);
-      boolean currentBit =
-          Ip.getBitAtPosition(prefix.getStartIp().asLong(), _prefix.getPrefixLength());
+    private boolean contains(long bits, int length) {
+      return PrefixTrieMultiMap.contains(_bits, _length, bits, length);
+    }
 
-      Node<T> node = new Node<>(prefix);
-      if (currentBit) {
+    private @Nonnull Node<T> createChild(long bits, int length) {
+      assert contains(bits, length);
+      Node<T> node = new Node<>(bits, length);
+      if (getBit(bits, _length)) {
         _right = combine(node, _right);
       } else {
         _left = combine(node, _left);
@@ -142,56 +163,48 @@ public final class PrefixTrieMultiMap<T> implements Serializable {
         return false;
       }
       Node<?> that = (Node<?>) o;
-      return Objects.equals(_prefix, that._prefix)
-          && Objects.equals(_elements, that._elements)
+      return _bits == that._bits
+          && _length == that._length
+          && _elements.equals(that._elements)
           && Objects.equals(_left, that._left)
           && Objects.equals(_right, that._right);
     }
 
     /** Find or create a node for a given prefix (must be an exact match) */
     @Nonnull
-    private Node<T> findOrCreateNode(Prefix prefix) {
-      assert _prefix.containsPrefix(prefix);
+    private Node<T> findOrCreateNode(long bits, int length) {
+      assert contains(bits, length);
 
-      Node<T> node = findLongestPrefixMatchNode(prefix);
-      return node._prefix.equals(prefix) ? node : node.createChild(prefix);
+      Node<T> node = findLongestPrefixMatchNode(bits, length);
+      return node._length == length ? node : node.createChild(bits, length);
     }
 
     @Nonnull
     <R> R fold(FoldOperator<T, R> operator) {
       R leftResult = _left == null ? null : _left.fold(operator);
       R rightResult = _right == null ? null : _right.fold(operator);
-      return operator.fold(_prefix, _elements, leftResult, rightResult);
+      return operator.fold(getPrefix(), _elements, leftResult, rightResult);
     }
 
-    /** Returns the list of non-null children for this node */
     @Nonnull
-    List<Node<T>> getChildren() {
-      if (_left == null && _right == null) {
-        return ImmutableList.of();
-      } else if (_left == null) {
-        return ImmutableList.of(_right);
-      } else if (_right == null) {
-        return ImmutableList.of(_left);
-      } else {
-        return ImmutableList.of(_left, _right);
-      }
+    Prefix getPrefix() {
+      return Prefix.create(Ip.create(_bits), _length);
     }
 
     @Override
     public int hashCode() {
-      return Objects.hash(_prefix, _elements, _left, _right);
+      return Objects.hash(_bits, _length, _elements, _left, _right);
     }
 
     /** Returns the node with the longest prefix match for a given prefix. */
     @Nonnull
-    Node<T> findLongestPrefixMatchNode(Prefix prefix) {
-      assert _prefix.containsPrefix(prefix);
+    Node<T> findLongestPrefixMatchNode(long bits, int length) {
+      assert contains(bits, length);
 
       Node<T> node = this;
       while (true) {
         // Choose which child might have a longer match
-        Node<T> child = node.matchingChild(prefix);
+        Node<T> child = node.matchingChild(bits, length);
         if (child == null) {
           return node;
         }
@@ -200,8 +213,8 @@ public final class PrefixTrieMultiMap<T> implements Serializable {
     }
 
     @Nullable
-    Node<T> findLongestPrefixMatchNonEmptyNode(Prefix prefix) {
-      assert _prefix.containsPrefix(prefix);
+    Node<T> findLongestPrefixMatchNonEmptyNode(long bits, int length) {
+      assert contains(bits, length);
 
       Node<T> longestNonEmpty = null;
       Node<T> node = this;
@@ -211,44 +224,52 @@ public final class PrefixTrieMultiMap<T> implements Serializable {
         }
 
         // Choose which child might have a longer match
-        node = node.matchingChild(prefix);
+        node = node.matchingChild(bits, length);
       }
 
       return longestNonEmpty;
     }
 
     @Nullable
-    Node<T> matchingChild(Prefix prefix) {
-      if (_prefix.getPrefixLength() == Prefix.MAX_PREFIX_LENGTH) {
+    Node<T> matchingChild(long bits, int length) {
+      if (_length >= length) {
         return null;
       }
-      Node<T> child =
-          Ip.getBitAtPosition(prefix.getStartIp().asLong(), _prefix.getPrefixLength())
-              ? _right
-              : _left;
-      return child == null || !child._prefix.containsPrefix(prefix) ? null : child;
+      Node<T> child = getBit(bits, _length) ? _right : _left;
+      return child == null || !child.contains(bits, length) ? null : child;
+    }
+
+    /** Post-order traversal of the subtrie rooted at this node. */
+    void traverse(Consumer<Node<T>> consumer) {
+      if (_left != null) {
+        _left.traverse(consumer);
+      }
+      if (_right != null) {
+        _right.traverse(consumer);
+      }
+      consumer.accept(this);
     }
 
     private void setLeft(@Nullable Node<T> left) {
-      assert left == null || legalLeftChildPrefix(_prefix, left._prefix);
+      assert left == null || legalLeftChildPrefix(getPrefix(), left.getPrefix());
       _left = left;
     }
 
     private void setRight(@Nullable Node<T> right) {
-      assert right == null || legalRightChildPrefix(_prefix, right._prefix);
+      assert right == null || legalRightChildPrefix(getPrefix(), right.getPrefix());
       _right = right;
     }
 
     @Override
     public String toString() {
-      return MoreObjects.toStringHelper(this).add("prefix", _prefix).toString();
+      return MoreObjects.toStringHelper(this).add("prefix", getPrefix()).toString();
     }
   }
 
   private @Nullable Node<T> _root;
 
   public PrefixTrieMultiMap(Prefix prefix) {
-    _root = new Node<T>(prefix);
+    _root = new Node<T>(prefix.getStartIp().asLong(), prefix.getPrefixLength());
   }
 
   public PrefixTrieMultiMap() {
@@ -260,7 +281,7 @@ public final class PrefixTrieMultiMap<T> implements Serializable {
    * The traversal may not mutate the entries (the values are immutable sets).
    */
   public void traverseEntries(BiConsumer<Prefix, Set<T>> consumer) {
-    traverseNodes(node -> consumer.accept(node._prefix, ImmutableSet.copyOf(node._elements)));
+    traverseNodes(node -> consumer.accept(node.getPrefix(), node._elements));
   }
 
   /**
@@ -279,12 +300,12 @@ public final class PrefixTrieMultiMap<T> implements Serializable {
     if (_root == null) {
       return;
     }
-    Traverser.<Node<T>>forTree(Node::getChildren).depthFirstPostOrder(_root).forEach(consumer);
+    _root.traverse(consumer);
   }
 
-  private @Nullable Node<T> exactMatchNode(Prefix p) {
-    Node<T> node = longestMatchNode(p);
-    return node == null || !node._prefix.equals(p) ? null : node;
+  private @Nullable Node<T> exactMatchNode(long bits, int length) {
+    Node<T> node = longestMatchNode(bits, length);
+    return node == null || node._length != length ? null : node;
   }
 
   @Override
@@ -307,14 +328,14 @@ public final class PrefixTrieMultiMap<T> implements Serializable {
    */
   @Nonnull
   public Set<T> get(Prefix p) {
-    Node<T> node = exactMatchNode(p);
-    return node == null ? ImmutableSet.of() : ImmutableSet.copyOf(node._elements);
+    Node<T> node = exactMatchNode(p.getStartIp().asLong(), p.getPrefixLength());
+    return node == null ? ImmutableSet.of() : node._elements;
   }
 
   /** @return all elements in the trie. */
   @Nonnull
   public Set<T> getAllElements() {
-    Builder<T> b = ImmutableSet.builder();
+    ImmutableSet.Builder<T> b = ImmutableSet.builder();
     traverseNodes(node -> b.addAll(node._elements));
     return b.build();
   }
@@ -324,16 +345,16 @@ public final class PrefixTrieMultiMap<T> implements Serializable {
     return Objects.hashCode(_root);
   }
 
-  private @Nullable Node<T> longestMatchNode(Prefix p) {
-    return _root == null || !_root._prefix.containsPrefix(p)
+  private @Nullable Node<T> longestMatchNode(long bits, int length) {
+    return _root == null || !_root.contains(bits, length)
         ? null
-        : _root.findLongestPrefixMatchNode(p);
+        : _root.findLongestPrefixMatchNode(bits, length);
   }
 
-  private @Nullable Node<T> longestMatchNonEmptyNode(Prefix p) {
-    return _root == null || !_root._prefix.containsPrefix(p)
+  private @Nullable Node<T> longestMatchNonEmptyNode(long bits, int length) {
+    return _root == null || !_root.contains(bits, length)
         ? null
-        : _root.findLongestPrefixMatchNonEmptyNode(p);
+        : _root.findLongestPrefixMatchNonEmptyNode(bits, length);
   }
 
   /** Find the elements associated with the longest matching prefix of a given IP address. */
@@ -348,9 +369,14 @@ public final class PrefixTrieMultiMap<T> implements Serializable {
    */
   @Nonnull
   public Set<T> longestPrefixMatch(Ip address, int maxPrefixLength) {
-    Node<T> node = longestMatchNonEmptyNode(Prefix.create(address, maxPrefixLength));
+    checkArgument(
+        maxPrefixLength >= 0 && maxPrefixLength <= Prefix.MAX_PREFIX_LENGTH,
+        "Invalid prefix length %s",
+        maxPrefixLength);
+    Node<T> node =
+        longestMatchNonEmptyNode(address.asLong() & mask(maxPrefixLength), maxPrefixLength);
     assert node == null || !node._elements.isEmpty();
-    return node == null ? ImmutableSet.of() : ImmutableSet.copyOf(node._elements);
+    return node == null ? ImmutableSet.of() : node._elements;
   }
 
   /**
@@ -359,7 +385,21 @@ public final class PrefixTrieMultiMap<T> implements Serializable {
    * @return whether the multimap was modified.
    */
   public boolean put(Prefix p, T e) {
-    return putAll(p, ImmutableList.of(e));
+    long bits = p.getStartIp().asLong();
+    int length = p.getPrefixLength();
+    if (_root == null || !_root.contains(bits, length)) {
+      _root = combine(new Node<>(bits, length, ImmutableSet.of(e)), _root);
+      return true;
+    }
+    Node<T> node = _root.findOrCreateNode(bits, length);
+    if (node._elements.contains(e)) {
+      return false;
+    }
+    node._elements =
+        node._elements.isEmpty()
+            ? ImmutableSet.of(e)
+            : ImmutableSet.<T>builder().addAll(node._elements).add(e).build();
+    return true;
   }
 
   /**
@@ -368,15 +408,20 @@ public final class PrefixTrieMultiMap<T> implements Serializable {
    * @return whether the multimap was modified.
    */
   public boolean putAll(Prefix p, Collection<T> elements) {
-    if (_root == null || !_root._prefix.containsPrefix(p)) {
-      _root = combine(new Node<T>(p, elements), _root);
+    long bits = p.getStartIp().asLong();
+    int length = p.getPrefixLength();
+    if (_root == null || !_root.contains(bits, length)) {
+      _root = combine(new Node<>(bits, length, ImmutableSet.copyOf(elements)), _root);
       return true;
     }
-    Node<T> node = _root.findOrCreateNode(p);
+    Node<T> node = _root.findOrCreateNode(bits, length);
     if (node._elements.containsAll(elements)) {
       return false;
     }
-    node._elements = ImmutableSet.<T>builder().addAll(node._elements).addAll(elements).build();
+    node._elements =
+        node._elements.isEmpty()
+            ? ImmutableSet.copyOf(elements)
+            : ImmutableSet.<T>builder().addAll(node._elements).addAll(elements).build();
     return true;
   }
 
@@ -386,7 +431,7 @@ public final class PrefixTrieMultiMap<T> implements Serializable {
    * @return whether the multimap was modified.
    */
   public boolean remove(Prefix p, T e) {
-    Node<T> node = exactMatchNode(p);
+    Node<T> node = exactMatchNode(p.getStartIp().asLong(), p.getPrefixLength());
     if (node == null || !node._elements.contains(e)) {
       return false;
     }
@@ -407,7 +452,7 @@ public final class PrefixTrieMultiMap<T> implements Serializable {
    * @return whether the multimap was modified
    */
   public boolean replaceAll(Prefix p, T e) {
-    Node<T> node = _root == null || !_root._prefix.containsPrefix(p) ? null : exactMatchNode(p);
+    Node<T> node = exactMatchNode(p.getStartIp().asLong(), p.getPrefixLength());
     if (node == null) {
       return put(p, e);
     }
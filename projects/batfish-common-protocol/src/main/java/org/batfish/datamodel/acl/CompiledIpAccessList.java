@@ -0,0 +1,395 @@
+package org.batfish.datamodel.acl;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.primitives.Ints;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+import org.batfish.datamodel.AclIpSpace;
+import org.batfish.datamodel.AclIpSpaceLine;
+import org.batfish.datamodel.AclLine;
+import org.batfish.datamodel.EmptyIpSpace;
+import org.batfish.datamodel.ExprAclLine;
+import org.batfish.datamodel.FilterResult;
+import org.batfish.datamodel.Flow;
+import org.batfish.datamodel.HeaderSpace;
+import org.batfish.datamodel.Ip;
+import org.batfish.datamodel.IpAccessList;
+import org.batfish.datamodel.IpIpSpace;
+import org.batfish.datamodel.IpProtocol;
+import org.batfish.datamodel.IpSpace;
+import org.batfish.datamodel.IpSpaceReference;
+import org.batfish.datamodel.IpWildcard;
+import org.batfish.datamodel.IpWildcardIpSpace;
+import org.batfish.datamodel.IpWildcardSetIpSpace;
+import org.batfish.datamodel.LineAction;
+import org.batfish.datamodel.Prefix;
+import org.batfish.datamodel.PrefixIpSpace;
+import org.batfish.datamodel.UniverseIpSpace;
+import org.batfish.datamodel.visitors.GenericIpSpaceVisitor;
+
+/**
+ * An {@link IpAccessList} compiled for the concrete evaluation of many {@link Flow flows}.
+ *
+ * <p>Compilation indexes the lines of the ACL by the destination IPs, source IPs and IP protocols
+ * each line can possibly match. Filtering a flow intersects the lines of the indexes matching the
+ * flow's header, and evaluates only those candidate lines, in order, with an {@link
+ * AclLineEvaluator}. Lines whose match condition cannot be indexed (e.g. references to other ACLs
+ * or source interfaces) are candidates for every flow, so {@link #filter} returns the same result
+ * as {@link IpAccessList#filter}.
+ */
+@ParametersAreNonnullByDefault
+public final class CompiledIpAccessList {
+
+  // Compiled ACLs live as long as the IpAccessList they were compiled from, i.e. its snapshot.
+  private static final Cache<IpAccessList, CompiledIpAccessList> CACHE =
+      CacheBuilder.newBuilder().weakKeys().build();
+
+  /**
+   * Returns {@code acl} compiled against {@code namedIpSpaces}, the named {@link IpSpace IpSpaces}
+   * of its owner. The result is cached for the lifetime of {@code acl}.
+   */
+  public static @Nonnull CompiledIpAccessList compile(
+      IpAccessList acl, Map<String, IpSpace> namedIpSpaces) {
+    CompiledIpAccessList compiled = CACHE.getIfPresent(acl);
+    if (compiled == null || compiled._namedIpSpaces != namedIpSpaces) {
+      compiled = new CompiledIpAccessList(acl.getLines(), namedIpSpaces);
+      CACHE.put(acl, compiled);
+    }
+    return compiled;
+  }
+
+  private final @Nonnull List<AclLine> _lines;
+  private final @Nonnull Map<String, IpSpace> _namedIpSpaces;
+  private final @Nonnull LineIndex<Long> _dstIps;
+  private final @Nonnull int[] _dstIpPrefixLengths;
+  private final @Nonnull LineIndex<Long> _srcIps;
+  private final @Nonnull int[] _srcIpPrefixLengths;
+  private final @Nonnull LineIndex<IpProtocol> _ipProtocols;
+
+  private CompiledIpAccessList(List<AclLine> lines, Map<String, IpSpace> namedIpSpaces) {
+    _lines = lines;
+    _namedIpSpaces = namedIpSpaces;
+    _dstIps = new LineIndex<>(lines, ipConstraint(HeaderSpace::getDstIps, namedIpSpaces));
+    _dstIpPrefixLengths = prefixLengths(_dstIps);
+    _srcIps = new LineIndex<>(lines, ipConstraint(HeaderSpace::getSrcIps, namedIpSpaces));
+    _srcIpPrefixLengths = prefixLengths(_srcIps);
+    _ipProtocols =
+        new LineIndex<>(
+            lines,
+            headerSpace ->
+                headerSpace.getIpProtocols().isEmpty() ? null : headerSpace.getIpProtocols());
+  }
+
+  /**
+   * Returns the result of filtering {@code flow}, entering the device on {@code srcInterface} (or
+   * originating from it if {@code null}). {@code availableAcls} are the ACLs of the owner of the
+   * compiled ACL, which its lines may refer to.
+   */
+  public @Nonnull FilterResult filter(
+      Flow flow, @Nullable String srcInterface, Map<String, IpAccessList> availableAcls) {
+    BitSet candidates = candidateLines(flow);
+    AclLineEvaluator lineEvaluator =
+        new AclLineEvaluator(flow, srcInterface, availableAcls, _namedIpSpaces);
+    for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+      LineAction action = lineEvaluator.visit(_lines.get(i));
+      if (action != null) {
+        return new FilterResult(i, action);
+      }
+    }
+    return new FilterResult(null, LineAction.DENY);
+  }
+
+  /** Returns the indices of the lines that may match {@code flow}. */
+  @VisibleForTesting
+  @Nonnull
+  BitSet candidateLines(Flow flow) {
+    BitSet candidates = _dstIps.candidates(ipKeys(flow.getDstIp(), _dstIpPrefixLengths));
+    candidates.and(_srcIps.candidates(ipKeys(flow.getSrcIp(), _srcIpPrefixLengths)));
+    candidates.and(_ipProtocols.candidates(ImmutableSet.of(flow.getIpProtocol())));
+    return candidates;
+  }
+
+  /**
+   * The lines of an ACL indexed by the values of one header field they can match. Lines that do not
+   * constrain the field are candidates for every value.
+   */
+  private static final class LineIndex<K> {
+    private final @Nonnull BitSet _unconstrained;
+    private final @Nonnull Map<K, int[]> _lines;
+
+    /**
+     * {@code constraint} returns the values a {@link HeaderSpace} constrains the field to, or
+     * {@code null} if it does not constrain the field.
+     */
+    LineIndex(List<AclLine> lines, Function<HeaderSpace, Set<K>> constraint) {
+      _unconstrained = new BitSet(lines.size());
+      Map<K, List<Integer>> linesByValue = new HashMap<>();
+      HeaderSpaceConstraint<K> lineConstraint = new HeaderSpaceConstraint<>(constraint);
+      for (int i = 0; i < lines.size(); i++) {
+        AclLine line = lines.get(i);
+        Set<K> values =
+            line instanceof ExprAclLine
+                ? lineConstraint.visit(((ExprAclLine) line).getMatchCondition())
+                : null;
+        if (values == null) {
+          _unconstrained.set(i);
+          continue;
+        }
+        for (K value : values) {
+          linesByValue.computeIfAbsent(value, k -> new ArrayList<>()).add(i);
+        }
+      }
+      ImmutableMap.Builder<K, int[]> builder = ImmutableMap.builder();
+      linesByValue.forEach((value, indices) -> builder.put(value, Ints.toArray(indices)));
+      _lines = builder.build();
+    }
+
+    /** Returns the lines that may match a flow whose field matches any of {@code keys}. */
+    @Nonnull
+    BitSet candidates(Iterable<K> keys) {
+      BitSet candidates = (BitSet) _unconstrained.clone();
+      for (K key : keys) {
+        int[] lines = _lines.get(key);
+        if (lines != null) {
+          for (int line : lines) {
+            candidates.set(line);
+          }
+        }
+      }
+      return candidates;
+    }
+  }
+
+  /** Returns the distinct prefix lengths of the keys of an index of IP constraints. */
+  private static @Nonnull int[] prefixLengths(LineIndex<Long> index) {
+    return index._lines.keySet().stream()
+        .mapToInt(key -> (int) (key >>> Integer.SIZE))
+        .distinct()
+        .sorted()
+        .toArray();
+  }
+
+  /** Returns the key of {@code prefix} in an index of IP constraints. */
+  private static long ipKey(Prefix prefix) {
+    return ipKey(prefix.getStartIp().asLong(), prefix.getPrefixLength());
+  }
+
+  private static long ipKey(long networkAddress, int prefixLength) {
+    return ((long) prefixLength << Integer.SIZE) | networkAddress;
+  }
+
+  /**
+   * Returns the keys of the indexed prefixes of lengths {@code prefixLengths} containing {@code
+   * ip}.
+   */
+  private static @Nonnull List<Long> ipKeys(Ip ip, int[] prefixLengths) {
+    long address = ip.asLong();
+    List<Long> keys = new ArrayList<>(prefixLengths.length);
+    for (int prefixLength : prefixLengths) {
+      long mask =
+          prefixLength == 0 ? 0L : (0xFFFFFFFFL << (Prefix.MAX_PREFIX_LENGTH - prefixLength));
+      keys.add(ipKey(address & mask & 0xFFFFFFFFL, prefixLength));
+    }
+    return keys;
+  }
+
+  private static @Nonnull Function<HeaderSpace, Set<Long>> ipConstraint(
+      Function<HeaderSpace, IpSpace> field, Map<String, IpSpace> namedIpSpaces) {
+    return headerSpace -> {
+      IpSpace ipSpace = field.apply(headerSpace);
+      if (ipSpace == null) {
+        return null;
+      }
+      Set<Prefix> prefixes = new IpSpacePrefixes(namedIpSpaces).visit(ipSpace);
+      if (prefixes == null) {
+        return null;
+      }
+      return prefixes.stream()
+          .map(CompiledIpAccessList::ipKey)
+          .collect(ImmutableSet.toImmutableSet());
+    };
+  }
+
+  /**
+   * Over-approximates the values of one header field an {@link AclLineMatchExpr} can match, or
+   * returns {@code null} if the field is unconstrained.
+   */
+  private static final class HeaderSpaceConstraint<T>
+      implements GenericAclLineMatchExprVisitor<Set<T>> {
+    private final @Nonnull Function<HeaderSpace, Set<T>> _constraint;
+
+    HeaderSpaceConstraint(Function<HeaderSpace, Set<T>> constraint) {
+      _constraint = constraint;
+    }
+
+    @Override
+    public @Nullable Set<T> visitAndMatchExpr(AndMatchExpr andMatchExpr) {
+      // any conjunct's constraint holds for the conjunction; keep the tightest
+      Set<T> tightest = null;
+      for (AclLineMatchExpr conjunct : andMatchExpr.getConjuncts()) {
+        Set<T> values = visit(conjunct);
+        if (values != null && (tightest == null || values.size() < tightest.size())) {
+          tightest = values;
+        }
+      }
+      return tightest;
+    }
+
+    @Override
+    public @Nullable Set<T> visitDeniedByAcl(DeniedByAcl deniedByAcl) {
+      return null;
+    }
+
+    @Override
+    public @Nullable Set<T> visitFalseExpr(FalseExpr falseExpr) {
+      return ImmutableSet.of();
+    }
+
+    @Override
+    public @Nullable Set<T> visitMatchHeaderSpace(MatchHeaderSpace matchHeaderSpace) {
+      HeaderSpace headerSpace = matchHeaderSpace.getHeaderspace();
+      return headerSpace.getNegate() ? null : _constraint.apply(headerSpace);
+    }
+
+    @Override
+    public @Nullable Set<T> visitMatchSrcInterface(MatchSrcInterface matchSrcInterface) {
+      return null;
+    }
+
+    @Override
+    public @Nullable Set<T> visitNotMatchExpr(NotMatchExpr notMatchExpr) {
+      return null;
+    }
+
+    @Override
+    public @Nullable Set<T> visitOriginatingFromDevice(
+        OriginatingFromDevice originatingFromDevice) {
+      return null;
+    }
+
+    @Override
+    public @Nullable Set<T> visitOrMatchExpr(OrMatchExpr orMatchExpr) {
+      Set<T> union = new HashSet<>();
+      for (AclLineMatchExpr disjunct : orMatchExpr.getDisjuncts()) {
+        Set<T> values = visit(disjunct);
+        if (values == null) {
+          return null;
+        }
+        union.addAll(values);
+      }
+      return union;
+    }
+
+    @Override
+    public @Nullable Set<T> visitPermittedByAcl(PermittedByAcl permittedByAcl) {
+      return null;
+    }
+
+    @Override
+    public @Nullable Set<T> visitTrueExpr(TrueExpr trueExpr) {
+      return null;
+    }
+  }
+
+  /**
+   * Over-approximates an {@link IpSpace} as a set of prefixes, or returns {@code null} if it has no
+   * such representation.
+   */
+  private static final class IpSpacePrefixes implements GenericIpSpaceVisitor<Set<Prefix>> {
+    private final @Nonnull Map<String, IpSpace> _namedIpSpaces;
+    private final @Nonnull Set<String> _visitedReferences = new HashSet<>();
+
+    IpSpacePrefixes(Map<String, IpSpace> namedIpSpaces) {
+      _namedIpSpaces = namedIpSpaces;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public Set<Prefix> castToGenericIpSpaceVisitorReturnType(Object o) {
+      return (Set<Prefix>) o;
+    }
+
+    @Override
+    public @Nullable Set<Prefix> visitAclIpSpace(AclIpSpace aclIpSpace) {
+      // denied lines only remove IPs, so the permitted lines cover the whole space
+      ImmutableSet.Builder<Prefix> prefixes = ImmutableSet.builder();
+      for (AclIpSpaceLine line : aclIpSpace.getLines()) {
+        if (line.getAction() != LineAction.PERMIT) {
+          continue;
+        }
+        Set<Prefix> linePrefixes = visit(line.getIpSpace());
+        if (linePrefixes == null) {
+          return null;
+        }
+        prefixes.addAll(linePrefixes);
+      }
+      return prefixes.build();
+    }
+
+    @Override
+    public @Nullable Set<Prefix> visitEmptyIpSpace(EmptyIpSpace emptyIpSpace) {
+      return ImmutableSet.of();
+    }
+
+    @Override
+    public @Nullable Set<Prefix> visitIpIpSpace(IpIpSpace ipIpSpace) {
+      return ImmutableSet.of(ipIpSpace.getIp().toPrefix());
+    }
+
+    @Override
+    public @Nullable Set<Prefix> visitIpSpaceReference(IpSpaceReference ipSpaceReference) {
+      String name = ipSpaceReference.getName();
+      IpSpace ipSpace = _namedIpSpaces.get(name);
+      if (ipSpace == null) {
+        // undefined references contain no IPs
+        return ImmutableSet.of();
+      }
+      if (!_visitedReferences.add(name)) {
+        return null;
+      }
+      Set<Prefix> prefixes = visit(ipSpace);
+      _visitedReferences.remove(name);
+      return prefixes;
+    }
+
+    @Override
+    public @Nullable Set<Prefix> visitIpWildcardIpSpace(IpWildcardIpSpace ipWildcardIpSpace) {
+      IpWildcard wildcard = ipWildcardIpSpace.getIpWildcard();
+      return wildcard.isPrefix() ? ImmutableSet.of(wildcard.toPrefix()) : null;
+    }
+
+    @Override
+    public @Nullable Set<Prefix> visitIpWildcardSetIpSpace(
+        IpWildcardSetIpSpace ipWildcardSetIpSpace) {
+      if (!ipWildcardSetIpSpace.getWhitelist().stream().allMatch(IpWildcard::isPrefix)) {
+        return null;
+      }
+      return ipWildcardSetIpSpace.getWhitelist().stream()
+          .map(IpWildcard::toPrefix)
+          .collect(ImmutableSet.toImmutableSet());
+    }
+
+    @Override
+    public @Nullable Set<Prefix> visitPrefixIpSpace(PrefixIpSpace prefixIpSpace) {
+      return ImmutableSet.of(prefixIpSpace.getPrefix());
+    }
+
+    @Override
+    public @Nullable Set<Prefix> visitUniverseIpSpace(UniverseIpSpace universeIpSpace) {
+      return null;
+    }
+  }
+}
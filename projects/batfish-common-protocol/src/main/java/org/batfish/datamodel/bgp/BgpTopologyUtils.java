@@ -4,7 +4,6 @@ import static com.google.common.base.Preconditions.checkArgument;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.MoreObjects;
-import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
 import com.google.common.graph.MutableValueGraph;
@@ -19,6 +18,7 @@ import java.util.Objects;
 import java.util.Set;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import org.batfish.common.plugin.BidirectionalTraceroutes;
 import org.batfish.common.plugin.TracerouteEngine;
 import org.batfish.common.topology.IpOwners;
 import org.batfish.common.topology.Layer2Topology;
@@ -44,7 +44,6 @@ import org.batfish.datamodel.Vrf;
 import org.batfish.datamodel.collections.NodeInterfacePair;
 import org.batfish.datamodel.flow.Hop;
 import org.batfish.datamodel.flow.Trace;
-import org.batfish.datamodel.flow.TraceAndReverseFlow;
 
 /** Utility functions for computing BGP topology */
 public final class BgpTopologyUtils {
@@ -150,6 +149,17 @@ public final class BgpTopologyUtils {
         }
       }
 
+      // Trace the session initiation flows of all active peers at once
+      BidirectionalTraceroutes traceroutes = null;
+      if (checkReachability) {
+        assert tracerouteEngine != null;
+        traceroutes =
+            BidirectionalTraceroutes.compute(
+                computeSessionInitiationFlows(graph, networkConfigurations, ipVrfOwners),
+                true,
+                tracerouteEngine);
+      }
+
       // Second pass: add edges to the graph. Note, these are directed edges.
       for (BgpPeerConfigId neighborId : graph.nodes()) {
         switch (neighborId.getType()) {
@@ -157,13 +167,7 @@ public final class BgpTopologyUtils {
             // Passive end of the peering cannot initiate a connection
             continue;
           case ACTIVE:
-            addActivePeerEdges(
-                neighborId,
-                graph,
-                networkConfigurations,
-                ipVrfOwners,
-                checkReachability,
-                tracerouteEngine);
+            addActivePeerEdges(neighborId, graph, networkConfigurations, ipVrfOwners, traceroutes);
             break;
           case UNNUMBERED:
             // Can't infer BGP unnumbered connectivity without layer 2 topology
@@ -180,19 +184,56 @@ public final class BgpTopologyUtils {
     }
   }
 
+  /**
+   * Returns the flows that active peers of {@code graph} send to initiate sessions, for the peers
+   * that have at least one candidate listener.
+   */
+  private static Set<Flow> computeSessionInitiationFlows(
+      MutableValueGraph<BgpPeerConfigId, BgpSessionProperties> graph,
+      NetworkConfigurations nc,
+      Map<Ip, Map<String, Set<String>>> ipOwners) {
+    ImmutableSet.Builder<Flow> flows = ImmutableSet.builder();
+    for (BgpPeerConfigId neighborId : graph.nodes()) {
+      if (neighborId.getType() != BgpPeerConfigType.ACTIVE) {
+        continue;
+      }
+      BgpActivePeerConfig neighbor = nc.getBgpPointToPointPeerConfig(neighborId);
+      if (!canInitiateSessions(neighbor)) {
+        continue;
+      }
+      Map<String, Set<String>> possibleVrfs = ipOwners.get(neighbor.getPeerAddress());
+      if (possibleVrfs != null
+          && graph.nodes().stream()
+              .anyMatch(
+                  candidateId ->
+                      bgpCandidatePassesSanityChecks(neighbor, candidateId, possibleVrfs, nc))) {
+        flows.add(sessionInitiationFlow(neighborId, neighbor));
+      }
+    }
+    return flows.build();
+  }
+
+  /** Whether {@code neighbor} is configured well enough to initiate a session */
+  private static boolean canInitiateSessions(@Nullable BgpActivePeerConfig neighbor) {
+    return neighbor != null
+        && neighbor.getLocalIp() != null
+        && neighbor.getLocalAs() != null
+        && neighbor.getPeerAddress() != null
+        && !neighbor.getRemoteAsns().isEmpty();
+  }
+
+  /**
+   * Adds the edges from active peer {@code neighborId} to its candidate listeners. If {@code
+   * traceroutes} is not null, only reachable listeners are kept.
+   */
   private static void addActivePeerEdges(
       BgpPeerConfigId neighborId,
       MutableValueGraph<BgpPeerConfigId, BgpSessionProperties> graph,
       NetworkConfigurations nc,
       Map<Ip, Map<String, Set<String>>> ipOwners,
-      boolean checkReachability,
-      TracerouteEngine tracerouteEngine) {
+      @Nullable BidirectionalTraceroutes traceroutes) {
     BgpActivePeerConfig neighbor = nc.getBgpPointToPointPeerConfig(neighborId);
-    if (neighbor == null
-        || neighbor.getLocalIp() == null
-        || neighbor.getLocalAs() == null
-        || neighbor.getPeerAddress() == null
-        || neighbor.getRemoteAsns().isEmpty()) {
+    if (!canInitiateSessions(neighbor)) {
       return;
     }
     // Find nodes that own the neighbor's peer address
@@ -211,9 +252,8 @@ public final class BgpTopologyUtils {
                     // Ensure candidate has compatible local/remote IP, AS, & hostname
                     && bgpCandidatePassesSanityChecks(neighbor, candidateId, possibleVrfs, nc)
                     // If checking reachability, ensure candidate is reachable
-                    && (!checkReachability
-                        || isReachableBgpNeighbor(
-                            neighborId, candidateId, neighbor, tracerouteEngine)))
+                    && (traceroutes == null
+                        || isReachableBgpNeighbor(neighborId, candidateId, neighbor, traceroutes)))
         .forEach(remoteId -> addEdges(neighbor, neighborId, remoteId, graph, nc));
   }
 
@@ -400,75 +440,77 @@ public final class BgpTopologyUtils {
       @Nonnull BgpPeerConfigId listenerId,
       @Nonnull BgpActivePeerConfig initiator,
       @Nonnull TracerouteEngine tracerouteEngine) {
+    return isReachableBgpNeighbor(
+        initiatorId,
+        listenerId,
+        initiator,
+        BidirectionalTraceroutes.compute(
+            ImmutableSet.of(sessionInitiationFlow(initiatorId, initiator)),
+            true,
+            tracerouteEngine));
+  }
+
+  /**
+   * Like {@link #isReachableBgpNeighbor(BgpPeerConfigId, BgpPeerConfigId, BgpActivePeerConfig,
+   * TracerouteEngine)}, but looks up the traces in {@code traceroutes}, which must include the
+   * {@link #sessionInitiationFlow session initiation flow} of {@code initiator}.
+   */
+  private static boolean isReachableBgpNeighbor(
+      BgpPeerConfigId initiatorId,
+      BgpPeerConfigId listenerId,
+      BgpActivePeerConfig initiator,
+      BidirectionalTraceroutes traceroutes) {
     // we do a bidirectional traceroute only from the initiator to the listener since the other
     // direction will be checked once we pick up the listener as the source. This is consistent with
     // the directional nature of BGP graph
     assert initiatorId.getType() == BgpPeerConfigType.ACTIVE;
     return canInitiateBgpSession(
+        sessionInitiationFlow(initiatorId, initiator),
         initiatorId.getHostname(),
-        initiatorId.getVrfName(),
-        initiator.getLocalIp(),
-        initiator.getPeerAddress(),
         listenerId.getHostname(),
         listenerId.getVrfName(),
         BgpSessionProperties.getSessionType(initiator) == SessionType.EBGP_SINGLEHOP,
-        tracerouteEngine);
+        traceroutes);
+  }
+
+  /**
+   * The TCP SYN that {@code initiator} sends to its peer address to initiate a session. Assumes
+   * {@code initiator}'s local IP and peer address are nonnull.
+   */
+  private static @Nonnull Flow sessionInitiationFlow(
+      BgpPeerConfigId initiatorId, BgpActivePeerConfig initiator) {
+    return Flow.builder()
+        .setIpProtocol(IpProtocol.TCP)
+        .setTcpFlagsSyn(1)
+        .setIngressNode(initiatorId.getHostname())
+        .setIngressVrf(initiatorId.getVrfName())
+        .setSrcIp(initiator.getLocalIp())
+        .setDstIp(initiator.getPeerAddress())
+        .setSrcPort(NamedPort.EPHEMERAL_LOWEST.number())
+        .setDstPort(NamedPort.BGP.number())
+        .build();
   }
 
   private static boolean canInitiateBgpSession(
+      @Nonnull Flow flowFromSrc,
       @Nonnull String initiatorNode,
-      @Nonnull String initiatorVrf,
-      @Nonnull Ip initiatorIp,
-      @Nonnull Ip listenerIp,
       @Nonnull String listenerNode,
       @Nonnull String listenerVrf,
       boolean bgpSingleHop,
-      @Nonnull TracerouteEngine tracerouteEngine) {
-
-    Flow flowFromSrc =
-        Flow.builder()
-            .setIpProtocol(IpProtocol.TCP)
-            .setTcpFlagsSyn(1)
-            .setIngressNode(initiatorNode)
-            .setIngressVrf(initiatorVrf)
-            .setSrcIp(initiatorIp)
-            .setDstIp(listenerIp)
-            .setSrcPort(NamedPort.EPHEMERAL_LOWEST.number())
-            .setDstPort(NamedPort.BGP.number())
-            .build();
-
-    List<TraceAndReverseFlow> forwardTracesAndReverseFlows =
-        tracerouteEngine
-            .computeTracesAndReverseFlows(ImmutableSet.of(flowFromSrc), false)
-            .get(flowFromSrc);
-
-    List<TraceAndReverseFlow> reverseTraces =
-        forwardTracesAndReverseFlows.stream()
-            .filter(
-                traceAndReverseFlow -> {
-                  Trace forwardTrace = traceAndReverseFlow.getTrace();
-                  return forwardTrace.getDisposition() == FlowDisposition.ACCEPTED
-                      && (!bgpSingleHop || forwardTrace.getHops().size() <= 2);
-                })
-            .filter(
-                traceAndReverseFlow ->
-                    traceAndReverseFlow.getReverseFlow() != null
-                        && traceAndReverseFlow
-                            .getReverseFlow()
-                            .getIngressNode()
-                            .equals(listenerNode)
-                        && traceAndReverseFlow.getReverseFlow().getIngressVrf().equals(listenerVrf))
-            .flatMap(
-                traceAndReverseFlow ->
-                    tracerouteEngine
-                        .computeTracesAndReverseFlows(
-                            ImmutableSet.of(traceAndReverseFlow.getReverseFlow()),
-                            traceAndReverseFlow.getNewFirewallSessions(),
-                            false)
-                        .get(traceAndReverseFlow.getReverseFlow()).stream())
-            .collect(ImmutableList.toImmutableList());
-
-    return reverseTraces.stream()
+      @Nonnull BidirectionalTraceroutes traceroutes) {
+    return traceroutes.getForwardTraces(flowFromSrc).stream()
+        .filter(
+            traceAndReverseFlow -> {
+              Trace forwardTrace = traceAndReverseFlow.getTrace();
+              return forwardTrace.getDisposition() == FlowDisposition.ACCEPTED
+                  && (!bgpSingleHop || forwardTrace.getHops().size() <= 2);
+            })
+        .filter(
+            traceAndReverseFlow ->
+                traceAndReverseFlow.getReverseFlow() != null
+                    && traceAndReverseFlow.getReverseFlow().getIngressNode().equals(listenerNode)
+                    && traceAndReverseFlow.getReverseFlow().getIngressVrf().equals(listenerVrf))
+        .flatMap(traceAndReverseFlow -> traceroutes.getReverseTraces(traceAndReverseFlow).stream())
         .anyMatch(
             traceAndReverseFlow -> {
               Trace reverseTrace = traceAndReverseFlow.getTrace();
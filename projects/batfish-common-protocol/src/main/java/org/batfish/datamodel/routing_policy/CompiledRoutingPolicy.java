@@ -0,0 +1,351 @@
+package org.batfish.datamodel.routing_policy;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+import org.batfish.datamodel.AbstractRouteBuilder;
+import org.batfish.datamodel.AbstractRouteDecorator;
+import org.batfish.datamodel.BgpRoute;
+import org.batfish.datamodel.BgpSessionProperties;
+import org.batfish.datamodel.Configuration;
+import org.batfish.datamodel.Prefix;
+import org.batfish.datamodel.RouteFilterList;
+import org.batfish.datamodel.eigrp.EigrpProcess;
+import org.batfish.datamodel.routing_policy.Environment.Direction;
+import org.batfish.datamodel.routing_policy.expr.BooleanExpr;
+import org.batfish.datamodel.routing_policy.expr.CallExpr;
+import org.batfish.datamodel.routing_policy.expr.Conjunction;
+import org.batfish.datamodel.routing_policy.expr.Disjunction;
+import org.batfish.datamodel.routing_policy.expr.MatchPrefixSet;
+import org.batfish.datamodel.routing_policy.expr.NamedPrefixSet;
+import org.batfish.datamodel.routing_policy.expr.Not;
+import org.batfish.datamodel.routing_policy.expr.PrefixExpr;
+import org.batfish.datamodel.routing_policy.statement.CallStatement;
+import org.batfish.datamodel.routing_policy.statement.If;
+import org.batfish.datamodel.routing_policy.statement.Statement;
+
+/**
+ * A {@link RoutingPolicy} lowered once into a tree of closures, for policies that are evaluated
+ * for a very large number of routes (e.g. BGP import and export during the data plane fixpoint).
+ *
+ * <p>Compilation does the per-route work of the interpreter that does not depend on the route:
+ *
+ * <ul>
+ *   <li>the maps of named structures of the owner {@link Configuration} are copied into the {@link
+ *       Environment} template once, instead of once per route;
+ *   <li>calls to other policies ({@link CallExpr}, {@link CallStatement}) are resolved to the
+ *       compiled body of the called policy, which is compiled at most once;
+ *   <li>{@link MatchPrefixSet} over a {@link NamedPrefixSet} is resolved to its {@link
+ *       RouteFilterList}.
+ * </ul>
+ *
+ * <p>Control flow ({@link If}, {@link Conjunction}, {@link Disjunction}, {@link Not}, and the
+ * policy body itself) is compiled with exactly the {@link Result} semantics of the corresponding
+ * {@code execute}/{@code evaluate} methods. Every other statement or expression is evaluated by its
+ * own {@code execute}/{@code evaluate} method, so those keep a single implementation; AS-path and
+ * community regexes are already compiled once via {@link
+ * org.batfish.datamodel.PatternProvider}. A reference to a missing policy or route filter list is
+ * also left to the interpreter, so that it is reported through {@link Environment#setError} at
+ * evaluation time as before.
+ *
+ * <p>A policy must only be compiled once its owner {@link Configuration} is final: structures added
+ * to or removed from the owner afterwards are not seen by the compiled policy.
+ */
+@ParametersAreNonnullByDefault
+public final class CompiledRoutingPolicy {
+
+  /** Compiles {@code policy}, which must have an owner {@link Configuration}. */
+  @Nonnull
+  public static CompiledRoutingPolicy compile(RoutingPolicy policy) {
+    Configuration owner = policy.getOwner();
+    checkArgument(owner != null, "Cannot compile routing policy without a Configuration");
+    return new CompiledRoutingPolicy(policy, owner);
+  }
+
+  /** Evaluates a compiled statement or boolean expression. */
+  @FunctionalInterface
+  private interface Compiled {
+    @Nonnull
+    Result apply(Environment environment);
+  }
+
+  /**
+   * The compiled statements of a policy. Filled in after construction so that recursive calls can
+   * refer to it.
+   */
+  private static final class CompiledBody {
+    private Compiled[] _statements;
+
+    private @Nonnull Result call(Environment environment) {
+      for (Compiled statement : _statements) {
+        Result result = statement.apply(environment);
+        if (result.getExit()) {
+          return result;
+        }
+        if (result.getReturn()) {
+          return result.toBuilder().setReturn(false).build();
+        }
+      }
+      return Result.builder()
+          .setFallThrough(true)
+          .setBooleanValue(environment.getDefaultAction())
+          .build();
+    }
+  }
+
+  private static final Result FALL_THROUGH = Result.builder().setFallThrough(true).build();
+  private static final Result FALSE = new Result(false);
+  private static final Result TRUE = new Result(true);
+
+  @Nonnull private final CompiledBody _body;
+  @Nonnull private final String _name;
+  /** Builder holding the owner's named structures, copied for each evaluation. */
+  @Nonnull private final Environment.Builder _environmentTemplate;
+
+  private CompiledRoutingPolicy(RoutingPolicy policy, Configuration owner) {
+    _name = policy.getName();
+    _environmentTemplate = Environment.builder(owner);
+    Environment template = _environmentTemplate.build();
+    _body =
+        new Compiler(template.getRoutingPolicies(), template.getRouteFilterLists())
+            .compile(policy);
+  }
+
+  @Nonnull
+  public String getName() {
+    return _name;
+  }
+
+  /** @see RoutingPolicy#process(AbstractRouteDecorator, AbstractRouteBuilder, Direction) */
+  public boolean process(
+      AbstractRouteDecorator inputRoute,
+      AbstractRouteBuilder<?, ?> outputRoute,
+      Direction direction) {
+    return process(inputRoute, outputRoute, null, null, direction);
+  }
+
+  /**
+   * @see RoutingPolicy#process(AbstractRouteDecorator, AbstractRouteBuilder, EigrpProcess,
+   *     Direction)
+   */
+  public boolean process(
+      AbstractRouteDecorator inputRoute,
+      AbstractRouteBuilder<?, ?> outputRoute,
+      EigrpProcess eigrpProcess,
+      Direction direction) {
+    return process(inputRoute, outputRoute, null, eigrpProcess, direction);
+  }
+
+  /**
+   * @see RoutingPolicy#processBgpRoute(AbstractRouteDecorator, BgpRoute.Builder,
+   *     BgpSessionProperties, Direction)
+   */
+  public boolean processBgpRoute(
+      AbstractRouteDecorator inputRoute,
+      BgpRoute.Builder<?, ?> outputRoute,
+      BgpSessionProperties sessionProperties,
+      Direction direction) {
+    return process(inputRoute, outputRoute, sessionProperties, null, direction);
+  }
+
+  private boolean process(
+      AbstractRouteDecorator inputRoute,
+      AbstractRouteBuilder<?, ?> outputRoute,
+      @Nullable BgpSessionProperties bgpSessionProperties,
+      @Nullable EigrpProcess eigrpProcess,
+      Direction direction) {
+    Environment environment =
+        _environmentTemplate
+            .copy()
+            .setBgpSessionProperties(bgpSessionProperties)
+            .setOriginalRoute(inputRoute)
+            .setOutputRoute(outputRoute)
+            .setDirection(direction)
+            .setEigrpProcess(eigrpProcess)
+            .build();
+    return RoutingPolicy.isAccepted(_body.call(environment), environment);
+  }
+
+  /** Compiles the policies reachable from one policy, sharing the bodies of called policies. */
+  private static final class Compiler {
+    private final Map<String, CompiledBody> _bodies;
+    private final Map<String, RouteFilterList> _routeFilterLists;
+    private final Map<String, RoutingPolicy> _routingPolicies;
+
+    private Compiler(
+        Map<String, RoutingPolicy> routingPolicies,
+        Map<String, RouteFilterList> routeFilterLists) {
+      _bodies = new HashMap<>();
+      _routeFilterLists = routeFilterLists;
+      _routingPolicies = routingPolicies;
+    }
+
+    private @Nonnull CompiledBody compile(RoutingPolicy policy) {
+      CompiledBody body = _bodies.get(policy.getName());
+      if (body != null) {
+        return body;
+      }
+      body = new CompiledBody();
+      // register before compiling the statements, so that recursive calls terminate
+      _bodies.put(policy.getName(), body);
+      body._statements = compileStatements(policy.getStatements());
+      return body;
+    }
+
+    private @Nonnull Compiled[] compileStatements(List<Statement> statements) {
+      Compiled[] compiled = new Compiled[statements.size()];
+      for (int i = 0; i < compiled.length; i++) {
+        compiled[i] = compileStatement(statements.get(i));
+      }
+      return compiled;
+    }
+
+    private @Nonnull Compiled compileStatement(Statement statement) {
+      if (statement instanceof If) {
+        return compileIf((If) statement);
+      } else if (statement instanceof CallStatement) {
+        return compileCallStatement((CallStatement) statement);
+      }
+      return statement::execute;
+    }
+
+    private @Nonnull Compiled compileExpr(BooleanExpr expr) {
+      if (expr instanceof Conjunction) {
+        return compileConjunction((Conjunction) expr);
+      } else if (expr instanceof Disjunction) {
+        return compileDisjunction((Disjunction) expr);
+      } else if (expr instanceof Not) {
+        return compileNot((Not) expr);
+      } else if (expr instanceof CallExpr) {
+        return compileCallExpr((CallExpr) expr);
+      } else if (expr instanceof MatchPrefixSet) {
+        return compileMatchPrefixSet((MatchPrefixSet) expr);
+      }
+      return expr::evaluate;
+    }
+
+    /** @see If#execute(Environment) */
+    private @Nonnull Compiled compileIf(If ifStatement) {
+      if (ifStatement.getGuard() == null) {
+        // let the interpreter fail at evaluation time, as it would without compilation
+        return ifStatement::execute;
+      }
+      Compiled guard = compileExpr(ifStatement.getGuard());
+      Compiled[] trueStatements = compileStatements(ifStatement.getTrueStatements());
+      Compiled[] falseStatements = compileStatements(ifStatement.getFalseStatements());
+      return environment -> {
+        Result exprResult = guard.apply(environment);
+        if (exprResult.getExit()) {
+          return exprResult;
+        }
+        Compiled[] toExecute = exprResult.getBooleanValue() ? trueStatements : falseStatements;
+        for (Compiled statement : toExecute) {
+          Result result = statement.apply(environment);
+          if (result.getExit() || result.getReturn()) {
+            return result;
+          }
+        }
+        return FALL_THROUGH;
+      };
+    }
+
+    /** @see CallStatement#execute(Environment) */
+    private @Nonnull Compiled compileCallStatement(CallStatement callStatement) {
+      RoutingPolicy called = _routingPolicies.get(callStatement.getCalledPolicyName());
+      if (called == null) {
+        return callStatement::execute;
+      }
+      CompiledBody body = compile(called);
+      return environment -> {
+        boolean oldCallStatementContext = environment.getCallStatementContext();
+        environment.setCallStatementContext(true);
+        Result policyResult = body.call(environment);
+        environment.setCallStatementContext(oldCallStatementContext);
+        return policyResult.toBuilder().setReturn(false).build();
+      };
+    }
+
+    /** @see Conjunction#evaluate(Environment) */
+    private @Nonnull Compiled compileConjunction(Conjunction conjunction) {
+      Compiled[] conjuncts =
+          conjunction.getConjuncts().stream().map(this::compileExpr).toArray(Compiled[]::new);
+      return environment -> {
+        for (Compiled conjunct : conjuncts) {
+          Result conjunctResult = conjunct.apply(environment);
+          if (conjunctResult.getExit()) {
+            return conjunctResult;
+          } else if (!conjunctResult.getBooleanValue()) {
+            return conjunctResult.toBuilder().setReturn(false).build();
+          }
+        }
+        return TRUE;
+      };
+    }
+
+    /** @see Disjunction#evaluate(Environment) */
+    private @Nonnull Compiled compileDisjunction(Disjunction disjunction) {
+      Compiled[] disjuncts =
+          disjunction.getDisjuncts().stream().map(this::compileExpr).toArray(Compiled[]::new);
+      return environment -> {
+        for (Compiled disjunct : disjuncts) {
+          Result disjunctResult = disjunct.apply(environment);
+          if (disjunctResult.getExit()) {
+            return disjunctResult;
+          } else if (disjunctResult.getBooleanValue()) {
+            return disjunctResult.toBuilder().setReturn(false).build();
+          }
+        }
+        return FALSE;
+      };
+    }
+
+    /** @see Not#evaluate(Environment) */
+    private @Nonnull Compiled compileNot(Not not) {
+      Compiled expr = compileExpr(not.getExpr());
+      return environment -> {
+        Result result = expr.apply(environment);
+        return result.getExit() ? result : result.getBooleanValue() ? FALSE : TRUE;
+      };
+    }
+
+    /** @see CallExpr#evaluate(Environment) */
+    private @Nonnull Compiled compileCallExpr(CallExpr callExpr) {
+      RoutingPolicy called = _routingPolicies.get(callExpr.getCalledPolicyName());
+      if (called == null) {
+        return callExpr::evaluate;
+      }
+      CompiledBody body = compile(called);
+      return environment -> {
+        boolean oldCallExprContext = environment.getCallExprContext();
+        boolean oldLocalDefaultAction = environment.getLocalDefaultAction();
+        environment.setCallExprContext(true);
+        Result policyResult = body.call(environment);
+        environment.setCallExprContext(oldCallExprContext);
+        environment.setLocalDefaultAction(oldLocalDefaultAction);
+        return policyResult.toBuilder().setReturn(false).build();
+      };
+    }
+
+    /** @see MatchPrefixSet#evaluate(Environment) */
+    private @Nonnull Compiled compileMatchPrefixSet(MatchPrefixSet matchPrefixSet) {
+      if (!(matchPrefixSet.getPrefixSet() instanceof NamedPrefixSet)) {
+        return matchPrefixSet::evaluate;
+      }
+      RouteFilterList list =
+          _routeFilterLists.get(((NamedPrefixSet) matchPrefixSet.getPrefixSet()).getName());
+      if (list == null) {
+        return matchPrefixSet::evaluate;
+      }
+      PrefixExpr prefixExpr = matchPrefixSet.getPrefix();
+      return environment -> {
+        Prefix prefix = prefixExpr.evaluate(environment);
+        return list.permits(prefix) ? TRUE : FALSE;
+      };
+    }
+  }
+}
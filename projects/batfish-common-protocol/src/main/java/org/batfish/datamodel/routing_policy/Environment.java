@@ -348,6 +348,44 @@ public class Environment {
 
     private Builder() {}
 
+    /**
+     * Returns a new builder with the same settings as this one. Lets a builder whose
+     * configuration-derived maps were copied once be reused for many routes.
+     */
+    @Nonnull
+    Builder copy() {
+      Builder copy = new Builder();
+      copy._asPathAccessLists = _asPathAccessLists;
+      copy._bgpSessionProperties = _bgpSessionProperties;
+      copy._buffered = _buffered;
+      copy._callExprContext = _callExprContext;
+      copy._callStatementContext = _callStatementContext;
+      copy._communityLists = _communityLists;
+      copy._communityMatchExprs = _communityMatchExprs;
+      copy._communitySetExprs = _communitySetExprs;
+      copy._communitySetMatchExprs = _communitySetMatchExprs;
+      copy._communitySets = _communitySets;
+      copy._defaultAction = _defaultAction;
+      copy._defaultPolicy = _defaultPolicy;
+      copy._direction = _direction;
+      copy._eigrpProcess = _eigrpProcess;
+      copy._error = _error;
+      copy._intermediateBgpAttributes = _intermediateBgpAttributes;
+      copy._ip6AccessLists = _ip6AccessLists;
+      copy._ipAccessLists = _ipAccessLists;
+      copy._localDefaultAction = _localDefaultAction;
+      copy._routingPolicies = _routingPolicies;
+      copy._originalRoute = _originalRoute;
+      copy._originalRoute6 = _originalRoute6;
+      copy._outputRoute = _outputRoute;
+      copy._readFromIntermediateBgpAttributes = _readFromIntermediateBgpAttributes;
+      copy._route6FilterLists = _route6FilterLists;
+      copy._routeFilterLists = _routeFilterLists;
+      copy._useOutputAttributes = _useOutputAttributes;
+      copy._writeToIntermediateBgpAttributes = _writeToIntermediateBgpAttributes;
+      return copy;
+    }
+
     public Builder setAsPathAccessLists(Map<String, AsPathAccessList> asPathAccessLists) {
       _asPathAccessLists = toImmutableMap(asPathAccessLists);
       return this;
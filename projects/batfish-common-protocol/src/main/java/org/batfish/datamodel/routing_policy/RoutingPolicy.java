@@ -238,7 +238,14 @@ public class RoutingPolicy implements Serializable {
             .setDirection(direction)
             .setEigrpProcess(eigrpProcess)
             .build();
-    Result result = call(environment);
+    return isAccepted(call(environment), environment);
+  }
+
+  /**
+   * Returns whether a policy whose top-level invocation produced {@code result} in {@code
+   * environment} accepts the route.
+   */
+  static boolean isAccepted(Result result, Environment environment) {
     return result.getBooleanValue() && !(Boolean.TRUE.equals(environment.getSuppressed()));
   }
 
@@ -2,6 +2,7 @@ package org.batfish.datamodel.vxlan;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.HashBasedTable;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Table;
 import com.google.common.collect.Table.Cell;
@@ -11,10 +12,12 @@ import com.google.common.graph.MutableGraph;
 import io.opentracing.ActiveSpan;
 import io.opentracing.util.GlobalTracer;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import org.batfish.common.plugin.TracerouteEngine;
 import org.batfish.datamodel.BumTransportMethod;
 import org.batfish.datamodel.Configuration;
@@ -181,10 +184,33 @@ public final class VxlanTopologyUtils {
         GlobalTracer.get().buildSpan("VxlanTopologyUtils.prunedVxlanTopology").startActive()) {
       assert span != null;
       NetworkConfigurations nc = NetworkConfigurations.of(configurations);
+      // Trace the flows of all edges at once
+      Map<EndpointPair<VxlanNode>, Map<Flow, String>> edgeFlows = new LinkedHashMap<>();
+      initialVxlanTopology
+          .getGraph()
+          .edges()
+          .forEach(
+              edge -> {
+                Map<Flow, String> flows = vxlanEdgeFlows(edge, nc);
+                if (flows != null) {
+                  edgeFlows.put(edge, flows);
+                }
+              });
+      Map<Flow, List<Trace>> traces =
+          edgeFlows.isEmpty()
+              ? ImmutableMap.of()
+              : tracerouteEngine.computeTraces(
+                  edgeFlows.values().stream()
+                      .flatMap(flows -> flows.keySet().stream())
+                      .collect(ImmutableSet.toImmutableSet()),
+                  false);
       MutableGraph<VxlanNode> graph = GraphBuilder.undirected().allowsSelfLoops(false).build();
-      initialVxlanTopology.getGraph().edges().stream()
-          .filter(edge -> reachableEdge(edge, nc, tracerouteEngine))
-          .forEach(edge -> graph.putEdge(edge.nodeU(), edge.nodeV()));
+      edgeFlows.forEach(
+          (edge, flows) -> {
+            if (allDelivered(flows, traces)) {
+              graph.putEdge(edge.nodeU(), edge.nodeV());
+            }
+          });
       return new VxlanTopology(graph);
     }
   }
@@ -192,6 +218,17 @@ public final class VxlanTopologyUtils {
   @VisibleForTesting
   static boolean reachableEdge(
       EndpointPair<VxlanNode> edge, NetworkConfigurations nc, TracerouteEngine tracerouteEngine) {
+    Map<Flow, String> flows = vxlanEdgeFlows(edge, nc);
+    return flows != null
+        && allDelivered(flows, tracerouteEngine.computeTraces(flows.keySet(), false));
+  }
+
+  /**
+   * Returns the flows that must be delivered in each direction for the VTEPs of {@code edge} to
+   * reach each other, mapped to their receivers; or {@code null} if the edge is unsupported.
+   */
+  private static @Nullable Map<Flow, String> vxlanEdgeFlows(
+      EndpointPair<VxlanNode> edge, NetworkConfigurations nc) {
     VxlanNode nodeU = edge.nodeU();
     VxlanNode nodeV = edge.nodeV();
     String hostU = nodeU.getHostname();
@@ -202,7 +239,7 @@ public final class VxlanTopologyUtils {
     // early exit if unsupported
     if (vniSettingsU.getBumTransportMethod() != BumTransportMethod.UNICAST_FLOOD_GROUP) {
       // TODO: support multicast transport
-      return false;
+      return null;
     }
     Layer2Vni vniSettingsV = nc.getVniSettings(hostV, vni).get();
     String vrfU = getVniSrcVrf(vniSettingsU);
@@ -210,8 +247,16 @@ public final class VxlanTopologyUtils {
     Ip srcIpU = vniSettingsU.getSourceAddress();
     Ip srcIpV = vniSettingsV.getSourceAddress();
     int udpPort = vniSettingsU.getUdpPort();
-    return vxlanFlowDelivered(hostU, vrfU, srcIpU, hostV, srcIpV, udpPort, tracerouteEngine)
-        && vxlanFlowDelivered(hostV, vrfV, srcIpV, hostU, srcIpU, udpPort, tracerouteEngine);
+    return ImmutableMap.of(
+        vxlanFlow(hostU, vrfU, srcIpU, srcIpV, udpPort),
+        hostV,
+        vxlanFlow(hostV, vrfV, srcIpV, srcIpU, udpPort),
+        hostU);
+  }
+
+  private static boolean allDelivered(Map<Flow, String> flows, Map<Flow, List<Trace>> traces) {
+    return flows.entrySet().stream()
+        .allMatch(flowEntry -> delivered(traces.get(flowEntry.getKey()), flowEntry.getValue()));
   }
 
   @VisibleForTesting
@@ -223,17 +268,26 @@ public final class VxlanTopologyUtils {
       Ip dstIp,
       int udpPort,
       TracerouteEngine tracerouteEngine) {
-    Flow flow =
-        Flow.builder()
-            .setIpProtocol(IpProtocol.UDP)
-            .setIngressNode(sender)
-            .setIngressVrf(senderVrf)
-            .setSrcIp(srcIp)
-            .setDstIp(dstIp)
-            .setSrcPort(NamedPort.EPHEMERAL_LOWEST.number())
-            .setDstPort(udpPort)
-            .build();
-    List<Trace> traces = tracerouteEngine.computeTraces(ImmutableSet.of(flow), false).get(flow);
+    Flow flow = vxlanFlow(sender, senderVrf, srcIp, dstIp, udpPort);
+    return delivered(
+        tracerouteEngine.computeTraces(ImmutableSet.of(flow), false).get(flow), receiver);
+  }
+
+  private static @Nonnull Flow vxlanFlow(
+      String sender, String senderVrf, Ip srcIp, Ip dstIp, int udpPort) {
+    return Flow.builder()
+        .setIpProtocol(IpProtocol.UDP)
+        .setIngressNode(sender)
+        .setIngressVrf(senderVrf)
+        .setSrcIp(srcIp)
+        .setDstIp(dstIp)
+        .setSrcPort(NamedPort.EPHEMERAL_LOWEST.number())
+        .setDstPort(udpPort)
+        .build();
+  }
+
+  /** Whether any of {@code traces} is accepted by {@code receiver} */
+  private static boolean delivered(List<Trace> traces, String receiver) {
     return traces.stream()
         .anyMatch(
             trace -> {
@@ -79,6 +79,10 @@ public abstract class BatfishCombinedParser<P extends BatfishParser, L extends B
     }
     _parser.initErrorListener(this);
     _parser.getInterpreter().setPredictionMode(PredictionMode.SLL);
+    if (settings.getRecordDfaStatistics()) {
+      DfaCacheStatistics.Counts counts = DfaCacheStatistics.getCounts(_parser.getGrammarFileName());
+      _parser.setInterpreter(new CountingParserATNSimulator(_parser.getInterpreter(), counts));
+    }
   }
 
   public BatfishCombinedParser(
@@ -94,7 +98,12 @@ public abstract class BatfishCombinedParser<P extends BatfishParser, L extends B
      * enabled.
      */
     if (!settings.getDisableUnrecognized()) {
-      _parser.setInterpreter(new BatfishParserATNSimulator(_parser.getInterpreter()));
+      _parser.setInterpreter(
+          settings.getRecordDfaStatistics()
+              ? new CountingBatfishParserATNSimulator(
+                  _parser.getInterpreter(),
+                  DfaCacheStatistics.getCounts(_parser.getGrammarFileName()))
+              : new BatfishParserATNSimulator(_parser.getInterpreter()));
       _parser.setErrorHandler(batfishANTLRErrorStrategyFactory.build(_input));
       _lexer.setRecoveryStrategy(new BatfishLexerRecoveryStrategy(_lexer, separatorChars));
       _recovery = true;
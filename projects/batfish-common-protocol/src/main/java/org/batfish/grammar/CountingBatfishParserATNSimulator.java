@@ -0,0 +1,42 @@
+package org.batfish.grammar;
+
+import javax.annotation.Nullable;
+import org.antlr.v4.runtime.atn.ParserATNSimulator;
+import org.antlr.v4.runtime.dfa.DFA;
+import org.antlr.v4.runtime.dfa.DFAState;
+
+/**
+ * A {@link BatfishParserATNSimulator} that also records DFA cache hits and misses like {@link
+ * CountingParserATNSimulator}, for parsers with recovery enabled.
+ */
+public class CountingBatfishParserATNSimulator extends BatfishParserATNSimulator {
+
+  private final DfaCacheStatistics.Counts _counts;
+
+  /**
+   * Construct a {@link CountingBatfishParserATNSimulator} from a {@link ParserATNSimulator}
+   *
+   * @param parent The {@link ParserATNSimulator} to emulate modulo {@link #adaptivePredict}.
+   * @param counts The {@link DfaCacheStatistics.Counts} to record hits and misses in.
+   */
+  public CountingBatfishParserATNSimulator(
+      ParserATNSimulator parent, DfaCacheStatistics.Counts counts) {
+    super(parent);
+    _counts = counts;
+  }
+
+  @Override
+  protected @Nullable DFAState getExistingTargetState(DFAState previousD, int t) {
+    DFAState existing = super.getExistingTargetState(previousD, t);
+    if (existing != null) {
+      _counts.hit();
+    }
+    return existing;
+  }
+
+  @Override
+  protected DFAState computeTargetState(DFA dfa, DFAState previousD, int t) {
+    _counts.miss();
+    return super.computeTargetState(dfa, previousD, t);
+  }
+}
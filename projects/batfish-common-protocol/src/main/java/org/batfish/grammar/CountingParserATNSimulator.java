@@ -0,0 +1,43 @@
+package org.batfish.grammar;
+
+import javax.annotation.Nullable;
+import org.antlr.v4.runtime.atn.ParserATNSimulator;
+import org.antlr.v4.runtime.dfa.DFA;
+import org.antlr.v4.runtime.dfa.DFAState;
+
+/**
+ * Clones an existing {@link ParserATNSimulator}, sharing its grammar's DFA and prediction context
+ * caches, and records DFA cache hits and misses in a {@link DfaCacheStatistics.Counts}. Only
+ * installed when {@link GrammarSettings#getRecordDfaStatistics()} is set.
+ */
+public class CountingParserATNSimulator extends ParserATNSimulator {
+
+  private final DfaCacheStatistics.Counts _counts;
+
+  /**
+   * Construct a {@link CountingParserATNSimulator} from a {@link ParserATNSimulator}
+   *
+   * @param parent The {@link ParserATNSimulator} to emulate.
+   * @param counts The {@link DfaCacheStatistics.Counts} to record hits and misses in.
+   */
+  public CountingParserATNSimulator(ParserATNSimulator parent, DfaCacheStatistics.Counts counts) {
+    super(parent.getParser(), parent.atn, parent.decisionToDFA, parent.getSharedContextCache());
+    setPredictionMode(parent.getPredictionMode());
+    _counts = counts;
+  }
+
+  @Override
+  protected @Nullable DFAState getExistingTargetState(DFAState previousD, int t) {
+    DFAState existing = super.getExistingTargetState(previousD, t);
+    if (existing != null) {
+      _counts.hit();
+    }
+    return existing;
+  }
+
+  @Override
+  protected DFAState computeTargetState(DFA dfa, DFAState previousD, int t) {
+    _counts.miss();
+    return super.computeTargetState(dfa, previousD, t);
+  }
+}
@@ -0,0 +1,106 @@
+package org.batfish.grammar;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+
+import com.google.common.collect.ImmutableSortedMap;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+import org.antlr.v4.runtime.Recognizer;
+import org.antlr.v4.runtime.atn.ATNSimulator;
+import org.antlr.v4.runtime.atn.LexerATNSimulator;
+import org.antlr.v4.runtime.atn.ParserATNSimulator;
+import org.antlr.v4.runtime.dfa.DFA;
+
+/**
+ * Process-wide statistics on how often ANTLR adaptive prediction is served by the DFA cache of a
+ * grammar, which ANTLR shares across all parsers of that grammar.
+ *
+ * <p>A low hit rate means most predictions still run the full ATN simulation, e.g. because the
+ * process has not yet parsed much input of that grammar.
+ *
+ * <p>Only parsers built with {@link GrammarSettings#getRecordDfaStatistics()} set record here.
+ */
+@ParametersAreNonnullByDefault
+public final class DfaCacheStatistics {
+
+  /** Counts of DFA cache hits and misses for one grammar. */
+  public static final class Counts {
+    private final LongAdder _hits;
+    private final LongAdder _misses;
+
+    public Counts() {
+      _hits = new LongAdder();
+      _misses = new LongAdder();
+    }
+
+    void hit() {
+      _hits.increment();
+    }
+
+    void miss() {
+      _misses.increment();
+    }
+
+    public long getHits() {
+      return _hits.sum();
+    }
+
+    public long getMisses() {
+      return _misses.sum();
+    }
+
+    /**
+     * Returns the fraction of DFA transitions that were cached, or {@code 0} if there were none.
+     */
+    public double getHitRate() {
+      long hits = getHits();
+      long total = hits + getMisses();
+      return total == 0 ? 0D : (double) hits / total;
+    }
+
+    @Override
+    public String toString() {
+      return toStringHelper(getClass())
+          .add("hits", getHits())
+          .add("misses", getMisses())
+          .add("hitRate", String.format("%.3f", getHitRate()))
+          .toString();
+    }
+  }
+
+  private static final Map<String, Counts> COUNTS = new ConcurrentHashMap<>();
+
+  /** Returns the counts for the grammar with the given name, creating them if necessary. */
+  static @Nonnull Counts getCounts(String grammarFileName) {
+    return COUNTS.computeIfAbsent(grammarFileName, name -> new Counts());
+  }
+
+  /** Returns the counts recorded so far, keyed by grammar file name. */
+  public static @Nonnull SortedMap<String, Counts> getAllCounts() {
+    return ImmutableSortedMap.copyOf(COUNTS);
+  }
+
+  /**
+   * Returns the number of DFA states cached for {@code recognizer}'s grammar, i.e. how warm the
+   * shared cache is.
+   */
+  public static int getNumDfaStates(Recognizer<?, ?> recognizer) {
+    ATNSimulator interpreter = recognizer.getInterpreter();
+    DFA[] decisionToDFA;
+    if (interpreter instanceof ParserATNSimulator) {
+      decisionToDFA = ((ParserATNSimulator) interpreter).decisionToDFA;
+    } else if (interpreter instanceof LexerATNSimulator) {
+      decisionToDFA = ((LexerATNSimulator) interpreter).decisionToDFA;
+    } else {
+      return 0;
+    }
+    return Arrays.stream(decisionToDFA).mapToInt(dfa -> dfa.states.size()).sum();
+  }
+
+  private DfaCacheStatistics() {}
+}
@@ -66,6 +66,14 @@ public interface GrammarSettings {
    */
   boolean getThrowOnParserError();
 
+  /**
+   * Whether or not to record how often parser predictions are served by the DFA cache in {@link
+   * DfaCacheStatistics}. Recording adds work to every prediction, so it is off unless requested.
+   *
+   * @return true iff parsers should record DFA cache statistics
+   */
+  boolean getRecordDfaStatistics();
+
   /** Whether or not to use the separate Arista BGP parse rules */
   boolean getUseAristaBgp();
 
@@ -4,22 +4,32 @@ import com.google.common.collect.ImmutableMap;
 import java.util.Map;
 import javax.annotation.ParametersAreNonnullByDefault;
 import net.sf.javabdd.BDD;
+import org.batfish.common.bdd.BDDPacket;
 import org.batfish.specifier.Location;
 
 /** The result of a bidirectional reachability analysis. */
 @ParametersAreNonnullByDefault
 public class BidirectionalReachabilityResult {
+  private final BDDPacket _bddPacket;
+
   private final Map<Location, BDD> _startLocationReturnPassFailureBdds;
 
   private final Map<Location, BDD> _startLocationReturnPassSuccessBdds;
 
   public BidirectionalReachabilityResult(
+      BDDPacket bddPacket,
       Map<Location, BDD> startLocationReturnPassSuccessBdds,
       Map<Location, BDD> startLocationReturnPassFailureBdds) {
+    _bddPacket = bddPacket;
     _startLocationReturnPassSuccessBdds = ImmutableMap.copyOf(startLocationReturnPassSuccessBdds);
     _startLocationReturnPassFailureBdds = ImmutableMap.copyOf(startLocationReturnPassFailureBdds);
   }
 
+  /** @return The {@link BDDPacket} of the {@link BDD BDDs} in this result. */
+  public BDDPacket getBddPacket() {
+    return _bddPacket;
+  }
+
   /**
    * @return A {@link BDD} representing the set of packets at each {@link Location} for which the
    *     forward direction can succeed and then the return direction can fail.
@@ -0,0 +1,125 @@
+package org.batfish.storage;
+
+import static com.google.common.collect.ImmutableSetMultimap.toImmutableSetMultimap;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+import com.google.common.collect.SetMultimap;
+import java.io.Serializable;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+import org.batfish.datamodel.AbstractRoute;
+import org.batfish.datamodel.AnnotatedRoute;
+import org.batfish.datamodel.Bgpv4Route;
+import org.batfish.datamodel.EvpnRoute;
+import org.batfish.datamodel.Fib;
+import org.batfish.datamodel.GenericRib;
+import org.batfish.datamodel.Prefix;
+import org.batfish.datamodel.vxlan.Layer2Vni;
+
+/**
+ * The portion of a {@link org.batfish.datamodel.DataPlane} belonging to a single node. All maps are
+ * keyed by VRF name.
+ *
+ * <p>The configuration of the node is not part of its shard: it is stored with the snapshot.
+ */
+@ParametersAreNonnullByDefault
+public final class DataPlaneNodeShard implements Serializable {
+
+  @Nonnull private final Map<String, GenericRib<AnnotatedRoute<AbstractRoute>>> _ribs;
+  @Nonnull private final Map<String, Fib> _fibs;
+  @Nonnull private final Map<String, Set<Bgpv4Route>> _bgpRoutes;
+  @Nonnull private final Map<String, Set<EvpnRoute<?, ?>>> _evpnRoutes;
+  @Nonnull private final Map<String, Set<Layer2Vni>> _layer2Vnis;
+
+  @Nonnull
+  private final Map<String, Map<Prefix, Map<String, Set<String>>>> _prefixTracingInfoSummary;
+
+  /** {@link #_bgpRoutes} of each VRF, indexed by network. Built on first use. */
+  @Nullable private transient Map<String, SetMultimap<Prefix, Bgpv4Route>> _bgpRoutesByNetwork;
+
+  /** {@link #_evpnRoutes} of each VRF, indexed by network. Built on first use. */
+  @Nullable
+  private transient Map<String, SetMultimap<Prefix, EvpnRoute<?, ?>>> _evpnRoutesByNetwork;
+
+  public DataPlaneNodeShard(
+      Map<String, GenericRib<AnnotatedRoute<AbstractRoute>>> ribs,
+      Map<String, Fib> fibs,
+      Map<String, Set<Bgpv4Route>> bgpRoutes,
+      Map<String, Set<EvpnRoute<?, ?>>> evpnRoutes,
+      Map<String, Set<Layer2Vni>> layer2Vnis,
+      Map<String, Map<Prefix, Map<String, Set<String>>>> prefixTracingInfoSummary) {
+    _ribs = ImmutableMap.copyOf(ribs);
+    _fibs = ImmutableMap.copyOf(fibs);
+    _bgpRoutes = ImmutableMap.copyOf(bgpRoutes);
+    _evpnRoutes = ImmutableMap.copyOf(evpnRoutes);
+    _layer2Vnis = ImmutableMap.copyOf(layer2Vnis);
+    _prefixTracingInfoSummary = ImmutableMap.copyOf(prefixTracingInfoSummary);
+  }
+
+  /** Main RIB of each VRF */
+  @Nonnull
+  public Map<String, GenericRib<AnnotatedRoute<AbstractRoute>>> getRibs() {
+    return _ribs;
+  }
+
+  @Nonnull
+  public Map<String, Fib> getFibs() {
+    return _fibs;
+  }
+
+  @Nonnull
+  public Map<String, Set<Bgpv4Route>> getBgpRoutes() {
+    return _bgpRoutes;
+  }
+
+  /** Return the BGP routes of the given VRF for exactly {@code network} */
+  @Nonnull
+  public Set<Bgpv4Route> getBgpRoutes(String vrfName, Prefix network) {
+    if (_bgpRoutesByNetwork == null) {
+      _bgpRoutesByNetwork = indexByNetwork(_bgpRoutes);
+    }
+    SetMultimap<Prefix, Bgpv4Route> routes = _bgpRoutesByNetwork.get(vrfName);
+    return routes == null ? ImmutableSet.of() : routes.get(network);
+  }
+
+  @Nonnull
+  public Map<String, Set<EvpnRoute<?, ?>>> getEvpnRoutes() {
+    return _evpnRoutes;
+  }
+
+  /** Return the EVPN routes of the given VRF for exactly {@code network} */
+  @Nonnull
+  public Set<EvpnRoute<?, ?>> getEvpnRoutes(String vrfName, Prefix network) {
+    if (_evpnRoutesByNetwork == null) {
+      _evpnRoutesByNetwork = indexByNetwork(_evpnRoutes);
+    }
+    SetMultimap<Prefix, EvpnRoute<?, ?>> routes = _evpnRoutesByNetwork.get(vrfName);
+    return routes == null ? ImmutableSet.of() : routes.get(network);
+  }
+
+  @Nonnull
+  public Map<String, Set<Layer2Vni>> getLayer2Vnis() {
+    return _layer2Vnis;
+  }
+
+  @Nonnull
+  public Map<String, Map<Prefix, Map<String, Set<String>>>> getPrefixTracingInfoSummary() {
+    return _prefixTracingInfoSummary;
+  }
+
+  @Nonnull
+  private static <R extends AbstractRoute> Map<String, SetMultimap<Prefix, R>> indexByNetwork(
+      Map<String, Set<R>> routesByVrf) {
+    return ImmutableMap.copyOf(
+        Maps.transformValues(
+            routesByVrf,
+            routes ->
+                routes.stream()
+                    .collect(toImmutableSetMultimap(AbstractRoute::getNetwork, r -> r))));
+  }
+}
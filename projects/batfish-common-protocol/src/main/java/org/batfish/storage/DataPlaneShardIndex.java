@@ -0,0 +1,35 @@
+package org.batfish.storage;
+
+import com.google.common.collect.ImmutableSortedMap;
+import com.google.common.collect.ImmutableSortedSet;
+import java.io.Serializable;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+/** Index of a sharded data plane on disk: the VRFs present on each node. */
+@ParametersAreNonnullByDefault
+public final class DataPlaneShardIndex implements Serializable {
+
+  @Nonnull private final SortedMap<String, SortedSet<String>> _vrfsByNode;
+
+  public DataPlaneShardIndex(Map<String, ? extends Set<String>> vrfsByNode) {
+    _vrfsByNode =
+        vrfsByNode.entrySet().stream()
+            .collect(
+                ImmutableSortedMap.toImmutableSortedMap(
+                    Comparator.naturalOrder(),
+                    Map.Entry::getKey,
+                    e -> ImmutableSortedSet.copyOf(e.getValue())));
+  }
+
+  /** Mapping: hostname -&gt; names of VRFs with a RIB/FIB in the data plane */
+  @Nonnull
+  public SortedMap<String, SortedSet<String>> getVrfsByNode() {
+    return _vrfsByNode;
+  }
+}
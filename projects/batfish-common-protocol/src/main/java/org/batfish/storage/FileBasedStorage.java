@@ -10,14 +10,13 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
 import com.google.common.io.Closer;
 import com.google.errorprone.annotations.MustBeClosed;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.io.OutputStream;
 import java.io.PushbackInputStream;
 import java.io.Serializable;
@@ -26,7 +25,9 @@ import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.util.Base64;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -34,16 +35,23 @@ import java.util.Optional;
 import java.util.SortedMap;
 import java.util.SortedSet;
 import java.util.TreeMap;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 import java.util.zip.GZIPInputStream;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
 import net.jpountz.lz4.LZ4FrameInputStream;
-import net.jpountz.lz4.LZ4FrameOutputStream;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.FilenameUtils;
 import org.batfish.common.BatfishException;
@@ -58,8 +66,11 @@ import org.batfish.common.topology.Layer2Topology;
 import org.batfish.common.util.BatfishObjectMapper;
 import org.batfish.common.util.CommonUtil;
 import org.batfish.common.util.ZipUtility;
+import org.batfish.common.util.serialization.SerializationFormat;
 import org.batfish.datamodel.AnalysisMetadata;
 import org.batfish.datamodel.Configuration;
+import org.batfish.datamodel.DataPlane;
+import org.batfish.datamodel.ForwardingAnalysis;
 import org.batfish.datamodel.SnapshotMetadata;
 import org.batfish.datamodel.Topology;
 import org.batfish.datamodel.answers.AnswerMetadata;
@@ -88,6 +99,11 @@ public final class FileBasedStorage implements StorageProvider {
 
   private static final String RELPATH_COMPLETION_METADATA_FILE = "completion_metadata.json";
   private static final String RELPATH_BGP_TOPOLOGY = "bgp_topology.json";
+  private static final String RELPATH_DATA_PLANE_SHARDS_DIR = "dp_shards";
+  private static final String RELPATH_DATA_PLANE_SHARD_INDEX = "index";
+  private static final String RELPATH_DATA_PLANE_NODE_SHARDS_DIR = "nodes";
+  private static final String RELPATH_DATA_PLANE_FINGERPRINT = "fingerprint";
+  private static final String RELPATH_DATA_PLANE_FORWARDING_ANALYSIS = "forwarding_analysis";
   private static final String RELPATH_EIGRP_TOPOLOGY = "eigrp_topology.json";
   private static final String RELPATH_SYNTHESIZED_LAYER1_TOPOLOGY =
       "synthesized_layer1_topology.json";
@@ -96,8 +112,14 @@ public final class FileBasedStorage implements StorageProvider {
   private static final String RELPATH_OSPF_TOPOLOGY = "ospf_topology.json";
   private static final String RELPATH_VXLAN_TOPOLOGY = "vxlan_topology.json";
 
+  /**
+   * Maximum number of deserialized objects per worker thread that may be waiting to be consumed.
+   */
+  private static final int MAX_PENDING_OBJECTS_PER_THREAD = 2;
+
   private final BatfishLogger _logger;
   private final BiFunction<String, Integer, AtomicInteger> _newBatch;
+  private final SerializationFormat _serializationFormat;
   private FileBasedStorageDirectoryProvider _d;
 
   @VisibleForTesting
@@ -107,16 +129,29 @@ public final class FileBasedStorage implements StorageProvider {
   }
 
   /**
-   * Create a new {@link FileBasedStorage} instance that uses the given root path and job batch
-   * provider function.
+   * Create a new {@link FileBasedStorage} instance that uses the given root path, job batch
+   * provider function, and format for serialized objects it writes.
    */
   public FileBasedStorage(
-      Path baseDir, BatfishLogger logger, BiFunction<String, Integer, AtomicInteger> newBatch) {
+      Path baseDir,
+      BatfishLogger logger,
+      BiFunction<String, Integer, AtomicInteger> newBatch,
+      SerializationFormat serializationFormat) {
     _logger = logger;
     _newBatch = newBatch;
+    _serializationFormat = serializationFormat;
     _d = new FileBasedStorageDirectoryProvider(baseDir);
   }
 
+  /**
+   * Create a new {@link FileBasedStorage} instance that uses the given root path and job batch
+   * provider function, and writes serialized objects in {@link SerializationFormat#JAVA}.
+   */
+  public FileBasedStorage(
+      Path baseDir, BatfishLogger logger, BiFunction<String, Integer, AtomicInteger> newBatch) {
+    this(baseDir, logger, newBatch, SerializationFormat.JAVA);
+  }
+
   /**
    * Create a new {@link FileBasedStorage} instance that uses the given root path job and whose job
    * batch provider function is a NOP.
@@ -133,15 +168,41 @@ public final class FileBasedStorage implements StorageProvider {
   @Nullable
   public SortedMap<String, Configuration> loadConfigurations(
       NetworkId network, SnapshotId snapshot) {
+    Map<Path, String> namesByPath = getSerializedConfigurations(network, snapshot);
+    if (namesByPath == null) {
+      return null;
+    }
+    try {
+      SortedMap<String, Configuration> configurations = new TreeMap<>();
+      deserializeObjects(namesByPath, Configuration.class, configurations::put);
+      return configurations;
+    } catch (BatfishException e) {
+      return null;
+    }
+  }
+
+  @Override
+  public boolean loadConfigurations(
+      NetworkId network, SnapshotId snapshot, Consumer<Configuration> consumer) {
+    Map<Path, String> namesByPath = getSerializedConfigurations(network, snapshot);
+    if (namesByPath == null) {
+      return false;
+    }
+    deserializeObjects(namesByPath, Configuration.class, (name, c) -> consumer.accept(c));
+    return true;
+  }
+
+  /**
+   * Returns the files containing serialized configurations of the given snapshot, mapped to the
+   * corresponding hostnames. Returns {@code null} if these configurations are absent or were
+   * serialized by an incompatible version of Batfish.
+   */
+  private @Nullable Map<Path, String> getSerializedConfigurations(
+      NetworkId network, SnapshotId snapshot) {
     Path testrigDir = _d.getSnapshotDir(network, snapshot);
     Path indepDir =
         testrigDir.resolve(
             Paths.get(BfConsts.RELPATH_OUTPUT, BfConsts.RELPATH_VENDOR_INDEPENDENT_CONFIG_DIR));
-    return loadConfigurations(network, snapshot, indepDir);
-  }
-
-  private @Nullable SortedMap<String, Configuration> loadConfigurations(
-      NetworkId network, SnapshotId snapshot, Path indepDir) {
     // If the directory that would contain these configs does not even exist, no cache exists.
     if (!Files.exists(indepDir)) {
       _logger.debugf("Unable to load configs for %s from disk: no cache directory", snapshot);
@@ -167,11 +228,7 @@ public final class FileBasedStorage implements StorageProvider {
       throw new BatfishException(
           "Error reading vendor-independent configs directory: '" + indepDir + "'", e);
     }
-    try {
-      return deserializeObjects(namesByPath, Configuration.class);
-    } catch (BatfishException e) {
-      return null;
-    }
+    return namesByPath;
   }
 
   @Override
@@ -496,22 +553,21 @@ public final class FileBasedStorage implements StorageProvider {
       FileInputStream fis = closer.register(new FileInputStream(inputFile.toFile()));
       PushbackInputStream pbstream = new PushbackInputStream(fis, DEFAULT_HEADER_LENGTH_BYTES);
       Format f = detectFormat(pbstream);
-      ObjectInputStream ois;
+      PushbackInputStream uncompressed;
       if (f == Format.GZIP) {
         GZIPInputStream gis =
             closer.register(new GZIPInputStream(pbstream, 8192 /* enlarge buffer */));
-        ois = new ObjectInputStream(gis);
+        uncompressed = new PushbackInputStream(gis, DEFAULT_HEADER_LENGTH_BYTES);
       } else if (f == Format.LZ4) {
         LZ4FrameInputStream lis = closer.register(new LZ4FrameInputStream(pbstream));
-        ois = new ObjectInputStream(lis);
-      } else if (f == Format.JAVA_SERIALIZED) {
-        ois = new ObjectInputStream(pbstream);
+        uncompressed = new PushbackInputStream(lis, DEFAULT_HEADER_LENGTH_BYTES);
+      } else if (f == Format.JAVA_SERIALIZED || f == Format.COMPACT_SERIALIZED) {
+        uncompressed = pbstream;
       } else {
         throw new BatfishException(
             String.format("Could not detect format of the file %s", inputFile));
       }
-      closer.register(ois);
-      return outputClass.cast(ois.readObject());
+      return SerializationFormat.deserializeObject(uncompressed, outputClass);
     } catch (Exception e) {
       throw new BatfishException(
           String.format(
@@ -521,41 +577,71 @@ public final class FileBasedStorage implements StorageProvider {
     }
   }
 
-  private <S extends Serializable> SortedMap<String, S> deserializeObjects(
-      Map<Path, String> namesByPath, Class<S> outputClass) {
+  /**
+   * Deserializes the objects in the keys of {@code namesByPath} on a pool of worker threads, and
+   * passes each to {@code consumer} along with its name as soon as it is ready, in no particular
+   * order. {@code consumer} is only invoked on the calling thread.
+   *
+   * <p>At most {@link #MAX_PENDING_OBJECTS_PER_THREAD} objects per worker are deserialized ahead of
+   * {@code consumer}, so a slow consumer holds back the workers rather than letting decoded objects
+   * accumulate in memory.
+   */
+  private <S extends Serializable> void deserializeObjects(
+      Map<Path, String> namesByPath, Class<S> outputClass, BiConsumer<String, S> consumer) {
     String outputClassName = outputClass.getName();
     AtomicInteger completed =
         _newBatch.apply(
             String.format("Deserializing objects of type '%s' from files", outputClassName),
             namesByPath.size());
-    return new TreeMap<>(
-        namesByPath
-            .entrySet()
-            .parallelStream()
-            .collect(
-                Collectors.toMap(
-                    Entry::getValue,
-                    entry -> {
-                      Path inputPath = entry.getKey();
-                      String name = entry.getValue();
-                      _logger.debugf(
-                          "Reading %s '%s' from '%s'\n", outputClassName, name, inputPath);
-                      S output = deserializeObject(inputPath, outputClass);
-                      completed.incrementAndGet();
-                      return output;
-                    })));
+    if (namesByPath.isEmpty()) {
+      return;
+    }
+    int threads = Math.min(Runtime.getRuntime().availableProcessors(), namesByPath.size());
+    ExecutorService pool = Executors.newFixedThreadPool(threads);
+    try {
+      CompletionService<Entry<String, S>> completionService = new ExecutorCompletionService<>(pool);
+      Iterator<Entry<Path, String>> toSubmit = namesByPath.entrySet().iterator();
+      int pending = 0;
+      while (toSubmit.hasNext() || pending > 0) {
+        while (toSubmit.hasNext() && pending < threads * MAX_PENDING_OBJECTS_PER_THREAD) {
+          Entry<Path, String> entry = toSubmit.next();
+          Path inputPath = entry.getKey();
+          String name = entry.getValue();
+          completionService.submit(
+              () -> {
+                _logger.debugf("Reading %s '%s' from '%s'\n", outputClassName, name, inputPath);
+                return Maps.immutableEntry(name, deserializeObject(inputPath, outputClass));
+              });
+          pending++;
+        }
+        Entry<String, S> output = completionService.take().get();
+        pending--;
+        completed.incrementAndGet();
+        consumer.accept(output.getKey(), output.getValue());
+      }
+    } catch (ExecutionException e) {
+      Throwables.throwIfUnchecked(e.getCause());
+      throw new BatfishException(
+          String.format("Failed to deserialize objects of type '%s'", outputClassName),
+          e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new BatfishException(
+          String.format("Interrupted while deserializing objects of type '%s'", outputClassName),
+          e);
+    } finally {
+      pool.shutdownNow();
+    }
   }
 
   /**
    * Writes a single object of the given class to the given file. Uses the {@link FileBasedStorage}
    * default file encoding including serialization format and compression.
    */
-  private static void serializeObject(Serializable object, Path outputFile) {
+  private void serializeObject(Serializable object, Path outputFile) {
     try {
-      try (OutputStream out = Files.newOutputStream(outputFile);
-          LZ4FrameOutputStream gos = new LZ4FrameOutputStream(out);
-          ObjectOutputStream oos = new ObjectOutputStream(gos)) {
-        oos.writeObject(object);
+      try (OutputStream out = Files.newOutputStream(outputFile)) {
+        _serializationFormat.serializeToLz4Data(object, out);
       }
     } catch (Throwable e) {
       throw new BatfishException("Failed to serialize object to output file: " + outputFile, e);
@@ -956,6 +1042,11 @@ public final class FileBasedStorage implements StorageProvider {
         .resolve(RELPATH_BGP_TOPOLOGY);
   }
 
+  private @Nonnull Path getDataPlaneShardsDir(NetworkSnapshot snapshot) {
+    return _d.getSnapshotOutputDir(snapshot.getNetwork(), snapshot.getSnapshot())
+        .resolve(RELPATH_DATA_PLANE_SHARDS_DIR);
+  }
+
   private @Nonnull Path getEigrpTopologyPath(NetworkSnapshot snapshot) {
     return _d.getSnapshotOutputDir(snapshot.getNetwork(), snapshot.getSnapshot())
         .resolve(RELPATH_EIGRP_TOPOLOGY);
@@ -1186,4 +1277,129 @@ public final class FileBasedStorage implements StorageProvider {
     FileUtils.write(
         sl1tPath.toFile(), BatfishObjectMapper.writeString(synthesizedLayer1Topology), UTF_8);
   }
+
+  @Override
+  public void storeDataPlane(DataPlane dataPlane, NetworkSnapshot networkSnapshot)
+      throws IOException {
+    Path shardsDir = getDataPlaneShardsDir(networkSnapshot);
+    Path nodeShardsDir = shardsDir.resolve(RELPATH_DATA_PLANE_NODE_SHARDS_DIR);
+    Map<String, DataPlaneNodeShard> shards = ShardedDataPlane.toShards(dataPlane);
+
+    String batchName =
+        String.format(
+            "Serializing %s data plane shards for snapshot %s",
+            shards.size(), networkSnapshot.getSnapshot());
+    _logger.infof("\n*** %s***\n", batchName.toUpperCase());
+    AtomicInteger progressCount = _newBatch.apply(batchName, shards.size());
+
+    // Delete any existing output, then recreate. The index is written last, so that its presence
+    // implies that every shard it lists has been written.
+    CommonUtil.deleteDirectory(shardsDir);
+    mkdirs(nodeShardsDir);
+    shards
+        .keySet()
+        .parallelStream()
+        .forEach(
+            hostname -> {
+              serializeObject(shards.get(hostname), nodeShardsDir.resolve(hostname));
+              progressCount.incrementAndGet();
+            });
+    ForwardingAnalysis forwardingAnalysis = dataPlane.getForwardingAnalysis();
+    if (forwardingAnalysis != null) {
+      serializeObject(
+          forwardingAnalysis, shardsDir.resolve(RELPATH_DATA_PLANE_FORWARDING_ANALYSIS));
+    }
+    serializeObject(
+        ShardedDataPlane.toIndex(dataPlane),
+        shardsDir.resolve(RELPATH_DATA_PLANE_SHARD_INDEX));
+  }
+
+  @Override
+  public boolean hasDataPlane(NetworkSnapshot networkSnapshot) {
+    return Files.exists(
+        getDataPlaneShardsDir(networkSnapshot).resolve(RELPATH_DATA_PLANE_SHARD_INDEX));
+  }
+
+  @Override
+  public @Nonnull DataPlane loadDataPlane(
+      NetworkSnapshot networkSnapshot,
+      Supplier<Map<String, Configuration>> configurations,
+      int maxCachedShards)
+      throws IOException {
+    Path shardsDir = getDataPlaneShardsDir(networkSnapshot);
+    Path indexPath = shardsDir.resolve(RELPATH_DATA_PLANE_SHARD_INDEX);
+    if (!Files.exists(indexPath)) {
+      throw new FileNotFoundException(
+          String.format("Could not find data plane for snapshot: %s", networkSnapshot));
+    }
+    DataPlaneShardIndex index = deserializeObject(indexPath, DataPlaneShardIndex.class);
+    Path nodeShardsDir = shardsDir.resolve(RELPATH_DATA_PLANE_NODE_SHARDS_DIR);
+    Path forwardingAnalysisPath = shardsDir.resolve(RELPATH_DATA_PLANE_FORWARDING_ANALYSIS);
+    return new ShardedDataPlane(
+        index,
+        configurations,
+        hostname -> {
+          _logger.debugf("Reading data plane shard for node '%s'\n", hostname);
+          return deserializeObject(nodeShardsDir.resolve(hostname), DataPlaneNodeShard.class);
+        },
+        () -> {
+          if (!Files.exists(forwardingAnalysisPath)) {
+            throw new BatfishException(
+                String.format("No forwarding analysis stored for snapshot: %s", networkSnapshot));
+          }
+          return deserializeObject(forwardingAnalysisPath, ForwardingAnalysis.class);
+        },
+        maxCachedShards);
+  }
+
+  @Override
+  public void storeDataPlaneFingerprint(String fingerprint, NetworkSnapshot networkSnapshot)
+      throws IOException {
+    // Kept with the shards, so that storing a new data plane also discards the fingerprint.
+    Path shardsDir = getDataPlaneShardsDir(networkSnapshot);
+    mkdirs(shardsDir);
+    FileUtils.writeStringToFile(
+        shardsDir.resolve(RELPATH_DATA_PLANE_FINGERPRINT).toFile(), fingerprint, UTF_8);
+  }
+
+  @Override
+  public @Nonnull Optional<String> loadDataPlaneFingerprint(NetworkSnapshot networkSnapshot)
+      throws IOException {
+    Path fingerprintPath =
+        getDataPlaneShardsDir(networkSnapshot).resolve(RELPATH_DATA_PLANE_FINGERPRINT);
+    if (!Files.exists(fingerprintPath)) {
+      return Optional.empty();
+    }
+    return Optional.of(FileUtils.readFileToString(fingerprintPath.toFile(), UTF_8));
+  }
+
+  private @Nonnull Path getDataPlaneAnswerPath(NetworkSnapshot networkSnapshot) {
+    return _d.getSnapshotOutputDir(networkSnapshot.getNetwork(), networkSnapshot.getSnapshot())
+        .resolve(BfConsts.RELPATH_DATA_PLANE_ANSWER_PATH);
+  }
+
+  @Override
+  public void copyDataPlane(NetworkSnapshot source, NetworkSnapshot target) throws IOException {
+    Path targetShardsDir = getDataPlaneShardsDir(target);
+    CommonUtil.deleteDirectory(targetShardsDir);
+    FileUtils.copyDirectory(getDataPlaneShardsDir(source).toFile(), targetShardsDir.toFile());
+    for (Function<NetworkSnapshot, Path> objectPath :
+        ImmutableList.<Function<NetworkSnapshot, Path>>of(
+            this::getDataPlaneAnswerPath,
+            this::getBgpTopologyPath,
+            this::getEigrpTopologyPath,
+            this::getLayer2TopologyPath,
+            this::getLayer3TopologyPath,
+            this::getOspfTopologyPath,
+            this::getVxlanTopologyPath)) {
+      Path sourcePath = objectPath.apply(source);
+      Path targetPath = objectPath.apply(target);
+      if (Files.exists(sourcePath)) {
+        mkdirs(targetPath.getParent());
+        Files.copy(sourcePath, targetPath, StandardCopyOption.REPLACE_EXISTING);
+      } else {
+        Files.deleteIfExists(targetPath);
+      }
+    }
+  }
 }
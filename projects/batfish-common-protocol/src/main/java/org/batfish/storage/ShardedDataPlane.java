@@ -0,0 +1,238 @@
+package org.batfish.storage;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Suppliers;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ForwardingSet;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSortedMap;
+import com.google.common.collect.ImmutableSortedSet;
+import com.google.common.collect.ImmutableTable;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Table;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+import org.batfish.common.BatfishException;
+import org.batfish.datamodel.AbstractRoute;
+import org.batfish.datamodel.AnnotatedRoute;
+import org.batfish.datamodel.Bgpv4Route;
+import org.batfish.datamodel.Configuration;
+import org.batfish.datamodel.DataPlane;
+import org.batfish.datamodel.EvpnRoute;
+import org.batfish.datamodel.Fib;
+import org.batfish.datamodel.ForwardingAnalysis;
+import org.batfish.datamodel.GenericRib;
+import org.batfish.datamodel.Prefix;
+import org.batfish.datamodel.vxlan.Layer2Vni;
+
+/**
+ * A {@link DataPlane} backed by per-node {@link DataPlaneNodeShard}s that are loaded on demand.
+ *
+ * <p>All returned maps and tables are views over a {@link DataPlaneShardIndex}: their keys are
+ * available without loading anything, and the shard of a node is only loaded when one of its values
+ * is accessed. Loaded shards are kept in a cache of bounded size, so a question that touches a few
+ * nodes never pays for the whole data plane.
+ *
+ * <p>The configurations and the {@link ForwardingAnalysis} are not part of the shards. Both are
+ * read on first use from where they are stored, the former with the snapshot and the latter next
+ * to the shards, so neither requires loading every shard.
+ *
+ * <p>Instances are not meant to be serialized; persist the underlying shards instead.
+ */
+@ParametersAreNonnullByDefault
+public final class ShardedDataPlane implements DataPlane {
+
+  /**
+   * Split {@code dataPlane} into one {@link DataPlaneNodeShard} per node, keyed by hostname.
+   *
+   * <p>The returned map is lazy: each shard is assembled when it is retrieved.
+   */
+  public static @Nonnull Map<String, DataPlaneNodeShard> toShards(DataPlane dataPlane) {
+    SortedMap<String, SortedMap<String, GenericRib<AnnotatedRoute<AbstractRoute>>>> ribs =
+        dataPlane.getRibs();
+    Map<String, Map<String, Fib>> fibs = dataPlane.getFibs();
+    Table<String, String, Set<Bgpv4Route>> bgpRoutes = dataPlane.getBgpRoutes();
+    Table<String, String, Set<EvpnRoute<?, ?>>> evpnRoutes = dataPlane.getEvpnRoutes();
+    Table<String, String, Set<Layer2Vni>> layer2Vnis = dataPlane.getLayer2Vnis();
+    SortedMap<String, SortedMap<String, Map<Prefix, Map<String, Set<String>>>>> prefixTracing =
+        dataPlane.getPrefixTracingInfoSummary();
+    return Maps.asMap(
+        ribs.keySet(),
+        hostname ->
+            new DataPlaneNodeShard(
+                ribs.get(hostname),
+                fibs.getOrDefault(hostname, ImmutableMap.of()),
+                bgpRoutes.row(hostname),
+                evpnRoutes.row(hostname),
+                layer2Vnis.row(hostname),
+                prefixTracing.getOrDefault(hostname, ImmutableSortedMap.of())));
+  }
+
+  /** Compute the {@link DataPlaneShardIndex} describing the shards of {@code dataPlane}. */
+  public static @Nonnull DataPlaneShardIndex toIndex(DataPlane dataPlane) {
+    return new DataPlaneShardIndex(Maps.transformValues(dataPlane.getRibs(), SortedMap::keySet));
+  }
+
+  @Nonnull private final DataPlaneShardIndex _index;
+  @Nonnull private final SortedSet<String> _nodes;
+  @Nonnull private final Supplier<Map<String, Configuration>> _configurations;
+  @Nonnull private final LoadingCache<String, DataPlaneNodeShard> _shards;
+  @Nonnull private final Supplier<ForwardingAnalysis> _forwardingAnalysis;
+
+  /**
+   * Create a new {@link ShardedDataPlane} over {@code index}. The shard of a node is loaded by
+   * applying {@code shardLoader} to its hostname, and at most {@code maxCachedShards} loaded shards
+   * are retained. The configurations and the {@link ForwardingAnalysis} are obtained from {@code
+   * configurationsLoader} and {@code forwardingAnalysisLoader} on first use.
+   */
+  public ShardedDataPlane(
+      DataPlaneShardIndex index,
+      Supplier<Map<String, Configuration>> configurationsLoader,
+      Function<String, DataPlaneNodeShard> shardLoader,
+      Supplier<ForwardingAnalysis> forwardingAnalysisLoader,
+      int maxCachedShards) {
+    checkArgument(maxCachedShards > 0, "Shard cache size must be positive");
+    _index = index;
+    _nodes = ImmutableSortedSet.copyOf(index.getVrfsByNode().keySet());
+    _configurations = Suppliers.memoize(configurationsLoader::get);
+    _shards =
+        CacheBuilder.newBuilder()
+            .maximumSize(maxCachedShards)
+            .build(CacheLoader.from(shardLoader::apply));
+    _forwardingAnalysis = Suppliers.memoize(forwardingAnalysisLoader::get);
+  }
+
+  @Nonnull
+  @Override
+  public Table<String, String, Set<Bgpv4Route>> getBgpRoutes() {
+    return lazyTable(DataPlaneNodeShard::getBgpRoutes);
+  }
+
+  @Nonnull
+  @Override
+  public Set<Bgpv4Route> getBgpRoutes(String hostname, String vrfName, Prefix network) {
+    return _nodes.contains(hostname)
+        ? getShard(hostname).getBgpRoutes(vrfName, network)
+        : ImmutableSet.of();
+  }
+
+  @Nonnull
+  @Override
+  public Table<String, String, Set<EvpnRoute<?, ?>>> getEvpnRoutes() {
+    return lazyTable(DataPlaneNodeShard::getEvpnRoutes);
+  }
+
+  @Nonnull
+  @Override
+  public Set<EvpnRoute<?, ?>> getEvpnRoutes(String hostname, String vrfName, Prefix network) {
+    return _nodes.contains(hostname)
+        ? getShard(hostname).getEvpnRoutes(vrfName, network)
+        : ImmutableSet.of();
+  }
+
+  @Nonnull
+  @Override
+  public Map<String, Configuration> getConfigurations() {
+    return _configurations.get();
+  }
+
+  @Nonnull
+  @Override
+  public Map<String, Map<String, Fib>> getFibs() {
+    return Maps.asMap(_nodes, hostname -> lazyVrfMap(hostname, DataPlaneNodeShard::getFibs));
+  }
+
+  @Nonnull
+  @Override
+  public ForwardingAnalysis getForwardingAnalysis() {
+    return _forwardingAnalysis.get();
+  }
+
+  @Nonnull
+  @Override
+  public SortedMap<String, SortedMap<String, GenericRib<AnnotatedRoute<AbstractRoute>>>> getRibs() {
+    return Maps.asMap(_nodes, hostname -> lazyVrfMap(hostname, DataPlaneNodeShard::getRibs));
+  }
+
+  @Nonnull
+  @Override
+  public SortedMap<String, SortedMap<String, Map<Prefix, Map<String, Set<String>>>>>
+      getPrefixTracingInfoSummary() {
+    return Maps.asMap(
+        _nodes, hostname -> lazyVrfMap(hostname, DataPlaneNodeShard::getPrefixTracingInfoSummary));
+  }
+
+  @Nonnull
+  @Override
+  public Table<String, String, Set<Layer2Vni>> getLayer2Vnis() {
+    return lazyTable(DataPlaneNodeShard::getLayer2Vnis);
+  }
+
+  @VisibleForTesting
+  long getCachedShardCount() {
+    _shards.cleanUp();
+    return _shards.size();
+  }
+
+  private @Nonnull DataPlaneNodeShard getShard(String hostname) {
+    try {
+      return _shards.getUnchecked(hostname);
+    } catch (UncheckedExecutionException e) {
+      throw new BatfishException(
+          String.format("Failed to load data plane shard for node '%s'", hostname), e.getCause());
+    }
+  }
+
+  /** Returns a VRF-keyed view of a value of the shard of {@code hostname}. */
+  private @Nonnull <T> SortedMap<String, T> lazyVrfMap(
+      String hostname, Function<DataPlaneNodeShard, Map<String, T>> getter) {
+    return Maps.asMap(
+        _index.getVrfsByNode().get(hostname), vrf -> getter.apply(getShard(hostname)).get(vrf));
+  }
+
+  /** Returns a node/VRF table whose cells are read from the owning shard on each access. */
+  private @Nonnull <T> Table<String, String, Set<T>> lazyTable(
+      Function<DataPlaneNodeShard, Map<String, Set<T>>> getter) {
+    ImmutableTable.Builder<String, String, Set<T>> table = ImmutableTable.builder();
+    _index
+        .getVrfsByNode()
+        .forEach(
+            (hostname, vrfs) ->
+                vrfs.forEach(
+                    vrf ->
+                        table.put(
+                            hostname,
+                            vrf,
+                            new ShardBackedSet<>(
+                                () -> getter.apply(getShard(hostname)).get(vrf)))));
+    return table.build();
+  }
+
+  /** A {@link Set} that delegates to a set stored in a shard, fetching the shard on each access. */
+  private static final class ShardBackedSet<T> extends ForwardingSet<T> {
+
+    @Nonnull private final Supplier<Set<T>> _delegate;
+
+    private ShardBackedSet(Supplier<Set<T>> delegate) {
+      _delegate = delegate;
+    }
+
+    @Override
+    protected Set<T> delegate() {
+      Set<T> set = _delegate.get();
+      return set == null ? ImmutableSet.of() : set;
+    }
+  }
+}
@@ -9,6 +9,8 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.SortedMap;
 import java.util.SortedSet;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
@@ -19,6 +21,7 @@ import org.batfish.common.topology.Layer1Topology;
 import org.batfish.common.topology.Layer2Topology;
 import org.batfish.datamodel.AnalysisMetadata;
 import org.batfish.datamodel.Configuration;
+import org.batfish.datamodel.DataPlane;
 import org.batfish.datamodel.SnapshotMetadata;
 import org.batfish.datamodel.Topology;
 import org.batfish.datamodel.answers.AnswerMetadata;
@@ -51,6 +54,15 @@ public interface StorageProvider {
   @Nullable
   SortedMap<String, Configuration> loadConfigurations(NetworkId network, SnapshotId snapshot);
 
+  /**
+   * Passes each configuration of the given snapshot to {@code consumer} as soon as it has been
+   * deserialized, in no particular order, without holding all of them in memory. {@code consumer}
+   * is only invoked on the calling thread. If a serialized copy of these configurations is not
+   * already present, then this function returns {@code false} without invoking {@code consumer}.
+   */
+  boolean loadConfigurations(
+      NetworkId network, SnapshotId snapshot, Consumer<Configuration> consumer);
+
   /**
    * Returns the {@link ConvertConfigurationAnswerElement} that is the result of the phase that
    * converts vendor-specific configurations to vendor-independent configurations.
@@ -625,4 +637,63 @@ public interface StorageProvider {
    */
   void storeVxlanTopology(VxlanTopology vxlanTopology, NetworkSnapshot networkSnapshot)
       throws IOException;
+
+  /**
+   * Stores the provided converged {@code dataPlane} for the provided {@link NetworkSnapshot} as one
+   * shard per node, its {@link org.batfish.datamodel.ForwardingAnalysis} and an index, replacing
+   * any previously-stored data plane shards. The configurations are not stored.
+   *
+   * @throws IOException if there is an error writing the {@code dataPlane}
+   */
+  void storeDataPlane(DataPlane dataPlane, NetworkSnapshot networkSnapshot) throws IOException;
+
+  /**
+   * Returns {@code true} iff a data plane stored by {@link #storeDataPlane(DataPlane,
+   * NetworkSnapshot)} exists for the provided {@link NetworkSnapshot}.
+   */
+  boolean hasDataPlane(NetworkSnapshot networkSnapshot);
+
+  /**
+   * Loads the converged {@link DataPlane} for the provided {@link NetworkSnapshot}. Only the index
+   * is read eagerly; the shard of each node is read when the returned {@link DataPlane} first
+   * accesses it, and at most {@code maxCachedShards} shards are kept in memory at once. The stored
+   * data plane does not include the configurations of the snapshot: the returned {@link DataPlane}
+   * gets them from {@code configurations} when first asked.
+   *
+   * @throws IOException if there is an error reading the data plane index
+   */
+  @Nonnull
+  DataPlane loadDataPlane(
+      NetworkSnapshot networkSnapshot,
+      Supplier<Map<String, Configuration>> configurations,
+      int maxCachedShards)
+      throws IOException;
+
+  /**
+   * Stores the fingerprint of the inputs from which the data plane of the provided {@link
+   * NetworkSnapshot} was computed. Must be called after {@link #storeDataPlane(DataPlane,
+   * NetworkSnapshot)}, which discards any previously-stored fingerprint.
+   *
+   * @throws IOException if there is an error writing the fingerprint
+   */
+  void storeDataPlaneFingerprint(String fingerprint, NetworkSnapshot networkSnapshot)
+      throws IOException;
+
+  /**
+   * Loads the fingerprint stored by {@link #storeDataPlaneFingerprint(String, NetworkSnapshot)}, or
+   * returns {@link Optional#empty()} if the data plane of the provided {@link NetworkSnapshot} has
+   * no fingerprint.
+   *
+   * @throws IOException if there is an error reading the fingerprint
+   */
+  @Nonnull
+  Optional<String> loadDataPlaneFingerprint(NetworkSnapshot networkSnapshot) throws IOException;
+
+  /**
+   * Replaces the data plane of {@code target}, along with its fingerprint, its answer element and
+   * the topologies computed with it, by a copy of those of {@code source}.
+   *
+   * @throws IOException if there is an error copying the data plane
+   */
+  void copyDataPlane(NetworkSnapshot source, NetworkSnapshot target) throws IOException;
 }
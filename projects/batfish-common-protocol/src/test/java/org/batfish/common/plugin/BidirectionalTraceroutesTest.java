@@ -0,0 +1,121 @@
+package org.batfish.common.plugin;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSortedMap;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.SortedMap;
+import org.batfish.datamodel.Flow;
+import org.batfish.datamodel.FlowDisposition;
+import org.batfish.datamodel.Ip;
+import org.batfish.datamodel.flow.FirewallSessionTraceInfo;
+import org.batfish.datamodel.flow.Hop;
+import org.batfish.datamodel.flow.Trace;
+import org.batfish.datamodel.flow.TraceAndReverseFlow;
+import org.batfish.datamodel.pojo.Node;
+import org.junit.Test;
+
+/** Tests of {@link BidirectionalTraceroutes}. */
+public final class BidirectionalTraceroutesTest {
+
+  /**
+   * Accepts flows to {@link #ACCEPTING_IP} at the destination node named by their destination IP,
+   * denies all others, and records the flows of each call.
+   */
+  private static final class TestTracerouteEngine implements TracerouteEngine {
+    private final List<Set<Flow>> _calls = new ArrayList<>();
+
+    @Override
+    public SortedMap<Flow, List<TraceAndReverseFlow>> computeTracesAndReverseFlows(
+        Set<Flow> flows, Set<FirewallSessionTraceInfo> sessions, boolean ignoreFilters) {
+      _calls.add(flows);
+      return flows.stream()
+          .collect(
+              ImmutableSortedMap.toImmutableSortedMap(
+                  Comparator.naturalOrder(), flow -> flow, TestTracerouteEngine::trace));
+    }
+
+    private static List<TraceAndReverseFlow> trace(Flow flow) {
+      Hop hop = new Hop(new Node(flow.getDstIp().toString()), ImmutableList.of());
+      if (!flow.getDstIp().equals(ACCEPTING_IP) && !flow.getDstIp().equals(SRC_IP)) {
+        return ImmutableList.of(
+            new TraceAndReverseFlow(
+                new Trace(FlowDisposition.DENIED_IN, ImmutableList.of(hop)),
+                null,
+                ImmutableList.of()));
+      }
+      Flow reverseFlow =
+          flow.toBuilder()
+              .setIngressNode(flow.getDstIp().toString())
+              .setSrcIp(flow.getDstIp())
+              .setDstIp(flow.getSrcIp())
+              .build();
+      return ImmutableList.of(
+          new TraceAndReverseFlow(
+              new Trace(FlowDisposition.ACCEPTED, ImmutableList.of(hop)),
+              reverseFlow,
+              ImmutableList.of()));
+    }
+  }
+
+  private static final Ip SRC_IP = Ip.parse("1.1.1.1");
+  private static final Ip ACCEPTING_IP = Ip.parse("2.2.2.2");
+
+  private static Flow flowTo(Ip dstIp) {
+    return Flow.builder().setIngressNode("src").setSrcIp(SRC_IP).setDstIp(dstIp).build();
+  }
+
+  @Test
+  public void testCompute() {
+    TestTracerouteEngine engine = new TestTracerouteEngine();
+    Flow accepted = flowTo(ACCEPTING_IP);
+    Flow denied = flowTo(Ip.parse("3.3.3.3"));
+
+    BidirectionalTraceroutes traceroutes =
+        BidirectionalTraceroutes.compute(ImmutableSet.of(accepted, denied), true, engine);
+
+    // one batch of forward flows, one batch of reverse flows
+    assertThat(engine._calls.size(), equalTo(2));
+
+    TraceAndReverseFlow acceptedTrace = traceroutes.getForwardTraces(accepted).get(0);
+    List<TraceAndReverseFlow> reverseTraces = traceroutes.getReverseTraces(acceptedTrace);
+    assertThat(reverseTraces.size(), equalTo(1));
+    assertThat(
+        reverseTraces.get(0).getTrace(),
+        equalTo(TestTracerouteEngine.trace(acceptedTrace.getReverseFlow()).get(0).getTrace()));
+    assertThat(traceroutes.getReverseTraces(traceroutes.getForwardTraces(denied).get(0)), empty());
+  }
+
+  @Test
+  public void testComputeNoFlows() {
+    TestTracerouteEngine engine = new TestTracerouteEngine();
+
+    BidirectionalTraceroutes.compute(ImmutableSet.of(), true, engine);
+
+    assertThat(engine._calls, empty());
+  }
+
+  @Test
+  public void testComputeDeniedOnly() {
+    TestTracerouteEngine engine = new TestTracerouteEngine();
+    Flow denied = flowTo(Ip.parse("3.3.3.3"));
+
+    BidirectionalTraceroutes.compute(ImmutableSet.of(denied), true, engine);
+
+    assertThat(engine._calls, contains(ImmutableSet.of(denied)));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testGetForwardTracesUntracedFlow() {
+    BidirectionalTraceroutes.compute(ImmutableSet.of(), true, new TestTracerouteEngine())
+        .getForwardTraces(flowTo(ACCEPTING_IP));
+  }
+}
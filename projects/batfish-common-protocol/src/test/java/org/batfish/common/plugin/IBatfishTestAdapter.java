@@ -13,7 +13,6 @@ import org.apache.commons.configuration2.ImmutableConfiguration;
 import org.batfish.common.Answerer;
 import org.batfish.common.BatfishLogger;
 import org.batfish.common.NetworkSnapshot;
-import org.batfish.common.bdd.BDDPacket;
 import org.batfish.common.topology.IpOwners;
 import org.batfish.common.topology.Layer1Topology;
 import org.batfish.common.topology.Layer2Topology;
@@ -412,7 +411,7 @@ public class IBatfishTestAdapter implements IBatfish {
 
   @Override
   public @Nonnull BidirectionalReachabilityResult bidirectionalReachability(
-      NetworkSnapshot snapshot, BDDPacket bddPacket, ReachabilityParameters parameters) {
+      NetworkSnapshot snapshot, ReachabilityParameters parameters) {
     throw new UnsupportedOperationException();
   }
 
@@ -4,6 +4,8 @@ import static org.hamcrest.Matchers.equalTo;
 import static org.junit.Assert.assertThat;
 
 import java.nio.file.Path;
+import org.batfish.common.BatfishLogger;
+import org.batfish.common.util.serialization.SerializationFormat;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
@@ -14,14 +16,42 @@ import org.junit.runners.JUnit4;
 public class PluginConsumerTest {
   @Rule public TemporaryFolder _folder = new TemporaryFolder();
 
+  private static PluginConsumer pluginConsumer(SerializationFormat serializationFormat) {
+    return new PluginConsumer(serializationFormat) {
+      @Override
+      public PluginClientType getType() {
+        return PluginClientType.BATFISH;
+      }
+
+      @Override
+      public BatfishLogger getLogger() {
+        return null;
+      }
+    };
+  }
+
   @Test
   public void testSerializingAndDeserializing() throws Exception {
     Path serializeFile = _folder.newFile().toPath();
 
     int[] ints = new int[] {1, 2, 3};
-    PluginConsumer.serializeObject(ints, serializeFile);
+    pluginConsumer(SerializationFormat.COMPACT).serializeObject(ints, serializeFile);
 
     int[] value = PluginConsumer.deserializeObject(serializeFile, int[].class);
     assertThat(value, equalTo(ints));
   }
+
+  @Test
+  public void testDeserializingEitherFormat() throws Exception {
+    Path compactFile = _folder.newFile().toPath();
+    Path javaFile = _folder.newFile().toPath();
+    int[] ints = new int[] {1, 2, 3};
+
+    pluginConsumer(SerializationFormat.COMPACT).serializeObject(ints, compactFile);
+    pluginConsumer(SerializationFormat.JAVA).serializeObject(ints, javaFile);
+
+    // Data is readable regardless of the format of the reading consumer
+    assertThat(PluginConsumer.deserializeObject(compactFile, int[].class), equalTo(ints));
+    assertThat(PluginConsumer.deserializeObject(javaFile, int[].class), equalTo(ints));
+  }
 }
@@ -0,0 +1,65 @@
+package org.batfish.common.util.serialization;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSortedMap;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.io.StreamCorruptedException;
+import java.util.SortedMap;
+import org.batfish.datamodel.Ip;
+import org.batfish.datamodel.Prefix;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+/** Tests of {@link CompactObjectSerializer}. */
+public final class CompactObjectSerializerTest {
+
+  @Rule public ExpectedException _thrown = ExpectedException.none();
+
+  private static final SortedMap<String, ImmutableList<Prefix>> OBJECT =
+      ImmutableSortedMap.of(
+          "a",
+          ImmutableList.of(Prefix.parse("1.1.1.0/24"), Prefix.create(Ip.parse("2.2.2.2"), 32)),
+          "b",
+          ImmutableList.of());
+
+  private static byte[] serialize(ObjectSerializer serializer, Serializable object)
+      throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    serializer.serialize(object, out);
+    return out.toByteArray();
+  }
+
+  @Test
+  public void testRoundTrip() throws Exception {
+    byte[] data = serialize(CompactObjectSerializer.INSTANCE, (Serializable) OBJECT);
+
+    assertThat(
+        CompactObjectSerializer.INSTANCE.deserialize(
+            new ByteArrayInputStream(data), ImmutableSortedMap.class),
+        equalTo(OBJECT));
+  }
+
+  @Test
+  public void testSmallerThanJavaSerialization() throws Exception {
+    assertThat(
+        serialize(CompactObjectSerializer.INSTANCE, (Serializable) OBJECT).length,
+        lessThan(serialize(JavaObjectSerializer.INSTANCE, (Serializable) OBJECT).length));
+  }
+
+  @Test
+  public void testBadHeader() throws Exception {
+    byte[] data = serialize(JavaObjectSerializer.INSTANCE, (Serializable) OBJECT);
+
+    _thrown.expect(StreamCorruptedException.class);
+    CompactObjectSerializer.INSTANCE.deserialize(
+        new ByteArrayInputStream(data), ImmutableSortedMap.class);
+  }
+}
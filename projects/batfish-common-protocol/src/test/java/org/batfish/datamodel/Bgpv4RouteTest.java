@@ -1,6 +1,8 @@
 package org.batfish.datamodel;
 
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.Assert.assertThat;
 
 import com.google.common.collect.ImmutableSet;
@@ -120,4 +122,35 @@ public class Bgpv4RouteTest {
         .setOriginType(OriginType.IGP)
         .build();
   }
+
+  @Test
+  public void testAttributesShared() {
+    Builder builder =
+        Bgpv4Route.builder()
+            .setNetwork(Prefix.parse("1.1.1.0/24"))
+            .setNextHopIp(Ip.parse("2.2.2.2"))
+            .setOriginatorIp(Ip.parse("1.1.1.1"))
+            .setOriginType(OriginType.IGP)
+            .setProtocol(RoutingProtocol.BGP)
+            .setAsPath(AsPath.ofSingletonAsSets(1L, 2L))
+            .setCommunities(ImmutableSet.of(StandardCommunity.of(1L)));
+    Bgpv4Route route = builder.build();
+
+    // Routes differing only in prefix or next hop share their path attributes
+    Bgpv4Route otherPrefix = builder.setNetwork(Prefix.parse("1.1.2.0/24")).build();
+    Bgpv4Route otherNextHop = builder.setNextHopIp(Ip.parse("3.3.3.3")).build();
+    assertThat(otherPrefix._attributes, sameInstance(route._attributes));
+    assertThat(otherNextHop._attributes, sameInstance(route._attributes));
+    assertThat(SerializationUtils.clone(route)._attributes, sameInstance(route._attributes));
+
+    Bgpv4Route otherMed = route.toBuilder().setMetric(5L).build();
+    assertThat(otherMed._attributes, not(sameInstance(route._attributes)));
+    assertThat(otherMed, not(equalTo(route)));
+  }
+
+  @Test
+  public void testAttributesRequireOriginType() {
+    thrown.expect(IllegalArgumentException.class);
+    BgpRouteAttributes.create(null, null, null, 100L, 0L, null, 0);
+  }
 }
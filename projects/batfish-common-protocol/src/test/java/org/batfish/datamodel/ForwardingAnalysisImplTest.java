@@ -1,5 +1,6 @@
 package org.batfish.datamodel;
 
+import static org.batfish.common.util.CollectionUtil.toImmutableMap;
 import static org.batfish.datamodel.ForwardingAnalysisImpl.computeArpFalseDestIp;
 import static org.batfish.datamodel.ForwardingAnalysisImpl.computeArpFalseNextHopIp;
 import static org.batfish.datamodel.ForwardingAnalysisImpl.computeArpReplies;
@@ -12,9 +13,8 @@ import static org.batfish.datamodel.ForwardingAnalysisImpl.computeInsufficientIn
 import static org.batfish.datamodel.ForwardingAnalysisImpl.computeInterfaceArpReplies;
 import static org.batfish.datamodel.ForwardingAnalysisImpl.computeIpsAssignedToThisInterfaceForArpReplies;
 import static org.batfish.datamodel.ForwardingAnalysisImpl.computeIpsRoutedOutInterfaces;
-import static org.batfish.datamodel.ForwardingAnalysisImpl.computeMatchingIps;
 import static org.batfish.datamodel.ForwardingAnalysisImpl.computeNeighborUnreachable;
-import static org.batfish.datamodel.ForwardingAnalysisImpl.computeNextVrfIpsByNodeVrf;
+import static org.batfish.datamodel.ForwardingAnalysisImpl.computeNextVrfIps;
 import static org.batfish.datamodel.ForwardingAnalysisImpl.computeNullRoutedIps;
 import static org.batfish.datamodel.ForwardingAnalysisImpl.computeRoutesWhereDstIpCanBeArpIp;
 import static org.batfish.datamodel.ForwardingAnalysisImpl.computeRoutesWithDestIpEdge;
@@ -33,6 +33,7 @@ import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasEntry;
 import static org.hamcrest.Matchers.hasKey;
 import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
@@ -43,8 +44,10 @@ import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSortedMap;
 import com.google.common.collect.ImmutableSortedSet;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.Function;
 import org.batfish.common.topology.IpOwners;
 import org.batfish.datamodel.visitors.GenericIpSpaceVisitor;
 import org.junit.Before;
@@ -87,6 +90,24 @@ public class ForwardingAnalysisImplTest {
     _ib = nf.interfaceBuilder();
   }
 
+  /** Mapping: node -&gt; vrf -&gt; {@code f} applied to the FIB of that vrf */
+  private static <T> Map<String, Map<String, T>> perFib(
+      Map<String, Map<String, Fib>> fibs, Function<Fib, T> f) {
+    return toImmutableMap(
+        fibs,
+        Entry::getKey, // node
+        nodeEntry ->
+            toImmutableMap(
+                nodeEntry.getValue(),
+                Entry::getKey, // vrf
+                vrfEntry -> f.apply(vrfEntry.getValue())));
+  }
+
+  private static Map<String, Map<String, Map<Prefix, IpSpace>>> computeMatchingIps(
+      Map<String, Map<String, Fib>> fibs) {
+    return perFib(fibs, Fib::getMatchingIps);
+  }
+
   @Test
   public void testComputeArpReplies() {
     Configuration c1 = _cb.build();
@@ -749,7 +770,7 @@ public class ForwardingAnalysisImplTest {
   }
 
   @Test
-  public void testComputeNextVrfIpsByNodeVrf() {
+  public void testComputeNextVrfIps() {
     String c1 = "c1";
     String v1 = "v1";
     String v2 = "v2";
@@ -792,7 +813,7 @@ public class ForwardingAnalysisImplTest {
 
     // Each VRF should delegate the matching IpSpace for its nextVrf route to the other VRF.
     assertThat(
-        computeNextVrfIpsByNodeVrf(computeMatchingIps(fibs), fibs),
+        perFib(fibs, fib -> computeNextVrfIps(fib, fib.getMatchingIps())),
         equalTo(
             ImmutableMap.of(
                 c1,
@@ -838,7 +859,8 @@ public class ForwardingAnalysisImplTest {
                                         otherRoute.getNextHopInterface()),
                                     ImmutableList.of(otherRoute)))))
                     .build()));
-    Map<String, Map<String, IpSpace>> result = computeNullRoutedIps(computeMatchingIps(fibs), fibs);
+    Map<String, Map<String, IpSpace>> result =
+        perFib(fibs, fib -> computeNullRoutedIps(fib, fib.getMatchingIps()));
 
     /* IPs for the null route should appear */
     assertThat(result, hasEntry(equalTo(c1), hasEntry(equalTo(v1), containsIp(P1.getStartIp()))));
@@ -871,7 +893,8 @@ public class ForwardingAnalysisImplTest {
                                     .build())))))
             .build();
     Map<String, Map<String, Fib>> fibs = ImmutableMap.of(c1, ImmutableMap.of(v1, fib));
-    Map<String, Map<String, IpSpace>> result = ForwardingAnalysisImpl.computeRoutableIps(fibs);
+    Map<String, Map<String, IpSpace>> result =
+        perFib(fibs, ForwardingAnalysisImpl::computeRoutableIps);
 
     assertThat(
         result,
@@ -987,7 +1010,7 @@ public class ForwardingAnalysisImplTest {
     _vb.setName(v2).setOwner(config).build();
     _ib.setName(i1).setVrf(vrf1).setOwner(config).build();
     Map<String, Map<String, Map<String, Set<AbstractRoute>>>> result =
-        ForwardingAnalysisImpl.computeRoutesWithNextHop(fibs);
+        perFib(fibs, ForwardingAnalysisImpl::computeRoutesWithNextHop);
 
     assertThat(
         result,
@@ -1586,6 +1609,66 @@ public class ForwardingAnalysisImplTest {
             .containsIp(ip2, c1.getIpSpaces()));
   }
 
+  @Test
+  public void testReusesFibAnalysisOfUnchangedFib() {
+    Configuration c1 = _cb.setHostname("c1").build();
+    Vrf v1 = _vb.setName("v1").setOwner(c1).build();
+    Vrf v2 = _vb.setName("v2").setOwner(c1).build();
+    _ib.setActive(true)
+        .setAddresses(ConcreteInterfaceAddress.parse("1.0.0.1/24"))
+        .setName("i1")
+        .setOwner(c1)
+        .setVrf(v1)
+        .build();
+    StaticRoute route =
+        StaticRoute.builder()
+            .setNetwork(P1)
+            .setNextHopInterface("i1")
+            .setAdministrativeCost(1)
+            .build();
+    Fib unchangedFib =
+        MockFib.builder()
+            .setMatchingIps(ImmutableMap.of(P1, P1.toIpSpace()))
+            .setFibEntries(
+                ImmutableMap.of(
+                    Ip.AUTO,
+                    ImmutableSet.of(
+                        new FibEntry(new FibForward(Ip.AUTO, "i1"), ImmutableList.of(route)))))
+            .build();
+    Map<String, Configuration> configs = ImmutableMap.of(c1.getHostname(), c1);
+    Topology topology = new Topology(ImmutableSortedSet.of());
+
+    ForwardingAnalysisImpl previous =
+        new ForwardingAnalysisImpl(
+            configs,
+            ImmutableMap.of(
+                c1.getHostname(),
+                ImmutableMap.of(
+                    v1.getName(), unchangedFib, v2.getName(), MockFib.builder().build())),
+            topology,
+            computeLocationInfo(configs));
+    ForwardingAnalysisImpl next =
+        new ForwardingAnalysisImpl(
+            configs,
+            ImmutableMap.of(
+                c1.getHostname(),
+                ImmutableMap.of(
+                    v1.getName(), unchangedFib, v2.getName(), MockFib.builder().build())),
+            topology,
+            computeLocationInfo(configs),
+            previous);
+
+    // The analysis of the same Fib instance is reused; that of an equal new instance is not.
+    Map<String, IpSpace> previousRoutableIps = previous.getRoutableIps().get(c1.getHostname());
+    Map<String, IpSpace> nextRoutableIps = next.getRoutableIps().get(c1.getHostname());
+    assertThat(
+        nextRoutableIps.get(v1.getName()), sameInstance(previousRoutableIps.get(v1.getName())));
+    assertThat(
+        nextRoutableIps.get(v2.getName()),
+        not(sameInstance(previousRoutableIps.get(v2.getName()))));
+    assertThat(nextRoutableIps, equalTo(previousRoutableIps));
+  }
+
   private static class MockIpSpace extends IpSpace {
 
     private final int _num;
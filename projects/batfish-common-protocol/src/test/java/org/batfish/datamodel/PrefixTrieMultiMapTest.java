@@ -17,6 +17,7 @@ import com.google.common.testing.EqualsTester;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map.Entry;
+import java.util.Random;
 import java.util.Set;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -122,6 +123,60 @@ public class PrefixTrieMultiMapTest {
     assertThat(ptm1.longestPrefixMatch(Ip.parse("1.1.1.130")), equalTo(ImmutableSet.of(2)));
   }
 
+  @Test
+  public void testLongestPrefixMatchMaxLength() {
+    PrefixTrieMultiMap<Integer> map = new PrefixTrieMultiMap<>(Prefix.ZERO);
+    map.put(Prefix.parse("1.0.0.0/8"), 1);
+    map.put(Prefix.parse("1.1.0.0/16"), 2);
+    map.put(Prefix.parse("1.1.1.1/32"), 3);
+    Ip ip = Ip.parse("1.1.1.1");
+
+    assertThat(map.longestPrefixMatch(ip, 32), contains(3));
+    assertThat(map.longestPrefixMatch(ip, 31), contains(2));
+    assertThat(map.longestPrefixMatch(ip, 16), contains(2));
+    assertThat(map.longestPrefixMatch(ip, 15), contains(1));
+    assertThat(map.longestPrefixMatch(ip, 0), empty());
+  }
+
+  /** Compare look-ups on a large random trie to a linear scan over its entries. */
+  @Test
+  public void testLongestPrefixMatchRandom() {
+    Random random = new Random(0);
+    PrefixTrieMultiMap<Integer> map = new PrefixTrieMultiMap<>(Prefix.ZERO);
+    List<Prefix> prefixes = new ArrayList<>();
+    for (int i = 0; i < 2000; i++) {
+      // few distinct high bits, so that prefixes overlap
+      long bits = ((long) random.nextInt(4) << 30) | (random.nextInt() & 0xFFFFL);
+      Prefix prefix = Prefix.create(Ip.create(bits), random.nextInt(Prefix.MAX_PREFIX_LENGTH + 1));
+      prefixes.add(prefix);
+      map.put(prefix, i);
+    }
+    for (int i = 0; i < prefixes.size(); i += 3) {
+      map.remove(prefixes.get(i), i);
+    }
+
+    for (int i = 0; i < 2000; i++) {
+      Ip ip = Ip.create(((long) random.nextInt(4) << 30) | (random.nextInt() & 0xFFFFL));
+      int maxLength = random.nextInt(Prefix.MAX_PREFIX_LENGTH + 1);
+      int longest = -1;
+      ImmutableSet.Builder<Integer> expected = ImmutableSet.builder();
+      for (int j = 0; j < prefixes.size(); j++) {
+        Prefix prefix = prefixes.get(j);
+        if (j % 3 == 0 || prefix.getPrefixLength() > maxLength || !prefix.containsIp(ip)) {
+          continue;
+        }
+        if (prefix.getPrefixLength() > longest) {
+          longest = prefix.getPrefixLength();
+          expected = ImmutableSet.builder();
+        }
+        if (prefix.getPrefixLength() == longest) {
+          expected.add(j);
+        }
+      }
+      assertThat(map.longestPrefixMatch(ip, maxLength), equalTo(expected.build()));
+    }
+  }
+
   @Test
   public void testPutAtRoot() {
     Prefix prefix = Prefix.parse("128.0.0.0/1");
@@ -0,0 +1,140 @@
+package org.batfish.datamodel.acl;
+
+import static org.batfish.datamodel.ExprAclLine.accepting;
+import static org.batfish.datamodel.ExprAclLine.rejecting;
+import static org.batfish.datamodel.acl.AclLineMatchExprs.and;
+import static org.batfish.datamodel.acl.AclLineMatchExprs.matchDst;
+import static org.batfish.datamodel.acl.AclLineMatchExprs.matchIpProtocol;
+import static org.batfish.datamodel.acl.AclLineMatchExprs.matchSrc;
+import static org.batfish.datamodel.acl.AclLineMatchExprs.matchSrcInterface;
+import static org.batfish.datamodel.acl.AclLineMatchExprs.not;
+import static org.batfish.datamodel.acl.AclLineMatchExprs.or;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.util.BitSet;
+import java.util.Map;
+import org.batfish.datamodel.AclAclLine;
+import org.batfish.datamodel.AclIpSpace;
+import org.batfish.datamodel.FilterResult;
+import org.batfish.datamodel.Flow;
+import org.batfish.datamodel.Ip;
+import org.batfish.datamodel.IpAccessList;
+import org.batfish.datamodel.IpProtocol;
+import org.batfish.datamodel.IpSpace;
+import org.batfish.datamodel.IpSpaceReference;
+import org.batfish.datamodel.IpWildcard;
+import org.batfish.datamodel.Prefix;
+import org.junit.Test;
+
+/** Tests of {@link CompiledIpAccessList}. */
+public final class CompiledIpAccessListTest {
+
+  private static final IpAccessList REFERENCED =
+      IpAccessList.builder()
+          .setName("referenced")
+          .setLines(accepting(matchSrc(Prefix.parse("10.0.0.0/24"))))
+          .build();
+
+  private static final Map<String, IpAccessList> ACLS =
+      ImmutableMap.of(REFERENCED.getName(), REFERENCED);
+
+  private static final Map<String, IpSpace> IP_SPACES =
+      ImmutableMap.of("servers", Prefix.parse("1.1.1.0/24").toIpSpace());
+
+  private static final IpAccessList ACL =
+      IpAccessList.builder()
+          .setName("acl")
+          .setLines(
+              // 0
+              rejecting(matchDst(Prefix.parse("1.1.1.1/32"))),
+              // 1
+              accepting(and(matchDst(new IpSpaceReference("servers")), matchIpProtocol(6))),
+              // 2
+              accepting(
+                  or(matchDst(Prefix.parse("2.2.0.0/16")), matchDst(Prefix.parse("3.3.0.0/16")))),
+              // 3
+              rejecting(
+                  matchSrc(
+                      AclIpSpace.permitting(Prefix.parse("10.0.0.0/8").toIpSpace())
+                          .thenRejecting(Prefix.parse("10.0.0.0/16").toIpSpace())
+                          .build())),
+              // 4
+              accepting(matchDst(IpWildcard.ipWithWildcardMask(Ip.parse("4.0.0.4"), 0x00FF0000L))),
+              // 5
+              accepting(and(matchSrcInterface("i1"), matchDst(Prefix.parse("5.5.5.0/24")))),
+              // 6
+              new AclAclLine("acl-line", REFERENCED.getName()),
+              // 7
+              rejecting(not(matchDst(Prefix.parse("6.6.6.0/24")))),
+              // 8
+              accepting(matchDst(new IpSpaceReference("undefined"))))
+          .build();
+
+  private static Flow flow(String srcIp, String dstIp, IpProtocol ipProtocol) {
+    return Flow.builder()
+        .setIngressNode("node")
+        .setSrcIp(Ip.parse(srcIp))
+        .setDstIp(Ip.parse(dstIp))
+        .setIpProtocol(ipProtocol)
+        .setSrcPort(1234)
+        .setDstPort(80)
+        .build();
+  }
+
+  @Test
+  public void testFilterMatchesIpAccessList() {
+    CompiledIpAccessList compiled = CompiledIpAccessList.compile(ACL, IP_SPACES);
+    for (String srcIp : ImmutableList.of("10.0.0.1", "10.1.0.1", "7.7.7.7")) {
+      for (String dstIp :
+          ImmutableList.of(
+              "1.1.1.1", "1.1.1.2", "2.2.2.2", "3.3.3.3", "4.7.0.4", "5.5.5.5", "6.6.6.6",
+              "8.8.8.8")) {
+        for (IpProtocol ipProtocol : ImmutableList.of(IpProtocol.TCP, IpProtocol.UDP)) {
+          for (String srcInterface : new String[] {"i1", "i2", null}) {
+            Flow flow = flow(srcIp, dstIp, ipProtocol);
+            FilterResult expected = ACL.filter(flow, srcInterface, ACLS, IP_SPACES);
+            FilterResult actual = compiled.filter(flow, srcInterface, ACLS);
+            assertThat(flow.toString(), actual.getMatchLine(), equalTo(expected.getMatchLine()));
+            assertThat(flow.toString(), actual.getAction(), equalTo(expected.getAction()));
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testCandidateLines() {
+    CompiledIpAccessList compiled = CompiledIpAccessList.compile(ACL, IP_SPACES);
+
+    // lines 3, 6 and 7 do not constrain destination IPs, and line 4's wildcard is not a prefix
+    BitSet expected = new BitSet();
+    expected.set(1);
+    expected.set(3);
+    expected.set(4);
+    expected.set(6);
+    expected.set(7);
+    assertThat(
+        compiled.candidateLines(flow("10.1.0.1", "1.1.1.2", IpProtocol.TCP)), equalTo(expected));
+
+    // line 1 requires TCP, line 3 requires a source in 10.0.0.0/8
+    expected.clear(1);
+    expected.clear(3);
+    assertThat(
+        compiled.candidateLines(flow("7.7.7.7", "1.1.1.2", IpProtocol.UDP)), equalTo(expected));
+  }
+
+  @Test
+  public void testCompileCached() {
+    CompiledIpAccessList compiled = CompiledIpAccessList.compile(ACL, IP_SPACES);
+
+    assertThat(CompiledIpAccessList.compile(ACL, IP_SPACES), sameInstance(compiled));
+    assertThat(
+        CompiledIpAccessList.compile(ACL, ImmutableMap.of("other", IP_SPACES.get("servers"))),
+        not(sameInstance(compiled)));
+  }
+}
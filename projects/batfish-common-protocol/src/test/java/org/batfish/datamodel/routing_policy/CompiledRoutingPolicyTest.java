@@ -0,0 +1,123 @@
+package org.batfish.datamodel.routing_policy;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.collect.ImmutableList;
+import org.batfish.datamodel.Configuration;
+import org.batfish.datamodel.ConfigurationFormat;
+import org.batfish.datamodel.Ip;
+import org.batfish.datamodel.LineAction;
+import org.batfish.datamodel.NetworkFactory;
+import org.batfish.datamodel.Prefix;
+import org.batfish.datamodel.RouteFilterLine;
+import org.batfish.datamodel.RouteFilterList;
+import org.batfish.datamodel.StaticRoute;
+import org.batfish.datamodel.SubRange;
+import org.batfish.datamodel.routing_policy.Environment.Direction;
+import org.batfish.datamodel.routing_policy.expr.CallExpr;
+import org.batfish.datamodel.routing_policy.expr.DestinationNetwork;
+import org.batfish.datamodel.routing_policy.expr.MatchPrefixSet;
+import org.batfish.datamodel.routing_policy.expr.NamedPrefixSet;
+import org.batfish.datamodel.routing_policy.expr.Not;
+import org.batfish.datamodel.routing_policy.statement.CallStatement;
+import org.batfish.datamodel.routing_policy.statement.If;
+import org.batfish.datamodel.routing_policy.statement.Statements;
+import org.junit.Before;
+import org.junit.Test;
+
+/** Tests of {@link CompiledRoutingPolicy}. */
+public final class CompiledRoutingPolicyTest {
+
+  private Configuration _c;
+  private RoutingPolicy.Builder _rpb;
+
+  @Before
+  public void setup() {
+    NetworkFactory nf = new NetworkFactory();
+    _c = nf.configurationBuilder().setConfigurationFormat(ConfigurationFormat.CISCO_IOS).build();
+    _rpb = nf.routingPolicyBuilder().setOwner(_c);
+  }
+
+  private static StaticRoute route(String network) {
+    return StaticRoute.builder()
+        .setNetwork(Prefix.parse(network))
+        .setNextHopIp(Ip.parse("10.0.0.1"))
+        .setAdministrativeCost(1)
+        .build();
+  }
+
+  /** Asserts that the interpreter and the compiled policy agree, and returns the decision. */
+  private static boolean process(RoutingPolicy policy, StaticRoute route) {
+    boolean interpreted = policy.process(route, route.toBuilder(), Direction.OUT);
+    boolean compiled =
+        CompiledRoutingPolicy.compile(policy).process(route, route.toBuilder(), Direction.OUT);
+    assertThat(compiled, equalTo(interpreted));
+    return compiled;
+  }
+
+  @Test
+  public void testCallExprAndNamedPrefixSet() {
+    RouteFilterList list =
+        new RouteFilterList(
+            "pl",
+            ImmutableList.of(
+                new RouteFilterLine(
+                    LineAction.PERMIT, Prefix.parse("10.0.0.0/8"), new SubRange(8, 24))));
+    _c.getRouteFilterLists().put(list.getName(), list);
+    _rpb.setName("child")
+        .setStatements(
+            ImmutableList.of(
+                new If(
+                    new MatchPrefixSet(DestinationNetwork.instance(), new NamedPrefixSet("pl")),
+                    ImmutableList.of(Statements.ReturnTrue.toStaticStatement()),
+                    ImmutableList.of(Statements.ReturnFalse.toStaticStatement()))))
+        .build();
+    RoutingPolicy parent =
+        _rpb.setName("parent")
+            .setStatements(
+                ImmutableList.of(
+                    new If(
+                        new Not(new CallExpr("child")),
+                        ImmutableList.of(Statements.ExitReject.toStaticStatement()),
+                        ImmutableList.of(Statements.ExitAccept.toStaticStatement()))))
+            .build();
+
+    assertTrue(process(parent, route("10.1.0.0/16")));
+    assertFalse(process(parent, route("10.1.1.0/25")));
+    assertFalse(process(parent, route("11.0.0.0/8")));
+  }
+
+  @Test
+  public void testUndefinedReferences() {
+    RoutingPolicy undefinedPrefixSet =
+        _rpb.setName("undefinedPrefixSet")
+            .setStatements(
+                ImmutableList.of(
+                    new If(
+                        new MatchPrefixSet(
+                            DestinationNetwork.instance(), new NamedPrefixSet("undefined")),
+                        ImmutableList.of(Statements.ExitReject.toStaticStatement()),
+                        ImmutableList.of(Statements.ExitAccept.toStaticStatement()))))
+            .build();
+    RoutingPolicy undefinedCall =
+        _rpb.setName("undefinedCall")
+            .setStatements(
+                ImmutableList.of(
+                    new CallStatement("undefined"), Statements.ExitAccept.toStaticStatement()))
+            .build();
+
+    assertTrue(process(undefinedPrefixSet, route("10.0.0.0/8")));
+    assertTrue(process(undefinedCall, route("10.0.0.0/8")));
+  }
+
+  @Test
+  public void testCircularReference() {
+    // compilation terminates; evaluation would recurse forever, as in the interpreter
+    RoutingPolicy policy =
+        _rpb.setName("loop").setStatements(ImmutableList.of(new CallStatement("loop"))).build();
+    assertThat(CompiledRoutingPolicy.compile(policy).getName(), equalTo("loop"));
+  }
+}
@@ -0,0 +1,39 @@
+package org.batfish.grammar;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasKey;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+
+import org.batfish.grammar.recovery.RecoveryCombinedParser;
+import org.junit.Test;
+
+/** Tests of {@link DfaCacheStatistics}. */
+public final class DfaCacheStatisticsTest {
+
+  @Test
+  public void testCountsRegisteredPerGrammar() {
+    RecoveryCombinedParser cp =
+        new RecoveryCombinedParser(
+            "simple\n", MockGrammarSettings.builder().setRecordDfaStatistics(true).build());
+    cp.parse();
+    assertThat(
+        cp.getParser().getInterpreter(), instanceOf(CountingBatfishParserATNSimulator.class));
+    assertThat(DfaCacheStatistics.getAllCounts(), hasKey(cp.getParser().getGrammarFileName()));
+  }
+
+  @Test
+  public void testNotRecordedByDefault() {
+    RecoveryCombinedParser cp =
+        new RecoveryCombinedParser("simple\n", MockGrammarSettings.builder().build());
+    assertThat(
+        cp.getParser().getInterpreter(), not(instanceOf(CountingBatfishParserATNSimulator.class)));
+    assertThat(cp.getParser().getInterpreter(), not(instanceOf(CountingParserATNSimulator.class)));
+  }
+
+  @Test
+  public void testHitRateNoPredictions() {
+    assertThat(new DfaCacheStatistics.Counts().getHitRate(), equalTo(0D));
+  }
+}
@@ -18,6 +18,7 @@ public final class MockGrammarSettings implements GrammarSettings {
     private int _maxParseTreePrintLength;
     private boolean _printParseTree;
     private boolean _printParseTreeLineNums;
+    private boolean _recordDfaStatistics;
     private boolean _throwOnLexerError;
     private boolean _throwOnParserError;
 
@@ -31,6 +32,7 @@ public final class MockGrammarSettings implements GrammarSettings {
           _maxParseTreePrintLength,
           _printParseTree,
           _printParseTreeLineNums,
+          _recordDfaStatistics,
           _throwOnLexerError,
           _throwOnParserError);
     }
@@ -65,6 +67,11 @@ public final class MockGrammarSettings implements GrammarSettings {
       return this;
     }
 
+    public @Nonnull Builder setRecordDfaStatistics(boolean recordDfaStatistics) {
+      _recordDfaStatistics = recordDfaStatistics;
+      return this;
+    }
+
     public @Nonnull Builder setThrowOnLexerError(boolean throwOnLexerError) {
       _throwOnLexerError = throwOnLexerError;
       return this;
@@ -86,6 +93,7 @@ public final class MockGrammarSettings implements GrammarSettings {
   private final int _maxParseTreePrintLength;
   private final boolean _printParseTree;
   private final boolean _printParseTreeLineNums;
+  private final boolean _recordDfaStatistics;
   private final boolean _throwOnLexerError;
   private final boolean _throwOnParserError;
 
@@ -97,6 +105,7 @@ public final class MockGrammarSettings implements GrammarSettings {
    * @param maxParserContextTokens See {@link GrammarSettings#getMaxParserContextTokens()}
    * @param maxParseTreePrintLength See {@link GrammarSettings#getMaxParseTreePrintLength()}
    * @param printParseTree See {@link GrammarSettings#getPrintParseTree()}
+   * @param recordDfaStatistics See {@link GrammarSettings#getRecordDfaStatistics()}
    * @param throwOnLexerError See {@link GrammarSettings#getThrowOnLexerError()}
    * @param throwOnParserError See {@link GrammarSettings#getThrowOnParserError()}
    */
@@ -107,6 +116,7 @@ public final class MockGrammarSettings implements GrammarSettings {
       int maxParseTreePrintLength,
       boolean printParseTree,
       boolean printParseTreeLineNums,
+      boolean recordDfaStatistics,
       boolean throwOnLexerError,
       boolean throwOnParserError) {
     _disableUnrecognized = disableUnrecognized;
@@ -115,6 +125,7 @@ public final class MockGrammarSettings implements GrammarSettings {
     _maxParseTreePrintLength = maxParseTreePrintLength;
     _printParseTree = printParseTree;
     _printParseTreeLineNums = printParseTreeLineNums;
+    _recordDfaStatistics = recordDfaStatistics;
     _throwOnLexerError = throwOnLexerError;
     _throwOnParserError = throwOnParserError;
   }
@@ -149,6 +160,11 @@ public final class MockGrammarSettings implements GrammarSettings {
     return _printParseTreeLineNums;
   }
 
+  @Override
+  public boolean getRecordDfaStatistics() {
+    return _recordDfaStatistics;
+  }
+
   @Override
   public boolean getThrowOnLexerError() {
     return _throwOnLexerError;
@@ -2,20 +2,24 @@ package org.batfish.storage;
 
 import static org.batfish.storage.FileBasedStorage.mkdirs;
 import static org.batfish.storage.FileBasedStorage.objectKeyToRelativePath;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.hamcrest.io.FileMatchers.anExistingDirectory;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSortedMap;
 import com.google.common.collect.Sets;
 import com.google.common.io.ByteStreams;
 import java.io.ByteArrayInputStream;
@@ -23,14 +27,18 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.Serializable;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.CyclicBarrier;
 import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.commons.io.FileUtils;
@@ -47,9 +55,19 @@ import org.batfish.common.topology.Layer2Topology;
 import org.batfish.common.util.BatfishObjectMapper;
 import org.batfish.common.util.CommonUtil;
 import org.batfish.common.util.UnzipUtility;
+import org.batfish.datamodel.AbstractRoute;
+import org.batfish.datamodel.AnnotatedRoute;
 import org.batfish.datamodel.Configuration;
 import org.batfish.datamodel.ConfigurationFormat;
+import org.batfish.datamodel.DataPlane;
+import org.batfish.datamodel.GenericRib;
 import org.batfish.datamodel.Ip;
+import org.batfish.datamodel.MockDataPlane;
+import org.batfish.datamodel.MockFib;
+import org.batfish.datamodel.MockForwardingAnalysis;
+import org.batfish.datamodel.MockRib;
+import org.batfish.datamodel.Topology;
+import org.batfish.datamodel.UniverseIpSpace;
 import org.batfish.datamodel.answers.ConvertConfigurationAnswerElement;
 import org.batfish.datamodel.answers.MajorIssueConfig;
 import org.batfish.datamodel.answers.MinorIssueConfig;
@@ -104,6 +122,33 @@ public final class FileBasedStorageTest {
     assertThat(deserialized.keySet(), equalTo(Sets.newHashSet("node1")));
   }
 
+  @Test
+  public void streamConfigurationsSucceeds() throws IOException {
+    NetworkId network = new NetworkId("network");
+    SnapshotId snapshot = new SnapshotId("snapshot");
+
+    Map<String, Configuration> configs = new HashMap<>();
+    configs.put("node1", new Configuration("node1", ConfigurationFormat.CISCO_IOS));
+    configs.put("node2", new Configuration("node2", ConfigurationFormat.CISCO_IOS));
+
+    _storage.storeConfigurations(
+        configs, new ConvertConfigurationAnswerElement(), Layer1Topology.EMPTY, network, snapshot);
+    Set<String> streamed = new HashSet<>();
+    assertTrue(_storage.loadConfigurations(network, snapshot, c -> streamed.add(c.getHostname())));
+    assertThat(streamed, equalTo(ImmutableSet.of("node1", "node2")));
+  }
+
+  @Test
+  public void streamMissingConfigurationsReturnsFalse() {
+    assertFalse(
+        _storage.loadConfigurations(
+            new NetworkId("nonexistent"),
+            new SnapshotId("nonexistent"),
+            c -> {
+              throw new AssertionError("Unexpected configuration");
+            }));
+  }
+
   @Test
   public void loadMissingConfigurationsReturnsNull() {
     assertThat(
@@ -519,4 +564,84 @@ public final class FileBasedStorageTest {
     assertEquals(
         _storage.loadSynthesizedLayer1Topology(networkSnapshot), Optional.of(Layer1Topology.EMPTY));
   }
+
+  private static DataPlane singleNodeDataPlane() {
+    GenericRib<AnnotatedRoute<AbstractRoute>> rib =
+        MockRib.builder()
+            .setRoutePreferenceComparator(
+                (Comparator<AnnotatedRoute<AbstractRoute>> & Serializable) (a, b) -> 0)
+            .build();
+    return MockDataPlane.builder()
+        .setConfigs(
+            ImmutableMap.of("node1", new Configuration("node1", ConfigurationFormat.CISCO_IOS)))
+        .setRibs(ImmutableSortedMap.of("node1", ImmutableSortedMap.of("default", rib)))
+        .setFibs(ImmutableMap.of("node1", ImmutableMap.of("default", MockFib.builder().build())))
+        .setForwardingAnalysis(
+            MockForwardingAnalysis.builder()
+                .setArpReplies(
+                    ImmutableMap.of("node1", ImmutableMap.of("eth0", UniverseIpSpace.INSTANCE)))
+                .build())
+        .build();
+  }
+
+  @Test
+  public void testStoreDataPlane() throws IOException {
+    NetworkSnapshot networkSnapshot =
+        new NetworkSnapshot(new NetworkId("network"), new SnapshotId("snapshot"));
+    DataPlane dataPlane = singleNodeDataPlane();
+
+    assertFalse(_storage.hasDataPlane(networkSnapshot));
+    _storage.storeDataPlane(dataPlane, networkSnapshot);
+    assertTrue(_storage.hasDataPlane(networkSnapshot));
+
+    DataPlane loaded = _storage.loadDataPlane(networkSnapshot, dataPlane::getConfigurations, 1);
+    assertThat(loaded.getRibs().keySet(), contains("node1"));
+    assertThat(loaded.getRibs().get("node1").keySet(), contains("default"));
+    assertThat(loaded.getConfigurations(), sameInstance(dataPlane.getConfigurations()));
+    assertThat(
+        loaded.getForwardingAnalysis().getArpReplies(),
+        equalTo(dataPlane.getForwardingAnalysis().getArpReplies()));
+  }
+
+  @Test
+  public void testDataPlaneFingerprint() throws IOException {
+    NetworkSnapshot networkSnapshot =
+        new NetworkSnapshot(new NetworkId("network"), new SnapshotId("snapshot"));
+
+    assertThat(_storage.loadDataPlaneFingerprint(networkSnapshot), equalTo(Optional.empty()));
+    _storage.storeDataPlane(singleNodeDataPlane(), networkSnapshot);
+    _storage.storeDataPlaneFingerprint("abc", networkSnapshot);
+    assertThat(_storage.loadDataPlaneFingerprint(networkSnapshot), equalTo(Optional.of("abc")));
+
+    // storing a new data plane discards the fingerprint
+    _storage.storeDataPlane(singleNodeDataPlane(), networkSnapshot);
+    assertThat(_storage.loadDataPlaneFingerprint(networkSnapshot), equalTo(Optional.empty()));
+  }
+
+  @Test
+  public void testCopyDataPlane() throws IOException {
+    NetworkSnapshot source = new NetworkSnapshot(new NetworkId("network"), new SnapshotId("src"));
+    NetworkSnapshot target = new NetworkSnapshot(new NetworkId("network"), new SnapshotId("dst"));
+    _storage.storeDataPlane(singleNodeDataPlane(), source);
+    _storage.storeDataPlaneFingerprint("abc", source);
+    _storage.storeLayer3Topology(Topology.EMPTY, source);
+
+    _storage.copyDataPlane(source, target);
+
+    assertTrue(_storage.hasDataPlane(target));
+    assertThat(
+        _storage.loadDataPlane(target, ImmutableMap::of, 1).getRibs().keySet(),
+        contains("node1"));
+    assertThat(_storage.loadDataPlaneFingerprint(target), equalTo(Optional.of("abc")));
+    assertThat(_storage.loadLayer3Topology(target), equalTo(Topology.EMPTY));
+  }
+
+  @Test
+  public void testLoadDataPlaneMissing() throws IOException {
+    _thrown.expect(FileNotFoundException.class);
+    _storage.loadDataPlane(
+        new NetworkSnapshot(new NetworkId("network"), new SnapshotId("snapshot")),
+        ImmutableMap::of,
+        1);
+  }
 }
@@ -0,0 +1,148 @@
+package org.batfish.storage;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import com.google.common.collect.HashBasedTable;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSortedMap;
+import com.google.common.collect.Table;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.batfish.datamodel.AbstractRoute;
+import org.batfish.datamodel.AnnotatedRoute;
+import org.batfish.datamodel.Bgpv4Route;
+import org.batfish.datamodel.Configuration;
+import org.batfish.datamodel.ConfigurationFormat;
+import org.batfish.datamodel.DataPlane;
+import org.batfish.datamodel.Fib;
+import org.batfish.datamodel.GenericRib;
+import org.batfish.datamodel.Ip;
+import org.batfish.datamodel.MockDataPlane;
+import org.batfish.datamodel.MockFib;
+import org.batfish.datamodel.MockForwardingAnalysis;
+import org.batfish.datamodel.MockRib;
+import org.batfish.datamodel.OriginType;
+import org.batfish.datamodel.Prefix;
+import org.batfish.datamodel.RoutingProtocol;
+import org.junit.Test;
+
+/** Tests of {@link ShardedDataPlane}. */
+public final class ShardedDataPlaneTest {
+
+  private static final Bgpv4Route BGP_ROUTE =
+      Bgpv4Route.builder()
+          .setNetwork(Prefix.parse("1.1.1.0/24"))
+          .setNextHopInterface("blah")
+          .setOriginatorIp(Ip.parse("1.1.1.1"))
+          .setOriginType(OriginType.IGP)
+          .setProtocol(RoutingProtocol.BGP)
+          .build();
+
+  private static DataPlane twoNodeDataPlane() {
+    GenericRib<AnnotatedRoute<AbstractRoute>> rib = MockRib.builder().build();
+    Fib fib = MockFib.builder().build();
+    Table<String, String, Set<Bgpv4Route>> bgpRoutes = HashBasedTable.create();
+    bgpRoutes.put("n1", "default", ImmutableSet.of(BGP_ROUTE));
+    bgpRoutes.put("n2", "default", ImmutableSet.of());
+    return MockDataPlane.builder()
+        .setConfigs(
+            ImmutableMap.of(
+                "n1", new Configuration("n1", ConfigurationFormat.CISCO_IOS),
+                "n2", new Configuration("n2", ConfigurationFormat.CISCO_IOS)))
+        .setRibs(
+            ImmutableSortedMap.of(
+                "n1", ImmutableSortedMap.of("default", rib),
+                "n2", ImmutableSortedMap.of("default", rib, "other", rib)))
+        .setFibs(
+            ImmutableMap.of(
+                "n1", ImmutableMap.of("default", fib),
+                "n2", ImmutableMap.of("default", fib, "other", fib)))
+        .setBgpRoutes(bgpRoutes)
+        .setForwardingAnalysis(MockForwardingAnalysis.builder().build())
+        .build();
+  }
+
+  @Test
+  public void testShardsLoadedLazily() {
+    DataPlane original = twoNodeDataPlane();
+    Map<String, DataPlaneNodeShard> shards = ShardedDataPlane.toShards(original);
+    List<String> loaded = new ArrayList<>();
+    ShardedDataPlane dp =
+        new ShardedDataPlane(
+            ShardedDataPlane.toIndex(original),
+            original::getConfigurations,
+            hostname -> {
+              loaded.add(hostname);
+              return shards.get(hostname);
+            },
+            original::getForwardingAnalysis,
+            10);
+
+    // Keys are served from the index
+    assertThat(dp.getRibs().keySet(), contains("n1", "n2"));
+    assertThat(dp.getRibs().get("n2").keySet(), contains("default", "other"));
+    assertThat(dp.getBgpRoutes().rowKeySet(), equalTo(ImmutableSet.of("n1", "n2")));
+    assertThat(loaded, empty());
+
+    // Values are served from shards
+    assertThat(dp.getBgpRoutes().get("n1", "default"), contains(BGP_ROUTE));
+    assertThat(loaded, contains("n1"));
+    assertThat(
+        dp.getFibs().get("n1").get("default"),
+        sameInstance(shards.get("n1").getFibs().get("default")));
+    assertThat(loaded, contains("n1"));
+
+    // Configurations and forwarding analysis are not read from shards
+    assertThat(dp.getConfigurations().get("n2").getHostname(), equalTo("n2"));
+    assertThat(dp.getForwardingAnalysis(), sameInstance(original.getForwardingAnalysis()));
+    assertThat(loaded, contains("n1"));
+  }
+
+  @Test
+  public void testGetBgpRoutesForNetwork() {
+    DataPlane original = twoNodeDataPlane();
+    Map<String, DataPlaneNodeShard> shards = ShardedDataPlane.toShards(original);
+    List<String> loaded = new ArrayList<>();
+    ShardedDataPlane dp =
+        new ShardedDataPlane(
+            ShardedDataPlane.toIndex(original),
+            original::getConfigurations,
+            hostname -> {
+              loaded.add(hostname);
+              return shards.get(hostname);
+            },
+            original::getForwardingAnalysis,
+            10);
+
+    assertThat(dp.getBgpRoutes("n1", "default", BGP_ROUTE.getNetwork()), contains(BGP_ROUTE));
+    assertThat(dp.getBgpRoutes("n1", "default", Prefix.parse("2.2.2.0/24")), empty());
+    assertThat(dp.getBgpRoutes("n1", "other", BGP_ROUTE.getNetwork()), empty());
+    assertThat(dp.getBgpRoutes("n3", "default", BGP_ROUTE.getNetwork()), empty());
+    // Only the shard of the queried node is loaded
+    assertThat(loaded, contains("n1"));
+  }
+
+  @Test
+  public void testShardCacheBounded() {
+    DataPlane original = twoNodeDataPlane();
+    Map<String, DataPlaneNodeShard> shards = ShardedDataPlane.toShards(original);
+    ShardedDataPlane dp =
+        new ShardedDataPlane(
+            ShardedDataPlane.toIndex(original),
+            original::getConfigurations,
+            shards::get,
+            original::getForwardingAnalysis,
+            1);
+
+    dp.getFibs().get("n1").get("default");
+    dp.getFibs().get("n2").get("default");
+    assertThat(dp.getCachedShardCount(), equalTo(1L));
+  }
+}
@@ -7,6 +7,8 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.SortedMap;
 import java.util.SortedSet;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import org.batfish.common.CompletionMetadata;
@@ -16,6 +18,7 @@ import org.batfish.common.topology.Layer1Topology;
 import org.batfish.common.topology.Layer2Topology;
 import org.batfish.datamodel.AnalysisMetadata;
 import org.batfish.datamodel.Configuration;
+import org.batfish.datamodel.DataPlane;
 import org.batfish.datamodel.SnapshotMetadata;
 import org.batfish.datamodel.Topology;
 import org.batfish.datamodel.answers.AnswerMetadata;
@@ -45,6 +48,12 @@ public class TestStorageProvider implements StorageProvider {
     throw new UnsupportedOperationException("no implementation for generated method");
   }
 
+  @Override
+  public boolean loadConfigurations(
+      NetworkId network, SnapshotId snapshot, Consumer<Configuration> consumer) {
+    throw new UnsupportedOperationException("no implementation for generated method");
+  }
+
   @Override
   public ConvertConfigurationAnswerElement loadConvertConfigurationAnswerElement(
       NetworkId network, SnapshotId snapshot) {
@@ -385,4 +394,37 @@ public class TestStorageProvider implements StorageProvider {
   public void storeVxlanTopology(VxlanTopology vxlanTopology, NetworkSnapshot networkSnapshot) {
     throw new UnsupportedOperationException();
   }
+
+  @Override
+  public void storeDataPlane(DataPlane dataPlane, NetworkSnapshot networkSnapshot) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public boolean hasDataPlane(NetworkSnapshot networkSnapshot) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public DataPlane loadDataPlane(
+      NetworkSnapshot networkSnapshot,
+      Supplier<Map<String, Configuration>> configurations,
+      int maxCachedShards) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public void storeDataPlaneFingerprint(String fingerprint, NetworkSnapshot networkSnapshot) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public Optional<String> loadDataPlaneFingerprint(NetworkSnapshot networkSnapshot) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public void copyDataPlane(NetworkSnapshot source, NetworkSnapshot target) {
+    throw new UnsupportedOperationException();
+  }
 }
@@ -125,6 +125,10 @@ public class BDDLoopDetectionAnalysis {
         GlobalTracer.get().buildSpan("BDDLoopDetectionAnalysis.confirmLoop").startActive()) {
       assert span != null; // avoid unused warning
       Map<StateExpr, BDD> reachable = propagate(ImmutableMap.of(stateExpr, bdd));
+      if (reachable.containsKey(stateExpr) && reachable.get(stateExpr).andSat(bdd)) {
+        // stateExpr has a self-loop, e.g. after the graph optimizer spliced out the rest of a loop
+        return true;
+      }
       Set<StateExpr> dirty = new HashSet<>(reachable.keySet());
 
       BDD zero = _bddPacket.getFactory().zero();
@@ -0,0 +1,73 @@
+package org.batfish.bddreachability;
+
+import com.google.common.collect.ImmutableList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+import org.batfish.common.NetworkSnapshot;
+import org.batfish.common.bdd.BDDPacket;
+
+/**
+ * The {@link BDDReachabilityAnalysisFactory}s used to answer questions on a single snapshot, built
+ * on demand and sharing one {@link BDDPacket}.
+ *
+ * <p>Building a factory converts every ACL, transformation, FIB and forwarding analysis IpSpace of
+ * the snapshot into BDDs, which usually dominates the cost of a reachability question. Keeping the
+ * factories lets later questions on the same snapshot skip that work. Like {@link BDDPacket}, the
+ * factories must not be used by multiple threads at once.
+ *
+ * <p>Differential questions compare BDDs of two snapshots, so they need the factories of the
+ * reference snapshot in the same {@link BDDPacket}. These are kept here too, keyed by the snapshot
+ * they were built for.
+ */
+@ParametersAreNonnullByDefault
+public final class BDDReachabilityAnalysisFactories {
+
+  @Nonnull private final BDDPacket _bddPacket;
+
+  /** Factories keyed by snapshot, ignoreFilters and initializeSessions. */
+  @Nonnull private final Map<List<Object>, BDDReachabilityAnalysisFactory> _factories;
+
+  public BDDReachabilityAnalysisFactories() {
+    _bddPacket = new BDDPacket();
+    _factories = new HashMap<>();
+  }
+
+  /** The {@link BDDPacket} shared by all factories. */
+  @Nonnull
+  public BDDPacket getBddPacket() {
+    return _bddPacket;
+  }
+
+  /**
+   * The size of the node table of the shared {@link BDDPacket}. BDDs created while answering
+   * questions are not freed, so it never shrinks.
+   */
+  public int getNodeTableSize() {
+    return _bddPacket.getFactory().getNodeTableSize();
+  }
+
+  /**
+   * Returns the factory for {@code snapshot} with the given {@code ignoreFilters} and {@code
+   * initializeSessions}, calling {@code builder} with the shared {@link BDDPacket} to build it if
+   * it does not exist yet.
+   */
+  @Nonnull
+  public synchronized BDDReachabilityAnalysisFactory getFactory(
+      NetworkSnapshot snapshot,
+      boolean ignoreFilters,
+      boolean initializeSessions,
+      Function<BDDPacket, BDDReachabilityAnalysisFactory> builder) {
+    return _factories.computeIfAbsent(
+        ImmutableList.of(snapshot, ignoreFilters, initializeSessions),
+        k -> builder.apply(_bddPacket));
+  }
+
+  /** Returns whether any factory was built for {@code snapshot}. */
+  public synchronized boolean hasFactoryFor(NetworkSnapshot snapshot) {
+    return _factories.keySet().stream().anyMatch(key -> key.get(0).equals(snapshot));
+  }
+}
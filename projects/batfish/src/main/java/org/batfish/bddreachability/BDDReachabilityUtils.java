@@ -44,7 +44,10 @@ public final class BDDReachabilityUtils {
             (t1, t2) -> Transitions.or(t1, t2)));
   }
 
-  /** Apply edges to the reachableSets until a fixed point is reached. */
+  /**
+   * Apply edges to the reachableSets until a fixed point is reached. Uses {@link SccFixpoint},
+   * which iterates only inside cycles of the graph.
+   */
   @VisibleForTesting
   static void fixpoint(
       Map<StateExpr, BDD> reachableSets,
@@ -53,6 +56,22 @@ public final class BDDReachabilityUtils {
     try (ActiveSpan span =
         GlobalTracer.get().buildSpan("BDDReachabilityAnalysis.fixpoint").startActive()) {
       assert span != null; // avoid unused warning
+      SccFixpoint.fixpoint(reachableSets, edges, traverse);
+    }
+  }
+
+  /**
+   * Apply edges to the reachableSets until a fixed point is reached, propagating all dirty states
+   * in rounds until none remain. Computes the same result as {@link #fixpoint}.
+   */
+  @VisibleForTesting
+  static void worklistFixpoint(
+      Map<StateExpr, BDD> reachableSets,
+      Table<StateExpr, StateExpr, Transition> edges,
+      BiFunction<Transition, BDD, BDD> traverse) {
+    try (ActiveSpan span =
+        GlobalTracer.get().buildSpan("BDDReachabilityAnalysis.worklistFixpoint").startActive()) {
+      assert span != null; // avoid unused warning
       Set<StateExpr> dirtyStates = ImmutableSet.copyOf(reachableSets.keySet());
 
       while (!dirtyStates.isEmpty()) {
@@ -78,6 +78,33 @@ public final class BidirectionalReachabilityAnalysis {
       Set<String> requiredTransitNodes,
       Set<String> forwardPassFinalNodes,
       Set<FlowDisposition> forwardPassActions) {
+    this(
+        bddPacket,
+        configs,
+        new BDDReachabilityAnalysisFactory(
+            bddPacket, configs, forwardingAnalysis, ipsRoutedOutInterfacesFactory, false, true),
+        srcIpSpaceAssignment,
+        initialForwardHeaderSpace,
+        forbiddenTransitNodes,
+        requiredTransitNodes,
+        forwardPassFinalNodes,
+        forwardPassActions);
+  }
+
+  /**
+   * Creates an analysis using an existing {@code factory}, which must have been built with {@code
+   * bddPacket} and {@code configs}, without ignoring filters and with sessions initialized.
+   */
+  public BidirectionalReachabilityAnalysis(
+      BDDPacket bddPacket,
+      Map<String, Configuration> configs,
+      BDDReachabilityAnalysisFactory factory,
+      IpSpaceAssignment srcIpSpaceAssignment,
+      AclLineMatchExpr initialForwardHeaderSpace,
+      Set<String> forbiddenTransitNodes,
+      Set<String> requiredTransitNodes,
+      Set<String> forwardPassFinalNodes,
+      Set<FlowDisposition> forwardPassActions) {
     try (ActiveSpan span =
         GlobalTracer.get()
             .buildSpan("Constructs BidirectionalReachabilityAnalysis")
@@ -85,9 +112,7 @@ public final class BidirectionalReachabilityAnalysis {
       assert span != null; // avoid unused warning
       _bddPacket = bddPacket;
       _configs = configs;
-      _factory =
-          new BDDReachabilityAnalysisFactory(
-              bddPacket, configs, forwardingAnalysis, ipsRoutedOutInterfacesFactory, false, true);
+      _factory = factory;
       _forbiddenTransitNodes = ImmutableSet.copyOf(forbiddenTransitNodes);
       _reversePassOriginationState =
           new ReversePassOriginationState(forwardPassFinalNodes::contains);
@@ -352,6 +377,7 @@ public final class BidirectionalReachabilityAnalysis {
 
   public BidirectionalReachabilityResult getResult() {
     return new BidirectionalReachabilityResult(
+        _bddPacket,
         _forwardPassStartLocationToReturnPassSuccessBdds.get(),
         _forwardPassStartLocationToReturnPassFailureBdds.get());
   }
@@ -0,0 +1,215 @@
+package org.batfish.bddreachability;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiFunction;
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+import net.sf.javabdd.BDD;
+import net.sf.javabdd.BDDFactory;
+import org.batfish.common.BatfishException;
+import org.batfish.common.bdd.BDDPacket;
+import org.batfish.datamodel.IpSpace;
+import org.batfish.specifier.IpSpaceAssignment;
+import org.batfish.specifier.Location;
+import org.batfish.symbolic.IngressLocation;
+
+/**
+ * Runs a BDD reachability analysis on several threads by partitioning its source locations.
+ *
+ * <p>{@link BDDFactory} is not thread-safe, so each partition is analyzed with its own {@link
+ * BDDPacket}. The resulting BDDs are exported from the factory of the worker thread and imported
+ * into the factory of the caller. Reachability is distributive over sets of sources, so the result
+ * for an {@link IngressLocation} is the union of its results over all partitions.
+ *
+ * <p>Locations are partitioned by node, so that states shared by the locations of a node (e.g. its
+ * VRFs) are only explored in a single partition.
+ */
+@ParametersAreNonnullByDefault
+public final class PartitionedBDDReachability {
+
+  /**
+   * Compute {@code analysis} for {@code srcIpSpaceAssignment} using up to {@code numThreads}
+   * threads.
+   *
+   * @param pkt The {@link BDDPacket} that will own the returned BDDs.
+   * @param analysis Given a fresh {@link BDDPacket} and a partition of {@code
+   *     srcIpSpaceAssignment}, computes the BDD of each {@link IngressLocation} in that partition.
+   *     Must be safe to call concurrently, each call with its own {@link BDDPacket}.
+   */
+  public static @Nonnull Map<IngressLocation, BDD> computeIngressLocationBdds(
+      BDDPacket pkt,
+      IpSpaceAssignment srcIpSpaceAssignment,
+      int numThreads,
+      BiFunction<BDDPacket, IpSpaceAssignment, Map<IngressLocation, BDD>> analysis) {
+    checkArgument(numThreads > 0, "Number of threads must be positive");
+    List<IpSpaceAssignment> partitions = partition(srcIpSpaceAssignment, numThreads);
+    if (partitions.size() <= 1) {
+      return analysis.apply(pkt, srcIpSpaceAssignment);
+    }
+
+    ExecutorService pool = Executors.newFixedThreadPool(partitions.size());
+    try {
+      List<Future<Map<IngressLocation, String>>> futures = new ArrayList<>(partitions.size());
+      for (IpSpaceAssignment partition : partitions) {
+        futures.add(
+            pool.submit(
+                () -> {
+                  BDDPacket partitionPkt = new BDDPacket();
+                  Map<IngressLocation, String> exported = new HashMap<>();
+                  BDDFactory partitionFactory = partitionPkt.getFactory();
+                  analysis
+                      .apply(partitionPkt, partition)
+                      .forEach((loc, bdd) -> exported.put(loc, exportBdd(partitionFactory, bdd)));
+                  return exported;
+                }));
+      }
+
+      BDDFactory factory = pkt.getFactory();
+      Map<IngressLocation, BDD> result = new HashMap<>();
+      for (Future<Map<IngressLocation, String>> future : futures) {
+        future
+            .get()
+            .forEach(
+                (loc, exported) -> {
+                  BDD bdd = importBdd(factory, exported);
+                  result.merge(loc, bdd, BDD::or);
+                });
+      }
+      return ImmutableMap.copyOf(result);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new BatfishException("Interrupted during partitioned BDD reachability analysis", e);
+    } catch (ExecutionException e) {
+      throw new BatfishException("Error in partitioned BDD reachability analysis", e.getCause());
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  /**
+   * Split {@code assignment} into at most {@code numPartitions} non-empty assignments, keeping all
+   * locations of a node in the same partition. Nodes are assigned largest first to the partition
+   * with the fewest locations.
+   */
+  @VisibleForTesting
+  static @Nonnull List<IpSpaceAssignment> partition(
+      IpSpaceAssignment assignment, int numPartitions) {
+    Map<String, List<NodeEntry>> entriesByNode = new LinkedHashMap<>();
+    Map<String, Integer> locationCountByNode = new HashMap<>();
+    for (IpSpaceAssignment.Entry entry : assignment.getEntries()) {
+      Map<String, Set<Location>> locationsByNode = new LinkedHashMap<>();
+      for (Location location : entry.getLocations()) {
+        locationsByNode
+            .computeIfAbsent(location.getNodeName(), n -> new LinkedHashSet<>())
+            .add(location);
+      }
+      locationsByNode.forEach(
+          (node, locations) -> {
+            entriesByNode
+                .computeIfAbsent(node, n -> new ArrayList<>())
+                .add(new NodeEntry(entry.getIpSpace(), locations));
+            locationCountByNode.merge(node, locations.size(), Integer::sum);
+          });
+    }
+    int numBins = Math.min(numPartitions, entriesByNode.size());
+    if (numBins <= 1) {
+      return entriesByNode.isEmpty() ? ImmutableList.of() : ImmutableList.of(assignment);
+    }
+
+    List<String> nodes = new ArrayList<>(entriesByNode.keySet());
+    nodes.sort(
+        Comparator.comparing((String node) -> locationCountByNode.get(node))
+            .reversed()
+            .thenComparing(Comparator.naturalOrder()));
+    PriorityQueue<Bin> bins = new PriorityQueue<>();
+    for (int i = 0; i < numBins; i++) {
+      bins.add(new Bin(i));
+    }
+    for (String node : nodes) {
+      Bin bin = bins.remove();
+      entriesByNode.get(node).forEach(e -> bin._assignment.assign(e._locations, e._ipSpace));
+      bin._size += locationCountByNode.get(node);
+      bins.add(bin);
+    }
+    List<Bin> sortedBins = new ArrayList<>(bins);
+    sortedBins.sort(Comparator.comparing(bin -> bin._id));
+    return sortedBins.stream()
+        .map(bin -> bin._assignment.build())
+        .collect(ImmutableList.toImmutableList());
+  }
+
+  /** Serialize {@code bdd}, which must belong to {@code factory}. */
+  @VisibleForTesting
+  static @Nonnull String exportBdd(BDDFactory factory, BDD bdd) {
+    StringWriter writer = new StringWriter();
+    try (BufferedWriter out = new BufferedWriter(writer)) {
+      factory.save(out, bdd);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return writer.toString();
+  }
+
+  /** Deserialize a BDD produced by {@link #exportBdd} into {@code factory}. */
+  @VisibleForTesting
+  static @Nonnull BDD importBdd(BDDFactory factory, String exported) {
+    try (BufferedReader in = new BufferedReader(new StringReader(exported))) {
+      return factory.load(in);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /** The locations of a single node in an {@link IpSpaceAssignment.Entry}. */
+  private static final class NodeEntry {
+    private final @Nonnull IpSpace _ipSpace;
+    private final @Nonnull Set<Location> _locations;
+
+    private NodeEntry(IpSpace ipSpace, Set<Location> locations) {
+      _ipSpace = ipSpace;
+      _locations = locations;
+    }
+  }
+
+  /** A partition under construction. */
+  private static final class Bin implements Comparable<Bin> {
+    private final int _id;
+    private final @Nonnull IpSpaceAssignment.Builder _assignment = IpSpaceAssignment.builder();
+    private int _size;
+
+    private Bin(int id) {
+      _id = id;
+    }
+
+    @Override
+    public int compareTo(Bin other) {
+      int cmp = Integer.compare(_size, other._size);
+      return cmp != 0 ? cmp : Integer.compare(_id, other._id);
+    }
+  }
+
+  private PartitionedBDDReachability() {}
+}
@@ -0,0 +1,243 @@
+package org.batfish.bddreachability;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Table;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+import net.sf.javabdd.BDD;
+import org.batfish.bddreachability.transition.Transition;
+import org.batfish.symbolic.state.StateExpr;
+
+/**
+ * Computes the same fixpoint as a plain worklist over all dirty states, but visits the graph one
+ * strongly connected component (SCC) at a time, in topological order.
+ *
+ * <p>Every predecessor of an SCC is in an earlier SCC, so the reachable sets flowing into an SCC
+ * are final by the time it is visited. States outside of cycles are therefore traversed exactly
+ * once. Iteration only happens inside cyclic SCCs and only along their internal edges, after which
+ * the converged sets are propagated to later SCCs once.
+ */
+@ParametersAreNonnullByDefault
+final class SccFixpoint {
+
+  /** Apply edges to the reachableSets until a fixed point is reached. */
+  static void fixpoint(
+      Map<StateExpr, BDD> reachableSets,
+      Table<StateExpr, StateExpr, Transition> edges,
+      BiFunction<Transition, BDD, BDD> traverse) {
+    List<List<StateExpr>> sccs = topologicallySortedSccs(reachableSets.keySet(), edges);
+    Map<StateExpr, Integer> sccIndices = new HashMap<>();
+    for (int i = 0; i < sccs.size(); i++) {
+      for (StateExpr state : sccs.get(i)) {
+        sccIndices.put(state, i);
+      }
+    }
+
+    Set<StateExpr> dirtyStates = new HashSet<>(reachableSets.keySet());
+    for (int i = 0; i < sccs.size(); i++) {
+      List<StateExpr> scc = sccs.get(i);
+      BitSet dirtyMembers = new BitSet(scc.size());
+      for (int j = 0; j < scc.size(); j++) {
+        if (dirtyStates.remove(scc.get(j))) {
+          dirtyMembers.set(j);
+        }
+      }
+      if (dirtyMembers.isEmpty()) {
+        // nothing new reaches this SCC
+        continue;
+      }
+      if (isCyclic(scc, edges)) {
+        iterateScc(scc, dirtyMembers, reachableSets, edges, traverse);
+      }
+
+      // propagate converged reachable sets to later SCCs
+      int sccIndex = i;
+      dirtyMembers.stream()
+          .mapToObj(scc::get)
+          .forEach(
+              state -> {
+                BDD stateBdd = reachableSets.get(state);
+                edges
+                    .row(state)
+                    .forEach(
+                        (neighbor, edge) -> {
+                          if (sccIndices.get(neighbor) != sccIndex
+                              && propagate(
+                                  reachableSets, neighbor, traverse.apply(edge, stateBdd))) {
+                            dirtyStates.add(neighbor);
+                          }
+                        });
+              });
+    }
+  }
+
+  /**
+   * Iterates the edges internal to {@code scc} until its reachable sets converge. Members are
+   * processed in the order of {@code scc}, sweeping repeatedly over the ones still dirty.
+   *
+   * @param dirtyMembers On input, indices in {@code scc} of the members whose reachable set has
+   *     changed since they were last propagated. On output, indices of all members whose reachable
+   *     set has changed, and so must be propagated out of the SCC.
+   */
+  private static void iterateScc(
+      List<StateExpr> scc,
+      BitSet dirtyMembers,
+      Map<StateExpr, BDD> reachableSets,
+      Table<StateExpr, StateExpr, Transition> edges,
+      BiFunction<Transition, BDD, BDD> traverse) {
+    Map<StateExpr, Integer> memberIndices = new HashMap<>();
+    for (int i = 0; i < scc.size(); i++) {
+      memberIndices.put(scc.get(i), i);
+    }
+    BitSet worklist = (BitSet) dirtyMembers.clone();
+    int next = worklist.nextSetBit(0);
+    while (next >= 0) {
+      worklist.clear(next);
+      StateExpr state = scc.get(next);
+      BDD stateBdd = reachableSets.get(state);
+      edges
+          .row(state)
+          .forEach(
+              (neighbor, edge) -> {
+                Integer neighborIndex = memberIndices.get(neighbor);
+                if (neighborIndex != null
+                    && propagate(reachableSets, neighbor, traverse.apply(edge, stateBdd))) {
+                  worklist.set(neighborIndex);
+                  dirtyMembers.set(neighborIndex);
+                }
+              });
+      next = worklist.nextSetBit(next + 1);
+      if (next < 0) {
+        next = worklist.nextSetBit(0);
+      }
+    }
+  }
+
+  /**
+   * Adds {@code result} to the reachable set of {@code state}.
+   *
+   * @return whether the reachable set of {@code state} changed.
+   */
+  private static boolean propagate(Map<StateExpr, BDD> reachableSets, StateExpr state, BDD result) {
+    if (result.isZero()) {
+      return false;
+    }
+    BDD oldReach = reachableSets.get(state);
+    BDD newReach = oldReach == null ? result : oldReach.or(result);
+    if (oldReach != null && oldReach.equals(newReach)) {
+      return false;
+    }
+    reachableSets.put(state, newReach);
+    return true;
+  }
+
+  private static boolean isCyclic(
+      List<StateExpr> scc, Table<StateExpr, StateExpr, Transition> edges) {
+    if (scc.size() > 1) {
+      return true;
+    }
+    StateExpr state = scc.get(0);
+    return edges.contains(state, state);
+  }
+
+  /**
+   * Returns the SCCs of the subgraph of {@code edges} reachable from {@code roots}, such that every
+   * edge between different SCCs goes from an earlier SCC to a later one. The members of each SCC
+   * are listed in the order they are discovered by a depth-first search, which places them roughly
+   * in the direction of its edges.
+   *
+   * <p>Uses Tarjan's algorithm, iteratively so that long paths cannot overflow the stack.
+   */
+  @VisibleForTesting
+  static @Nonnull List<List<StateExpr>> topologicallySortedSccs(
+      Collection<StateExpr> roots, Table<StateExpr, StateExpr, Transition> edges) {
+    Map<StateExpr, Integer> indices = new HashMap<>();
+    Map<StateExpr, Integer> lowLinks = new HashMap<>();
+    Deque<StateExpr> sccStack = new ArrayDeque<>();
+    Set<StateExpr> onSccStack = new HashSet<>();
+    Deque<SearchFrame> searchStack = new ArrayDeque<>();
+    // Tarjan's algorithm emits each SCC after every SCC reachable from it.
+    List<List<StateExpr>> reverseTopologicalSccs = new ArrayList<>();
+
+    for (StateExpr root : roots) {
+      if (indices.containsKey(root)) {
+        continue;
+      }
+      visit(root, edges, indices, lowLinks, sccStack, onSccStack, searchStack);
+      while (!searchStack.isEmpty()) {
+        SearchFrame frame = searchStack.peek();
+        if (frame._successors.hasNext()) {
+          StateExpr successor = frame._successors.next();
+          if (!indices.containsKey(successor)) {
+            visit(successor, edges, indices, lowLinks, sccStack, onSccStack, searchStack);
+          } else if (onSccStack.contains(successor)) {
+            lowLinks.put(
+                frame._state, Math.min(lowLinks.get(frame._state), indices.get(successor)));
+          }
+          continue;
+        }
+        searchStack.pop();
+        StateExpr state = frame._state;
+        int lowLink = lowLinks.get(state);
+        SearchFrame parent = searchStack.peek();
+        if (parent != null) {
+          lowLinks.put(parent._state, Math.min(lowLinks.get(parent._state), lowLink));
+        }
+        if (lowLink == indices.get(state)) {
+          // state is the root of an SCC, whose members are on the stack above it
+          List<StateExpr> scc = new ArrayList<>();
+          StateExpr member;
+          do {
+            member = sccStack.pop();
+            onSccStack.remove(member);
+            scc.add(member);
+          } while (member != state);
+          reverseTopologicalSccs.add(Lists.reverse(scc));
+        }
+      }
+    }
+    return Lists.reverse(reverseTopologicalSccs);
+  }
+
+  private static void visit(
+      StateExpr state,
+      Table<StateExpr, StateExpr, Transition> edges,
+      Map<StateExpr, Integer> indices,
+      Map<StateExpr, Integer> lowLinks,
+      Deque<StateExpr> sccStack,
+      Set<StateExpr> onSccStack,
+      Deque<SearchFrame> searchStack) {
+    int index = indices.size();
+    indices.put(state, index);
+    lowLinks.put(state, index);
+    sccStack.push(state);
+    onSccStack.add(state);
+    searchStack.push(new SearchFrame(state, edges.row(state).keySet().iterator()));
+  }
+
+  /** A state being explored by the depth-first search, and its successors not yet explored. */
+  private static final class SearchFrame {
+    private final @Nonnull StateExpr _state;
+    private final @Nonnull Iterator<StateExpr> _successors;
+
+    private SearchFrame(StateExpr state, Iterator<StateExpr> successors) {
+      _state = state;
+      _successors = successors;
+    }
+  }
+
+  private SccFixpoint() {}
+}
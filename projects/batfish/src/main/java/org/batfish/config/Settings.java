@@ -2,6 +2,7 @@ package org.batfish.config;
 
 import static org.batfish.grammar.cisco.CiscoCombinedParser.DEBUG_FLAG_NO_USE_ARISTA_BGP;
 
+import com.google.common.cache.Cache;
 import com.google.common.collect.ImmutableList;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -10,10 +11,13 @@ import java.util.List;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import org.batfish.bddreachability.BDDReachabilityAnalysisFactories;
 import org.batfish.common.BaseSettings;
 import org.batfish.common.BatfishLogger;
 import org.batfish.common.BfConsts;
 import org.batfish.common.CoordConsts;
+import org.batfish.common.NetworkSnapshot;
+import org.batfish.common.util.serialization.SerializationFormat;
 import org.batfish.datamodel.Ip;
 import org.batfish.grammar.GrammarSettings;
 import org.batfish.identifiers.AnalysisId;
@@ -26,6 +30,11 @@ import org.batfish.version.Versioned;
 
 public final class Settings extends BaseSettings implements GrammarSettings {
 
+  private static final String ARG_BDD_REACHABILITY_MAX_NODE_TABLE_SIZE =
+      "bddreachabilitymaxnodetablesize";
+
+  private static final String ARG_BDD_REACHABILITY_THREADS = "bddreachabilitythreads";
+
   public static final String ARG_CHECK_BGP_REACHABILITY = "checkbgpsessionreachability";
 
   public static final String ARG_COORDINATOR_HOST = "coordinatorhost";
@@ -36,10 +45,14 @@ public final class Settings extends BaseSettings implements GrammarSettings {
 
   private static final String ARG_DATAPLANE_ENGINE_NAME = "dataplaneengine";
 
+  private static final String ARG_DATAPLANE_SHARD_CACHE_SIZE = "dataplaneshardcachesize";
+
   private static final String ARG_DEBUG_FLAGS = "debugflags";
 
   private static final String ARG_PARSE_REUSE = "parsereuse";
 
+  private static final String ARG_CONVERSION_REUSE = "conversionreuse";
+
   private static final String ARG_DISABLE_Z3_SIMPLIFICATION = "nosimplify";
 
   private static final String ARG_EXIT_ON_FIRST_ERROR = "ee";
@@ -72,10 +85,14 @@ public final class Settings extends BaseSettings implements GrammarSettings {
 
   private static final String ARG_PRINT_PARSE_TREE_LINE_NUMS = "printparsetreelinenums";
 
+  private static final String ARG_RECORD_DFA_STATISTICS = "recorddfastatistics";
+
   public static final String ARG_RUN_MODE = "runmode";
 
   private static final String ARG_SEQUENTIAL = "sequential";
 
+  private static final String ARG_SERIALIZATION_FORMAT = "serializationformat";
+
   private static final String ARG_SERVICE_BIND_HOST = "servicebindhost";
 
   public static final String ARG_SERVICE_HOST = "servicehost";
@@ -96,6 +113,8 @@ public final class Settings extends BaseSettings implements GrammarSettings {
 
   private static final String ARG_TIMESTAMP = "timestamp";
 
+  private static final String ARG_WARM_UP_PARSERS = "warmupparsers";
+
   private static final String ARG_VERSION = "version";
 
   private static final String ARG_Z3_TIMEOUT = "z3timeout";
@@ -125,6 +144,10 @@ public final class Settings extends BaseSettings implements GrammarSettings {
 
   public static final String TASK_ID = "taskid";
 
+  @Nullable
+  private Cache<NetworkSnapshot, BDDReachabilityAnalysisFactories>
+      _bddReachabilityAnalysisFactoriesCache;
+
   private BatfishLogger _logger;
 
   public Settings() {
@@ -149,6 +172,7 @@ public final class Settings extends BaseSettings implements GrammarSettings {
    */
   public Settings(Settings other) {
     super(other._config);
+    _bddReachabilityAnalysisFactoriesCache = other._bddReachabilityAnalysisFactoriesCache;
     _logger = other._logger;
     initOptions();
   }
@@ -291,6 +315,10 @@ public final class Settings extends BaseSettings implements GrammarSettings {
     return _config.getBoolean(ARG_PARSE_REUSE);
   }
 
+  public boolean getConversionReuse() {
+    return _config.getBoolean(ARG_CONVERSION_REUSE);
+  }
+
   @Override
   public int getMaxParserContextLines() {
     return _config.getInt(ARG_MAX_PARSER_CONTEXT_LINES);
@@ -320,6 +348,11 @@ public final class Settings extends BaseSettings implements GrammarSettings {
     return _config.getBoolean(ARG_PRINT_PARSE_TREE_LINE_NUMS);
   }
 
+  @Override
+  public boolean getRecordDfaStatistics() {
+    return _config.getBoolean(ARG_RECORD_DFA_STATISTICS);
+  }
+
   public @Nullable QuestionId getQuestionName() {
     String name = _config.getString(BfConsts.ARG_QUESTION_NAME);
     return name != null ? new QuestionId(name) : null;
@@ -333,6 +366,10 @@ public final class Settings extends BaseSettings implements GrammarSettings {
     return _config.getBoolean(ARG_SEQUENTIAL);
   }
 
+  public SerializationFormat getSerializationFormat() {
+    return SerializationFormat.valueOf(_config.getString(ARG_SERIALIZATION_FORMAT).toUpperCase());
+  }
+
   public boolean getSerializeIndependent() {
     return _config.getBoolean(BfConsts.COMMAND_PARSE_VENDOR_INDEPENDENT);
   }
@@ -447,6 +484,10 @@ public final class Settings extends BaseSettings implements GrammarSettings {
     return !debugFlagEnabled(DEBUG_FLAG_NO_USE_ARISTA_BGP);
   }
 
+  public boolean getWarmUpParsers() {
+    return _config.getBoolean(ARG_WARM_UP_PARSERS);
+  }
+
   public boolean getVerboseParse() {
     return _config.getBoolean(BfConsts.ARG_VERBOSE_PARSE);
   }
@@ -476,6 +517,39 @@ public final class Settings extends BaseSettings implements GrammarSettings {
     return _config.getString(ARG_DATAPLANE_ENGINE_NAME);
   }
 
+  /**
+   * Cache of per-snapshot BDD reachability factories shared by every Batfish instance created with
+   * these settings (or a copy of them), or {@code null} if each instance keeps its own.
+   */
+  @Nullable
+  public Cache<NetworkSnapshot, BDDReachabilityAnalysisFactories>
+      getBddReachabilityAnalysisFactoriesCache() {
+    return _bddReachabilityAnalysisFactoriesCache;
+  }
+
+  /**
+   * Largest node table, in nodes, that the cached BDD reachability factories of a snapshot may keep
+   * between questions. BDDs computed by questions are never freed, so the shared table only grows;
+   * once it is larger than this the factories are dropped and rebuilt by the next question.
+   */
+  public int getBddReachabilityMaxNodeTableSize() {
+    return _config.getInt(ARG_BDD_REACHABILITY_MAX_NODE_TABLE_SIZE);
+  }
+
+  /**
+   * Number of threads used to compute BDD reachability, each with its own BDD factory. Bounded by
+   * {@link #getAvailableThreads()}.
+   */
+  public int getBddReachabilityThreads() {
+    return Math.max(
+        1, Math.min(getAvailableThreads(), _config.getInt(ARG_BDD_REACHABILITY_THREADS)));
+  }
+
+  /** Maximum number of per-node data plane shards to keep in memory for a loaded data plane. */
+  public int getDataPlaneShardCacheSize() {
+    return _config.getInt(ARG_DATAPLANE_SHARD_CACHE_SIZE);
+  }
+
   private void initConfigDefaults() {
     setDefaultProperty(BfConsts.ARG_ANALYSIS_NAME, null);
     setDefaultProperty(BfConsts.ARG_BDP_DETAIL, false);
@@ -515,11 +589,14 @@ public final class Settings extends BaseSettings implements GrammarSettings {
     setDefaultProperty(ARG_CHECK_BGP_REACHABILITY, true);
     setDefaultProperty(ARG_NO_SHUFFLE, false);
     setDefaultProperty(ARG_PARSE_REUSE, true);
+    setDefaultProperty(ARG_CONVERSION_REUSE, true);
     setDefaultProperty(ARG_PRINT_PARSE_TREES, false);
     setDefaultProperty(ARG_PRINT_PARSE_TREE_LINE_NUMS, false);
     setDefaultProperty(BfConsts.ARG_QUESTION_NAME, null);
+    setDefaultProperty(ARG_RECORD_DFA_STATISTICS, false);
     setDefaultProperty(ARG_RUN_MODE, RunMode.WORKER.toString());
     setDefaultProperty(ARG_SEQUENTIAL, false);
+    setDefaultProperty(ARG_SERIALIZATION_FORMAT, SerializationFormat.JAVA.toString());
     setDefaultProperty(ARG_SERVICE_BIND_HOST, Ip.ZERO.toString());
     setDefaultProperty(ARG_SERVICE_HOST, "localhost");
     setDefaultProperty(ARG_SERVICE_NAME, "worker-service");
@@ -540,6 +617,7 @@ public final class Settings extends BaseSettings implements GrammarSettings {
     setDefaultProperty(ARG_TRACING_AGENT_PORT, 5775);
     setDefaultProperty(ARG_TRACING_ENABLE, false);
     setDefaultProperty(BfConsts.ARG_VERBOSE_PARSE, false);
+    setDefaultProperty(ARG_WARM_UP_PARSERS, false);
     setDefaultProperty(ARG_VERSION, false);
     setDefaultProperty(BfConsts.COMMAND_ANALYZE, false);
     setDefaultProperty(BfConsts.COMMAND_ANSWER, false);
@@ -549,6 +627,9 @@ public final class Settings extends BaseSettings implements GrammarSettings {
     setDefaultProperty(BfConsts.COMMAND_PARSE_VENDOR_SPECIFIC, false);
     setDefaultProperty(ARG_Z3_TIMEOUT, 0);
     setDefaultProperty(ARG_DATAPLANE_ENGINE_NAME, "ibdp");
+    setDefaultProperty(ARG_DATAPLANE_SHARD_CACHE_SIZE, 1024);
+    setDefaultProperty(ARG_BDD_REACHABILITY_MAX_NODE_TABLE_SIZE, 1 << 24);
+    setDefaultProperty(ARG_BDD_REACHABILITY_THREADS, 1);
   }
 
   private void initOptions() {
@@ -683,6 +764,8 @@ public final class Settings extends BaseSettings implements GrammarSettings {
     addBooleanOption(ARG_NO_SHUFFLE, "do not shuffle parallel jobs");
 
     addBooleanOption(ARG_PARSE_REUSE, "reuse parse results when appropriate");
+    addBooleanOption(
+        ARG_CONVERSION_REUSE, "reuse conversion results of unchanged vendor configurations");
 
     addBooleanOption(ARG_PRINT_PARSE_TREES, "print parse trees");
 
@@ -691,6 +774,10 @@ public final class Settings extends BaseSettings implements GrammarSettings {
 
     addOption(BfConsts.ARG_QUESTION_NAME, "name of question", ARGNAME_NAME);
 
+    addBooleanOption(
+        ARG_RECORD_DFA_STATISTICS,
+        "(developer option) record how often parser predictions are served by the DFA cache");
+
     addOption(
         ARG_RUN_MODE,
         "mode to run in",
@@ -698,6 +785,14 @@ public final class Settings extends BaseSettings implements GrammarSettings {
 
     addBooleanOption(ARG_SEQUENTIAL, "force sequential operation");
 
+    addOption(
+        ARG_SERIALIZATION_FORMAT,
+        "format of serialized objects written to storage (compact is Java serialization with"
+            + " slimmer class descriptors)",
+        Arrays.stream(SerializationFormat.values())
+            .map(Object::toString)
+            .collect(Collectors.joining("|")));
+
     addOption(
         ARG_SERVICE_BIND_HOST,
         "local hostname used bind service (default is 0.0.0.0 which listens on all interfaces)",
@@ -744,6 +839,9 @@ public final class Settings extends BaseSettings implements GrammarSettings {
         BfConsts.ARG_VERBOSE_PARSE,
         "(developer option) include parse/convert data in init-testrig answer");
 
+    addBooleanOption(
+        ARG_WARM_UP_PARSERS, "parse sample configurations at service startup to warm up parsers");
+
     addBooleanOption(BfConsts.COMMAND_ANALYZE, "run provided analysis");
 
     addBooleanOption(BfConsts.COMMAND_ANSWER, "answer provided question");
@@ -764,6 +862,21 @@ public final class Settings extends BaseSettings implements GrammarSettings {
         "name of the dataplane generation engine to use.",
         "dataplane engine name");
 
+    addOption(
+        ARG_DATAPLANE_SHARD_CACHE_SIZE,
+        "max number of per-node data plane shards to keep in memory",
+        ARGNAME_NUMBER);
+
+    addOption(
+        ARG_BDD_REACHABILITY_MAX_NODE_TABLE_SIZE,
+        "max BDD node table size of the reachability factories kept between questions",
+        ARGNAME_NUMBER);
+
+    addOption(
+        ARG_BDD_REACHABILITY_THREADS,
+        "number of threads used to compute BDD reachability, partitioned by source node",
+        ARGNAME_NUMBER);
+
     // deprecated and ignored
     for (String deprecatedStringArg :
         new String[] {
@@ -850,8 +963,10 @@ public final class Settings extends BaseSettings implements GrammarSettings {
     getBooleanOptionValue(ARG_PRINT_PARSE_TREES);
     getBooleanOptionValue(ARG_PRINT_PARSE_TREE_LINE_NUMS);
     getStringOptionValue(BfConsts.ARG_QUESTION_NAME);
+    getBooleanOptionValue(ARG_RECORD_DFA_STATISTICS);
     getStringOptionValue(ARG_RUN_MODE);
     getBooleanOptionValue(ARG_SEQUENTIAL);
+    getStringOptionValue(ARG_SERIALIZATION_FORMAT);
     getBooleanOptionValue(BfConsts.COMMAND_PARSE_VENDOR_INDEPENDENT);
     getBooleanOptionValue(BfConsts.COMMAND_PARSE_VENDOR_SPECIFIC);
     getStringOptionValue(ARG_SERVICE_BIND_HOST);
@@ -860,6 +975,7 @@ public final class Settings extends BaseSettings implements GrammarSettings {
     getIntOptionValue(ARG_SERVICE_PORT);
     getBooleanOptionValue(ARG_NO_SHUFFLE);
     getBooleanOptionValue(ARG_PARSE_REUSE);
+    getBooleanOptionValue(ARG_CONVERSION_REUSE);
     getStringOptionValue(BfConsts.ARG_SNAPSHOT_NAME);
     getBooleanOptionValue(BfConsts.ARG_SSL_DISABLE);
     getPathOptionValue(BfConsts.ARG_SSL_KEYSTORE_FILE);
@@ -877,8 +993,21 @@ public final class Settings extends BaseSettings implements GrammarSettings {
     getIntegerOptionValue(ARG_TRACING_AGENT_PORT);
     getBooleanOptionValue(ARG_TRACING_ENABLE);
     getBooleanOptionValue(BfConsts.ARG_VERBOSE_PARSE);
+    getBooleanOptionValue(ARG_WARM_UP_PARSERS);
     getIntegerOptionValue(ARG_Z3_TIMEOUT);
     getStringOptionValue(ARG_DATAPLANE_ENGINE_NAME);
+    getIntOptionValue(ARG_DATAPLANE_SHARD_CACHE_SIZE);
+    getIntOptionValue(ARG_BDD_REACHABILITY_MAX_NODE_TABLE_SIZE);
+    getIntOptionValue(ARG_BDD_REACHABILITY_THREADS);
+  }
+
+  public void setBddReachabilityAnalysisFactoriesCache(
+      @Nullable Cache<NetworkSnapshot, BDDReachabilityAnalysisFactories> cache) {
+    _bddReachabilityAnalysisFactoriesCache = cache;
+  }
+
+  public void setBddReachabilityMaxNodeTableSize(int maxNodeTableSize) {
+    _config.setProperty(ARG_BDD_REACHABILITY_MAX_NODE_TABLE_SIZE, maxNodeTableSize);
   }
 
   public void setCanExecute(boolean canExecute) {
@@ -3,7 +3,6 @@ package org.batfish.dataplane.ibdp;
 import static com.google.common.base.MoreObjects.firstNonNull;
 import static com.google.common.base.Preconditions.checkArgument;
 import static org.batfish.common.util.CollectionUtil.toImmutableSortedMap;
-import static org.batfish.common.util.CollectionUtil.toOrderedHashCode;
 import static org.batfish.datamodel.MultipathEquivalentAsPathMatchMode.EXACT_PATH;
 import static org.batfish.datamodel.routing_policy.Environment.Direction.IN;
 import static org.batfish.dataplane.protocols.BgpProtocolHelper.transformBgpRouteOnImport;
@@ -25,7 +24,7 @@ import java.util.Optional;
 import java.util.Queue;
 import java.util.Set;
 import java.util.SortedMap;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.regex.Pattern;
 import java.util.stream.Stream;
@@ -61,18 +60,23 @@ import org.batfish.datamodel.bgp.Layer3VniConfig;
 import org.batfish.datamodel.bgp.RouteDistinguisher;
 import org.batfish.datamodel.bgp.VniConfig;
 import org.batfish.datamodel.bgp.community.ExtendedCommunity;
+import org.batfish.datamodel.routing_policy.CompiledRoutingPolicy;
 import org.batfish.datamodel.routing_policy.Environment.Direction;
 import org.batfish.datamodel.routing_policy.RoutingPolicy;
 import org.batfish.datamodel.vxlan.Layer2Vni;
+import org.batfish.dataplane.ibdp.BgpUpdateGroups.ExportResult;
+import org.batfish.dataplane.ibdp.BgpUpdateGroups.UpdateGroupKey;
 import org.batfish.dataplane.protocols.BgpProtocolHelper;
 import org.batfish.dataplane.rib.BgpRib;
 import org.batfish.dataplane.rib.Bgpv4Rib;
+import org.batfish.dataplane.rib.Digests;
 import org.batfish.dataplane.rib.EvpnRib;
 import org.batfish.dataplane.rib.Rib;
 import org.batfish.dataplane.rib.RibDelta;
 import org.batfish.dataplane.rib.RibDelta.Builder;
 import org.batfish.dataplane.rib.RouteAdvertisement;
 import org.batfish.dataplane.rib.RouteAdvertisement.Reason;
+import org.batfish.dataplane.rib.RouteQueue;
 
 /**
  * BGP routing process. A dataplane counter-part of {@link BgpProcess}. Maintains state necessary
@@ -100,19 +104,19 @@ final class BgpRoutingProcess implements RoutingProcess<BgpTopology, BgpRoute<?,
    * Incoming messages into this router from each BGP neighbor that speaks IPv4 unicast address
    * family
    */
-  @Nonnull SortedMap<EdgeId, Queue<RouteAdvertisement<Bgpv4Route>>> _bgpv4IncomingRoutes;
+  @Nonnull SortedMap<EdgeId, RouteQueue<Bgpv4Route>> _bgpv4IncomingRoutes;
   /**
    * Incoming EVPN type 3 advertisements into this router from each BGP neighbor that speaks EVPN
    * address family
    */
   @Nonnull @VisibleForTesting
-  SortedMap<EdgeId, Queue<RouteAdvertisement<EvpnType3Route>>> _evpnType3IncomingRoutes;
+  SortedMap<EdgeId, RouteQueue<EvpnType3Route>> _evpnType3IncomingRoutes;
   /**
    * Incoming EVPN type 5 advertisements into this router from each BGP neighbor that speaks EVPN
    * address family
    */
   @Nonnull
-  private SortedMap<EdgeId, Queue<RouteAdvertisement<EvpnType5Route>>> _evpnType5IncomingRoutes;
+  private SortedMap<EdgeId, RouteQueue<EvpnType5Route>> _evpnType5IncomingRoutes;
 
   // RIBs and RIB delta builders
   /** Helper RIB containing all paths obtained with external BGP, for IPv4 unicast */
@@ -182,6 +186,10 @@ final class BgpRoutingProcess implements RoutingProcess<BgpTopology, BgpRoute<?,
    */
   @Nonnull private RibDelta<EvpnType3Route> _localType3Routes = RibDelta.empty();
 
+  /** Import and export policies of this process, compiled on first use and keyed by name */
+  @Nonnull
+  private final Map<String, CompiledRoutingPolicy> _compiledPolicies = new ConcurrentHashMap<>();
+
   /**
    * Create a new BGP process
    *
@@ -293,14 +301,14 @@ final class BgpRoutingProcess implements RoutingProcess<BgpTopology, BgpRoute<?,
     // Create incoming message queues for sessions that exchange IPv4 unicast info
     _bgpv4IncomingRoutes =
         getEdgeIdStream(graph, BgpPeerConfig::getIpv4UnicastAddressFamily, Type.IPV4_UNICAST)
-            .collect(toImmutableSortedMap(Function.identity(), e -> new ConcurrentLinkedQueue<>()));
+            .collect(toImmutableSortedMap(Function.identity(), e -> new RouteQueue<>()));
     // Create incoming message queues for sessions that exchange EVPN info
     _evpnType3IncomingRoutes =
         getEdgeIdStream(graph, BgpPeerConfig::getEvpnAddressFamily, Type.EVPN)
-            .collect(toImmutableSortedMap(Function.identity(), e -> new ConcurrentLinkedQueue<>()));
+            .collect(toImmutableSortedMap(Function.identity(), e -> new RouteQueue<>()));
     _evpnType5IncomingRoutes =
         getEdgeIdStream(graph, BgpPeerConfig::getEvpnAddressFamily, Type.EVPN)
-            .collect(toImmutableSortedMap(Function.identity(), e -> new ConcurrentLinkedQueue<>()));
+            .collect(toImmutableSortedMap(Function.identity(), e -> new RouteQueue<>()));
     assert _evpnType3IncomingRoutes.keySet().equals(_evpnType5IncomingRoutes.keySet());
   }
 
@@ -610,8 +618,7 @@ final class BgpRoutingProcess implements RoutingProcess<BgpTopology, BgpRoute<?,
   private DeltaPair<EvpnType3Route> processEvpnType3Messages(
       NetworkConfigurations nc, Map<String, Node> allNodes) {
     DeltaPair<EvpnType3Route> deltaPair = DeltaPair.empty();
-    for (Entry<EdgeId, Queue<RouteAdvertisement<EvpnType3Route>>> entry :
-        _evpnType3IncomingRoutes.entrySet()) {
+    for (Entry<EdgeId, RouteQueue<EvpnType3Route>> entry : _evpnType3IncomingRoutes.entrySet()) {
       EdgeId edge = entry.getKey();
       Queue<RouteAdvertisement<EvpnType3Route>> queue = entry.getValue();
       deltaPair =
@@ -625,8 +632,7 @@ final class BgpRoutingProcess implements RoutingProcess<BgpTopology, BgpRoute<?,
   private DeltaPair<EvpnType5Route> processEvpnType5Messages(
       NetworkConfigurations nc, Map<String, Node> allNodes) {
     DeltaPair<EvpnType5Route> deltaPair = DeltaPair.empty();
-    for (Entry<EdgeId, Queue<RouteAdvertisement<EvpnType5Route>>> entry :
-        _evpnType5IncomingRoutes.entrySet()) {
+    for (Entry<EdgeId, RouteQueue<EvpnType5Route>> entry : _evpnType5IncomingRoutes.entrySet()) {
       EdgeId edge = entry.getKey();
       Queue<RouteAdvertisement<EvpnType5Route>> queue = entry.getValue();
       deltaPair =
@@ -675,7 +681,7 @@ final class BgpRoutingProcess implements RoutingProcess<BgpTopology, BgpRoute<?,
       String importPolicyName = ourBgpConfig.getEvpnAddressFamily().getImportPolicy();
       boolean acceptIncoming = true;
       if (importPolicyName != null) {
-        RoutingPolicy importPolicy = _c.getRoutingPolicies().get(importPolicyName);
+        CompiledRoutingPolicy importPolicy = getCompiledPolicy(importPolicyName);
         if (importPolicy != null) {
           acceptIncoming =
               importPolicy.processBgpRoute(route, transformedBuilder, sessionProperties, IN);
@@ -833,6 +839,71 @@ final class BgpRoutingProcess implements RoutingProcess<BgpTopology, BgpRoute<?,
           Map<String, Node> allNodes,
           BgpSessionProperties sessionProperties,
           AddressFamily.Type afType) {
+    return transformBgpRouteOnExport(
+        exportCandidate,
+        ourConfigId,
+        remoteConfigId,
+        ourConfig,
+        remoteConfig,
+        allNodes,
+        sessionProperties,
+        afType,
+        null,
+        null);
+  }
+
+  /**
+   * Returns the {@link UpdateGroupKey} of exports from {@code ourConfig} to {@code remoteConfig} in
+   * address family {@code afType}, or {@code null} if either peer lacks that address family. It
+   * depends only on the edge, so callers exporting many routes over an edge compute it once.
+   *
+   * @param sessionProperties {@link BgpSessionProperties} representing the <em>incoming</em> edge:
+   *     i.e. the edge from {@code remoteConfig} to {@code ourConfig}
+   */
+  @Nullable
+  UpdateGroupKey computeUpdateGroupKey(
+      BgpPeerConfigId remoteConfigId,
+      BgpPeerConfig ourConfig,
+      BgpPeerConfig remoteConfig,
+      Map<String, Node> allNodes,
+      BgpSessionProperties sessionProperties,
+      AddressFamily.Type afType) {
+    AddressFamily addressFamily = ourConfig.getAddressFamily(afType);
+    AddressFamily remoteAddressFamily = remoteConfig.getAddressFamily(afType);
+    if (addressFamily == null || remoteAddressFamily == null) {
+      return null;
+    }
+    BgpProcess remoteProcess = getNeighborBgpProcess(remoteConfigId, allNodes)._process;
+    return new UpdateGroupKey(
+        addressFamily,
+        ourConfig.getClusterId(),
+        sessionProperties,
+        remoteAddressFamily.getRouteReflectorClient(),
+        remoteProcess.getAdminCost(
+            sessionProperties.isEbgp() ? RoutingProtocol.BGP : RoutingProtocol.IBGP),
+        remoteProcess.getClusterIds());
+  }
+
+  /**
+   * Like {@link #transformBgpRouteOnExport(BgpRoute, BgpPeerConfigId, BgpPeerConfigId,
+   * BgpPeerConfig, BgpPeerConfig, Map, BgpSessionProperties, Type)}, but reuses the result computed
+   * for another peer of the same update group in {@code updateGroups}, if any.
+   *
+   * @param updateGroupKey the key of the edge's update group from {@link #computeUpdateGroupKey},
+   *     or {@code null} to not share the result
+   */
+  <B extends BgpRoute.Builder<B, R>, R extends BgpRoute<B, R>>
+      Optional<R> transformBgpRouteOnExport(
+          BgpRoute<B, R> exportCandidate,
+          BgpPeerConfigId ourConfigId,
+          BgpPeerConfigId remoteConfigId,
+          BgpPeerConfig ourConfig,
+          BgpPeerConfig remoteConfig,
+          Map<String, Node> allNodes,
+          BgpSessionProperties sessionProperties,
+          AddressFamily.Type afType,
+          @Nullable BgpUpdateGroups updateGroups,
+          @Nullable UpdateGroupKey updateGroupKey) {
 
     // Do some sanity checking first -- AF and policies should exist
     AddressFamily addressFamily = ourConfig.getAddressFamily(afType);
@@ -843,7 +914,82 @@ final class BgpRoutingProcess implements RoutingProcess<BgpTopology, BgpRoute<?,
         ourConfigId);
     String exportPolicyName = addressFamily.getExportPolicy();
     assert exportPolicyName != null; // Conversion guarantee
-    RoutingPolicy exportPolicy = _c.getRoutingPolicies().get(exportPolicyName);
+    BgpProcess remoteProcess = getNeighborBgpProcess(remoteConfigId, allNodes)._process;
+
+    ExportResult<R> result;
+    if (updateGroups == null
+        || updateGroupKey == null
+        // The originator check depends on the individual peer, so it cannot be shared
+        || (!sessionProperties.isEbgp()
+            && remoteProcess.getRouterId().equals(exportCandidate.getOriginatorIp()))) {
+      result =
+          computeBgpRouteExport(
+              exportCandidate,
+              ourConfig,
+              remoteConfig,
+              remoteProcess,
+              sessionProperties,
+              addressFamily,
+              exportPolicyName);
+    } else {
+      result = updateGroups.get(updateGroupKey, exportCandidate);
+      if (result == null) {
+        result =
+            computeBgpRouteExport(
+                exportCandidate,
+                ourConfig,
+                remoteConfig,
+                remoteProcess,
+                sessionProperties,
+                addressFamily,
+                exportPolicyName);
+        updateGroups.put(updateGroupKey, exportCandidate, result, sessionProperties.getTailIp());
+      }
+    }
+
+    // sessionProperties represents the incoming edge, so its tailIp is the remote peer's IP
+    Ip remoteIp = sessionProperties.getTailIp();
+
+    R transformedOutgoingRoute = result.getRoute();
+    if (transformedOutgoingRoute == null) {
+      if (result.isFilteredByPolicy()) {
+        // This route could not be exported due to export policy
+        _prefixTracer.filtered(
+            exportCandidate.getNetwork(),
+            remoteConfigId.getHostname(),
+            remoteIp,
+            remoteConfigId.getVrfName(),
+            exportPolicyName,
+            Direction.OUT);
+      }
+      return Optional.empty();
+    }
+
+    _prefixTracer.sentTo(
+        transformedOutgoingRoute.getNetwork(),
+        remoteConfigId.getHostname(),
+        remoteIp,
+        remoteConfigId.getVrfName(),
+        exportPolicyName);
+
+    return Optional.of(transformedOutgoingRoute);
+  }
+
+  /**
+   * Runs {@code exportCandidate} through the BGP outbound transformations and the export policy
+   * named {@code exportPolicyName}, without recording anything in the prefix tracer.
+   */
+  @Nonnull
+  private <B extends BgpRoute.Builder<B, R>, R extends BgpRoute<B, R>>
+      ExportResult<R> computeBgpRouteExport(
+          BgpRoute<B, R> exportCandidate,
+          BgpPeerConfig ourConfig,
+          BgpPeerConfig remoteConfig,
+          BgpProcess remoteProcess,
+          BgpSessionProperties sessionProperties,
+          AddressFamily addressFamily,
+          String exportPolicyName) {
+    CompiledRoutingPolicy exportPolicy = getCompiledPolicy(exportPolicyName);
     assert exportPolicy != null; // Conversion guarantee
 
     B transformedOutgoingRouteBuilder =
@@ -852,13 +998,13 @@ final class BgpRoutingProcess implements RoutingProcess<BgpTopology, BgpRoute<?,
             remoteConfig,
             sessionProperties,
             _process,
-            getNeighborBgpProcess(remoteConfigId, allNodes)._process,
+            remoteProcess,
             exportCandidate,
             addressFamily.getType());
 
     if (transformedOutgoingRouteBuilder == null) {
       // This route could not be exported for core bgp protocol reasons
-      return Optional.empty();
+      return ExportResult.notExportable();
     }
 
     // Process transformed outgoing route by the export policy
@@ -866,19 +1012,9 @@ final class BgpRoutingProcess implements RoutingProcess<BgpTopology, BgpRoute<?,
         exportPolicy.processBgpRoute(
             exportCandidate, transformedOutgoingRouteBuilder, sessionProperties, Direction.OUT);
 
-    // sessionProperties represents the incoming edge, so its tailIp is the remote peer's IP
-    Ip remoteIp = sessionProperties.getTailIp();
-
     if (!shouldExport) {
       // This route could not be exported due to export policy
-      _prefixTracer.filtered(
-          exportCandidate.getNetwork(),
-          remoteConfigId.getHostname(),
-          remoteIp,
-          remoteConfigId.getVrfName(),
-          exportPolicyName,
-          Direction.OUT);
-      return Optional.empty();
+      return ExportResult.filteredByPolicy();
     }
     // Apply final post-policy transformations before sending advertisement to neighbor
     BgpProtocolHelper.transformBgpRoutePostExport(
@@ -889,16 +1025,7 @@ final class BgpRoutingProcess implements RoutingProcess<BgpTopology, BgpRoute<?,
         sessionProperties.getHeadIp(),
         exportCandidate.getNextHopIp());
     // Successfully exported route
-    R transformedOutgoingRoute = transformedOutgoingRouteBuilder.build();
-
-    _prefixTracer.sentTo(
-        transformedOutgoingRoute.getNetwork(),
-        remoteConfigId.getHostname(),
-        remoteIp,
-        remoteConfigId.getVrfName(),
-        exportPolicyName);
-
-    return Optional.of(transformedOutgoingRoute);
+    return ExportResult.exported(transformedOutgoingRouteBuilder.build());
   }
 
   /**
@@ -919,8 +1046,8 @@ final class BgpRoutingProcess implements RoutingProcess<BgpTopology, BgpRoute<?,
       @Nonnull BgpPeerConfig ourConfig,
       @Nonnull BgpSessionProperties sessionProperties) {
 
-    RoutingPolicy exportPolicy =
-        _c.getRoutingPolicies().get(ourConfig.getIpv4UnicastAddressFamily().getExportPolicy());
+    CompiledRoutingPolicy exportPolicy =
+        getCompiledPolicy(ourConfig.getIpv4UnicastAddressFamily().getExportPolicy());
     RoutingProtocol protocol =
         sessionProperties.isEbgp() ? RoutingProtocol.BGP : RoutingProtocol.IBGP;
     Bgpv4Route.Builder transformedOutgoingRouteBuilder =
@@ -1147,22 +1274,21 @@ final class BgpRoutingProcess implements RoutingProcess<BgpTopology, BgpRoute<?,
     return session.get();
   }
 
-  int iterationHashCode() {
-    return Stream.of(
-            // RIBs
-            _bgpv4Rib.getTypedRoutes(),
-            _evpnRib.getTypedRoutes(),
-            // Message queues
-            _bgpv4IncomingRoutes,
-            _evpnType3IncomingRoutes,
-            _evpnType5IncomingRoutes,
-            // Delta builders
-            _bgpv4DeltaBuilder.build(),
-            _evpnDeltaBuilder.build(),
-            // intermediate state
-            _type5RoutesToSendForEveryone,
-            _type5RoutesToSendPerNeighbor)
-        .collect(toOrderedHashCode());
+  long iterationHashCode() {
+    return Digests.combine(
+        // RIBs
+        _bgpv4Rib.getDigest(),
+        _evpnRib.getDigest(),
+        // Message queues
+        RouteQueue.getDigest(_bgpv4IncomingRoutes),
+        RouteQueue.getDigest(_evpnType3IncomingRoutes),
+        RouteQueue.getDigest(_evpnType5IncomingRoutes),
+        // Delta builders
+        _bgpv4DeltaBuilder.build().hashCode(),
+        _evpnDeltaBuilder.build().hashCode(),
+        // intermediate state
+        _type5RoutesToSendForEveryone.hashCode(),
+        _type5RoutesToSendPerNeighbor.hashCode());
   }
 
   /**
@@ -1204,6 +1330,21 @@ final class BgpRoutingProcess implements RoutingProcess<BgpTopology, BgpRoute<?,
     return _process.getRouterId();
   }
 
+  /**
+   * Return the compiled form of the routing policy named {@code policyName} in the parent
+   * configuration, or {@code null} if there is no such policy. Policies are compiled on first
+   * use.
+   */
+  @Nullable
+  CompiledRoutingPolicy getCompiledPolicy(String policyName) {
+    RoutingPolicy policy = _c.getRoutingPolicies().get(policyName);
+    if (policy == null) {
+      return null;
+    }
+    return _compiledPolicies.computeIfAbsent(
+        policyName, name -> CompiledRoutingPolicy.compile(policy));
+  }
+
   /** Return all type 3 EVPN routes */
   public Set<EvpnType3Route> getEvpnType3Routes() {
     return _evpnType3Rib.getTypedRoutes();
@@ -0,0 +1,190 @@
+package org.batfish.dataplane.ibdp;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+import org.batfish.datamodel.BgpRoute;
+import org.batfish.datamodel.BgpSessionProperties;
+import org.batfish.datamodel.Ip;
+import org.batfish.datamodel.bgp.AddressFamily;
+
+/**
+ * Export results shared by the BGP peers of a {@link BgpRoutingProcess} that belong to the same
+ * update group, i.e. peers for which a route goes through the same export transformations and
+ * export policy. Like update groups on real routers, this lets a route reflector with many clients
+ * compute each outgoing route once rather than once per client.
+ *
+ * <p>Two parts of the export computation depend on the individual peer and are handled outside of
+ * the group key:
+ *
+ * <ul>
+ *   <li>iBGP routes are not sent to the peer whose router ID is the route's originator ID. Callers
+ *       must not use this cache when that check applies to the peer.
+ *   <li>The export policy may set the next hop to the peer's address. Results whose next hop is the
+ *       address of the peer they were computed for are therefore not shared.
+ * </ul>
+ *
+ * <p>Instances are not thread-safe; they are meant to be used for a single pass over the outgoing
+ * edges of one process.
+ */
+@ParametersAreNonnullByDefault
+final class BgpUpdateGroups {
+
+  /** The outcome of exporting a route to one peer of an update group. */
+  static final class ExportResult<R extends BgpRoute<?, ?>> {
+    private static final ExportResult<?> FILTERED_BY_POLICY = new ExportResult<>(null, true);
+    private static final ExportResult<?> NOT_EXPORTABLE = new ExportResult<>(null, false);
+
+    @Nullable private final R _route;
+    private final boolean _filteredByPolicy;
+
+    private ExportResult(@Nullable R route, boolean filteredByPolicy) {
+      _route = route;
+      _filteredByPolicy = filteredByPolicy;
+    }
+
+    static <R extends BgpRoute<?, ?>> ExportResult<R> exported(R route) {
+      return new ExportResult<>(route, false);
+    }
+
+    @SuppressWarnings("unchecked")
+    static <R extends BgpRoute<?, ?>> ExportResult<R> filteredByPolicy() {
+      return (ExportResult<R>) FILTERED_BY_POLICY;
+    }
+
+    /** A result for a route that BGP protocol rules prevent from being exported at all. */
+    @SuppressWarnings("unchecked")
+    static <R extends BgpRoute<?, ?>> ExportResult<R> notExportable() {
+      return (ExportResult<R>) NOT_EXPORTABLE;
+    }
+
+    /** The exported route, or {@code null} if the route was not exported. */
+    @Nullable
+    R getRoute() {
+      return _route;
+    }
+
+    /** Whether the route was not exported because the export policy rejected it. */
+    boolean isFilteredByPolicy() {
+      return _filteredByPolicy;
+    }
+  }
+
+  /**
+   * Everything the export of a route to a peer depends on, other than the peer's address and
+   * router ID.
+   */
+  @VisibleForTesting
+  static final class UpdateGroupKey {
+    @Nonnull private final AddressFamily _localAddressFamily;
+    @Nullable private final Long _localClusterId;
+    @Nonnull private final BgpSessionProperties _sessionProperties;
+    private final boolean _remoteRouteReflectorClient;
+    private final int _remoteAdminCost;
+    @Nonnull private final Set<Long> _remoteClusterIds;
+    private final int _hashCode;
+
+    /**
+     * @param localAddressFamily our address family, including the export policy
+     * @param localClusterId our cluster ID for the session
+     * @param sessionProperties the properties of the incoming edge. The remote peer's address
+     *     (the tail IP) is not part of the key.
+     * @param remoteRouteReflectorClient whether the remote peer's address family marks us as a
+     *     route reflector client
+     * @param remoteAdminCost the administrative cost the remote process assigns to the route
+     * @param remoteClusterIds the cluster IDs of the remote process
+     */
+    UpdateGroupKey(
+        AddressFamily localAddressFamily,
+        @Nullable Long localClusterId,
+        BgpSessionProperties sessionProperties,
+        boolean remoteRouteReflectorClient,
+        int remoteAdminCost,
+        Set<Long> remoteClusterIds) {
+      _localAddressFamily = localAddressFamily;
+      _localClusterId = localClusterId;
+      _sessionProperties =
+          BgpSessionProperties.builder()
+              .setAddressFamilies(sessionProperties.getAddressFamilies())
+              .setRouteExchangeSettings(sessionProperties.getRouteExchangeSettings())
+              .setTailAs(sessionProperties.getTailAs())
+              .setHeadAs(sessionProperties.getHeadAs())
+              .setTailIp(Ip.ZERO)
+              .setHeadIp(sessionProperties.getHeadIp())
+              .setSessionType(sessionProperties.getSessionType())
+              .setConfedSessionType(sessionProperties.getConfedSessionType())
+              .build();
+      _remoteRouteReflectorClient = remoteRouteReflectorClient;
+      _remoteAdminCost = remoteAdminCost;
+      _remoteClusterIds = ImmutableSet.copyOf(remoteClusterIds);
+      _hashCode =
+          Objects.hash(
+              _localAddressFamily,
+              _localClusterId,
+              _sessionProperties,
+              _remoteRouteReflectorClient,
+              _remoteAdminCost,
+              _remoteClusterIds);
+    }
+
+    @Override
+    public boolean equals(@Nullable Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof UpdateGroupKey)) {
+        return false;
+      }
+      UpdateGroupKey that = (UpdateGroupKey) o;
+      return _hashCode == that._hashCode
+          && _remoteRouteReflectorClient == that._remoteRouteReflectorClient
+          && _remoteAdminCost == that._remoteAdminCost
+          && Objects.equals(_localClusterId, that._localClusterId)
+          && _localAddressFamily.equals(that._localAddressFamily)
+          && _sessionProperties.equals(that._sessionProperties)
+          && _remoteClusterIds.equals(that._remoteClusterIds);
+    }
+
+    @Override
+    public int hashCode() {
+      return _hashCode;
+    }
+  }
+
+  @Nonnull private final Map<UpdateGroupKey, Map<BgpRoute<?, ?>, ExportResult<?>>> _results;
+
+  BgpUpdateGroups() {
+    _results = new HashMap<>();
+  }
+
+  /**
+   * Returns the result of exporting {@code exportCandidate} to a peer of the update group {@code
+   * key}, or {@code null} if no shareable result has been recorded yet.
+   */
+  @Nullable
+  @SuppressWarnings("unchecked")
+  <B extends BgpRoute.Builder<B, R>, R extends BgpRoute<B, R>> ExportResult<R> get(
+      UpdateGroupKey key, BgpRoute<B, R> exportCandidate) {
+    Map<BgpRoute<?, ?>, ExportResult<?>> groupResults = _results.get(key);
+    return groupResults == null ? null : (ExportResult<R>) groupResults.get(exportCandidate);
+  }
+
+  /**
+   * Records the result of exporting {@code exportCandidate} to the peer with address {@code
+   * peerIp} in the update group {@code key}, unless the result may depend on that address.
+   */
+  <B extends BgpRoute.Builder<B, R>, R extends BgpRoute<B, R>> void put(
+      UpdateGroupKey key, BgpRoute<B, R> exportCandidate, ExportResult<R> result, Ip peerIp) {
+    R route = result.getRoute();
+    if (route != null && route.getNextHopIp().equals(peerIp)) {
+      return;
+    }
+    _results.computeIfAbsent(key, k -> new HashMap<>()).put(exportCandidate, result);
+  }
+}
@@ -0,0 +1,175 @@
+package org.batfish.dataplane.ibdp;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSortedMap;
+import com.google.common.collect.ImmutableSortedSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+import org.batfish.common.plugin.TracerouteEngine;
+import org.batfish.datamodel.Edge;
+import org.batfish.datamodel.Fib;
+import org.batfish.datamodel.Flow;
+import org.batfish.datamodel.Topology;
+import org.batfish.datamodel.flow.FirewallSessionTraceInfo;
+import org.batfish.datamodel.flow.TraceAndReverseFlow;
+import org.batfish.dataplane.TracerouteEngineImpl;
+
+/**
+ * A {@link TracerouteEngine} over the partial data plane of a topology iteration of {@link
+ * IncrementalBdpEngine}, that reuses the traces computed on earlier iterations.
+ *
+ * <p>The traces of a flow are reused if the topologies are unchanged, and so are the FIBs of every
+ * node the traces visit and of the layer-3 neighbors of those nodes, whose ARP replies decide where
+ * the traces end. All flows without reusable traces are traced in a single batch.
+ */
+@ParametersAreNonnullByDefault
+final class CachingTracerouteEngine implements TracerouteEngine {
+
+  /** A flow with the sessions and filter setting it is traced with */
+  private static final class Key {
+    private final Flow _flow;
+    private final Set<FirewallSessionTraceInfo> _sessions;
+    private final boolean _ignoreFilters;
+
+    private Key(Flow flow, Set<FirewallSessionTraceInfo> sessions, boolean ignoreFilters) {
+      _flow = flow;
+      _sessions = sessions;
+      _ignoreFilters = ignoreFilters;
+    }
+
+    @Override
+    public boolean equals(@Nullable Object o) {
+      if (this == o) {
+        return true;
+      } else if (!(o instanceof Key)) {
+        return false;
+      }
+      Key key = (Key) o;
+      return _flow.equals(key._flow)
+          && _sessions.equals(key._sessions)
+          && _ignoreFilters == key._ignoreFilters;
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(_flow, _sessions, _ignoreFilters);
+    }
+  }
+
+  /** The traces of a flow, and the FIBs of the nodes they depend on when they were computed */
+  private static final class CachedTraces {
+    private final List<TraceAndReverseFlow> _traces;
+    // node -> vrf -> FIB
+    private final Map<String, Map<String, Fib>> _fibs;
+
+    private CachedTraces(List<TraceAndReverseFlow> traces, Map<String, Map<String, Fib>> fibs) {
+      _traces = traces;
+      _fibs = fibs;
+    }
+  }
+
+  private final IncrementalDataPlane _dataPlane;
+  private final Topology _topology;
+  private final TracerouteEngine _tracerouteEngine;
+  private final Map<Key, CachedTraces> _cache;
+
+  /**
+   * Creates an engine tracing flows in {@code dataPlane} over {@code topology}, reusing the traces
+   * cached by {@code previous} if it was created with the same topologies.
+   */
+  CachingTracerouteEngine(
+      IncrementalDataPlane dataPlane,
+      Topology topology,
+      @Nullable CachingTracerouteEngine previous) {
+    _dataPlane = dataPlane;
+    _topology = topology;
+    _tracerouteEngine = new TracerouteEngineImpl(dataPlane, topology);
+    _cache =
+        previous != null
+                && previous._topology.equals(topology)
+                && previous._dataPlane.getLayer3Topology().equals(dataPlane.getLayer3Topology())
+            ? new ConcurrentHashMap<>(previous._cache)
+            : new ConcurrentHashMap<>();
+  }
+
+  @Override
+  public SortedMap<Flow, List<TraceAndReverseFlow>> computeTracesAndReverseFlows(
+      Set<Flow> flows, Set<FirewallSessionTraceInfo> sessions, boolean ignoreFilters) {
+    Map<String, Map<String, Fib>> fibs = _dataPlane.getFibs();
+    ImmutableSortedMap.Builder<Flow, List<TraceAndReverseFlow>> result =
+        ImmutableSortedMap.naturalOrder();
+    Set<Flow> uncachedFlows = new HashSet<>();
+    for (Flow flow : flows) {
+      CachedTraces cached = _cache.get(new Key(flow, sessions, ignoreFilters));
+      if (cached != null && isCurrent(cached, fibs)) {
+        result.put(flow, cached._traces);
+      } else {
+        uncachedFlows.add(flow);
+      }
+    }
+    if (!uncachedFlows.isEmpty()) {
+      _tracerouteEngine
+          .computeTracesAndReverseFlows(uncachedFlows, sessions, ignoreFilters)
+          .forEach(
+              (flow, traces) -> {
+                _cache.put(
+                    new Key(flow, sessions, ignoreFilters),
+                    new CachedTraces(traces, dependedOnFibs(flow, traces, fibs)));
+                result.put(flow, traces);
+              });
+    }
+    return result.build();
+  }
+
+  /** Whether each FIB {@code cached} depends on is still the current FIB of its node and VRF */
+  private static boolean isCurrent(CachedTraces cached, Map<String, Map<String, Fib>> fibs) {
+    for (Entry<String, Map<String, Fib>> nodeEntry : cached._fibs.entrySet()) {
+      Map<String, Fib> currentNodeFibs = fibs.getOrDefault(nodeEntry.getKey(), ImmutableMap.of());
+      if (currentNodeFibs.size() != nodeEntry.getValue().size()) {
+        return false;
+      }
+      for (Entry<String, Fib> vrfEntry : nodeEntry.getValue().entrySet()) {
+        if (currentNodeFibs.get(vrfEntry.getKey()) != vrfEntry.getValue()) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns the FIBs (node -&gt; vrf -&gt; FIB) of the nodes visited by {@code traces} of {@code
+   * flow}, and of their layer-3 neighbors.
+   */
+  private Map<String, Map<String, Fib>> dependedOnFibs(
+      Flow flow, List<TraceAndReverseFlow> traces, Map<String, Map<String, Fib>> fibs) {
+    Set<String> visitedNodes = new HashSet<>();
+    visitedNodes.add(flow.getIngressNode());
+    traces.forEach(
+        trace ->
+            trace.getTrace().getHops().forEach(hop -> visitedNodes.add(hop.getNode().getName())));
+    ImmutableSet.Builder<String> nodes = ImmutableSet.builder();
+    for (String node : visitedNodes) {
+      nodes.add(node);
+      for (Topology topology : ImmutableSet.of(_topology, _dataPlane.getLayer3Topology())) {
+        for (Edge edge : topology.getNodeEdges().getOrDefault(node, ImmutableSortedSet.of())) {
+          nodes.add(edge.getNode1(), edge.getNode2());
+        }
+      }
+    }
+    ImmutableMap.Builder<String, Map<String, Fib>> dependedOnFibs = ImmutableMap.builder();
+    nodes
+        .build()
+        .forEach(node -> dependedOnFibs.put(node, fibs.getOrDefault(node, ImmutableMap.of())));
+    return dependedOnFibs.build();
+  }
+}
@@ -3,7 +3,6 @@ package org.batfish.dataplane.ibdp;
 import static com.google.common.base.Preconditions.checkState;
 import static java.util.Objects.requireNonNull;
 import static org.batfish.common.util.CollectionUtil.toImmutableSortedMap;
-import static org.batfish.common.util.CollectionUtil.toOrderedHashCode;
 import static org.batfish.dataplane.rib.RibDelta.importRibDelta;
 
 import com.google.common.annotations.VisibleForTesting;
@@ -20,7 +19,6 @@ import java.util.Optional;
 import java.util.Queue;
 import java.util.Set;
 import java.util.SortedMap;
-import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -47,6 +45,7 @@ import org.batfish.datamodel.eigrp.EigrpProcess;
 import org.batfish.datamodel.eigrp.EigrpTopology;
 import org.batfish.datamodel.routing_policy.Environment.Direction;
 import org.batfish.datamodel.routing_policy.RoutingPolicy;
+import org.batfish.dataplane.rib.Digests;
 import org.batfish.dataplane.rib.EigrpExternalRib;
 import org.batfish.dataplane.rib.EigrpInternalRib;
 import org.batfish.dataplane.rib.EigrpRib;
@@ -54,6 +53,7 @@ import org.batfish.dataplane.rib.RibDelta;
 import org.batfish.dataplane.rib.RibDelta.Builder;
 import org.batfish.dataplane.rib.RouteAdvertisement;
 import org.batfish.dataplane.rib.RouteAdvertisement.Reason;
+import org.batfish.dataplane.rib.RouteQueue;
 
 /** An instance of an EigrpProcess as constructed and used by {@link VirtualRouter} */
 @ParametersAreNonnullByDefault
@@ -95,11 +95,10 @@ final class EigrpRoutingProcess implements RoutingProcess<EigrpTopology, EigrpRo
 
   /** Incoming internal route messages into this router from each EIGRP adjacency */
   @Nonnull
-  private SortedMap<EigrpEdge, Queue<RouteAdvertisement<EigrpInternalRoute>>>
-      _incomingInternalRoutes;
+  private SortedMap<EigrpEdge, RouteQueue<EigrpInternalRoute>> _incomingInternalRoutes;
   /** Incoming external route messages into this router from each EIGRP adjacency */
   @Nonnull @VisibleForTesting
-  SortedMap<EigrpEdge, Queue<RouteAdvertisement<EigrpExternalRoute>>> _incomingExternalRoutes;
+  SortedMap<EigrpEdge, RouteQueue<EigrpExternalRoute>> _incomingExternalRoutes;
 
   /** Current known EIGRP topology */
   @Nonnull private EigrpTopology _topology;
@@ -557,14 +556,13 @@ final class EigrpRoutingProcess implements RoutingProcess<EigrpTopology, EigrpRo
    *   <li>message queues ({@link #_incomingExternalRoutes}, {@link #_incomingInternalRoutes})
    * </ul>
    *
-   * @return integer hashcode
+   * @return 64-bit hashcode
    */
-  int computeIterationHashCode() {
-    return Stream.of(
-            _rib,
-            _incomingInternalRoutes.values().stream(),
-            _incomingExternalRoutes.values().stream())
-        .collect(toOrderedHashCode());
+  long computeIterationHashCode() {
+    return Digests.combine(
+        _rib.getDigest(),
+        RouteQueue.getDigest(_incomingInternalRoutes),
+        RouteQueue.getDigest(_incomingExternalRoutes));
   }
 
   /** Return the AS number of this process */
@@ -580,10 +578,10 @@ final class EigrpRoutingProcess implements RoutingProcess<EigrpTopology, EigrpRo
   private void updateQueues(EigrpTopology eigrpTopology) {
     _incomingExternalRoutes =
         getIncomingEdgeStream(eigrpTopology)
-            .collect(toImmutableSortedMap(Function.identity(), e -> new ConcurrentLinkedQueue<>()));
+            .collect(toImmutableSortedMap(Function.identity(), e -> new RouteQueue<>()));
     _incomingInternalRoutes =
         getIncomingEdgeStream(eigrpTopology)
-            .collect(toImmutableSortedMap(Function.identity(), e -> new ConcurrentLinkedQueue<>()));
+            .collect(toImmutableSortedMap(Function.identity(), e -> new RouteQueue<>()));
   }
 
   /** Returns all incoming edges as a stream */
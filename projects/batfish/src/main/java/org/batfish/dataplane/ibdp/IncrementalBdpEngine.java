@@ -29,7 +29,6 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import org.batfish.common.BatfishLogger;
 import org.batfish.common.BdpOscillationException;
 import org.batfish.common.plugin.DataPlanePlugin.ComputeDataPlaneResult;
-import org.batfish.common.plugin.TracerouteEngine;
 import org.batfish.common.topology.IpOwners;
 import org.batfish.common.topology.Layer2Topology;
 import org.batfish.common.topology.TopologyUtil;
@@ -52,7 +51,6 @@ import org.batfish.datamodel.isis.IsisTopology;
 import org.batfish.datamodel.ospf.OspfTopology;
 import org.batfish.datamodel.vxlan.VxlanTopology;
 import org.batfish.datamodel.vxlan.VxlanTopologyUtils;
-import org.batfish.dataplane.TracerouteEngineImpl;
 import org.batfish.dataplane.ibdp.schedule.IbdpSchedule;
 import org.batfish.dataplane.ibdp.schedule.IbdpSchedule.Schedule;
 import org.batfish.dataplane.rib.Bgpv4Rib;
@@ -120,6 +118,10 @@ class IncrementalBdpEngine {
        */
       int topologyIterations = 0;
       TopologyContext currentTopologyContext = initialTopologyContext;
+      IncrementalDataPlane partialDataplane = null;
+      // Traceroute engines of the previous iteration, whose cached traces are reused
+      CachingTracerouteEngine trEngCurrentL3Topogy = null;
+      CachingTracerouteEngine trEngNewL3Topology = null;
       boolean converged = false;
       while (!converged && topologyIterations++ < MAX_TOPOLOGY_ITERATIONS) {
         try (ActiveSpan iterSpan =
@@ -130,15 +132,18 @@ class IncrementalBdpEngine {
 
           // Force re-init of partial dataplane. Re-inits forwarding analysis, etc.
           computeFibs(nodes);
-          IncrementalDataPlane partialDataplane =
+          partialDataplane =
               dpBuilder
                   .setNodes(nodes)
                   .setLayer3Topology(currentTopologyContext.getLayer3Topology())
+                  .setPreviousDataPlane(partialDataplane)
                   .build();
 
-          TracerouteEngine trEngCurrentL3Topogy =
-              new TracerouteEngineImpl(
-                  partialDataplane, currentTopologyContext.getLayer3Topology());
+          trEngCurrentL3Topogy =
+              new CachingTracerouteEngine(
+                  partialDataplane,
+                  currentTopologyContext.getLayer3Topology(),
+                  trEngCurrentL3Topogy);
 
           // Update topologies
           // IPsec
@@ -176,6 +181,9 @@ class IncrementalBdpEngine {
                   Sets.union(
                       toEdgeSet(newIpsecTopology, configurations), newTunnelTopology.asEdgeSet()));
 
+          trEngNewL3Topology =
+              new CachingTracerouteEngine(partialDataplane, newLayer3Topology, trEngNewL3Topology);
+
           // EIGRP topology
           EigrpTopology newEigrpTopology =
               EigrpTopologyUtils.initEigrpTopology(configurations, newLayer3Topology);
@@ -187,7 +195,7 @@ class IncrementalBdpEngine {
                   ipVrfOwners,
                   false,
                   true,
-                  new TracerouteEngineImpl(partialDataplane, newLayer3Topology),
+                  trEngNewL3Topology,
                   initialTopologyContext.getLayer2Topology().orElse(null));
           TopologyContext newTopologyContext =
               currentTopologyContext
@@ -662,7 +670,7 @@ class IncrementalBdpEngine {
        * has been previously encountered, we switch our schedule to a more restrictive one.
        */
 
-      Map<Integer, SortedSet<Integer>> iterationsByHashCode = new HashMap<>();
+      Map<Long, SortedSet<Integer>> iterationsByHashCode = new HashMap<>();
 
       Schedule currentSchedule = _settings.getScheduleName();
 
@@ -707,7 +715,7 @@ class IncrementalBdpEngine {
           computeIterationStatistics(nodes, ae, _numIterations);
 
           // This hashcode uniquely identifies the iteration (i.e., network state)
-          int iterationHashCode = computeIterationHashCode(nodes);
+          long iterationHashCode = computeIterationHashCode(nodes);
           SortedSet<Integer> iterationsWithThisHashCode =
               iterationsByHashCode.computeIfAbsent(iterationHashCode, h -> new TreeSet<>());
 
@@ -751,9 +759,9 @@ class IncrementalBdpEngine {
    * Compute the hashcode that uniquely identifies the state of the network at a given iteration
    *
    * @param nodes map of nodes, keyed by hostname
-   * @return integer hashcode
+   * @return 64-bit hashcode
    */
-  private int computeIterationHashCode(Map<String, Node> nodes) {
+  private long computeIterationHashCode(Map<String, Node> nodes) {
     try (ActiveSpan span =
         GlobalTracer.get()
             .buildSpan("Iteration " + _numIterations + ": Compute hashCode")
@@ -763,7 +771,7 @@ class IncrementalBdpEngine {
           .values()
           .parallelStream()
           .flatMap(node -> node.getVirtualRouters().values().stream())
-          .mapToInt(VirtualRouter::computeIterationHashCode)
+          .mapToLong(VirtualRouter::computeIterationHashCode)
           .sum();
     }
   }
@@ -822,6 +830,9 @@ class IncrementalBdpEngine {
    * @return the number of iterations it took for internal OSPF routes to converge
    */
   private int initOspfInternalRoutes(Map<String, Node> allNodes, OspfTopology ospfTopology) {
+    if (_settings.getOspfIntraAreaSpf()) {
+      computeOspfIntraAreaSpf(allNodes, ospfTopology);
+    }
     int ospfInternalIterations = 0;
     boolean dirty = true;
 
@@ -867,6 +878,29 @@ class IncrementalBdpEngine {
     return ospfInternalIterations;
   }
 
+  /**
+   * Compute OSPF intra-area routes of all processes from the link-state graph of each area. The
+   * remaining OSPF routes (inter-area and external) are then computed by {@link
+   * #initOspfInternalRoutes}.
+   *
+   * @param allNodes all nodes participating in DP computation
+   * @param ospfTopology graph of OSPF adjacencies
+   */
+  private static void computeOspfIntraAreaSpf(
+      Map<String, Node> allNodes, OspfTopology ospfTopology) {
+    try (ActiveSpan span =
+        GlobalTracer.get().buildSpan("OSPF internal: intra-area SPF").startActive()) {
+      assert span != null; // avoid unused warning
+      OspfIntraAreaSpf spf = new OspfIntraAreaSpf(ospfTopology, allNodes);
+      allNodes
+          .values()
+          .parallelStream()
+          .flatMap(n -> n.getVirtualRouters().values().stream())
+          .flatMap(vr -> vr.getOspfProcesses().values().stream())
+          .forEach(process -> process.applyIntraAreaSpf(spf));
+    }
+  }
+
   /**
    * Run the IGP RIP computation until convergence
    *
@@ -1,5 +1,6 @@
 package org.batfish.dataplane.ibdp;
 
+import static com.google.common.collect.ImmutableSetMultimap.toImmutableSetMultimap;
 import static org.batfish.common.util.CollectionUtil.toImmutableMap;
 import static org.batfish.common.util.CollectionUtil.toImmutableSortedMap;
 import static org.batfish.specifier.LocationInfoUtils.computeLocationInfo;
@@ -8,13 +9,18 @@ import com.google.common.base.Supplier;
 import com.google.common.base.Suppliers;
 import com.google.common.collect.HashBasedTable;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableTable;
+import com.google.common.collect.SetMultimap;
 import com.google.common.collect.Table;
+import com.google.common.collect.Table.Cell;
 import java.io.Serializable;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.SortedMap;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import org.batfish.datamodel.AbstractRoute;
 import org.batfish.datamodel.AnnotatedRoute;
 import org.batfish.datamodel.Bgpv4Route;
@@ -35,6 +41,7 @@ public final class IncrementalDataPlane implements Serializable, DataPlane {
 
     private Map<String, Node> _nodes;
     private Topology _layer3Topology;
+    @Nullable private IncrementalDataPlane _previousDataPlane;
 
     public Builder setNodes(Map<String, Node> nodes) {
       _nodes = ImmutableMap.copyOf(nodes);
@@ -46,6 +53,15 @@ public final class IncrementalDataPlane implements Serializable, DataPlane {
       return this;
     }
 
+    /**
+     * Sets the data plane of the previous topology iteration. The forwarding analysis of the built
+     * data plane reuses the parts of the last one computed that depend only on unchanged FIBs.
+     */
+    public Builder setPreviousDataPlane(@Nullable IncrementalDataPlane previousDataPlane) {
+      _previousDataPlane = previousDataPlane;
+      return this;
+    }
+
     public IncrementalDataPlane build() {
       return new IncrementalDataPlane(this);
     }
@@ -95,16 +111,37 @@ public final class IncrementalDataPlane implements Serializable, DataPlane {
 
   private final Topology _layer3Topology;
 
+  /** The forwarding analysis of an earlier data plane to build ours on, until ours is computed */
+  @Nullable private transient ForwardingAnalysisImpl _previousForwardingAnalysis;
+
+  @Nullable private transient ForwardingAnalysisImpl _computedForwardingAnalysis;
+
   private transient SortedMap<String, SortedMap<String, GenericRib<AnnotatedRoute<AbstractRoute>>>>
       _ribs;
 
   @Nonnull private final Table<String, String, Set<Bgpv4Route>> _bgpRoutes;
   @Nonnull private final Table<String, String, Set<EvpnRoute<?, ?>>> _evpnRoutes;
+
+  /** {@link #_bgpRoutes} of each node/VRF, indexed by network. Built on first use. */
+  @Nullable
+  private transient Table<String, String, SetMultimap<Prefix, Bgpv4Route>> _bgpRoutesByNetwork;
+
+  /** {@link #_evpnRoutes} of each node/VRF, indexed by network. Built on first use. */
+  @Nullable
+  private transient Table<String, String, SetMultimap<Prefix, EvpnRoute<?, ?>>>
+      _evpnRoutesByNetwork;
   @Nonnull private final Table<String, String, Set<Layer2Vni>> _vniSettings;
 
   private IncrementalDataPlane(Builder builder) {
     _nodes = builder._nodes;
     _layer3Topology = builder._layer3Topology;
+    IncrementalDataPlane previous = builder._previousDataPlane;
+    if (previous != null) {
+      _previousForwardingAnalysis =
+          previous._computedForwardingAnalysis != null
+              ? previous._computedForwardingAnalysis
+              : previous._previousForwardingAnalysis;
+    }
     _bgpRoutes = computeBgpRoutes();
     _evpnRoutes = computeEvpnRoutes();
     _vniSettings = computeVniSettings();
@@ -128,8 +165,15 @@ public final class IncrementalDataPlane implements Serializable, DataPlane {
 
   private ForwardingAnalysis computeForwardingAnalysis() {
     Map<String, Configuration> configs = getConfigurations();
-    return new ForwardingAnalysisImpl(
-        configs, getFibs(), _layer3Topology, computeLocationInfo(configs));
+    _computedForwardingAnalysis =
+        new ForwardingAnalysisImpl(
+            configs,
+            getFibs(),
+            _layer3Topology,
+            computeLocationInfo(configs),
+            _previousForwardingAnalysis);
+    _previousForwardingAnalysis = null;
+    return _computedForwardingAnalysis;
   }
 
   private SortedMap<String, SortedMap<String, GenericRib<AnnotatedRoute<AbstractRoute>>>>
@@ -150,12 +194,50 @@ public final class IncrementalDataPlane implements Serializable, DataPlane {
     return _bgpRoutes;
   }
 
+  @Nonnull
+  @Override
+  public Set<Bgpv4Route> getBgpRoutes(String hostname, String vrfName, Prefix network) {
+    if (_bgpRoutesByNetwork == null) {
+      _bgpRoutesByNetwork = indexByNetwork(_bgpRoutes);
+    }
+    SetMultimap<Prefix, Bgpv4Route> routes = _bgpRoutesByNetwork.get(hostname, vrfName);
+    return routes == null ? ImmutableSet.of() : routes.get(network);
+  }
+
   @Override
   @Nonnull
   public Table<String, String, Set<EvpnRoute<?, ?>>> getEvpnRoutes() {
     return _evpnRoutes;
   }
 
+  @Nonnull
+  @Override
+  public Set<EvpnRoute<?, ?>> getEvpnRoutes(String hostname, String vrfName, Prefix network) {
+    if (_evpnRoutesByNetwork == null) {
+      _evpnRoutesByNetwork = indexByNetwork(_evpnRoutes);
+    }
+    SetMultimap<Prefix, EvpnRoute<?, ?>> routes = _evpnRoutesByNetwork.get(hostname, vrfName);
+    return routes == null ? ImmutableSet.of() : routes.get(network);
+  }
+
+  /**
+   * Index the routes of each node/VRF by network. Only uses the route tables, which unlike the
+   * BGP RIBs of the {@link VirtualRouter}s survive serialization.
+   */
+  @Nonnull
+  private static <R extends AbstractRoute> Table<String, String, SetMultimap<Prefix, R>>
+      indexByNetwork(Table<String, String, Set<R>> routes) {
+    ImmutableTable.Builder<String, String, SetMultimap<Prefix, R>> index = ImmutableTable.builder();
+    for (Cell<String, String, Set<R>> cell : routes.cellSet()) {
+      index.put(
+          cell.getRowKey(),
+          cell.getColumnKey(),
+          cell.getValue().stream()
+              .collect(toImmutableSetMultimap(AbstractRoute::getNetwork, r -> r)));
+    }
+    return index.build();
+  }
+
   @Nonnull
   private Table<String, String, Set<Bgpv4Route>> computeBgpRoutes() {
     Table<String, String, Set<Bgpv4Route>> table = HashBasedTable.create();
@@ -210,6 +292,11 @@ public final class IncrementalDataPlane implements Serializable, DataPlane {
     return _forwardingAnalysis.get();
   }
 
+  /** The layer-3 topology the forwarding analysis of this data plane is computed on */
+  Topology getLayer3Topology() {
+    return _layer3Topology;
+  }
+
   @Nonnull
   @Override
   public Table<String, String, Set<Layer2Vni>> getLayer2Vnis() {
@@ -18,6 +18,7 @@ public class IncrementalDataPlaneSettings {
 
   public static final String PROP_COLORING = "coloring";
   public static final String PROP_SCHEDULE = "schedule";
+  public static final String PROP_OSPF_INTRA_AREA_SPF = "ospfintraareaspf";
 
   /**
    * Return the underlying configuration (it will be mutable).
@@ -49,6 +50,7 @@ public class IncrementalDataPlaneSettings {
   private void initDefaults() {
     _config.setProperty(PROP_COLORING, SATURATION.toString());
     _config.setProperty(PROP_SCHEDULE, NODE_COLORED.toString());
+    _config.setProperty(PROP_OSPF_INTRA_AREA_SPF, false);
   }
 
   /** Return the dataplane computation {@link Schedule} */
@@ -63,4 +65,15 @@ public class IncrementalDataPlaneSettings {
   public Coloring getColoringType() {
     return Coloring.valueOf(_config.getString(PROP_COLORING));
   }
+
+  /**
+   * Whether OSPF intra-area routes are computed with a shortest-path-first computation over each
+   * area's link-state graph, rather than by exchanging route advertisements between neighbors.
+   *
+   * <p>Only OSPF is covered: IS-IS level-1 and level-2 routes are always exchanged hop by hop,
+   * regardless of this setting.
+   */
+  public boolean getOspfIntraAreaSpf() {
+    return _config.getBoolean(PROP_OSPF_INTRA_AREA_SPF);
+  }
 }
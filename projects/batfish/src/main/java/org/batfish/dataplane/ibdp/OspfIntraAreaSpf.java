@@ -0,0 +1,208 @@
+package org.batfish.dataplane.ibdp;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+import org.batfish.datamodel.Ip;
+import org.batfish.datamodel.IpLink;
+import org.batfish.datamodel.OspfIntraAreaRoute;
+import org.batfish.datamodel.ospf.OspfSessionProperties;
+import org.batfish.datamodel.ospf.OspfTopology;
+import org.batfish.datamodel.ospf.OspfTopology.EdgeId;
+
+/**
+ * Link-state computation of OSPF intra-area routes.
+ *
+ * <p>Builds the graph of OSPF adjacencies of each area once, and lets every {@link
+ * OspfRoutingProcess} run a shortest-path-first computation over it, instead of propagating
+ * intra-area routes hop by hop through message queues. The cost of a link is the cost of the
+ * interface on its near end, as when a route is imported over that interface.
+ *
+ * <p>Inter-area and external routes are not handled here and are still exchanged as messages.
+ */
+@ParametersAreNonnullByDefault
+final class OspfIntraAreaSpf {
+
+  /** A link from one OSPF process to an adjacent one, within a single area */
+  static final class Link {
+    @Nonnull private final OspfRoutingProcess _head;
+    @Nonnull private final String _interfaceName;
+    @Nonnull private final Ip _nextHopIp;
+    private final long _cost;
+
+    private Link(OspfRoutingProcess head, String interfaceName, Ip nextHopIp, long cost) {
+      _head = head;
+      _interfaceName = interfaceName;
+      _nextHopIp = nextHopIp;
+      _cost = cost;
+    }
+
+    /** The process at the far end of the link */
+    @Nonnull
+    OspfRoutingProcess getHead() {
+      return _head;
+    }
+
+    /** Name of the interface at the near end of the link */
+    @Nonnull
+    String getInterfaceName() {
+      return _interfaceName;
+    }
+
+    /** The address of the far end of the link, used as next hop for routes learned over it */
+    @Nonnull
+    Ip getNextHopIp() {
+      return _nextHopIp;
+    }
+
+    long getCost() {
+      return _cost;
+    }
+  }
+
+  /** The cost and equal-cost first hops of the shortest paths to a destination process */
+  static final class ShortestPath {
+    private final long _cost;
+    @Nonnull private final Set<Link> _firstHops;
+
+    private ShortestPath(long cost, Set<Link> firstHops) {
+      _cost = cost;
+      _firstHops = ImmutableSet.copyOf(firstHops);
+    }
+
+    long getCost() {
+      return _cost;
+    }
+
+    @Nonnull
+    Set<Link> getFirstHops() {
+      return _firstHops;
+    }
+  }
+
+  /** Links of each area, keyed by area number and then by the process at the near end */
+  @Nonnull private final Map<Long, Map<OspfRoutingProcess, List<Link>>> _linksByArea;
+  /** Intra-area routes originated by each process, i.e., computed from its own interfaces */
+  @Nonnull private final Map<OspfRoutingProcess, Set<OspfIntraAreaRoute>> _originatedRoutes;
+
+  /**
+   * Build the link-state graphs from the given topology. Must be called after the processes have
+   * been initialized, but before any of them has learned intra-area routes from its neighbors.
+   *
+   * @param topology the OSPF topology
+   * @param allNodes all nodes participating in DP computation
+   */
+  OspfIntraAreaSpf(OspfTopology topology, Map<String, Node> allNodes) {
+    Map<Long, Map<OspfRoutingProcess, List<Link>>> linksByArea = new HashMap<>();
+    Map<OspfRoutingProcess, Set<OspfIntraAreaRoute>> originatedRoutes = new HashMap<>();
+    for (EdgeId edge : topology.edges()) {
+      OspfRoutingProcess tail = OspfRoutingProcess.getNeighborProcess(edge.getTail(), allNodes);
+      OspfRoutingProcess head = OspfRoutingProcess.getNeighborProcess(edge.getHead(), allNodes);
+      OspfSessionProperties session = topology.getSession(edge).orElse(null);
+      if (tail == null || head == null || tail == head || session == null) {
+        continue;
+      }
+      IpLink ipLink = session.getIpLink();
+      assert ipLink != null; // Established sessions always have an IP link
+      String interfaceName = edge.getTail().getInterfaceName();
+      linksByArea
+          .computeIfAbsent(session.getArea(), a -> new HashMap<>())
+          .computeIfAbsent(tail, p -> new ArrayList<>())
+          .add(
+              new Link(
+                  head,
+                  interfaceName,
+                  ipLink.getIp2(),
+                  tail.getIncrementalCost(interfaceName, false)));
+      originatedRoutes.computeIfAbsent(tail, p -> ImmutableSet.copyOf(p.getIntraAreaRoutes()));
+      originatedRoutes.computeIfAbsent(head, p -> ImmutableSet.copyOf(p.getIntraAreaRoutes()));
+    }
+    _linksByArea = linksByArea;
+    _originatedRoutes = originatedRoutes;
+  }
+
+  /** Return the intra-area routes the given process originated from its own interfaces */
+  @Nonnull
+  Set<OspfIntraAreaRoute> getOriginatedRoutes(OspfRoutingProcess process) {
+    return _originatedRoutes.getOrDefault(process, ImmutableSet.of());
+  }
+
+  /**
+   * Run Dijkstra's algorithm in the given area, starting at {@code source}.
+   *
+   * @return the shortest paths to every other reachable process in the area, with all equal-cost
+   *     first hops
+   */
+  @Nonnull
+  Map<OspfRoutingProcess, ShortestPath> computeShortestPaths(long area, OspfRoutingProcess source) {
+    Map<OspfRoutingProcess, List<Link>> links = _linksByArea.getOrDefault(area, ImmutableMap.of());
+    if (!links.containsKey(source)) {
+      return ImmutableMap.of();
+    }
+    Map<OspfRoutingProcess, Long> costs = new HashMap<>();
+    Map<OspfRoutingProcess, Set<Link>> firstHops = new HashMap<>();
+    Set<OspfRoutingProcess> visited = new HashSet<>();
+    PriorityQueue<QueueEntry> queue =
+        new PriorityQueue<>(Comparator.comparingLong(QueueEntry::getCost));
+    costs.put(source, 0L);
+    queue.add(new QueueEntry(source, 0L));
+    while (!queue.isEmpty()) {
+      QueueEntry entry = queue.poll();
+      OspfRoutingProcess process = entry.getProcess();
+      if (!visited.add(process)) {
+        // Stale entry, process was already reached with a lower cost
+        continue;
+      }
+      for (Link link : links.getOrDefault(process, ImmutableList.of())) {
+        OspfRoutingProcess next = link.getHead();
+        if (visited.contains(next)) {
+          continue;
+        }
+        long cost = entry.getCost() + link.getCost();
+        Set<Link> hops = process == source ? ImmutableSet.of(link) : firstHops.get(process);
+        Long currentCost = costs.get(next);
+        if (currentCost == null || cost < currentCost) {
+          costs.put(next, cost);
+          firstHops.put(next, new HashSet<>(hops));
+          queue.add(new QueueEntry(next, cost));
+        } else if (cost == currentCost) {
+          firstHops.get(next).addAll(hops);
+        }
+      }
+    }
+    ImmutableMap.Builder<OspfRoutingProcess, ShortestPath> paths = ImmutableMap.builder();
+    firstHops.forEach(
+        (destination, hops) ->
+            paths.put(destination, new ShortestPath(costs.get(destination), hops)));
+    return paths.build();
+  }
+
+  private static final class QueueEntry {
+    @Nonnull private final OspfRoutingProcess _process;
+    private final long _cost;
+
+    private QueueEntry(OspfRoutingProcess process, long cost) {
+      _process = process;
+      _cost = cost;
+    }
+
+    @Nonnull
+    private OspfRoutingProcess getProcess() {
+      return _process;
+    }
+
+    private long getCost() {
+      return _cost;
+    }
+  }
+}
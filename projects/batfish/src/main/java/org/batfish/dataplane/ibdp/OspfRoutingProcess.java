@@ -1,7 +1,6 @@
 package org.batfish.dataplane.ibdp;
 
 import static com.google.common.base.MoreObjects.firstNonNull;
-import static org.batfish.common.util.CollectionUtil.toOrderedHashCode;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
@@ -12,12 +11,12 @@ import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashSet;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Queue;
 import java.util.Set;
 import java.util.SortedMap;
-import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.stream.Stream;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -54,8 +53,11 @@ import org.batfish.datamodel.ospf.StubType;
 import org.batfish.datamodel.routing_policy.Environment.Direction;
 import org.batfish.datamodel.routing_policy.RoutingPolicy;
 import org.batfish.datamodel.routing_policy.statement.Statements;
+import org.batfish.dataplane.ibdp.OspfIntraAreaSpf.Link;
+import org.batfish.dataplane.ibdp.OspfIntraAreaSpf.ShortestPath;
 import org.batfish.dataplane.protocols.GeneratedRouteHelper;
 import org.batfish.dataplane.rib.AbstractRib;
+import org.batfish.dataplane.rib.Digests;
 import org.batfish.dataplane.rib.OspfExternalType1Rib;
 import org.batfish.dataplane.rib.OspfExternalType2Rib;
 import org.batfish.dataplane.rib.OspfInterAreaRib;
@@ -64,6 +66,7 @@ import org.batfish.dataplane.rib.OspfRib;
 import org.batfish.dataplane.rib.RibDelta;
 import org.batfish.dataplane.rib.RouteAdvertisement;
 import org.batfish.dataplane.rib.RouteAdvertisement.Reason;
+import org.batfish.dataplane.rib.RouteQueue;
 
 /** An OSPF routing process, a dataplane version of {@link OspfProcess} */
 @ParametersAreNonnullByDefault
@@ -92,19 +95,19 @@ final class OspfRoutingProcess implements RoutingProcess<OspfTopology, OspfRoute
 
   /* Message queues */
   @Nonnull
-  private SortedMap<OspfTopology.EdgeId, Queue<RouteAdvertisement<OspfIntraAreaRoute>>>
+  private SortedMap<OspfTopology.EdgeId, RouteQueue<OspfIntraAreaRoute>>
       _intraAreaIncomingRoutes = ImmutableSortedMap.of();
 
   @Nonnull
-  private SortedMap<EdgeId, Queue<RouteAdvertisement<OspfInterAreaRoute>>>
+  private SortedMap<EdgeId, RouteQueue<OspfInterAreaRoute>>
       _interAreaIncomingRoutes = ImmutableSortedMap.of();
 
   @Nonnull
-  private SortedMap<OspfTopology.EdgeId, Queue<RouteAdvertisement<OspfExternalType1Route>>>
+  private SortedMap<OspfTopology.EdgeId, RouteQueue<OspfExternalType1Route>>
       _type1IncomingRoutes = ImmutableSortedMap.of();
 
   @Nonnull
-  private SortedMap<OspfTopology.EdgeId, Queue<RouteAdvertisement<OspfExternalType2Route>>>
+  private SortedMap<OspfTopology.EdgeId, RouteQueue<OspfExternalType2Route>>
       _type2IncomingRoutes = ImmutableSortedMap.of();
 
   /* State we need to maintain between iterations */
@@ -126,6 +129,12 @@ final class OspfRoutingProcess implements RoutingProcess<OspfTopology, OspfRoute
    */
   @Nonnull private Set<OspfNeighborConfigId> _neighborsWhereDefaultIARouteWasInjected;
 
+  /**
+   * Whether intra-area routes were computed by {@link #applyIntraAreaSpf}, in which case they are
+   * not advertised to neighbors
+   */
+  private boolean _intraAreaRoutesFromSpf;
+
   OspfRoutingProcess(
       OspfProcess process, String vrfName, Configuration configuration, OspfTopology topology) {
     _c = configuration;
@@ -206,19 +215,19 @@ final class OspfRoutingProcess implements RoutingProcess<OspfTopology, OspfRoute
   /** Update incoming message queues based on a new topology */
   private void updateQueues(OspfTopology topology) {
     // Preserve existing intra-area queues
-    ImmutableSortedMap.Builder<EdgeId, Queue<RouteAdvertisement<OspfIntraAreaRoute>>>
+    ImmutableSortedMap.Builder<EdgeId, RouteQueue<OspfIntraAreaRoute>>
         intraAreaBuilder = ImmutableSortedMap.naturalOrder();
     intraAreaBuilder.putAll(_intraAreaIncomingRoutes);
     // Preserve existing inter-area queues
-    ImmutableSortedMap.Builder<EdgeId, Queue<RouteAdvertisement<OspfInterAreaRoute>>>
+    ImmutableSortedMap.Builder<EdgeId, RouteQueue<OspfInterAreaRoute>>
         interAreaBuilder = ImmutableSortedMap.naturalOrder();
     interAreaBuilder.putAll(_interAreaIncomingRoutes);
     // Preserve existing type1 queues
-    ImmutableSortedMap.Builder<EdgeId, Queue<RouteAdvertisement<OspfExternalType1Route>>>
+    ImmutableSortedMap.Builder<EdgeId, RouteQueue<OspfExternalType1Route>>
         type1Builder = ImmutableSortedMap.naturalOrder();
     type1Builder.putAll(_type1IncomingRoutes);
     // Preserve existing type2 queues
-    ImmutableSortedMap.Builder<EdgeId, Queue<RouteAdvertisement<OspfExternalType2Route>>>
+    ImmutableSortedMap.Builder<EdgeId, RouteQueue<OspfExternalType2Route>>
         type2Builder = ImmutableSortedMap.naturalOrder();
     type2Builder.putAll(_type2IncomingRoutes);
 
@@ -226,16 +235,16 @@ final class OspfRoutingProcess implements RoutingProcess<OspfTopology, OspfRoute
         .forEach(
             edgeId -> {
               if (!_intraAreaIncomingRoutes.keySet().contains(edgeId)) {
-                intraAreaBuilder.put(edgeId, new ConcurrentLinkedQueue<>());
+                intraAreaBuilder.put(edgeId, new RouteQueue<>());
               }
               if (!_interAreaIncomingRoutes.keySet().contains(edgeId)) {
-                interAreaBuilder.put(edgeId, new ConcurrentLinkedQueue<>());
+                interAreaBuilder.put(edgeId, new RouteQueue<>());
               }
               if (!_type1IncomingRoutes.keySet().contains(edgeId)) {
-                type1Builder.put(edgeId, new ConcurrentLinkedQueue<>());
+                type1Builder.put(edgeId, new RouteQueue<>());
               }
               if (!_type2IncomingRoutes.keySet().contains(edgeId)) {
-                type2Builder.put(edgeId, new ConcurrentLinkedQueue<>());
+                type2Builder.put(edgeId, new RouteQueue<>());
               }
             });
     _intraAreaIncomingRoutes = intraAreaBuilder.build();
@@ -322,6 +331,52 @@ final class OspfRoutingProcess implements RoutingProcess<OspfTopology, OspfRoute
     _changeset.from(RibDelta.importRibDelta(_ospfRib, _initializationDelta));
   }
 
+  /**
+   * Compute intra-area routes learned from other routers from the link-state graph of each area,
+   * rather than by exchanging intra-area route advertisements with neighbors. Must be called after
+   * {@link #initialize(Node)} and before the first iteration.
+   *
+   * <p>Inbound distribute lists are applied only at this router, on the interface of each first
+   * hop. Distribute lists of transit routers along the path are not consulted. This matches the
+   * hop-by-hop exchange in {@link #processIntraAreaRoutes()}: a route filtered there is kept in the
+   * intra-area RIB as non-routing and is still re-advertised to neighbors, so a transit router's
+   * distribute list keeps the route out of its own main RIB only.
+   */
+  void applyIntraAreaSpf(OspfIntraAreaSpf spf) {
+    RibDelta.Builder<OspfIntraAreaRoute> deltaBuilder = RibDelta.builder();
+    for (long area : _process.getAreas().keySet()) {
+      for (Entry<OspfRoutingProcess, ShortestPath> entry :
+          spf.computeShortestPaths(area, this).entrySet()) {
+        ShortestPath path = entry.getValue();
+        for (OspfIntraAreaRoute route : spf.getOriginatedRoutes(entry.getKey())) {
+          if (route.getArea() != area) {
+            continue;
+          }
+          for (Link hop : path.getFirstHops()) {
+            OspfIntraAreaRoute.Builder routeBuilder =
+                transformIntraAreaRouteOnImport(route, path.getCost())
+                    .setNextHopIp(hop.getNextHopIp());
+            applyDistributeList(_c, _vrfName, hop.getInterfaceName(), routeBuilder);
+            deltaBuilder.from(_intraAreaRib.mergeRouteGetDelta(routeBuilder.build()));
+          }
+        }
+      }
+    }
+    RibDelta<OspfIntraAreaRoute> delta = deltaBuilder.build();
+    // Intra-area routes are still passed to the main RIB and, on ABRs, converted to inter-area
+    // routes in the first iteration
+    _initializationDelta =
+        RibDelta.<OspfIntraAreaRoute>builder().from(_initializationDelta).from(delta).build();
+    _changeset.from(RibDelta.importRibDelta(_ospfRib, delta));
+    _intraAreaRoutesFromSpf = true;
+  }
+
+  /** Return the routes currently in the intra-area RIB */
+  @Nonnull
+  Set<OspfIntraAreaRoute> getIntraAreaRoutes() {
+    return _intraAreaRib.getTypedRoutes();
+  }
+
   /**
    * Initialize intra-area routes based on available interfaces in each OSPF area.
    *
@@ -413,7 +468,7 @@ final class OspfRoutingProcess implements RoutingProcess<OspfTopology, OspfRoute
    * OspfNeighborId}
    */
   @Nullable
-  private static OspfRoutingProcess getNeighborProcess(
+  static OspfRoutingProcess getNeighborProcess(
       OspfNeighborConfigId ospfNeighborId, Map<String, Node> allNodes) {
     return allNodes
         .get(ospfNeighborId.getHostname())
@@ -724,6 +779,10 @@ final class OspfRoutingProcess implements RoutingProcess<OspfTopology, OspfRoute
       OspfRoutingProcess remoteProcess,
       OspfArea areaConfig,
       OspfSessionProperties session) {
+    if (_intraAreaRoutesFromSpf) {
+      // Neighbors computed their intra-area routes themselves
+      return;
+    }
     remoteProcess.enqueueMessagesIntra(
         edgeId.reverse(),
         transformIntraAreaRoutesOnExport(delta, areaConfig, session.getIpLink().getIp2()));
@@ -1489,22 +1548,20 @@ final class OspfRoutingProcess implements RoutingProcess<OspfTopology, OspfRoute
     _type2IncomingRoutes.get(edge).addAll(routes);
   }
 
-  int iterationHashCode() {
-    return Stream.of(
-            // Message queues
-            Stream.of(
-                    _intraAreaIncomingRoutes,
-                    _interAreaIncomingRoutes,
-                    _type1IncomingRoutes,
-                    _type2IncomingRoutes)
-                .flatMap(m -> m.values().stream())
-                .flatMap(Queue::stream),
-            // Deltas
-            _activatedGeneratedRoutes.getActions(),
-            // RIB state
-            Stream.of(_intraAreaRib, _interAreaRib, _type1Rib, _type2Rib)
-                .map(AbstractRib::getTypedRoutes))
-        .collect(toOrderedHashCode());
+  long iterationHashCode() {
+    return Digests.combine(
+        // Message queues
+        RouteQueue.getDigest(_intraAreaIncomingRoutes),
+        RouteQueue.getDigest(_interAreaIncomingRoutes),
+        RouteQueue.getDigest(_type1IncomingRoutes),
+        RouteQueue.getDigest(_type2IncomingRoutes),
+        // Deltas
+        _activatedGeneratedRoutes.hashCode(),
+        // RIB state
+        _intraAreaRib.getDigest(),
+        _interAreaRib.getDigest(),
+        _type1Rib.getDigest(),
+        _type2Rib.getDigest());
   }
 
   /** Wrapper around intra- and inter-area RIB deltas */
@@ -4,7 +4,6 @@ import static com.google.common.base.MoreObjects.firstNonNull;
 import static com.google.common.base.Preconditions.checkState;
 import static java.util.Objects.requireNonNull;
 import static org.batfish.common.util.CollectionUtil.toImmutableSortedMap;
-import static org.batfish.common.util.CollectionUtil.toOrderedHashCode;
 import static org.batfish.datamodel.routing_policy.Environment.Direction.IN;
 import static org.batfish.dataplane.protocols.BgpProtocolHelper.transformBgpRouteOnImport;
 import static org.batfish.dataplane.protocols.IsisProtocolHelper.convertRouteLevel1ToLevel2;
@@ -37,7 +36,6 @@ import java.util.Queue;
 import java.util.Set;
 import java.util.SortedMap;
 import java.util.SortedSet;
-import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -92,14 +90,17 @@ import org.batfish.datamodel.isis.IsisLevelSettings;
 import org.batfish.datamodel.isis.IsisNode;
 import org.batfish.datamodel.isis.IsisProcess;
 import org.batfish.datamodel.isis.IsisTopology;
+import org.batfish.datamodel.routing_policy.CompiledRoutingPolicy;
 import org.batfish.datamodel.routing_policy.RoutingPolicy;
 import org.batfish.datamodel.vxlan.Layer2Vni;
 import org.batfish.datamodel.vxlan.Layer3Vni;
+import org.batfish.dataplane.ibdp.BgpUpdateGroups.UpdateGroupKey;
 import org.batfish.dataplane.protocols.BgpProtocolHelper;
 import org.batfish.dataplane.protocols.GeneratedRouteHelper;
 import org.batfish.dataplane.rib.AnnotatedRib;
 import org.batfish.dataplane.rib.Bgpv4Rib;
 import org.batfish.dataplane.rib.ConnectedRib;
+import org.batfish.dataplane.rib.Digests;
 import org.batfish.dataplane.rib.IsisLevelRib;
 import org.batfish.dataplane.rib.IsisRib;
 import org.batfish.dataplane.rib.KernelRib;
@@ -111,6 +112,7 @@ import org.batfish.dataplane.rib.RipInternalRib;
 import org.batfish.dataplane.rib.RipRib;
 import org.batfish.dataplane.rib.RouteAdvertisement;
 import org.batfish.dataplane.rib.RouteAdvertisement.Reason;
+import org.batfish.dataplane.rib.RouteQueue;
 import org.batfish.dataplane.rib.StaticRib;
 
 public class VirtualRouter implements Serializable {
@@ -128,8 +130,7 @@ public class VirtualRouter implements Serializable {
    * Queues containing routes that are coming in from other VRFs (as a result of explicitly
    * configured leaking or applied RIB groups).
    */
-  private transient SortedMap<
-          CrossVrfEdgeId, Queue<RouteAdvertisement<AnnotatedRoute<AbstractRoute>>>>
+  private transient SortedMap<CrossVrfEdgeId, RouteQueue<AnnotatedRoute<AbstractRoute>>>
       _crossVrfIncomingRoutes;
 
   /**
@@ -139,7 +140,7 @@ public class VirtualRouter implements Serializable {
   transient Rib _independentRib;
 
   /** Incoming messages into this router from each IS-IS circuit */
-  transient SortedMap<IsisEdge, Queue<RouteAdvertisement<IsisRoute>>> _isisIncomingRoutes;
+  transient SortedMap<IsisEdge, RouteQueue<IsisRoute>> _isisIncomingRoutes;
 
   /** Routes in main RIB to redistribute into IS-IS */
   transient RibDelta.Builder<AnnotatedRoute<AbstractRoute>> _routesForIsisRedistribution;
@@ -176,7 +177,7 @@ public class VirtualRouter implements Serializable {
   transient StaticRib _staticNextHopRib;
 
   /** FIB (forwarding information base) built from the main RIB */
-  private Fib _fib;
+  @Nullable private FibImpl _fib;
 
   /** RIB containing generated routes */
   private transient Rib _generatedRib;
@@ -237,7 +238,7 @@ public class VirtualRouter implements Serializable {
                 ImmutableSortedMap.toImmutableSortedMap(
                     Ordering.natural(),
                     vrfName -> new CrossVrfEdgeId(vrfName, RibId.DEFAULT_RIB_NAME),
-                    v -> new ConcurrentLinkedQueue<>()));
+                    v -> new RouteQueue<>()));
   }
 
   /**
@@ -402,7 +403,7 @@ public class VirtualRouter implements Serializable {
               .filter(network.nodes()::contains)
               .flatMap(n -> network.inEdges(n).stream())
               .collect(
-                  toImmutableSortedMap(Function.identity(), e -> new ConcurrentLinkedQueue<>()));
+                  toImmutableSortedMap(Function.identity(), e -> new RouteQueue<>()));
     }
   }
 
@@ -486,9 +487,12 @@ public class VirtualRouter implements Serializable {
     }
   }
 
-  /** Compute the FIB from the main RIB */
+  /**
+   * Compute the FIB from the main RIB. If a FIB was already computed, it is updated incrementally
+   * and kept as is when the main RIB has not changed since.
+   */
   public void computeFib() {
-    _fib = new FibImpl(_mainRib);
+    _fib = _fib == null ? new FibImpl(_mainRib) : _fib.update(_mainRib);
   }
 
   /**
@@ -1130,7 +1134,7 @@ public class VirtualRouter implements Serializable {
     ribDeltas.put(_bgpRoutingProcess._ibgpv4StagingRib, RibDelta.builder());
 
     // Process updates from each neighbor
-    for (Entry<EdgeId, Queue<RouteAdvertisement<Bgpv4Route>>> e :
+    for (Entry<EdgeId, RouteQueue<Bgpv4Route>> e :
         _bgpRoutingProcess._bgpv4IncomingRoutes.entrySet()) {
 
       // Grab the queue containing all messages from remoteBgpPeerConfig
@@ -1185,7 +1189,8 @@ public class VirtualRouter implements Serializable {
         boolean acceptIncoming = true;
         // TODO: ensure there is always an import policy
         if (importPolicyName != null) {
-          RoutingPolicy importPolicy = _c.getRoutingPolicies().get(importPolicyName);
+          CompiledRoutingPolicy importPolicy =
+              _bgpRoutingProcess.getCompiledPolicy(importPolicyName);
           if (importPolicy != null) {
             acceptIncoming =
                 importPolicy.processBgpRoute(
@@ -1393,6 +1398,8 @@ public class VirtualRouter implements Serializable {
       final Map<String, Node> allNodes,
       BgpTopology bgpTopology,
       NetworkConfigurations networkConfigurations) {
+    // Peers in the same update group share the export computation for each route
+    BgpUpdateGroups updateGroups = new BgpUpdateGroups();
     for (EdgeId edge : _bgpRoutingProcess._bgpv4IncomingRoutes.keySet()) {
       queueOutgoingRoutesPerEdge(
           edge,
@@ -1401,7 +1408,8 @@ public class VirtualRouter implements Serializable {
           mainDelta,
           allNodes,
           bgpTopology,
-          networkConfigurations);
+          networkConfigurations,
+          updateGroups);
     }
   }
 
@@ -1412,7 +1420,8 @@ public class VirtualRouter implements Serializable {
       RibDelta<AnnotatedRoute<AbstractRoute>> mainDelta,
       Map<String, Node> allNodes,
       BgpTopology bgpTopology,
-      NetworkConfigurations networkConfigurations) {
+      NetworkConfigurations networkConfigurations,
+      BgpUpdateGroups updateGroups) {
     final BgpSessionProperties session = getBgpSessionProperties(bgpTopology, edge);
 
     BgpPeerConfigId remoteConfigId = edge.tail();
@@ -1487,6 +1496,10 @@ public class VirtualRouter implements Serializable {
     }
 
     RibDelta<AnnotatedRoute<Bgpv4Route>> bgpRoutesToExport = bgpRibExports.build();
+    // All routes exported over this edge belong to the same update group
+    UpdateGroupKey updateGroupKey =
+        _bgpRoutingProcess.computeUpdateGroupKey(
+            remoteConfigId, ourConfig, remoteConfig, allNodes, session, Type.IPV4_UNICAST);
     // Compute a set of advertisements that can be queued on remote VR
     Stream<RouteAdvertisement<Bgpv4Route>> exportedAdvertisements =
         Stream.concat(
@@ -1503,7 +1516,9 @@ public class VirtualRouter implements Serializable {
                               remoteConfig,
                               allNodes,
                               session,
-                              Type.IPV4_UNICAST);
+                              Type.IPV4_UNICAST,
+                              updateGroups,
+                              updateGroupKey);
                       // REPLACE does not make sense across routers, update with WITHDRAW
                       return transformedRoute
                           .map(
@@ -1726,9 +1741,15 @@ public class VirtualRouter implements Serializable {
       // nothing to do
       return;
     }
+    BgpUpdateGroups updateGroups = new BgpUpdateGroups();
     for (EdgeId edge : _bgpRoutingProcess._bgpv4IncomingRoutes.keySet()) {
       newBgpSessionEstablishedHook(
-          edge, getBgpSessionProperties(bgpTopology, edge), allNodes, nc, bgpTopology);
+          edge,
+          getBgpSessionProperties(bgpTopology, edge),
+          allNodes,
+          nc,
+          bgpTopology,
+          updateGroups);
     }
     _bgpRoutingProcess.redistribute(
         RibDelta.<AnnotatedRoute<AbstractRoute>>builder().add(_mainRib.getTypedRoutes()).build());
@@ -1740,7 +1761,8 @@ public class VirtualRouter implements Serializable {
       @Nonnull BgpSessionProperties sessionProperties,
       @Nonnull Map<String, Node> allNodes,
       NetworkConfigurations nc,
-      BgpTopology topology) {
+      BgpTopology topology,
+      BgpUpdateGroups updateGroups) {
 
     BgpPeerConfigId localConfigId = edge.head();
     BgpPeerConfigId remoteConfigId = edge.tail();
@@ -1772,7 +1794,8 @@ public class VirtualRouter implements Serializable {
         RibDelta.<AnnotatedRoute<AbstractRoute>>builder().add(_mainRib.getTypedRoutes()).build(),
         allNodes,
         topology,
-        nc);
+        nc,
+        updateGroups);
 
     /*
      * Export neighbor-specific generated routes, these routes skip global export policy
@@ -1886,24 +1909,31 @@ public class VirtualRouter implements Serializable {
    *   <li>Routing processes
    * </ul>
    *
-   * @return integer hashcode
+   * <p>The RIBs and message queues maintain their digests incrementally, so this takes time
+   * proportional to the number of message queues rather than the number of routes.
+   *
+   * @return 64-bit hashcode
    */
-  int computeIterationHashCode() {
-    return Streams.concat(
-            // RIB State
-            Stream.of(_mainRib.getTypedRoutes()),
-            // Message queues
-            Stream.of(_isisIncomingRoutes, _crossVrfIncomingRoutes)
-                .flatMap(m -> m.values().stream())
-                .flatMap(Queue::stream),
-            Stream.of(_routesForIsisRedistribution),
-            // Processes
-            Stream.of(_ospfProcesses.values().stream().map(OspfRoutingProcess::iterationHashCode)),
-            Stream.of(_eigrpProcesses)
-                .flatMap(m -> m.values().stream())
-                .map(EigrpRoutingProcess::computeIterationHashCode),
-            Stream.of(_bgpRoutingProcess == null ? 0 : _bgpRoutingProcess.iterationHashCode()))
-        .collect(toOrderedHashCode());
+  long computeIterationHashCode() {
+    long ospfDigest = 0;
+    for (OspfRoutingProcess process : _ospfProcesses.values()) {
+      ospfDigest = 31 * ospfDigest + process.iterationHashCode();
+    }
+    long eigrpDigest = 0;
+    for (EigrpRoutingProcess process : _eigrpProcesses.values()) {
+      eigrpDigest = 31 * eigrpDigest + process.computeIterationHashCode();
+    }
+    return Digests.combine(
+        // RIB State
+        _mainRib.getDigest(),
+        // Message queues
+        RouteQueue.getDigest(_isisIncomingRoutes),
+        RouteQueue.getDigest(_crossVrfIncomingRoutes),
+        _routesForIsisRedistribution.hashCode(),
+        // Processes
+        ospfDigest,
+        eigrpDigest,
+        _bgpRoutingProcess == null ? 0 : _bgpRoutingProcess.iterationHashCode());
   }
 
   @Nonnull
@@ -129,6 +129,16 @@ public abstract class AbstractRib<R extends AbstractRouteDecorator> implements G
     return _tree.containsRoute(route);
   }
 
+  /**
+   * Return an order-independent digest of the routes in this RIB. The digest is maintained as
+   * routes are added and removed, so this takes constant time.
+   *
+   * <p>Equal RIBs have equal digests, but not vice versa.
+   */
+  public final long getDigest() {
+    return _tree.getDigest();
+  }
+
   @Override
   @Nonnull
   public Set<AbstractRoute> getRoutes() {
@@ -146,6 +156,12 @@ public abstract class AbstractRib<R extends AbstractRouteDecorator> implements G
     return _allRoutes;
   }
 
+  @Override
+  @Nonnull
+  public Set<R> getTypedRoutes(Prefix network) {
+    return ImmutableSet.copyOf(_tree.getRoutes(network));
+  }
+
   /**
    * Remove a route from backup route map if it was present and backup route map exists
    *
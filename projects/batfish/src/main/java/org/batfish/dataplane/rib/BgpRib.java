@@ -168,6 +168,16 @@ public abstract class BgpRib<R extends BgpRoute<?, ?>> extends AbstractRib<R> {
     }
   }
 
+  @Override
+  @Nonnull
+  public final Set<R> getTypedRoutes(Prefix network) {
+    if (isMultipath()) {
+      return super.getTypedRoutes(network);
+    }
+    R bestPath = _bestPaths.get(network);
+    return bestPath == null ? ImmutableSet.of() : ImmutableSet.of(bestPath);
+  }
+
   public Set<R> getBestPathRoutes() {
     return ImmutableSet.copyOf(_bestPaths.values());
   }
@@ -0,0 +1,43 @@
+package org.batfish.dataplane.rib;
+
+import javax.annotation.ParametersAreNonnullByDefault;
+
+/**
+ * Helpers for the digests that identify the state of RIBs and message queues during iBDP.
+ *
+ * <p>The digest of a collection is the sum of the {@link #elementDigest element digests} of its
+ * members, so it does not depend on iteration order and can be updated in constant time when an
+ * element is added or removed.
+ */
+@ParametersAreNonnullByDefault
+public final class Digests {
+
+  /** Returns the contribution of a single element to the digest of a collection. */
+  public static long elementDigest(Object element) {
+    return mix(element.hashCode());
+  }
+
+  /** Combines the digests of several components, in order, into a single digest. */
+  public static long combine(long... digests) {
+    long h = 1;
+    for (long d : digests) {
+      h = 31 * h + d;
+    }
+    return mix(h);
+  }
+
+  /**
+   * Spreads the bits of {@code h} over all 64 bits (the MurmurHash3 finalizer), so that sums of
+   * element digests do not collide as easily as sums of raw hash codes.
+   */
+  private static long mix(long h) {
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb9fe1a85ec53L;
+    h ^= h >>> 33;
+    return h;
+  }
+
+  private Digests() {}
+}
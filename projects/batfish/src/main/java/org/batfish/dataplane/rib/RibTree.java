@@ -28,6 +28,9 @@ final class RibTree<R extends AbstractRouteDecorator> implements Serializable {
   @Nonnull private final PrefixTrieMultiMap<R> _root;
   @Nonnull private final AbstractRib<R> _owner;
 
+  /** Order-independent digest of all routes in the tree, see {@link Digests} */
+  private long _digest;
+
   RibTree(AbstractRib<R> owner) {
     _root = new PrefixTrieMultiMap<>(Prefix.ZERO);
     _owner = owner;
@@ -45,6 +48,7 @@ final class RibTree<R extends AbstractRouteDecorator> implements Serializable {
     if (!removed) {
       return RibDelta.empty();
     }
+    _digest -= Digests.elementDigest(route);
 
     Builder<R> b = RibDelta.builder();
     b.remove(route, reason);
@@ -63,6 +67,12 @@ final class RibTree<R extends AbstractRouteDecorator> implements Serializable {
   /** Remove all routes from the tree */
   public void clear() {
     _root.clear();
+    _digest = 0;
+  }
+
+  /** Return the order-independent digest of all routes in this tree */
+  long getDigest() {
+    return _digest;
   }
 
   /**
@@ -131,6 +141,7 @@ final class RibTree<R extends AbstractRouteDecorator> implements Serializable {
     Set<R> routes = _root.get(route.getNetwork());
     if (routes.isEmpty()) {
       _root.put(route.getNetwork(), route);
+      _digest += Digests.elementDigest(route);
       return RibDelta.<R>builder().add(route).build();
     }
     /*
@@ -148,6 +159,7 @@ final class RibTree<R extends AbstractRouteDecorator> implements Serializable {
     if (preferenceComparison == 0) { // equal preference, so add for multipath routing
       // Otherwise add the route
       if (_root.put(route.getNetwork(), route)) {
+        _digest += Digests.elementDigest(route);
         return RibDelta.<R>builder().add(route).build();
       } else {
         return RibDelta.empty();
@@ -159,6 +171,10 @@ final class RibTree<R extends AbstractRouteDecorator> implements Serializable {
      * replace them with this one.
      */
     if (_root.replaceAll(route.getNetwork(), route)) {
+      for (R replaced : routes) {
+        _digest -= Digests.elementDigest(replaced);
+      }
+      _digest += Digests.elementDigest(route);
       return RibDelta.<R>builder().remove(routes, REPLACE).add(route).build();
     } else {
       return RibDelta.empty();
@@ -0,0 +1,130 @@
+package org.batfish.dataplane.rib;
+
+import com.google.common.collect.ForwardingQueue;
+import com.google.common.collect.Iterators;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+/**
+ * A thread-safe queue of {@link RouteAdvertisement route advertisements} that maintains an
+ * order-independent digest of its contents (see {@link Digests}).
+ *
+ * <p>Elements may only be removed from the head of the queue (or by {@link #clear()}), so that the
+ * digest can be kept up to date. The digest is only guaranteed to reflect the contents of the queue
+ * when no other thread is concurrently modifying it.
+ *
+ * @param <R> type of the advertised routes
+ */
+@ParametersAreNonnullByDefault
+public final class RouteQueue<R> extends ForwardingQueue<RouteAdvertisement<R>> {
+
+  @Nonnull private final Queue<RouteAdvertisement<R>> _queue;
+  @Nonnull private final LongAdder _digest;
+
+  public RouteQueue() {
+    _queue = new ConcurrentLinkedQueue<>();
+    _digest = new LongAdder();
+  }
+
+  @Override
+  protected Queue<RouteAdvertisement<R>> delegate() {
+    return _queue;
+  }
+
+  /** Return the order-independent digest of the advertisements currently in this queue */
+  public long getDigest() {
+    return _digest.sum();
+  }
+
+  /**
+   * Return an order-independent digest of the advertisements in a collection of queues, keyed by
+   * the edge they belong to.
+   */
+  public static long getDigest(Map<?, ? extends RouteQueue<?>> queues) {
+    long digest = 0;
+    for (Entry<?, ? extends RouteQueue<?>> e : queues.entrySet()) {
+      digest += Digests.combine(e.getKey().hashCode(), e.getValue().getDigest());
+    }
+    return digest;
+  }
+
+  @Override
+  public boolean add(RouteAdvertisement<R> advertisement) {
+    return offer(advertisement);
+  }
+
+  @Override
+  public boolean addAll(Collection<? extends RouteAdvertisement<R>> advertisements) {
+    return standardAddAll(advertisements);
+  }
+
+  @Override
+  public boolean offer(RouteAdvertisement<R> advertisement) {
+    boolean added = _queue.offer(advertisement);
+    if (added) {
+      _digest.add(Digests.elementDigest(advertisement));
+    }
+    return added;
+  }
+
+  @Nullable
+  @Override
+  public RouteAdvertisement<R> poll() {
+    RouteAdvertisement<R> advertisement = _queue.poll();
+    if (advertisement != null) {
+      _digest.add(-Digests.elementDigest(advertisement));
+    }
+    return advertisement;
+  }
+
+  @Override
+  public RouteAdvertisement<R> remove() {
+    RouteAdvertisement<R> advertisement = poll();
+    if (advertisement == null) {
+      throw new NoSuchElementException();
+    }
+    return advertisement;
+  }
+
+  @Override
+  public void clear() {
+    while (poll() != null) {
+      // drain the queue so that the digest is updated
+    }
+  }
+
+  @Override
+  public Iterator<RouteAdvertisement<R>> iterator() {
+    return Iterators.unmodifiableIterator(_queue.iterator());
+  }
+
+  @Override
+  public boolean remove(Object object) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public boolean removeAll(Collection<?> collection) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public boolean removeIf(Predicate<? super RouteAdvertisement<R>> filter) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public boolean retainAll(Collection<?> collection) {
+    throw new UnsupportedOperationException();
+  }
+}
@@ -4,13 +4,14 @@ import static org.batfish.dataplane.traceroute.FlowTracer.initialFlowTracer;
 import static org.batfish.dataplane.traceroute.TracerouteUtils.buildSessionsByIngressInterface;
 import static org.batfish.dataplane.traceroute.TracerouteUtils.validateInputs;
 
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Multimap;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.SortedMap;
@@ -42,6 +43,10 @@ import org.batfish.datamodel.flow.TraceAndReverseFlow;
  * the context is shared among each of the concurrent {@link FlowTracer FlowTracers}.
  */
 public class TracerouteEngineImplContext {
+
+  /** Bound on the number of memoized outcomes of each kind of IpSpace evaluation. */
+  private static final int MAX_MEMOIZED_LOOKUPS = 1 << 16;
+
   private final Map<String, Configuration> _configurations;
   private final DataPlane _dataPlane;
   private final Multimap<NodeInterfacePair, FirewallSessionTraceInfo> _sessionsByIngressInterface;
@@ -51,6 +56,13 @@ public class TracerouteEngineImplContext {
   private final boolean _ignoreFilters;
   private final Topology _topology;
 
+  // Evaluations of forwarding-analysis IpSpaces, which depend only on a node, a VRF or interface
+  // and an IP, memoized across the flows traced with this context. FIB lookups are cheap trie
+  // lookups and are not memoized.
+  private final Map<HopLookup, FlowDisposition> _dispositions = memoizationMap();
+  private final Map<HopLookup, Optional<String>> _acceptingInterfaces = memoizationMap();
+  private final Map<HopLookup, Boolean> _arpReplies = memoizationMap();
+
   public TracerouteEngineImplContext(
       DataPlane dataPlane,
       Topology topology,
@@ -105,6 +117,13 @@ public class TracerouteEngineImplContext {
    *     FlowDisposition#NEIGHBOR_UNREACHABLE}
    */
   FlowDisposition computeDisposition(String hostname, String outgoingInterfaceName, Ip dstIp) {
+    return _dispositions.computeIfAbsent(
+        new HopLookup(hostname, outgoingInterfaceName, dstIp),
+        k -> computeDispositionUncached(hostname, outgoingInterfaceName, dstIp));
+  }
+
+  private FlowDisposition computeDispositionUncached(
+      String hostname, String outgoingInterfaceName, Ip dstIp) {
     String vrfName =
         _configurations.get(hostname).getAllInterfaces().get(outgoingInterfaceName).getVrfName();
     if (_forwardingAnalysis
@@ -174,6 +193,12 @@ public class TracerouteEngineImplContext {
    */
   @Nonnull
   Optional<String> interfaceAcceptingIp(String node, String vrf, Ip ip) {
+    return _acceptingInterfaces.computeIfAbsent(
+        new HopLookup(node, vrf, ip), k -> interfaceAcceptingIpUncached(node, vrf, ip));
+  }
+
+  @Nonnull
+  private Optional<String> interfaceAcceptingIpUncached(String node, String vrf, Ip ip) {
     return _forwardingAnalysis.getAcceptsIps().getOrDefault(node, ImmutableMap.of())
         .getOrDefault(vrf, ImmutableMap.of()).entrySet().stream()
         .filter(e -> e.getValue().containsIp(ip, ImmutableMap.of()))
@@ -190,11 +215,14 @@ public class TracerouteEngineImplContext {
    * @return true if the node will respond to the ARP request
    */
   boolean repliesToArp(String node, String iface, Ip arpIp) {
-    return _forwardingAnalysis
-        .getArpReplies()
-        .get(node)
-        .get(iface)
-        .containsIp(arpIp, ImmutableMap.of());
+    return _arpReplies.computeIfAbsent(
+        new HopLookup(node, iface, arpIp),
+        k ->
+            _forwardingAnalysis
+                .getArpReplies()
+                .get(node)
+                .get(iface)
+                .containsIp(arpIp, ImmutableMap.of()));
   }
 
   @Nonnull
@@ -202,4 +230,39 @@ public class TracerouteEngineImplContext {
       String currentNodeName, String outgoingIfaceName) {
     return _topology.getNeighbors(NodeInterfacePair.of(currentNodeName, outgoingIfaceName));
   }
+
+  private static <K, V> Map<K, V> memoizationMap() {
+    return CacheBuilder.newBuilder().maximumSize(MAX_MEMOIZED_LOOKUPS).<K, V>build().asMap();
+  }
+
+  /** A lookup at a hop: a node, one of its VRFs or interfaces, and an IP. */
+  private static final class HopLookup {
+    private final String _node;
+    private final String _vrfOrInterface;
+    private final Ip _ip;
+
+    HopLookup(String node, String vrfOrInterface, Ip ip) {
+      _node = node;
+      _vrfOrInterface = vrfOrInterface;
+      _ip = ip;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      } else if (!(o instanceof HopLookup)) {
+        return false;
+      }
+      HopLookup other = (HopLookup) o;
+      return _node.equals(other._node)
+          && _vrfOrInterface.equals(other._vrfOrInterface)
+          && _ip.equals(other._ip);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(_node, _vrfOrInterface, _ip);
+    }
+  }
 }
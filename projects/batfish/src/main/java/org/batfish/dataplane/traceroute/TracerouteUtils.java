@@ -37,6 +37,7 @@ import org.batfish.datamodel.LineAction;
 import org.batfish.datamodel.RoutingProtocol;
 import org.batfish.datamodel.StaticRoute;
 import org.batfish.datamodel.TcpFlags;
+import org.batfish.datamodel.acl.CompiledIpAccessList;
 import org.batfish.datamodel.collections.NodeInterfacePair;
 import org.batfish.datamodel.flow.EnterInputIfaceStep;
 import org.batfish.datamodel.flow.EnterInputIfaceStep.EnterInputIfaceStepDetail;
@@ -144,7 +145,8 @@ public final class TracerouteUtils {
     // check filter
     if (!ignoreFilters) {
       FilterResult filterResult =
-          filter.filter(currentFlow, inInterfaceName, aclDefinitions, namedIpSpaces);
+          CompiledIpAccessList.compile(filter, namedIpSpaces)
+              .filter(currentFlow, inInterfaceName, aclDefinitions);
       if (filterResult.getAction() == LineAction.DENY) {
         action = StepAction.DENIED;
       }
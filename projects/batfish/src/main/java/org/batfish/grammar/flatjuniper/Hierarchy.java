@@ -314,6 +314,11 @@ public final class Hierarchy {
           return false;
         }
 
+        @Override
+        public boolean getRecordDfaStatistics() {
+          return false;
+        }
+
         @Override
         public boolean getThrowOnLexerError() {
           return true;
@@ -14,4 +14,13 @@ public abstract class BatfishJob<R extends BatfishJobResult<?, ?>> implements Ca
     _settings = settings;
     _logger = new BatfishLogger(_settings.getLogLevel(), _settings.getTimestamp());
   }
+
+  /**
+   * Returns an estimate of the cost of running this job relative to other jobs of the same kind,
+   * e.g., the size of its input text, or {@code 0} if there is no estimate. {@link
+   * BatfishJobExecutor} starts costlier jobs first.
+   */
+  public long getEstimatedCost() {
+    return 0L;
+  }
 }
@@ -1,8 +1,10 @@
 package org.batfish.job;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Throwables;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorCompletionService;
@@ -112,11 +114,7 @@ public class BatfishJobExecutor {
     ExecutorService pool = createExecutorService();
     ExecutorCompletionService<JobResultT> completionService = new ExecutorCompletionService<>(pool);
 
-    if (!_settings.getSequential() && _settings.getShuffleJobs()) {
-      Collections.shuffle(jobs);
-    }
-
-    for (JobT job : jobs) {
+    for (JobT job : orderJobs(jobs)) {
       completionService.submit(job);
     }
 
@@ -155,6 +153,26 @@ public class BatfishJobExecutor {
     }
   }
 
+  /**
+   * Returns the order in which to start {@code jobs}. Unless running sequentially, jobs are started
+   * in decreasing order of {@link BatfishJob#getEstimatedCost() estimated cost}, so that the most
+   * expensive jobs, e.g., parsing the largest files, do not start last and leave the other threads
+   * idle while they finish. Jobs with the same estimated cost are shuffled if so configured.
+   */
+  @VisibleForTesting
+  <JobT extends BatfishJob<?>> List<JobT> orderJobs(List<JobT> jobs) {
+    if (_settings.getSequential()) {
+      return jobs;
+    }
+    List<JobT> orderedJobs = new ArrayList<>(jobs);
+    if (_settings.getShuffleJobs()) {
+      Collections.shuffle(orderedJobs);
+    }
+    // stable, so shuffled jobs with equal estimates stay shuffled
+    orderedJobs.sort(Comparator.comparingLong(BatfishJob<?>::getEstimatedCost).reversed());
+    return orderedJobs;
+  }
+
   private ExecutorService createExecutorService() {
     if (_settings.getSequential()) {
       return Executors.newSingleThreadExecutor();
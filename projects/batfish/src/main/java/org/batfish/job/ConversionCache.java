@@ -0,0 +1,23 @@
+package org.batfish.job;
+
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+/**
+ * A content-addressed store of {@link ConversionResult conversion results}, keyed by a hash of
+ * everything the conversion of a vendor configuration depends on. See {@link
+ * ConvertConfigurationJob#computeCacheKey()}.
+ */
+@ParametersAreNonnullByDefault
+public interface ConversionCache {
+
+  /** Returns the result stored under {@code key}, or {@code null} if there is none. */
+  @Nullable
+  ConversionResult load(String key);
+
+  /**
+   * Stores {@code result} under {@code key}. Implementations must store a copy, since the caller
+   * goes on to modify the converted configurations.
+   */
+  void store(String key, ConversionResult result);
+}
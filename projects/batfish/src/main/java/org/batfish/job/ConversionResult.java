@@ -0,0 +1,53 @@
+package org.batfish.job;
+
+import java.io.Serializable;
+import java.util.Map;
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+import org.batfish.common.Warnings;
+import org.batfish.datamodel.Configuration;
+import org.batfish.datamodel.answers.ConvertConfigurationAnswerElement;
+
+/**
+ * An intermediate class that holds a cacheable result of successfully converting a vendor
+ * configuration to vendor-independent {@link Configuration configurations}.
+ */
+@ParametersAreNonnullByDefault
+public class ConversionResult implements Serializable {
+
+  @Nonnull private final ConvertConfigurationAnswerElement _answerElement;
+  @Nonnull private final Map<String, Configuration> _configurations;
+  @Nonnull private final String _name;
+  @Nonnull private final Map<String, Warnings> _warningsByHost;
+
+  public ConversionResult(
+      String name,
+      Map<String, Configuration> configurations,
+      Map<String, Warnings> warningsByHost,
+      ConvertConfigurationAnswerElement answerElement) {
+    _name = name;
+    _configurations = configurations;
+    _warningsByHost = warningsByHost;
+    _answerElement = answerElement;
+  }
+
+  @Nonnull
+  public ConvertConfigurationAnswerElement getAnswerElement() {
+    return _answerElement;
+  }
+
+  @Nonnull
+  public Map<String, Configuration> getConfigurations() {
+    return _configurations;
+  }
+
+  @Nonnull
+  public String getName() {
+    return _name;
+  }
+
+  @Nonnull
+  public Map<String, Warnings> getWarningsByHost() {
+    return _warningsByHost;
+  }
+}
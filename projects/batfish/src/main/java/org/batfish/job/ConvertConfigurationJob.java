@@ -1,11 +1,13 @@
 package org.batfish.job;
 
 import static com.google.common.base.MoreObjects.firstNonNull;
+import static java.nio.charset.StandardCharsets.UTF_8;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Multimap;
+import com.google.common.hash.Hashing;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Map;
@@ -15,8 +17,10 @@ import java.util.function.Function;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import org.batfish.common.BatfishException;
+import org.batfish.common.BatfishLogger;
 import org.batfish.common.Warnings;
 import org.batfish.common.runtime.RuntimeData;
+import org.batfish.common.util.BatfishObjectMapper;
 import org.batfish.config.Settings;
 import org.batfish.datamodel.AsPathAccessList;
 import org.batfish.datamodel.CommunityList;
@@ -34,19 +38,40 @@ import org.batfish.main.Batfish;
 import org.batfish.representation.host.HostConfiguration;
 import org.batfish.representation.iptables.IptablesVendorConfiguration;
 import org.batfish.vendor.VendorConfiguration;
+import org.batfish.version.BatfishVersion;
 
 public class ConvertConfigurationJob extends BatfishJob<ConvertConfigurationResult> {
 
+  @Nullable private final ConversionCache _cache;
   private Object _configObject;
   @Nonnull private final RuntimeData _runtimeData;
   private String _name;
+  @Nullable private final String _snapshotInputsKey;
 
   public ConvertConfigurationJob(
       Settings settings, @Nullable RuntimeData runtimeData, Object configObject, String name) {
+    this(settings, runtimeData, configObject, name, null, null);
+  }
+
+  /**
+   * Creates a job that reuses the result stored in {@code cache} if the vendor configuration has
+   * been converted before with the same snapshot-wide inputs, and otherwise stores its result
+   * there. {@code snapshotInputsKey} identifies the snapshot-wide inputs, such as the Layer1
+   * topology and ISP configuration.
+   */
+  public ConvertConfigurationJob(
+      Settings settings,
+      @Nullable RuntimeData runtimeData,
+      Object configObject,
+      String name,
+      @Nullable ConversionCache cache,
+      @Nullable String snapshotInputsKey) {
     super(settings);
+    _cache = cache;
     _configObject = configObject;
     _runtimeData = firstNonNull(runtimeData, RuntimeData.EMPTY_RUNTIME_DATA);
     _name = name;
+    _snapshotInputsKey = snapshotInputsKey;
   }
 
   /**
@@ -199,60 +224,150 @@ public class ConvertConfigurationJob extends BatfishJob<ConvertConfigurationResu
     }
   }
 
+  /**
+   * Returns the key of the result of this job in a {@link ConversionCache}, or {@code null} if the
+   * result cannot be cached. The key is a hash of stable inputs only:
+   *
+   * <ul>
+   *   <li>the {@link VendorConfiguration#getParseResultKey() parse result keys} of the vendor
+   *       configuration and of its overlay, which identify their file texts and parser settings
+   *   <li>the runtime data of the node
+   *   <li>the snapshot-wide inputs, such as the Layer1 topology and ISP configuration
+   *   <li>the settings that affect conversion, and the Batfish version
+   * </ul>
+   *
+   * <p>The vendor configuration itself is not hashed: its serialized form is not stable across
+   * deserializations, since some vendor structures are hash sets of objects with identity hash
+   * codes. Configurations not parsed from a single file have no parse result key and are never
+   * cached.
+   */
+  @VisibleForTesting
+  @Nullable
+  String computeCacheKey() {
+    VendorConfiguration vendorConfiguration = (VendorConfiguration) _configObject;
+    String parseResultKey = vendorConfiguration.getParseResultKey();
+    VendorConfiguration overlay = vendorConfiguration.getOverlayConfiguration();
+    String overlayParseResultKey = overlay == null ? "" : overlay.getParseResultKey();
+    if (parseResultKey == null || overlayParseResultKey == null || _snapshotInputsKey == null) {
+      return null;
+    }
+    BatfishLogger settingsLogger = _settings.getLogger();
+    return Hashing.murmur3_128()
+        .newHasher()
+        .putString("Cached Conversion Result", UTF_8)
+        .putString(_name, UTF_8)
+        .putString(BatfishVersion.getVersionStatic(), UTF_8)
+        .putBoolean(settingsLogger.isActive(BatfishLogger.LEVEL_PEDANTIC))
+        .putBoolean(settingsLogger.isActive(BatfishLogger.LEVEL_REDFLAG))
+        .putBoolean(settingsLogger.isActive(BatfishLogger.LEVEL_UNIMPLEMENTED))
+        .putString(BatfishObjectMapper.writeStringRuntimeError(_runtimeData), UTF_8)
+        .putString(_snapshotInputsKey, UTF_8)
+        .putString(parseResultKey, UTF_8)
+        .putString(overlayParseResultKey, UTF_8)
+        .hash()
+        .toString();
+  }
+
+  @Nullable
+  private ConversionResult loadCached(ConversionCache cache, String key) {
+    try {
+      ConversionResult result = cache.load(key);
+      // sanity-check names. In the extremely unlikely event of a collision, we'll lose reuse for
+      // this input.
+      return result != null && result.getName().equals(_name) ? result : null;
+    } catch (Exception e) {
+      _logger.warnf("Error loading cached conversion result for %s: %s\n", _name, e.getMessage());
+      return null;
+    }
+  }
+
+  private void storeCached(ConversionCache cache, String key, ConversionResult result) {
+    try {
+      cache.store(key, result);
+    } catch (Exception e) {
+      _logger.warnf("Error caching conversion result for %s: %s\n", _name, e.getMessage());
+    }
+  }
+
   @Override
   public ConvertConfigurationResult call() {
     long startTime = System.currentTimeMillis();
     long elapsedTime;
     _logger.infof("Processing: \"%s\"", _name);
+    String cacheKey = _cache == null ? null : computeCacheKey();
+    ConversionResult result =
+        _cache == null || cacheKey == null ? null : loadCached(_cache, cacheKey);
+    if (result != null) {
+      _logger.info(" ...OK (cached)\n");
+      result.getWarningsByHost().values().forEach(w -> Batfish.logWarnings(_logger, w));
+    } else {
+      Map<String, Warnings> warningsByHost = new HashMap<>();
+      try {
+        result = convert(warningsByHost);
+        _logger.info(" ...OK\n");
+      } catch (Exception e) {
+        String error = "Conversion error for node with hostname '" + _name + "'";
+        elapsedTime = System.currentTimeMillis() - startTime;
+        return new ConvertConfigurationResult(
+            elapsedTime, _logger.getHistory(), _name, new BatfishException(error, e));
+      } finally {
+        warningsByHost.forEach((hostname, warnings) -> Batfish.logWarnings(_logger, warnings));
+      }
+      if (_cache != null && cacheKey != null) {
+        storeCached(_cache, cacheKey, result);
+      }
+    }
+    elapsedTime = System.currentTimeMillis() - startTime;
+    return new ConvertConfigurationResult(
+        elapsedTime,
+        _logger.getHistory(),
+        result.getWarningsByHost(),
+        _name,
+        result.getConfigurations(),
+        result.getAnswerElement());
+  }
+
+  /**
+   * Converts the vendor configuration, recording the warnings for each produced configuration in
+   * {@code warningsByHost} as it goes.
+   */
+  private ConversionResult convert(Map<String, Warnings> warningsByHost) {
     Map<String, Configuration> configurations = new HashMap<>();
-    Map<String, Warnings> warningsByHost = new HashMap<>();
     ConvertConfigurationAnswerElement answerElement = new ConvertConfigurationAnswerElement();
     Multimap<String, String> fileMap = answerElement.getFileMap();
-    try {
-      VendorConfiguration vendorConfiguration = (VendorConfiguration) _configObject;
-      Warnings warnings = Batfish.buildWarnings(_settings);
-      String filename = vendorConfiguration.getFilename();
-      vendorConfiguration.setWarnings(warnings);
-      vendorConfiguration.setAnswerElement(answerElement);
-      vendorConfiguration.setRuntimeData(_runtimeData);
-      for (Configuration configuration : vendorConfiguration.toVendorIndependentConfigurations()) {
+    VendorConfiguration vendorConfiguration = (VendorConfiguration) _configObject;
+    Warnings warnings = Batfish.buildWarnings(_settings);
+    String filename = vendorConfiguration.getFilename();
+    vendorConfiguration.setWarnings(warnings);
+    vendorConfiguration.setAnswerElement(answerElement);
+    vendorConfiguration.setRuntimeData(_runtimeData);
+    for (Configuration configuration : vendorConfiguration.toVendorIndependentConfigurations()) {
 
-        // get iptables if applicable
-        IptablesVendorConfiguration iptablesConfig = null;
-        VendorConfiguration ov = vendorConfiguration.getOverlayConfiguration();
-        if (ov != null) {
-          // apply overlay
-          HostConfiguration oh = (HostConfiguration) ov;
-          iptablesConfig = oh.getIptablesVendorConfig();
-        } else if (vendorConfiguration instanceof HostConfiguration) {
-          // TODO: To enable below, we need to reconcile overlay and non-overlay iptables
-          // semantics.
-          // HostConfiguration oh = (HostConfiguration)vendorConfiguration;
-          // iptablesConfig = oh.getIptablesVendorConfig();
-        }
-        if (iptablesConfig != null) {
-          iptablesConfig.addAsIpAccessLists(configuration, vendorConfiguration, warnings);
-          iptablesConfig.applyAsOverlay(configuration, warnings);
-        }
+      // get iptables if applicable
+      IptablesVendorConfiguration iptablesConfig = null;
+      VendorConfiguration ov = vendorConfiguration.getOverlayConfiguration();
+      if (ov != null) {
+        // apply overlay
+        HostConfiguration oh = (HostConfiguration) ov;
+        iptablesConfig = oh.getIptablesVendorConfig();
+      } else if (vendorConfiguration instanceof HostConfiguration) {
+        // TODO: To enable below, we need to reconcile overlay and non-overlay iptables
+        // semantics.
+        // HostConfiguration oh = (HostConfiguration)vendorConfiguration;
+        // iptablesConfig = oh.getIptablesVendorConfig();
+      }
+      if (iptablesConfig != null) {
+        iptablesConfig.addAsIpAccessLists(configuration, vendorConfiguration, warnings);
+        iptablesConfig.applyAsOverlay(configuration, warnings);
+      }
 
-        finalizeConfiguration(configuration, warnings);
+      finalizeConfiguration(configuration, warnings);
 
-        String hostname = configuration.getHostname();
-        configurations.put(hostname, configuration);
-        warningsByHost.put(hostname, warnings);
-        fileMap.put(filename, hostname);
-      }
-      _logger.info(" ...OK\n");
-    } catch (Exception e) {
-      String error = "Conversion error for node with hostname '" + _name + "'";
-      elapsedTime = System.currentTimeMillis() - startTime;
-      return new ConvertConfigurationResult(
-          elapsedTime, _logger.getHistory(), _name, new BatfishException(error, e));
-    } finally {
-      warningsByHost.forEach((hostname, warnings) -> Batfish.logWarnings(_logger, warnings));
+      String hostname = configuration.getHostname();
+      configurations.put(hostname, configuration);
+      warningsByHost.put(hostname, warnings);
+      fileMap.put(filename, hostname);
     }
-    elapsedTime = System.currentTimeMillis() - startTime;
-    return new ConvertConfigurationResult(
-        elapsedTime, _logger.getHistory(), warningsByHost, _name, configurations, answerElement);
+    return new ConversionResult(_name, configurations, warningsByHost, answerElement);
   }
 }
@@ -28,6 +28,11 @@ public class FlattenVendorConfigurationJob extends BatfishJob<FlattenVendorConfi
     _warnings = warnings;
   }
 
+  @Override
+  public long getEstimatedCost() {
+    return _fileText.length();
+  }
+
   @Override
   public FlattenVendorConfigurationResult call() {
     long startTime = System.currentTimeMillis();
@@ -47,6 +47,11 @@ public class ParseEnvironmentBgpTableJob extends BatfishJob<ParseEnvironmentBgpT
     _warnings = warnings;
   }
 
+  @Override
+  public long getEstimatedCost() {
+    return _fileText.length();
+  }
+
   @Override
   public ParseEnvironmentBgpTableResult call() {
     long startTime = System.currentTimeMillis();
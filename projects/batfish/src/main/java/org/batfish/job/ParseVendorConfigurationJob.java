@@ -1,9 +1,12 @@
 package org.batfish.job;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Multimap;
+import com.google.common.hash.Hashing;
 import io.opentracing.ActiveSpan;
 import io.opentracing.References;
 import io.opentracing.SpanContext;
@@ -25,6 +28,7 @@ import org.batfish.datamodel.answers.ParseStatus;
 import org.batfish.grammar.BatfishCombinedParser;
 import org.batfish.grammar.BatfishParseException;
 import org.batfish.grammar.ControlPlaneExtractor;
+import org.batfish.grammar.GrammarSettings;
 import org.batfish.grammar.ParseTreePrettyPrinter;
 import org.batfish.grammar.VendorConfigurationFormatDetector;
 import org.batfish.grammar.cisco.CiscoCombinedParser;
@@ -77,6 +81,9 @@ public class ParseVendorConfigurationJob extends BatfishJob<ParseVendorConfigura
 
   private String _fileText;
 
+  /** Key of the result of parsing {@link #_fileText} as given, before any flattening. */
+  @Nonnull private final String _parseResultKey;
+
   /**
    * What type of files are expected, or {@link ConfigurationFormat#UNKNOWN} to detect dynamically.
    */
@@ -99,6 +106,7 @@ public class ParseVendorConfigurationJob extends BatfishJob<ParseVendorConfigura
     super(settings);
     _fileText = fileText;
     _filename = filename;
+    _parseResultKey = computeParseResultKey(filename, fileText, settings);
     _ptSentences = new ParseTreeSentences();
     _warnings = warnings;
     _expectedFormat = expectedFormat;
@@ -107,6 +115,30 @@ public class ParseVendorConfigurationJob extends BatfishJob<ParseVendorConfigura
     _snapshot = snapshot;
   }
 
+  /**
+   * Returns a key identifying the result of parsing {@code fileText} from {@code filename} with
+   * {@code settings}: a hash of the file name and text and of the settings that affect parsing.
+   */
+  @Nonnull
+  static String computeParseResultKey(String filename, String fileText, GrammarSettings settings) {
+    return Hashing.murmur3_128()
+        .newHasher()
+        .putString("Cached Parse Result", UTF_8)
+        .putString(filename, UTF_8)
+        .putString(fileText, UTF_8)
+        .putBoolean(settings.getDisableUnrecognized())
+        .putInt(settings.getMaxParserContextLines())
+        .putInt(settings.getMaxParserContextTokens())
+        .putInt(settings.getMaxParseTreePrintLength())
+        .putBoolean(settings.getPrintParseTreeLineNums())
+        .putBoolean(settings.getPrintParseTree())
+        .putBoolean(settings.getThrowOnLexerError())
+        .putBoolean(settings.getThrowOnParserError())
+        .putBoolean(settings.getUseAristaBgp())
+        .hash()
+        .toString();
+  }
+
   private static final Pattern WHITESPACE_ONLY = Pattern.compile("^\\s*$");
 
   /**
@@ -446,6 +478,7 @@ public class ParseVendorConfigurationJob extends BatfishJob<ParseVendorConfigura
 
   public ParseVendorConfigurationResult fromResult(ParseResult result, long elapsed) {
     if (result.getConfig() != null) {
+      result.getConfig().setParseResultKey(_parseResultKey);
       return new ParseVendorConfigurationResult(
           elapsed,
           _logger.getHistory(),
@@ -469,6 +502,11 @@ public class ParseVendorConfigurationJob extends BatfishJob<ParseVendorConfigura
     }
   }
 
+  @Override
+  public long getEstimatedCost() {
+    return _fileText.length();
+  }
+
   @Override
   public ParseVendorConfigurationResult call() {
     try (ActiveSpan span =
@@ -492,4 +530,13 @@ public class ParseVendorConfigurationJob extends BatfishJob<ParseVendorConfigura
   public String getFileText() {
     return _fileText;
   }
+
+  /**
+   * Returns the key under which the result of this job can be cached. It identifies the file name
+   * and text and the settings that affect parsing.
+   */
+  @Nonnull
+  public String getParseResultKey() {
+    return _parseResultKey;
+  }
 }
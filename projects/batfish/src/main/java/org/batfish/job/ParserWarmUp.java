@@ -0,0 +1,117 @@
+package org.batfish.job;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.ImmutableMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import org.batfish.common.BatfishLogger;
+import org.batfish.common.NetworkSnapshot;
+import org.batfish.config.Settings;
+import org.batfish.datamodel.ConfigurationFormat;
+import org.batfish.grammar.DfaCacheStatistics;
+import org.batfish.identifiers.NetworkId;
+import org.batfish.identifiers.SnapshotId;
+import org.batfish.main.Batfish;
+
+/**
+ * Parses small sample configurations of common formats, so that the first snapshot a worker parses
+ * after startup does not pay for loading the grammars and seeding their shared DFA caches.
+ */
+public final class ParserWarmUp {
+
+  private static final NetworkSnapshot WARM_UP_SNAPSHOT =
+      new NetworkSnapshot(new NetworkId("warmup"), new SnapshotId("warmup"));
+
+  private static final String CISCO_IOS_SAMPLE =
+      String.join(
+          "\n",
+          "hostname warmup",
+          "!",
+          "interface Loopback0",
+          " ip address 10.0.0.1 255.255.255.255",
+          "!",
+          "router bgp 65000",
+          " neighbor 10.0.0.2 remote-as 65001",
+          "!",
+          "ip route 0.0.0.0 0.0.0.0 10.0.0.2",
+          "!",
+          "");
+
+  @VisibleForTesting
+  static final Map<ConfigurationFormat, String> SAMPLES =
+      ImmutableMap.<ConfigurationFormat, String>builder()
+          .put(ConfigurationFormat.ARISTA, CISCO_IOS_SAMPLE)
+          .put(ConfigurationFormat.CISCO_IOS, CISCO_IOS_SAMPLE)
+          .put(
+              ConfigurationFormat.CISCO_IOS_XR,
+              String.join(
+                  "\n",
+                  "hostname warmup",
+                  "interface Loopback0",
+                  " ipv4 address 10.0.0.1 255.255.255.255",
+                  "!",
+                  ""))
+          .put(
+              ConfigurationFormat.CISCO_NX,
+              String.join(
+                  "\n", "hostname warmup", "interface loopback0", "  ip address 10.0.0.1/32", ""))
+          .put(
+              ConfigurationFormat.CUMULUS_NCLU,
+              String.join(
+                  "\n",
+                  "net add hostname warmup",
+                  "net add interface swp1 ip address 10.0.0.1/24",
+                  ""))
+          .put(
+              ConfigurationFormat.F5_BIGIP_STRUCTURED,
+              String.join("\n", "sys global-settings {", "    hostname warmup", "}", ""))
+          .put(
+              ConfigurationFormat.FLAT_JUNIPER,
+              String.join(
+                  "\n",
+                  "set system host-name warmup",
+                  "set interfaces lo0 unit 0 family inet address 10.0.0.1/32",
+                  "set routing-options static route 0.0.0.0/0 next-hop 10.0.0.2",
+                  ""))
+          .put(
+              ConfigurationFormat.PALO_ALTO,
+              String.join(
+                  "\n",
+                  "set deviceconfig system hostname warmup",
+                  "set network interface ethernet ethernet1/1 layer3 ip 10.0.0.1/24",
+                  ""))
+          .build();
+
+  /**
+   * Parses the sample configurations, and logs the resulting DFA cache statistics if they are
+   * recorded.
+   */
+  public static void warmUp(Settings settings, BatfishLogger logger) {
+    long startTime = System.currentTimeMillis();
+    for (Entry<ConfigurationFormat, String> sample : SAMPLES.entrySet()) {
+      ParseVendorConfigurationResult result =
+          new ParseVendorConfigurationJob(
+                  settings,
+                  WARM_UP_SNAPSHOT,
+                  sample.getValue(),
+                  "warmup-" + sample.getKey(),
+                  Batfish.buildWarnings(settings),
+                  sample.getKey(),
+                  HashMultimap.create(),
+                  null)
+              .call();
+      if (result.getFailureCause() != null) {
+        logger.warnf(
+            "Failed to warm up parser for %s: %s\n",
+            sample.getKey(), result.getFailureCause().getMessage());
+      }
+    }
+    logger.infof("Warmed up parsers in %d ms\n", System.currentTimeMillis() - startTime);
+    if (settings.getRecordDfaStatistics()) {
+      logger.infof("DFA cache statistics: %s\n", DfaCacheStatistics.getAllCounts());
+    }
+  }
+
+  private ParserWarmUp() {}
+}
@@ -39,6 +39,11 @@ public final class PreprocessJuniperJob extends BatfishJob<PreprocessJuniperResu
     _warnings = warnings;
   }
 
+  @Override
+  public long getEstimatedCost() {
+    return _fileText.length();
+  }
+
   @Override
   public @Nonnull PreprocessJuniperResult call() {
     long startTime = System.currentTimeMillis();
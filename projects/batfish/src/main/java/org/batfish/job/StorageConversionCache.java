@@ -0,0 +1,49 @@
+package org.batfish.job;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+import org.apache.commons.lang3.SerializationUtils;
+import org.batfish.identifiers.NetworkId;
+import org.batfish.storage.StorageProvider;
+
+/**
+ * A {@link ConversionCache} that stores conversion results as blobs of a network, so that they are
+ * shared by all snapshots of that network.
+ */
+@ParametersAreNonnullByDefault
+public final class StorageConversionCache implements ConversionCache {
+
+  private final NetworkId _network;
+  private final StorageProvider _storage;
+
+  public StorageConversionCache(StorageProvider storage, NetworkId network) {
+    _storage = storage;
+    _network = network;
+  }
+
+  @Nullable
+  @Override
+  public ConversionResult load(String key) {
+    try (InputStream in = _storage.loadNetworkBlob(_network, key)) {
+      return SerializationUtils.deserialize(in);
+    } catch (FileNotFoundException e) {
+      return null;
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  @Override
+  public void store(String key, ConversionResult result) {
+    byte[] serialized = SerializationUtils.serialize(result);
+    try {
+      _storage.storeNetworkBlob(new ByteArrayInputStream(serialized), _network, key);
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -31,6 +31,7 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Throwables;
 import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
@@ -39,7 +40,10 @@ import com.google.common.collect.ImmutableSortedMap;
 import com.google.common.collect.ImmutableSortedSet;
 import com.google.common.collect.Ordering;
 import com.google.common.collect.Sets;
+import com.google.common.hash.Funnels;
+import com.google.common.hash.Hasher;
 import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
 import io.opentracing.ActiveSpan;
 import io.opentracing.References;
 import io.opentracing.SpanContext;
@@ -60,6 +64,7 @@ import java.util.AbstractMap.SimpleImmutableEntry;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
@@ -73,8 +78,10 @@ import java.util.SortedMap;
 import java.util.SortedSet;
 import java.util.TreeMap;
 import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiFunction;
+import java.util.function.Consumer;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -86,11 +93,12 @@ import org.antlr.v4.runtime.tree.ParseTreeWalker;
 import org.apache.commons.configuration2.ImmutableConfiguration;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.SerializationUtils;
-import org.batfish.bddreachability.BDDLoopDetectionAnalysis;
 import org.batfish.bddreachability.BDDReachabilityAnalysis;
+import org.batfish.bddreachability.BDDReachabilityAnalysisFactories;
 import org.batfish.bddreachability.BDDReachabilityAnalysisFactory;
 import org.batfish.bddreachability.BidirectionalReachabilityAnalysis;
 import org.batfish.bddreachability.IpsRoutedOutInterfacesFactory;
+import org.batfish.bddreachability.PartitionedBDDReachability;
 import org.batfish.common.Answerer;
 import org.batfish.common.BatfishException;
 import org.batfish.common.BatfishException.BatfishStackTrace;
@@ -130,14 +138,17 @@ import org.batfish.datamodel.ConfigurationFormat;
 import org.batfish.datamodel.DataPlane;
 import org.batfish.datamodel.DeviceType;
 import org.batfish.datamodel.Edge;
+import org.batfish.datamodel.Fib;
 import org.batfish.datamodel.Flow;
 import org.batfish.datamodel.FlowDisposition;
+import org.batfish.datamodel.ForwardingAnalysis;
 import org.batfish.datamodel.IntegerSpace;
 import org.batfish.datamodel.Interface;
 import org.batfish.datamodel.Interface.Dependency;
 import org.batfish.datamodel.Interface.DependencyType;
 import org.batfish.datamodel.InterfaceType;
 import org.batfish.datamodel.NetworkConfigurations;
+import org.batfish.datamodel.SnapshotMetadata;
 import org.batfish.datamodel.SubRange;
 import org.batfish.datamodel.SwitchportMode;
 import org.batfish.datamodel.Topology;
@@ -170,10 +181,12 @@ import org.batfish.datamodel.pojo.Environment;
 import org.batfish.datamodel.questions.InvalidReachabilityParametersException;
 import org.batfish.datamodel.questions.Question;
 import org.batfish.dataplane.TracerouteEngineImpl;
+import org.batfish.dataplane.ibdp.IncrementalDataPlaneSettings;
 import org.batfish.grammar.BatfishCombinedParser;
 import org.batfish.grammar.BatfishParseException;
 import org.batfish.grammar.BatfishParseTreeWalker;
 import org.batfish.grammar.BgpTableFormat;
+import org.batfish.grammar.DfaCacheStatistics;
 import org.batfish.grammar.GrammarSettings;
 import org.batfish.grammar.ParseTreePrettyPrinter;
 import org.batfish.grammar.flattener.Flattener;
@@ -194,12 +207,14 @@ import org.batfish.identifiers.QuestionId;
 import org.batfish.identifiers.QuestionSettingsId;
 import org.batfish.identifiers.SnapshotId;
 import org.batfish.job.BatfishJobExecutor;
+import org.batfish.job.ConversionCache;
 import org.batfish.job.ConvertConfigurationJob;
 import org.batfish.job.FlattenVendorConfigurationJob;
 import org.batfish.job.ParseEnvironmentBgpTableJob;
 import org.batfish.job.ParseResult;
 import org.batfish.job.ParseVendorConfigurationJob;
 import org.batfish.job.ParseVendorConfigurationResult;
+import org.batfish.job.StorageConversionCache;
 import org.batfish.question.ReachabilityParameters;
 import org.batfish.question.ResolvedReachabilityParameters;
 import org.batfish.question.SrcNattedConstraint;
@@ -227,6 +242,7 @@ import org.batfish.specifier.SpecifierContextImpl;
 import org.batfish.specifier.UnionLocationSpecifier;
 import org.batfish.storage.FileBasedStorage;
 import org.batfish.storage.StorageProvider;
+import org.batfish.storage.StoredObjectMetadata;
 import org.batfish.symbolic.IngressLocation;
 import org.batfish.topology.TopologyProviderImpl;
 import org.batfish.vendor.VendorConfiguration;
@@ -358,6 +374,13 @@ public class Batfish extends PluginConsumer implements IBatfish {
     return _deltaTestrigSettings;
   }
 
+  @VisibleForTesting
+  @Nullable
+  BDDReachabilityAnalysisFactories getCachedBddReachabilityAnalysisFactories(
+      NetworkSnapshot snapshot) {
+    return _cachedBddReachabilityAnalysisFactories.getIfPresent(snapshot);
+  }
+
   private void initLocalSettings(Settings settings) {
     if (settings == null || settings.getStorageBase() == null || settings.getContainer() == null) {
       // This should only happen in tests.
@@ -465,6 +488,9 @@ public class Batfish extends PluginConsumer implements IBatfish {
 
   private final Cache<NetworkSnapshot, DataPlane> _cachedDataPlanes;
 
+  private final Cache<NetworkSnapshot, BDDReachabilityAnalysisFactories>
+      _cachedBddReachabilityAnalysisFactories;
+
   private final Map<NetworkSnapshot, SortedMap<String, BgpAdvertisementsByVrf>>
       _cachedEnvironmentBgpTables;
 
@@ -499,12 +525,17 @@ public class Batfish extends PluginConsumer implements IBatfish {
       Cache<NetworkSnapshot, Map<String, VendorConfiguration>> cachedVendorConfigurations,
       @Nullable StorageProvider alternateStorageProvider,
       @Nullable IdResolver alternateIdResolver) {
+    super(settings.getSerializationFormat());
     _settings = settings;
     _bgpTablePlugins = new TreeMap<>();
     _cachedConfigurations = cachedConfigurations;
     _cachedDataPlanes = cachedDataPlanes;
     _cachedEnvironmentBgpTables = cachedEnvironmentBgpTables;
     _cachedVendorConfigurations = cachedVendorConfigurations;
+    _cachedBddReachabilityAnalysisFactories =
+        firstNonNull(
+            settings.getBddReachabilityAnalysisFactoriesCache(),
+            CacheBuilder.newBuilder().softValues().maximumSize(1).build());
     _externalBgpAdvertisementPlugins = new TreeSet<>();
     initLocalSettings(settings);
     _logger = _settings.getLogger();
@@ -514,7 +545,11 @@ public class Batfish extends PluginConsumer implements IBatfish {
     _storage =
         alternateStorageProvider != null
             ? alternateStorageProvider
-            : new FileBasedStorage(_settings.getStorageBase(), _logger, this::newBatch);
+            : new FileBasedStorage(
+                _settings.getStorageBase(),
+                _logger,
+                this::newBatch,
+                _settings.getSerializationFormat());
     _idResolver =
         alternateIdResolver != null
             ? alternateIdResolver
@@ -795,11 +830,128 @@ public class Batfish extends PluginConsumer implements IBatfish {
   @Override
   public DataPlaneAnswerElement computeDataPlane(NetworkSnapshot snapshot) {
     checkSnapshotOutputReady(snapshot);
+    String fingerprint = computeDataPlaneFingerprint(snapshot);
+    if (fingerprint != null) {
+      DataPlaneAnswerElement reused = reuseParentDataPlane(snapshot, fingerprint);
+      if (reused != null) {
+        return reused;
+      }
+    }
     ComputeDataPlaneResult result = getDataPlanePlugin().computeDataPlane(snapshot);
     saveDataPlane(snapshot, result);
+    if (fingerprint != null) {
+      try {
+        _storage.storeDataPlaneFingerprint(fingerprint, snapshot);
+      } catch (IOException e) {
+        throw new BatfishException("Failed to save data plane fingerprint", e);
+      }
+    }
     return result._answerElement;
   }
 
+  /**
+   * Computes a digest of everything the data plane of {@code snapshot} is computed from: the input
+   * objects of the snapshot (configurations, layer-1 topology, runtime data, external BGP
+   * announcements, etc.), the data plane engine and its settings, and the Batfish version. Returns
+   * {@code null} if the snapshot has no stored input, e.g. when its configurations were provided
+   * directly.
+   *
+   * <p>The input objects are hashed in order of their keys, so the digest does not depend on how
+   * the configurations parsed from them happen to be laid out in memory, and no configuration has
+   * to be loaded. The flip side is that only snapshots whose inputs are byte-for-byte identical
+   * share a fingerprint: a fork that, say, only reformats a configuration file recomputes its data
+   * plane. Settings that affect parsing and conversion are assumed to be the same for all snapshots
+   * of a network.
+   */
+  @VisibleForTesting
+  @Nullable
+  String computeDataPlaneFingerprint(NetworkSnapshot snapshot) {
+    try (ActiveSpan span =
+        GlobalTracer.get().buildSpan("Computing data plane fingerprint").startActive()) {
+      assert span != null; // avoid unused warning
+      List<StoredObjectMetadata> inputObjects;
+      try {
+        inputObjects =
+            _storage.getSnapshotInputObjectsMetadata(snapshot.getNetwork(), snapshot.getSnapshot());
+      } catch (FileNotFoundException e) {
+        return null;
+      }
+      Hasher hasher = Hashing.sha256().newHasher();
+      hasher.putString(BatfishVersion.getVersionStatic(), UTF_8);
+      hasher.putString(_settings.getDataPlaneEngineName(), UTF_8);
+      // every property of IncrementalDataPlaneSettings must be hashed here
+      IncrementalDataPlaneSettings dataPlaneSettings =
+          new IncrementalDataPlaneSettings(getSettingsConfiguration());
+      hasher.putString(dataPlaneSettings.getScheduleName().toString(), UTF_8);
+      hasher.putString(dataPlaneSettings.getColoringType().toString(), UTF_8);
+      hasher.putBoolean(dataPlaneSettings.getOspfIntraAreaSpf());
+      for (StoredObjectMetadata inputObject :
+          ImmutableList.sortedCopyOf(
+              Comparator.comparing(StoredObjectMetadata::getKey), inputObjects)) {
+        hasher.putString(inputObject.getKey(), UTF_8);
+        hasher.putLong(inputObject.getSize());
+        try (InputStream in =
+            _storage.loadSnapshotInputObject(
+                snapshot.getNetwork(), snapshot.getSnapshot(), inputObject.getKey())) {
+          ByteStreams.copy(in, Funnels.asOutputStream(hasher));
+        }
+      }
+      return hasher.hash().toString();
+    } catch (IOException e) {
+      throw new BatfishException("Failed to compute data plane fingerprint", e);
+    }
+  }
+
+  /**
+   * If {@code snapshot} was forked from a snapshot whose data plane was computed from the same
+   * inputs, i.e. has the same {@code fingerprint}, copies that data plane to {@code snapshot} and
+   * returns its answer element. Otherwise returns {@code null}.
+   */
+  @VisibleForTesting
+  @Nullable
+  DataPlaneAnswerElement reuseParentDataPlane(NetworkSnapshot snapshot, String fingerprint) {
+    SnapshotId parentId = getParentSnapshotId(snapshot);
+    if (parentId == null) {
+      return null;
+    }
+    NetworkSnapshot parent = new NetworkSnapshot(snapshot.getNetwork(), parentId);
+    try {
+      if (!_storage.loadDataPlaneFingerprint(parent).equals(Optional.of(fingerprint))) {
+        return null;
+      }
+      _logger.infof(
+          "Reusing data plane of parent snapshot %s for snapshot %s\n",
+          parentId, snapshot.getSnapshot());
+      _storage.copyDataPlane(parent, snapshot);
+    } catch (IOException e) {
+      throw new BatfishException("Failed to reuse data plane of parent snapshot", e);
+    }
+    _cachedDataPlanes.invalidate(snapshot);
+    invalidateBddReachabilityAnalysisFactories(snapshot);
+    return deserializeObject(
+        getTestrigSettings(snapshot).getDataPlaneAnswerPath(), DataPlaneAnswerElement.class);
+  }
+
+  /** Returns the snapshot {@code snapshot} was forked from, if any. */
+  private @Nullable SnapshotId getParentSnapshotId(NetworkSnapshot snapshot) {
+    String metadata;
+    try {
+      metadata = _storage.loadSnapshotMetadata(snapshot.getNetwork(), snapshot.getSnapshot());
+    } catch (FileNotFoundException e) {
+      // snapshots initialized outside of the coordinator have no metadata
+      return null;
+    } catch (IOException e) {
+      throw new BatfishException("Failed to read snapshot metadata", e);
+    }
+    try {
+      return BatfishObjectMapper.mapper()
+          .readValue(metadata, SnapshotMetadata.class)
+          .getParentSnapshotId();
+    } catch (IOException e) {
+      throw new BatfishException("Failed to parse snapshot metadata", e);
+    }
+  }
+
   private TestrigSettings getTestrigSettings(NetworkSnapshot snapshot) {
     if (_baseTestrigSettings.getName().equals(snapshot.getSnapshot())) {
       return _baseTestrigSettings;
@@ -815,15 +967,17 @@ public class Batfish extends PluginConsumer implements IBatfish {
    */
   private void saveDataPlane(NetworkSnapshot snapshot, ComputeDataPlaneResult result) {
     _cachedDataPlanes.put(snapshot, result._dataPlane);
+    // Reachability factories are compiled from the data plane
+    invalidateBddReachabilityAnalysisFactories(snapshot);
 
     _logger.resetTimer();
     newBatch("Writing data plane to disk", 0);
     try (ActiveSpan writeDataplane =
         GlobalTracer.get().buildSpan("Writing data plane").startActive()) {
       assert writeDataplane != null; // avoid unused warning
-      serializeObject(result._dataPlane, getTestrigSettings(snapshot).getDataPlanePath());
-      serializeObject(result._answerElement, getTestrigSettings(snapshot).getDataPlaneAnswerPath());
       TopologyContainer topologies = result._topologies;
+      _storage.storeDataPlane(result._dataPlane, snapshot);
+      serializeObject(result._answerElement, getTestrigSettings(snapshot).getDataPlaneAnswerPath());
       _storage.storeBgpTopology(topologies.getBgpTopology(), snapshot);
       _storage.storeEigrpTopology(topologies.getEigrpTopology(), snapshot);
       _storage.storeLayer2Topology(topologies.getLayer2Topology(), snapshot);
@@ -843,18 +997,30 @@ public class Batfish extends PluginConsumer implements IBatfish {
   }
 
   private Map<String, Configuration> convertConfigurations(
+      NetworkSnapshot snapshot,
       Map<String, VendorConfiguration> vendorConfigurations,
       SnapshotRuntimeData runtimeData,
       ConvertConfigurationAnswerElement answerElement) {
     _logger.info("\n*** CONVERTING VENDOR CONFIGURATIONS TO INDEPENDENT FORMAT ***\n");
     _logger.resetTimer();
     Map<String, Configuration> configurations = new TreeMap<>();
+    ConversionCache conversionCache =
+        _settings.getConversionReuse()
+            ? new StorageConversionCache(_storage, getContainerName())
+            : null;
+    String snapshotInputsKey =
+        conversionCache == null ? null : computeConversionSnapshotInputsKey(snapshot);
     List<ConvertConfigurationJob> jobs = new ArrayList<>();
     for (Entry<String, VendorConfiguration> config : vendorConfigurations.entrySet()) {
       VendorConfiguration vc = config.getValue();
       ConvertConfigurationJob job =
           new ConvertConfigurationJob(
-              _settings, runtimeData.getRuntimeData(config.getKey()), vc, config.getKey());
+              _settings,
+              runtimeData.getRuntimeData(config.getKey()),
+              vc,
+              config.getKey(),
+              conversionCache,
+              snapshotInputsKey);
       jobs.add(job);
     }
     BatfishJobExecutor.runJobsInExecutor(
@@ -869,6 +1035,25 @@ public class Batfish extends PluginConsumer implements IBatfish {
     return configurations;
   }
 
+  /**
+   * Returns a hash of the snapshot-wide inputs applied alongside conversion: the user-provided
+   * Layer1 topology and ISP configuration. It is part of the conversion cache key of every {@link
+   * ConvertConfigurationJob}.
+   */
+  @Nonnull
+  private String computeConversionSnapshotInputsKey(NetworkSnapshot snapshot) {
+    Layer1Topology layer1Topology =
+        _storage.loadLayer1Topology(snapshot.getNetwork(), snapshot.getSnapshot());
+    IspConfiguration ispConfiguration =
+        _storage.loadIspConfiguration(snapshot.getNetwork(), snapshot.getSnapshot());
+    return Hashing.murmur3_128()
+        .newHasher()
+        .putString(BatfishObjectMapper.writeStringRuntimeError(layer1Topology), UTF_8)
+        .putString(BatfishObjectMapper.writeStringRuntimeError(ispConfiguration), UTF_8)
+        .hash()
+        .toString();
+  }
+
   private boolean dataPlaneDependenciesExist(TestrigSettings testrigSettings) {
     Path dpPath = testrigSettings.getDataPlaneAnswerPath();
     return Files.exists(dpPath);
@@ -1085,11 +1270,12 @@ public class Batfish extends PluginConsumer implements IBatfish {
 
   /** Returns a map of hostname to VI {@link Configuration} */
   public Map<String, Configuration> getConfigurations(
+      NetworkSnapshot snapshot,
       Map<String, VendorConfiguration> vendorConfigurations,
       SnapshotRuntimeData runtimeData,
       ConvertConfigurationAnswerElement answerElement) {
     Map<String, Configuration> configurations =
-        convertConfigurations(vendorConfigurations, runtimeData, answerElement);
+        convertConfigurations(snapshot, vendorConfigurations, runtimeData, answerElement);
 
     identifyDeviceTypes(configurations.values());
     return configurations;
@@ -1360,6 +1546,39 @@ public class Batfish extends PluginConsumer implements IBatfish {
     }
   }
 
+  @Override
+  public void forEachConfiguration(NetworkSnapshot snapshot, Consumer<Configuration> consumer) {
+    SortedMap<String, Configuration> configurations = _cachedConfigurations.getIfPresent(snapshot);
+    if (configurations != null) {
+      configurations.values().forEach(consumer);
+      return;
+    }
+    try (ActiveSpan span = GlobalTracer.get().buildSpan("Stream configurations").startActive()) {
+      assert span != null; // avoid unused warning
+      _logger.debugf("Streaming configurations for %s, cache miss", snapshot);
+      // Post-process and hand off each configuration as soon as it is read off disk, then finish
+      // network-wide post-processing and install in the cache as loadConfigurations would.
+      SortedMap<String, Configuration> loaded = new TreeMap<>();
+      Consumer<Map<String, Configuration>> nodePostProcessor = nodePostProcessor(snapshot);
+      boolean streamed =
+          _storage.loadConfigurations(
+              snapshot.getNetwork(),
+              snapshot.getSnapshot(),
+              c -> {
+                nodePostProcessor.accept(ImmutableMap.of(c.getHostname(), c));
+                loaded.put(c.getHostname(), c);
+                consumer.accept(c);
+              });
+      if (!streamed) {
+        // Configurations must be parsed first.
+        loadConfigurations(snapshot).values().forEach(consumer);
+        return;
+      }
+      postProcessNetwork(loaded);
+      _cachedConfigurations.put(snapshot, loaded);
+    }
+  }
+
   @Nonnull
   private SortedMap<String, Configuration> actuallyParseConfigurations(NetworkSnapshot snapshot) {
     _logger.infof("Repairing configurations for testrig %s", snapshot.getSnapshot());
@@ -1402,10 +1621,21 @@ public class Batfish extends PluginConsumer implements IBatfish {
       DataPlane dp = _cachedDataPlanes.getIfPresent(snapshot);
       if (dp == null) {
         newBatch("Loading data plane from disk", 0);
-        dp = deserializeObject(getTestrigSettings(snapshot).getDataPlanePath(), DataPlane.class);
+        if (_storage.hasDataPlane(snapshot)) {
+          dp =
+              _storage.loadDataPlane(
+                  snapshot,
+                  () -> loadConfigurations(snapshot),
+                  _settings.getDataPlaneShardCacheSize());
+        } else {
+          // Data plane written as a single object by an older version of Batfish
+          dp = deserializeObject(getTestrigSettings(snapshot).getDataPlanePath(), DataPlane.class);
+        }
         _cachedDataPlanes.put(snapshot, dp);
       }
       return dp;
+    } catch (IOException e) {
+      throw new BatfishException("Failed to load data plane", e);
     }
   }
 
@@ -1749,6 +1979,9 @@ public class Batfish extends PluginConsumer implements IBatfish {
         _settings.getHaltOnParseError(),
         "Parse configurations");
     _logger.printElapsedTime();
+    if (_settings.getRecordDfaStatistics()) {
+      _logger.infof("DFA cache statistics: %s\n", DfaCacheStatistics.getAllCounts());
+    }
     return vendorConfigurations;
   }
 
@@ -2112,39 +2345,41 @@ public class Batfish extends PluginConsumer implements IBatfish {
   }
 
   /**
-   * Post-process the configuration in the current snapshot. Post-processing includes:
+   * Returns a function that post-processes a set of configurations of the given snapshot.
+   * Post-processing includes:
    *
    * <ul>
    *   <li>Applying node and interface blacklists.
    *   <li>Process interface dependencies and deactivate interfaces that cannot be up
    * </ul>
    */
-  private void updateBlacklistedAndInactiveConfigs(
-      NetworkSnapshot snapshot, Map<String, Configuration> configurations) {
-    NetworkConfigurations nc = NetworkConfigurations.of(configurations);
+  private Consumer<Map<String, Configuration>> updateBlacklistedAndInactiveConfigs(
+      NetworkSnapshot snapshot) {
     NetworkId networkId = snapshot.getNetwork();
     SnapshotId snapshotId = snapshot.getSnapshot();
-
     SortedSet<String> blacklistedNodes = _storage.loadNodeBlacklist(networkId, snapshotId);
-    if (blacklistedNodes != null) {
-      processInterfaceBlacklist(nodeToInterfaceBlacklist(blacklistedNodes, nc), nc);
-    }
     // If interface blacklist was provided, it was converted to runtime data file by WorkMgr
     SnapshotRuntimeData runtimeData = _storage.loadRuntimeData(networkId, snapshotId);
-    if (runtimeData != null) {
-      processInterfaceBlacklist(runtimeData.getBlacklistedInterfaces(), nc);
-    }
-    if (_settings.ignoreManagementInterfaces()) {
-      processManagementInterfaces(configurations);
-    }
-    postProcessInterfaceDependencies(configurations);
+    return configurations -> {
+      NetworkConfigurations nc = NetworkConfigurations.of(configurations);
+      if (blacklistedNodes != null) {
+        processInterfaceBlacklist(nodeToInterfaceBlacklist(blacklistedNodes, nc), nc);
+      }
+      if (runtimeData != null) {
+        processInterfaceBlacklist(runtimeData.getBlacklistedInterfaces(), nc);
+      }
+      if (_settings.ignoreManagementInterfaces()) {
+        processManagementInterfaces(configurations);
+      }
+      postProcessInterfaceDependencies(configurations);
 
-    // We do not process the edge blacklist here. Instead, we rely on these edges being explicitly
-    // deleted from the Topology (aka list of edges) that is used along with configurations in
-    // answering questions.
+      // We do not process the edge blacklist here. Instead, we rely on these edges being
+      // explicitly deleted from the Topology (aka list of edges) that is used along with
+      // configurations in answering questions.
 
-    // TODO: take this out once dependencies are *the* definitive way to disable interfaces
-    disableUnusableVlanInterfaces(configurations);
+      // TODO: take this out once dependencies are *the* definitive way to disable interfaces
+      disableUnusableVlanInterfaces(configurations);
+    };
   }
 
   /**
@@ -2161,12 +2396,33 @@ public class Batfish extends PluginConsumer implements IBatfish {
    */
   private void postProcessSnapshot(
       NetworkSnapshot snapshot, Map<String, Configuration> configurations) {
-    updateBlacklistedAndInactiveConfigs(snapshot, configurations);
-    postProcessAggregatedInterfaces(configurations);
-    postProcessRedundantInterfaces(configurations);
+    nodePostProcessor(snapshot).accept(configurations);
+    postProcessNetwork(configurations);
+  }
+
+  /**
+   * Returns a function performing the post-processing steps of {@link #postProcessSnapshot} that
+   * only depend on the configuration of each node, so can be applied to any subset of the
+   * configurations of the given snapshot.
+   */
+  private Consumer<Map<String, Configuration>> nodePostProcessor(NetworkSnapshot snapshot) {
+    Consumer<Map<String, Configuration>> updateBlacklistedAndInactiveConfigs =
+        updateBlacklistedAndInactiveConfigs(snapshot);
+    return configurations -> {
+      updateBlacklistedAndInactiveConfigs.accept(configurations);
+      postProcessAggregatedInterfaces(configurations);
+      postProcessRedundantInterfaces(configurations);
+      postProcessOspfCosts(configurations);
+    };
+  }
+
+  /**
+   * Performs the post-processing steps of {@link #postProcessSnapshot} that relate the
+   * configurations of different nodes.
+   */
+  private static void postProcessNetwork(Map<String, Configuration> configurations) {
     NetworkConfigurations nc = NetworkConfigurations.of(configurations);
     OspfTopologyUtils.initNeighborConfigs(nc);
-    postProcessOspfCosts(configurations);
     EigrpTopologyUtils.initNeighborConfigs(nc);
   }
 
@@ -2478,7 +2734,7 @@ public class Batfish extends PluginConsumer implements IBatfish {
               .startActive()) {
         assert convertSpan != null; // avoid unused warning
         vendorConfigs = deserializeVendorConfigurations(vendorConfigPath);
-        configurations = getConfigurations(vendorConfigs, runtimeData, answerElement);
+        configurations = getConfigurations(snapshot, vendorConfigs, runtimeData, answerElement);
       }
 
       Set<Layer1Edge> layer1Edges =
@@ -2607,9 +2863,8 @@ public class Batfish extends PluginConsumer implements IBatfish {
   }
 
   private ParseVendorConfigurationResult getOrParse(
-      ParseVendorConfigurationJob job, @Nullable SpanContext span, GrammarSettings settings) {
+      ParseVendorConfigurationJob job, @Nullable SpanContext span) {
     String filename = job.getFilename();
-    String filetext = job.getFileText();
     try (ActiveSpan parseNetworkConfigsSpan =
         GlobalTracer.get()
             .buildSpan("Parse " + job.getFilename())
@@ -2625,23 +2880,7 @@ public class Batfish extends PluginConsumer implements IBatfish {
         return job.fromResult(result, elapsed);
       }
 
-      String id =
-          Hashing.murmur3_128()
-              .newHasher()
-              .putString("Cached Parse Result", UTF_8)
-              .putString(filename, UTF_8)
-              .putString(filetext, UTF_8)
-              .putBoolean(settings.getDisableUnrecognized())
-              .putInt(settings.getMaxParserContextLines())
-              .putInt(settings.getMaxParserContextTokens())
-              .putInt(settings.getMaxParseTreePrintLength())
-              .putBoolean(settings.getPrintParseTreeLineNums())
-              .putBoolean(settings.getPrintParseTree())
-              .putBoolean(settings.getThrowOnLexerError())
-              .putBoolean(settings.getThrowOnParserError())
-              .putBoolean(settings.getUseAristaBgp())
-              .hash()
-              .toString();
+      String id = job.getParseResultKey();
       long startTime = System.currentTimeMillis();
       boolean cached = false;
       ParseResult result;
@@ -2722,7 +2961,7 @@ public class Batfish extends PluginConsumer implements IBatfish {
               .map(
                   j -> {
                     ParseVendorConfigurationResult result =
-                        getOrParse(j, parseNetworkConfigsSpan.context(), _settings);
+                        getOrParse(j, parseNetworkConfigsSpan.context());
                     batch.incrementAndGet();
                     return result;
                   })
@@ -2932,7 +3171,7 @@ public class Batfish extends PluginConsumer implements IBatfish {
 
   @Override
   public BidirectionalReachabilityResult bidirectionalReachability(
-      NetworkSnapshot snapshot, BDDPacket bddPacket, ReachabilityParameters parameters) {
+      NetworkSnapshot snapshot, ReachabilityParameters parameters) {
     ResolvedReachabilityParameters params;
     try {
       params = resolveReachabilityParameters(this, parameters, snapshot);
@@ -2940,12 +3179,11 @@ public class Batfish extends PluginConsumer implements IBatfish {
       throw new BatfishException("Error resolving reachability parameters", e);
     }
 
-    DataPlane dataPlane = loadDataPlane(snapshot);
+    BDDReachabilityAnalysisFactories factories = getBddReachabilityAnalysisFactories(snapshot);
     return new BidirectionalReachabilityAnalysis(
-            bddPacket,
+            factories.getBddPacket(),
             loadConfigurations(snapshot),
-            dataPlane.getForwardingAnalysis(),
-            new IpsRoutedOutInterfacesFactory(dataPlane.getFibs()),
+            getBddReachabilityAnalysisFactory(snapshot, factories, false, true),
             params.getSourceIpAssignment(),
             params.getHeaderSpace(),
             params.getForbiddenTransitNodes(),
@@ -2976,19 +3214,23 @@ public class Batfish extends PluginConsumer implements IBatfish {
           params.getSrcNatted() == SrcNattedConstraint.UNCONSTRAINED,
           "Requiring or forbidding Source NAT is currently unsupported");
 
-      BDDPacket pkt = new BDDPacket();
+      BDDReachabilityAnalysisFactories factories = getBddReachabilityAnalysisFactories(snapshot);
+      BDDPacket pkt = factories.getBddPacket();
       boolean ignoreFilters = params.getIgnoreFilters();
-      BDDReachabilityAnalysisFactory bddReachabilityAnalysisFactory =
-          getBddReachabilityAnalysisFactory(snapshot, pkt, ignoreFilters);
-
       Map<IngressLocation, BDD> reachableBDDs =
-          bddReachabilityAnalysisFactory.getAllBDDs(
+          computeIngressLocationBdds(
+              snapshot,
+              factories,
+              ignoreFilters,
               params.getSourceIpAssignment(),
-              params.getHeaderSpace(),
-              params.getForbiddenTransitNodes(),
-              params.getRequiredTransitNodes(),
-              params.getFinalNodes(),
-              params.getActions());
+              (factory, srcIpSpaceAssignment) ->
+                  factory.getAllBDDs(
+                      srcIpSpaceAssignment,
+                      params.getHeaderSpace(),
+                      params.getForbiddenTransitNodes(),
+                      params.getRequiredTransitNodes(),
+                      params.getFinalNodes(),
+                      params.getActions()));
 
       Set<Flow> flows =
           reachableBDDs.entrySet().stream()
@@ -3025,15 +3267,18 @@ public class Batfish extends PluginConsumer implements IBatfish {
   public Set<Flow> bddLoopDetection(NetworkSnapshot snapshot) {
     try (ActiveSpan span = GlobalTracer.get().buildSpan("bddLoopDetection").startActive()) {
       assert span != null; // avoid unused warning
-      BDDPacket pkt = new BDDPacket();
+      BDDReachabilityAnalysisFactories factories = getBddReachabilityAnalysisFactories(snapshot);
+      BDDPacket pkt = factories.getBddPacket();
       // TODO add ignoreFilters parameter
       boolean ignoreFilters = false;
-      BDDReachabilityAnalysisFactory bddReachabilityAnalysisFactory =
-          getBddReachabilityAnalysisFactory(snapshot, pkt, ignoreFilters);
-      BDDLoopDetectionAnalysis analysis =
-          bddReachabilityAnalysisFactory.bddLoopDetectionAnalysis(
-              getAllSourcesInferFromLocationIpSpaceAssignment(snapshot));
-      Map<IngressLocation, BDD> loopBDDs = analysis.detectLoops();
+      Map<IngressLocation, BDD> loopBDDs =
+          computeIngressLocationBdds(
+              snapshot,
+              factories,
+              ignoreFilters,
+              getAllSourcesInferFromLocationIpSpaceAssignment(snapshot),
+              (factory, srcIpSpaceAssignment) ->
+                  factory.bddLoopDetectionAnalysis(srcIpSpaceAssignment).detectLoops());
 
       try (ActiveSpan span1 =
           GlobalTracer.get().buildSpan("bddLoopDetection.computeResultFlows").startActive()) {
@@ -3070,11 +3315,12 @@ public class Batfish extends PluginConsumer implements IBatfish {
       NetworkSnapshot snapshot, MultipathConsistencyParameters parameters) {
     try (ActiveSpan span = GlobalTracer.get().buildSpan("bddMultipathConsistency").startActive()) {
       assert span != null; // avoid unused warning
-      BDDPacket pkt = new BDDPacket();
+      BDDReachabilityAnalysisFactories factories = getBddReachabilityAnalysisFactories(snapshot);
+      BDDPacket pkt = factories.getBddPacket();
       // TODO add ignoreFilters parameter
       boolean ignoreFilters = false;
       BDDReachabilityAnalysisFactory bddReachabilityAnalysisFactory =
-          getBddReachabilityAnalysisFactory(snapshot, pkt, ignoreFilters);
+          getBddReachabilityAnalysisFactory(snapshot, factories, ignoreFilters);
       IpSpaceAssignment srcIpSpaceAssignment = parameters.getSrcIpSpaceAssignment();
       Set<String> finalNodes = parameters.getFinalNodes();
       Set<FlowDisposition> failureDispositions =
@@ -3126,26 +3372,130 @@ public class Batfish extends PluginConsumer implements IBatfish {
     return InferFromLocationIpSpaceSpecifier.INSTANCE.resolve(locations, specifierContext);
   }
 
+  /**
+   * Run {@code analysis} on the sources in {@code srcIpSpaceAssignment}, partitioned by node across
+   * {@link Settings#getBddReachabilityThreads()} threads. Each partition is analyzed with its own
+   * {@link BDDPacket}, and the resulting BDDs are transferred into the packet of {@code factories}.
+   * When running on a single thread, the cached factory of the snapshot is used instead.
+   */
   @Nonnull
-  private BDDReachabilityAnalysisFactory getBddReachabilityAnalysisFactory(
-      NetworkSnapshot snapshot, BDDPacket pkt, boolean ignoreFilters) {
-    try (ActiveSpan span =
-        GlobalTracer.get().buildSpan("getBddReachabilityAnalysisFactory").startActive()) {
-      assert span != null; // avoid unused warning
-      DataPlane dataPlane = loadDataPlane(snapshot);
-      return new BDDReachabilityAnalysisFactory(
-          pkt,
-          loadConfigurations(snapshot),
-          dataPlane.getForwardingAnalysis(),
-          new IpsRoutedOutInterfacesFactory(dataPlane.getFibs()),
-          ignoreFilters,
-          false);
+  private Map<IngressLocation, BDD> computeIngressLocationBdds(
+      NetworkSnapshot snapshot,
+      BDDReachabilityAnalysisFactories factories,
+      boolean ignoreFilters,
+      IpSpaceAssignment srcIpSpaceAssignment,
+      BiFunction<BDDReachabilityAnalysisFactory, IpSpaceAssignment, Map<IngressLocation, BDD>>
+          analysis) {
+    int numThreads = _settings.getBddReachabilityThreads();
+    if (numThreads == 1) {
+      return analysis.apply(
+          getBddReachabilityAnalysisFactory(snapshot, factories, ignoreFilters),
+          srcIpSpaceAssignment);
+    }
+    // Load everything shared by the partitions up front, so workers only read it.
+    DataPlane dataPlane = loadDataPlane(snapshot);
+    Map<String, Configuration> configurations = loadConfigurations(snapshot);
+    ForwardingAnalysis forwardingAnalysis = dataPlane.getForwardingAnalysis();
+    Map<String, Map<String, Fib>> fibs = dataPlane.getFibs();
+    return PartitionedBDDReachability.computeIngressLocationBdds(
+        factories.getBddPacket(),
+        srcIpSpaceAssignment,
+        numThreads,
+        (partitionPkt, partition) ->
+            analysis.apply(
+                new BDDReachabilityAnalysisFactory(
+                    partitionPkt,
+                    configurations,
+                    forwardingAnalysis,
+                    new IpsRoutedOutInterfacesFactory(fibs),
+                    ignoreFilters,
+                    false),
+                partition));
+  }
+
+  /**
+   * Drop the cached {@link BDDReachabilityAnalysisFactories} of {@code snapshot}, and any cached
+   * factories of other snapshots that hold factories built for {@code snapshot}.
+   */
+  private void invalidateBddReachabilityAnalysisFactories(NetworkSnapshot snapshot) {
+    _cachedBddReachabilityAnalysisFactories.invalidate(snapshot);
+    _cachedBddReachabilityAnalysisFactories
+        .asMap()
+        .values()
+        .removeIf(factories -> factories.hasFactoryFor(snapshot));
+  }
+
+  /**
+   * Get the cached {@link BDDReachabilityAnalysisFactories} of {@code snapshot}. BDDs built while
+   * answering a question are never freed, so once the node table of the cached {@link BDDPacket}
+   * has grown past {@link Settings#getBddReachabilityMaxNodeTableSize()} it is discarded and the
+   * factories are rebuilt with a fresh one.
+   */
+  @Nonnull
+  private BDDReachabilityAnalysisFactories getBddReachabilityAnalysisFactories(
+      NetworkSnapshot snapshot) {
+    BDDReachabilityAnalysisFactories cached =
+        _cachedBddReachabilityAnalysisFactories.getIfPresent(snapshot);
+    if (cached != null
+        && cached.getNodeTableSize() > _settings.getBddReachabilityMaxNodeTableSize()) {
+      _cachedBddReachabilityAnalysisFactories.asMap().remove(snapshot, cached);
+    }
+    try {
+      return _cachedBddReachabilityAnalysisFactories.get(
+          snapshot, BDDReachabilityAnalysisFactories::new);
+    } catch (ExecutionException e) {
+      throw new BatfishException("Error creating BDD reachability analysis factories", e);
     }
   }
 
+  /**
+   * Get the {@link BDDReachabilityAnalysisFactory} of {@code snapshot} from {@code factories},
+   * building it with the shared {@link BDDPacket} if needed.
+   */
+  @Nonnull
+  private BDDReachabilityAnalysisFactory getBddReachabilityAnalysisFactory(
+      NetworkSnapshot snapshot, BDDReachabilityAnalysisFactories factories, boolean ignoreFilters) {
+    return getBddReachabilityAnalysisFactory(snapshot, factories, ignoreFilters, false);
+  }
+
+  /**
+   * Get the {@link BDDReachabilityAnalysisFactory} of {@code snapshot} with the given {@code
+   * ignoreFilters} and {@code initializeSessions} from {@code factories}, building it with their
+   * shared {@link BDDPacket} if needed. {@code snapshot} may differ from the snapshot {@code
+   * factories} are cached for, e.g. the reference snapshot of a differential question.
+   */
+  @Nonnull
+  private BDDReachabilityAnalysisFactory getBddReachabilityAnalysisFactory(
+      NetworkSnapshot snapshot,
+      BDDReachabilityAnalysisFactories factories,
+      boolean ignoreFilters,
+      boolean initializeSessions) {
+    return factories.getFactory(
+        snapshot,
+        ignoreFilters,
+        initializeSessions,
+        pkt -> {
+          try (ActiveSpan span =
+              GlobalTracer.get().buildSpan("getBddReachabilityAnalysisFactory").startActive()) {
+            assert span != null; // avoid unused warning
+            DataPlane dataPlane = loadDataPlane(snapshot);
+            return new BDDReachabilityAnalysisFactory(
+                pkt,
+                loadConfigurations(snapshot),
+                dataPlane.getForwardingAnalysis(),
+                new IpsRoutedOutInterfacesFactory(dataPlane.getFibs()),
+                ignoreFilters,
+                initializeSessions);
+          }
+        });
+  }
+
+  /**
+   * Returns a {@link BDDReachabilityAnalysis} of {@code snapshot} built from its cached factories.
+   * Its BDDs belong to {@link BDDReachabilityAnalysis#getBDDPacket()}.
+   */
   public BDDReachabilityAnalysis getBddReachabilityAnalysis(
       NetworkSnapshot snapshot,
-      BDDPacket pkt,
       IpSpaceAssignment srcIpSpaceAssignment,
       AclLineMatchExpr initialHeaderSpace,
       Set<String> forbiddenTransitNodes,
@@ -3155,7 +3505,8 @@ public class Batfish extends PluginConsumer implements IBatfish {
       boolean ignoreFilters,
       boolean useInterfaceRoots) {
     BDDReachabilityAnalysisFactory factory =
-        getBddReachabilityAnalysisFactory(snapshot, pkt, ignoreFilters);
+        getBddReachabilityAnalysisFactory(
+            snapshot, getBddReachabilityAnalysisFactories(snapshot), ignoreFilters);
     return factory.bddReachabilityAnalysis(
         srcIpSpaceAssignment,
         initialHeaderSpace,
@@ -3180,7 +3531,8 @@ public class Batfish extends PluginConsumer implements IBatfish {
       assert span != null; // avoid unused warning
       checkArgument(
           !parameters.getFlowDispositions().isEmpty(), "Must specify at least one FlowDisposition");
-      BDDPacket pkt = new BDDPacket();
+      BDDReachabilityAnalysisFactories factories = getBddReachabilityAnalysisFactories(snapshot);
+      BDDPacket pkt = factories.getBddPacket();
 
       AclLineMatchExpr headerSpace =
           parameters.getInvertSearch()
@@ -3194,7 +3546,7 @@ public class Batfish extends PluginConsumer implements IBatfish {
        * IpSpaceAssignment.
        */
       Map<IngressLocation, BDD> baseAcceptBDDs =
-          getBddReachabilityAnalysisFactory(snapshot, pkt, parameters.getIgnoreFilters())
+          getBddReachabilityAnalysisFactory(snapshot, factories, parameters.getIgnoreFilters())
               .getAllBDDs(
                   parameters.getIpSpaceAssignment(),
                   headerSpace,
@@ -3204,7 +3556,7 @@ public class Batfish extends PluginConsumer implements IBatfish {
                   parameters.getFlowDispositions());
 
       Map<IngressLocation, BDD> deltaAcceptBDDs =
-          getBddReachabilityAnalysisFactory(reference, pkt, parameters.getIgnoreFilters())
+          getBddReachabilityAnalysisFactory(reference, factories, parameters.getIgnoreFilters())
               .getAllBDDs(
                   parameters.getIpSpaceAssignment(),
                   headerSpace,
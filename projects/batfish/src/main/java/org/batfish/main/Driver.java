@@ -33,6 +33,7 @@ import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.UriBuilder;
 import org.apache.commons.collections4.map.LRUMap;
+import org.batfish.bddreachability.BDDReachabilityAnalysisFactories;
 import org.batfish.common.BatfishException;
 import org.batfish.common.BatfishLogger;
 import org.batfish.common.BfConsts;
@@ -51,6 +52,7 @@ import org.batfish.datamodel.DataPlane;
 import org.batfish.datamodel.answers.Answer;
 import org.batfish.datamodel.answers.AnswerStatus;
 import org.batfish.datamodel.collections.BgpAdvertisementsByVrf;
+import org.batfish.job.ParserWarmUp;
 import org.batfish.vendor.VendorConfiguration;
 import org.batfish.version.BatfishVersion;
 import org.codehaus.jettison.json.JSONArray;
@@ -77,6 +79,12 @@ public class Driver {
 
   private static ConcurrentMap<String, Task> _taskLog;
 
+  /** The address under which this worker registered with the coordinator, if it did */
+  private static volatile @Nullable String _workerAddress = null;
+
+  private static final Cache<NetworkSnapshot, BDDReachabilityAnalysisFactories>
+      CACHED_BDD_REACHABILITY_ANALYSIS_FACTORIES = buildBddReachabilityAnalysisFactoriesCache();
+
   private static final Cache<NetworkSnapshot, DataPlane> CACHED_DATA_PLANES = buildDataPlaneCache();
 
   private static final Map<NetworkSnapshot, SortedMap<String, BgpAdvertisementsByVrf>>
@@ -96,6 +104,8 @@ public class Driver {
 
   static Logger httpServerLogger = Logger.getLogger(HttpServer.class.getName());
 
+  private static final int MAX_CACHED_BDD_REACHABILITY_ANALYSIS_FACTORIES = 2;
+
   private static final int MAX_CACHED_DATA_PLANES = 2;
 
   private static final int MAX_CACHED_ENVIRONMENT_BGP_TABLES = 4;
@@ -107,6 +117,14 @@ public class Driver {
   static Logger networkListenerLogger =
       Logger.getLogger("org.glassfish.grizzly.http.server.NetworkListener");
 
+  private static Cache<NetworkSnapshot, BDDReachabilityAnalysisFactories>
+      buildBddReachabilityAnalysisFactoriesCache() {
+    return CacheBuilder.newBuilder()
+        .softValues()
+        .maximumSize(MAX_CACHED_BDD_REACHABILITY_ANALYSIS_FACTORIES)
+        .build();
+  }
+
   private static Cache<NetworkSnapshot, DataPlane> buildDataPlaneCache() {
     return CacheBuilder.newBuilder().softValues().maximumSize(MAX_CACHED_DATA_PLANES).build();
   }
@@ -242,6 +260,8 @@ public class Driver {
     System.setErr(_mainLogger.getPrintStream());
     System.setOut(_mainLogger.getPrintStream());
     _mainSettings.setLogger(_mainLogger);
+    _mainSettings.setBddReachabilityAnalysisFactoriesCache(
+        CACHED_BDD_REACHABILITY_ANALYSIS_FACTORIES);
     switch (_mainSettings.getRunMode()) {
       case WORKER:
         mainRunWorker();
@@ -296,6 +316,9 @@ public class Driver {
                 Driver.class);
       }
       int selectedListenPort = server.getListeners().iterator().next().getPort();
+      if (_mainSettings.getWarmUpParsers()) {
+        ParserWarmUp.warmUp(_mainSettings, _mainLogger);
+      }
       if (_mainSettings.getCoordinatorRegister()) {
         // this function does not return until registration succeeds
         registerWithCoordinatorPersistent(selectedListenPort);
@@ -343,28 +366,55 @@ public class Driver {
     }
   }
 
+  private static String getPoolUpdateUrl() {
+    String protocol = _mainSettings.getSslDisable() ? "http" : "https";
+    return String.format(
+        "%s://%s:%s%s/%s",
+        protocol,
+        _mainSettings.getCoordinatorHost(),
+        +_mainSettings.getCoordinatorPoolPort(),
+        CoordConsts.SVC_CFG_POOL_MGR,
+        CoordConsts.SVC_RSC_POOL_UPDATE);
+  }
+
+  /**
+   * Tells the coordinator that this worker finished its task, so that it can collect the result and
+   * assign new work without waiting for its next poll. Failures are only logged, since the
+   * coordinator still polls.
+   */
+  private static void notifyCoordinatorIdle() {
+    String workerAddress = _workerAddress;
+    if (workerAddress == null) {
+      return;
+    }
+    Map<String, String> params = new HashMap<>();
+    params.put(CoordConsts.SVC_KEY_IDLE_WORKER, workerAddress);
+    try {
+      talkToCoordinator(getPoolUpdateUrl(), params, _mainLogger);
+    } catch (BatfishException e) {
+      _mainLogger.errorf("Failed to notify coordinator of idleness: %s\n", e.getMessage());
+    }
+  }
+
   private static boolean registerWithCoordinator(String poolRegUrl, int listenPort) {
+    String workerAddress = _mainSettings.getServiceHost() + ":" + listenPort;
     Map<String, String> params = new HashMap<>();
-    params.put(CoordConsts.SVC_KEY_ADD_WORKER, _mainSettings.getServiceHost() + ":" + listenPort);
+    params.put(CoordConsts.SVC_KEY_ADD_WORKER, workerAddress);
     params.put(CoordConsts.SVC_KEY_VERSION, BatfishVersion.getVersionStatic());
 
     Object response = talkToCoordinator(poolRegUrl, params, _mainLogger);
-    return response != null;
+    if (response == null) {
+      return false;
+    }
+    _workerAddress = workerAddress;
+    return true;
   }
 
   private static void registerWithCoordinatorPersistent(int listenPort)
       throws InterruptedException {
     boolean registrationSuccess;
 
-    String protocol = _mainSettings.getSslDisable() ? "http" : "https";
-    String poolRegUrl =
-        String.format(
-            "%s://%s:%s%s/%s",
-            protocol,
-            _mainSettings.getCoordinatorHost(),
-            +_mainSettings.getCoordinatorPoolPort(),
-            CoordConsts.SVC_CFG_POOL_MGR,
-            CoordConsts.SVC_RSC_POOL_UPDATE);
+    String poolRegUrl = getPoolUpdateUrl();
 
     do {
       registrationSuccess = registerWithCoordinator(poolRegUrl, listenPort);
@@ -544,6 +594,7 @@ public class Driver {
                   task.setTerminated(new Date());
                   jobLogger.close();
                   makeIdle();
+                  notifyCoordinatorIdle();
                 }
               });
 
@@ -170,4 +170,25 @@ public final class BDDLoopDetectionAnalysisTest {
 
     assertEquals(expected, actual);
   }
+
+  @Test
+  public void testLoopSplicedToSelfLoop() {
+    StateExpr root = new OriginateVrf("node1", "vrf1");
+    StateExpr state1 = new OriginateVrf("node2", "vrf2");
+    StateExpr state2 = new OriginateVrf("node3", "vrf3");
+    BDD dst = DST.toBDD(DST_PREFIX_1);
+
+    // the optimizer splices the cycle between state1 and state2 into a self-loop
+    Map<IngressLocation, BDD> actual =
+        new BDDLoopDetectionAnalysis(
+                PKT,
+                Stream.of(
+                    new Edge(root, state1, constraint(dst)),
+                    new Edge(state1, state2, constraint(dst)),
+                    new Edge(state2, state1, constraint(dst))),
+                ImmutableSet.of(root))
+            .detectLoops();
+
+    assertEquals(ImmutableMap.of(vrf("node1", "vrf1"), dst), actual);
+  }
 }
@@ -0,0 +1,69 @@
+package org.batfish.bddreachability;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.function.Function;
+import org.batfish.common.NetworkSnapshot;
+import org.batfish.common.bdd.BDDPacket;
+import org.batfish.datamodel.Configuration;
+import org.batfish.datamodel.DataPlane;
+import org.batfish.identifiers.SnapshotId;
+import org.batfish.main.Batfish;
+import org.batfish.main.BatfishTestUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/** Tests of {@link BDDReachabilityAnalysisFactories}. */
+public final class BDDReachabilityAnalysisFactoriesTest {
+
+  @Rule public TemporaryFolder _temp = new TemporaryFolder();
+
+  @Test
+  public void testFactoriesBuiltOncePerIgnoreFilters() throws IOException {
+    SortedMap<String, Configuration> configs = new TestNetwork()._configs;
+    Batfish batfish = BatfishTestUtils.getBatfish(configs, _temp);
+    batfish.computeDataPlane(batfish.getSnapshot());
+    DataPlane dataPlane = batfish.loadDataPlane(batfish.getSnapshot());
+    List<BDDPacket> builtWith = new ArrayList<>();
+    Function<Boolean, Function<BDDPacket, BDDReachabilityAnalysisFactory>> builder =
+        ignoreFilters ->
+            pkt -> {
+              builtWith.add(pkt);
+              return new BDDReachabilityAnalysisFactory(
+                  pkt,
+                  configs,
+                  dataPlane.getForwardingAnalysis(),
+                  new IpsRoutedOutInterfacesFactory(dataPlane.getFibs()),
+                  ignoreFilters,
+                  false);
+            };
+
+    NetworkSnapshot snapshot = batfish.getSnapshot();
+    BDDReachabilityAnalysisFactories factories = new BDDReachabilityAnalysisFactories();
+    BDDReachabilityAnalysisFactory withFilters =
+        factories.getFactory(snapshot, false, false, builder.apply(false));
+    BDDReachabilityAnalysisFactory withoutFilters =
+        factories.getFactory(snapshot, true, false, builder.apply(true));
+
+    assertThat(withoutFilters, not(sameInstance(withFilters)));
+    assertThat(
+        factories.getFactory(snapshot, false, false, builder.apply(false)),
+        sameInstance(withFilters));
+    assertThat(
+        builtWith,
+        contains(sameInstance(factories.getBddPacket()), sameInstance(factories.getBddPacket())));
+    assertTrue(factories.hasFactoryFor(snapshot));
+    NetworkSnapshot other = new NetworkSnapshot(snapshot.getNetwork(), new SnapshotId("other"));
+    assertFalse(factories.hasFactoryFor(other));
+  }
+}
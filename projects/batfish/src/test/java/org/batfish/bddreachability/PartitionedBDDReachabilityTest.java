@@ -0,0 +1,167 @@
+package org.batfish.bddreachability;
+
+import static org.batfish.bddreachability.PartitionedBDDReachability.exportBdd;
+import static org.batfish.bddreachability.PartitionedBDDReachability.importBdd;
+import static org.batfish.bddreachability.PartitionedBDDReachability.partition;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+
+import com.google.common.collect.ImmutableSet;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
+import net.sf.javabdd.BDD;
+import org.batfish.common.bdd.BDDPacket;
+import org.batfish.datamodel.Configuration;
+import org.batfish.datamodel.DataPlane;
+import org.batfish.datamodel.FlowDisposition;
+import org.batfish.datamodel.Ip;
+import org.batfish.datamodel.UniverseIpSpace;
+import org.batfish.datamodel.acl.TrueExpr;
+import org.batfish.main.Batfish;
+import org.batfish.main.BatfishTestUtils;
+import org.batfish.specifier.InterfaceLocation;
+import org.batfish.specifier.IpSpaceAssignment;
+import org.batfish.specifier.Location;
+import org.batfish.symbolic.IngressLocation;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/** Tests of {@link PartitionedBDDReachability}. */
+public final class PartitionedBDDReachabilityTest {
+
+  @Rule public TemporaryFolder _temp = new TemporaryFolder();
+
+  private static Set<Location> locations(IpSpaceAssignment assignment) {
+    return assignment.getEntries().stream()
+        .flatMap(entry -> entry.getLocations().stream())
+        .collect(ImmutableSet.toImmutableSet());
+  }
+
+  @Test
+  public void testPartition() {
+    IpSpaceAssignment assignment =
+        IpSpaceAssignment.builder()
+            .assign(
+                ImmutableSet.of(
+                    new InterfaceLocation("a", "i1"),
+                    new InterfaceLocation("a", "i2"),
+                    new InterfaceLocation("b", "i1")),
+                UniverseIpSpace.INSTANCE)
+            .assign(new InterfaceLocation("c", "i1"), Ip.parse("1.1.1.1").toIpSpace())
+            .build();
+
+    assertThat(partition(assignment, 1), contains(assignment));
+    assertThat(partition(IpSpaceAssignment.empty(), 4), hasSize(0));
+
+    // a is largest so it gets its own partition; b and c share the other.
+    assertThat(
+        partition(assignment, 2).stream()
+            .map(PartitionedBDDReachabilityTest::locations)
+            .collect(Collectors.toList()),
+        contains(
+            ImmutableSet.of(new InterfaceLocation("a", "i1"), new InterfaceLocation("a", "i2")),
+            ImmutableSet.of(new InterfaceLocation("b", "i1"), new InterfaceLocation("c", "i1"))));
+
+    // at most one partition per node
+    assertThat(partition(assignment, 8), hasSize(3));
+  }
+
+  @Test
+  public void testExportImport() {
+    BDDPacket source = new BDDPacket();
+    BDDPacket target = new BDDPacket();
+    BDD sourceBdd =
+        source.getDstIp().value(Ip.parse("1.2.3.4").asLong()).or(source.getSrcPort().value(22));
+    BDD expected =
+        target.getDstIp().value(Ip.parse("1.2.3.4").asLong()).or(target.getSrcPort().value(22));
+
+    assertThat(
+        importBdd(target.getFactory(), exportBdd(source.getFactory(), sourceBdd)),
+        equalTo(expected));
+    assertThat(
+        importBdd(target.getFactory(), exportBdd(source.getFactory(), source.getFactory().one())),
+        equalTo(target.getFactory().one()));
+    assertThat(
+        importBdd(target.getFactory(), exportBdd(source.getFactory(), source.getFactory().zero())),
+        equalTo(target.getFactory().zero()));
+  }
+
+  @Test
+  public void testMatchesSerialReachability() throws IOException {
+    assertMatchesSerial(
+        new TestNetwork()._configs,
+        (factory, assignment) ->
+            factory.getAllBDDs(
+                assignment,
+                TrueExpr.INSTANCE,
+                ImmutableSet.of(),
+                ImmutableSet.of(),
+                factory.getBDDSourceManagers().keySet(),
+                ImmutableSet.of(
+                    FlowDisposition.ACCEPTED,
+                    FlowDisposition.DELIVERED_TO_SUBNET,
+                    FlowDisposition.EXITS_NETWORK)));
+  }
+
+  @Test
+  public void testMatchesSerialLoopDetection() throws IOException {
+    assertMatchesSerial(
+        MPIWithLoopNetwork.testMPIWithLoopNetwork(),
+        (factory, assignment) -> factory.bddLoopDetectionAnalysis(assignment).detectLoops());
+  }
+
+  /**
+   * Asserts that {@code analysis} computes the same BDDs whether it is run on all sources at once,
+   * or on sources partitioned across threads.
+   */
+  private void assertMatchesSerial(
+      SortedMap<String, Configuration> configs,
+      BiFunction<BDDReachabilityAnalysisFactory, IpSpaceAssignment, Map<IngressLocation, BDD>>
+          analysis)
+      throws IOException {
+    Batfish batfish = BatfishTestUtils.getBatfish(configs, _temp);
+    batfish.computeDataPlane(batfish.getSnapshot());
+    DataPlane dataPlane = batfish.loadDataPlane(batfish.getSnapshot());
+    IpSpaceAssignment.Builder builder = IpSpaceAssignment.builder();
+    configs
+        .values()
+        .forEach(
+            c ->
+                c.getAllInterfaces()
+                    .keySet()
+                    .forEach(
+                        iface ->
+                            builder.assign(
+                                new InterfaceLocation(c.getHostname(), iface),
+                                UniverseIpSpace.INSTANCE)));
+    IpSpaceAssignment assignment = builder.build();
+    BiFunction<BDDPacket, IpSpaceAssignment, Map<IngressLocation, BDD>> partitionAnalysis =
+        (pkt, partition) ->
+            analysis.apply(
+                new BDDReachabilityAnalysisFactory(
+                    pkt,
+                    configs,
+                    dataPlane.getForwardingAnalysis(),
+                    new IpsRoutedOutInterfacesFactory(dataPlane.getFibs()),
+                    false,
+                    false),
+                partition);
+
+    BDDPacket pkt = new BDDPacket();
+    Map<IngressLocation, BDD> expected = partitionAnalysis.apply(pkt, assignment);
+    assertThat(expected.values().stream().allMatch(BDD::isZero), equalTo(false));
+    assertThat(partition(assignment, configs.size()), not(hasSize(1)));
+    Map<IngressLocation, BDD> actual =
+        PartitionedBDDReachability.computeIngressLocationBdds(
+            pkt, assignment, configs.size(), partitionAnalysis);
+    assertThat(actual, equalTo(expected));
+  }
+}
@@ -0,0 +1,147 @@
+package org.batfish.bddreachability;
+
+import static org.batfish.bddreachability.BDDReachabilityUtils.computeForwardEdgeTable;
+import static org.batfish.bddreachability.BDDReachabilityUtils.worklistFixpoint;
+import static org.batfish.bddreachability.SccFixpoint.topologicallySortedSccs;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableTable;
+import com.google.common.collect.Table;
+import com.google.common.collect.Tables;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.function.BiFunction;
+import net.sf.javabdd.BDD;
+import org.batfish.bddreachability.transition.Transition;
+import org.batfish.common.bdd.BDDPacket;
+import org.batfish.datamodel.Configuration;
+import org.batfish.datamodel.DataPlane;
+import org.batfish.datamodel.UniverseIpSpace;
+import org.batfish.main.Batfish;
+import org.batfish.main.BatfishTestUtils;
+import org.batfish.specifier.InterfaceLocation;
+import org.batfish.specifier.IpSpaceAssignment;
+import org.batfish.symbolic.state.NodeAccept;
+import org.batfish.symbolic.state.Query;
+import org.batfish.symbolic.state.StateExpr;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/** Tests of {@link SccFixpoint}. */
+public final class SccFixpointTest {
+
+  @Rule public TemporaryFolder _temp = new TemporaryFolder();
+
+  private static final BDDPacket PKT = new BDDPacket();
+
+  private static final StateExpr A = new NodeAccept("A");
+  private static final StateExpr B = new NodeAccept("B");
+  private static final StateExpr C = new NodeAccept("C");
+  private static final StateExpr D = new NodeAccept("D");
+  private static final StateExpr E = new NodeAccept("E");
+
+  /** A -> B <-> C -> D, with a self-loop on D. E is unreachable from A. */
+  private static Table<StateExpr, StateExpr, Transition> cyclicEdges() {
+    return computeForwardEdgeTable(
+        ImmutableList.of(
+            new Edge(A, B, PKT.getDstIp().value(1).not()),
+            new Edge(B, C, PKT.getSrcPort().value(2).not()),
+            new Edge(C, B, PKT.getDstPort().value(3).not()),
+            new Edge(C, D, PKT.getSrcIp().value(4).not()),
+            new Edge(D, D, PKT.getDstIp().value(5).not()),
+            new Edge(E, A, PKT.getDstIp().value(6).not())));
+  }
+
+  @Test
+  public void testTopologicallySortedSccs() {
+    assertThat(
+        topologicallySortedSccs(ImmutableList.of(A), cyclicEdges()),
+        contains(ImmutableList.of(A), ImmutableList.of(B, C), ImmutableList.of(D)));
+    assertThat(
+        topologicallySortedSccs(ImmutableList.of(D, E), cyclicEdges()),
+        contains(
+            ImmutableList.of(E), ImmutableList.of(A), ImmutableList.of(B, C), ImmutableList.of(D)));
+  }
+
+  @Test
+  public void testMatchesWorklistFixpoint() {
+    Table<StateExpr, StateExpr, Transition> forwardEdges = cyclicEdges();
+    assertSameFixpoint(ImmutableMap.of(A, PKT.getFactory().one()), forwardEdges, false);
+    assertSameFixpoint(
+        ImmutableMap.of(A, PKT.getFactory().one(), C, PKT.getDstIp().value(7)),
+        forwardEdges,
+        false);
+    assertSameFixpoint(ImmutableMap.of(D, PKT.getFactory().one()), forwardEdges, true);
+  }
+
+  @Test
+  public void testMatchesWorklistFixpointOnTestNetwork() throws IOException {
+    Table<StateExpr, StateExpr, Transition> forwardEdges =
+        reachabilityGraph(new TestNetwork()._configs);
+    assertSameFixpoint(ImmutableMap.of(Query.INSTANCE, PKT.getFactory().one()), forwardEdges, true);
+  }
+
+  @Test
+  public void testMatchesWorklistFixpointOnLoopNetwork() throws IOException {
+    Table<StateExpr, StateExpr, Transition> forwardEdges =
+        reachabilityGraph(MPIWithLoopNetwork.testMPIWithLoopNetwork());
+    assertSameFixpoint(ImmutableMap.of(Query.INSTANCE, PKT.getFactory().one()), forwardEdges, true);
+  }
+
+  /** Returns the reachability graph of {@code configs}, with flows starting at every interface. */
+  private Table<StateExpr, StateExpr, Transition> reachabilityGraph(
+      SortedMap<String, Configuration> configs) throws IOException {
+    Batfish batfish = BatfishTestUtils.getBatfish(configs, _temp);
+    batfish.computeDataPlane(batfish.getSnapshot());
+    DataPlane dataPlane = batfish.loadDataPlane(batfish.getSnapshot());
+    IpSpaceAssignment.Builder assignment = IpSpaceAssignment.builder();
+    configs
+        .values()
+        .forEach(
+            c ->
+                c.getAllInterfaces()
+                    .keySet()
+                    .forEach(
+                        iface ->
+                            assignment.assign(
+                                new InterfaceLocation(c.getHostname(), iface),
+                                UniverseIpSpace.INSTANCE)));
+    BDDReachabilityAnalysis analysis =
+        new BDDReachabilityAnalysisFactory(
+                PKT,
+                configs,
+                dataPlane.getForwardingAnalysis(),
+                new IpsRoutedOutInterfacesFactory(dataPlane.getFibs()),
+                false,
+                false)
+            .bddReachabilityAnalysis(assignment.build());
+    ImmutableTable.Builder<StateExpr, StateExpr, Transition> edges = ImmutableTable.builder();
+    analysis
+        .getForwardEdgeMap()
+        .forEach((pre, postStates) -> postStates.forEach((post, t) -> edges.put(pre, post, t)));
+    return edges.build();
+  }
+
+  private static void assertSameFixpoint(
+      Map<StateExpr, BDD> roots,
+      Table<StateExpr, StateExpr, Transition> forwardEdges,
+      boolean backward) {
+    Table<StateExpr, StateExpr, Transition> edges =
+        backward ? Tables.transpose(forwardEdges) : forwardEdges;
+    BiFunction<Transition, BDD, BDD> traverse =
+        backward ? Transition::transitBackward : Transition::transitForward;
+
+    Map<StateExpr, BDD> expected = new HashMap<>(roots);
+    worklistFixpoint(expected, edges, traverse);
+    Map<StateExpr, BDD> actual = new HashMap<>(roots);
+    SccFixpoint.fixpoint(actual, edges, traverse);
+    assertThat(actual, equalTo(expected));
+  }
+}
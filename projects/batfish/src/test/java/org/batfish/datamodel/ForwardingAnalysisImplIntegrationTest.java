@@ -1,6 +1,7 @@
 package org.batfish.datamodel;
 
 import static org.batfish.datamodel.matchers.IpSpaceMatchers.containsIp;
+import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.not;
 import static org.junit.Assert.assertThat;
 
@@ -8,6 +9,8 @@ import com.google.common.collect.ImmutableSortedMap;
 import com.google.common.collect.ImmutableSortedSet;
 import java.io.IOException;
 import java.util.Map;
+import org.apache.commons.lang3.SerializationUtils;
+import org.batfish.bddreachability.TestNetwork;
 import org.batfish.main.Batfish;
 import org.batfish.main.BatfishTestUtils;
 import org.junit.Rule;
@@ -177,4 +180,26 @@ public class ForwardingAnalysisImplIntegrationTest {
         exitsNetwork.get(c1.getHostname()).get(vrf1.getName()).get(i1.getName()),
         not(containsIp(prefix.getStartIp())));
   }
+
+  /** The analysis is persisted next to the data plane shards, so it must survive serialization. */
+  @Test
+  public void testSerializable() throws IOException {
+    Batfish batfish = BatfishTestUtils.getBatfish(new TestNetwork()._configs, temp);
+    batfish.computeDataPlane(batfish.getSnapshot());
+    ForwardingAnalysis forwardingAnalysis =
+        batfish.loadDataPlane(batfish.getSnapshot()).getForwardingAnalysis();
+
+    ForwardingAnalysis clone = SerializationUtils.clone(forwardingAnalysis);
+    assertThat(clone.getAcceptsIps(), equalTo(forwardingAnalysis.getAcceptsIps()));
+    assertThat(clone.getArpReplies(), equalTo(forwardingAnalysis.getArpReplies()));
+    assertThat(clone.getArpTrueEdge(), equalTo(forwardingAnalysis.getArpTrueEdge()));
+    assertThat(clone.getDeliveredToSubnet(), equalTo(forwardingAnalysis.getDeliveredToSubnet()));
+    assertThat(clone.getExitsNetwork(), equalTo(forwardingAnalysis.getExitsNetwork()));
+    assertThat(clone.getInsufficientInfo(), equalTo(forwardingAnalysis.getInsufficientInfo()));
+    assertThat(
+        clone.getNeighborUnreachable(), equalTo(forwardingAnalysis.getNeighborUnreachable()));
+    assertThat(clone.getNextVrfIps(), equalTo(forwardingAnalysis.getNextVrfIps()));
+    assertThat(clone.getNullRoutedIps(), equalTo(forwardingAnalysis.getNullRoutedIps()));
+    assertThat(clone.getRoutableIps(), equalTo(forwardingAnalysis.getRoutableIps()));
+  }
 }
@@ -0,0 +1,230 @@
+package org.batfish.datamodel.routing_policy;
+
+import static org.batfish.datamodel.Route.UNSET_ROUTE_NEXT_HOP_IP;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.junit.Assert.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.function.BooleanSupplier;
+import org.batfish.datamodel.AbstractRoute;
+import org.batfish.datamodel.AbstractRouteBuilder;
+import org.batfish.datamodel.AsPath;
+import org.batfish.datamodel.BgpSessionProperties;
+import org.batfish.datamodel.BgpSessionProperties.SessionType;
+import org.batfish.datamodel.Bgpv4Route;
+import org.batfish.datamodel.Configuration;
+import org.batfish.datamodel.Ip;
+import org.batfish.datamodel.OriginType;
+import org.batfish.datamodel.Prefix;
+import org.batfish.datamodel.RouteFilterLine;
+import org.batfish.datamodel.RouteFilterList;
+import org.batfish.datamodel.RoutingProtocol;
+import org.batfish.datamodel.StaticRoute;
+import org.batfish.datamodel.bgp.community.StandardCommunity;
+import org.batfish.datamodel.routing_policy.Environment.Direction;
+import org.batfish.main.BatfishTestUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Checks that {@link CompiledRoutingPolicy} makes the same decisions and route modifications as the
+ * {@link RoutingPolicy} interpreter, for every policy of a set of parsed test configurations.
+ */
+public final class CompiledRoutingPolicyIntegrationTest {
+
+  private static final String TESTCONFIGS_PREFIX = "org/batfish/grammar/";
+
+  @Rule public TemporaryFolder _folder = new TemporaryFolder();
+
+  private static final BgpSessionProperties SESSION_PROPERTIES =
+      BgpSessionProperties.builder()
+          .setHeadAs(1L)
+          .setTailAs(2L)
+          .setHeadIp(Ip.parse("10.0.0.1"))
+          .setTailIp(Ip.parse("10.0.0.2"))
+          .setSessionType(SessionType.EBGP_SINGLEHOP)
+          .build();
+
+  @Test
+  public void testMatchesInterpreterOnTestConfigs() throws IOException {
+    Map<String, Configuration> configs =
+        BatfishTestUtils.parseTextConfigs(
+            _folder,
+            TESTCONFIGS_PREFIX + "arista/testconfigs/arista_bgp_redistribute_ospf",
+            TESTCONFIGS_PREFIX + "cisco/testconfigs/ios-route-map",
+            TESTCONFIGS_PREFIX + "cisco_nxos/testconfigs/nxos_route_map",
+            TESTCONFIGS_PREFIX
+                + "cisco_nxos/testconfigs/nxos_route_map_multiple_chained_continue_entries",
+            TESTCONFIGS_PREFIX + "cisco_xr/testconfigs/community-set",
+            TESTCONFIGS_PREFIX + "cisco_xr/testconfigs/prefix-set",
+            TESTCONFIGS_PREFIX + "juniper/testconfigs/community",
+            TESTCONFIGS_PREFIX + "juniper/testconfigs/juniper-policy-statement-term",
+            TESTCONFIGS_PREFIX + "juniper/testconfigs/routing-policy");
+
+    int evaluations = 0;
+    for (Configuration c : configs.values()) {
+      List<AbstractRoute> routes = sampleRoutes(c);
+      for (RoutingPolicy policy : c.getRoutingPolicies().values()) {
+        CompiledRoutingPolicy compiled = CompiledRoutingPolicy.compile(policy);
+        for (AbstractRoute route : routes) {
+          for (Direction direction : Direction.values()) {
+            String description =
+                String.format(
+                    "%s policy %s, %s route %s",
+                    c.getHostname(), policy.getName(), direction, route);
+            if (route instanceof Bgpv4Route || direction == Direction.OUT) {
+              assertThat(
+                  description,
+                  bgpOutcome(
+                      route,
+                      direction,
+                      (input, output) ->
+                          compiled.processBgpRoute(input, output, SESSION_PROPERTIES, direction)),
+                  equalTo(
+                      bgpOutcome(
+                          route,
+                          direction,
+                          (input, output) ->
+                              policy.processBgpRoute(
+                                  input, output, SESSION_PROPERTIES, direction))));
+            }
+            if (!(route instanceof Bgpv4Route)) {
+              AbstractRouteBuilder<?, ?> compiledOutput = route.toBuilder();
+              AbstractRouteBuilder<?, ?> interpretedOutput = route.toBuilder();
+              assertThat(
+                  description,
+                  outcome(compiledOutput, () -> compiled.process(route, compiledOutput, direction)),
+                  equalTo(
+                      outcome(
+                          interpretedOutput,
+                          () -> policy.process(route, interpretedOutput, direction))));
+            }
+            evaluations++;
+          }
+        }
+      }
+    }
+    assertThat(evaluations, greaterThan(1000));
+  }
+
+  /** Evaluates a route through a policy with a BGP output route. */
+  private interface BgpEvaluation {
+    boolean apply(AbstractRoute input, Bgpv4Route.Builder output);
+  }
+
+  /**
+   * Returns the outcome of {@code evaluation} on {@code input} with the output route builder used
+   * for BGP import ({@code input} is a BGP route) or export (any route) in {@code direction}.
+   */
+  private static Object bgpOutcome(
+      AbstractRoute input, Direction direction, BgpEvaluation evaluation) {
+    Bgpv4Route.Builder output =
+        input instanceof Bgpv4Route
+            ? ((Bgpv4Route) input).toBuilder()
+            : Bgpv4Route.builder()
+                .setNetwork(input.getNetwork())
+                .setOriginatorIp(Ip.parse("10.0.0.1"))
+                .setOriginType(OriginType.INCOMPLETE)
+                .setProtocol(RoutingProtocol.BGP);
+    if (direction == Direction.OUT) {
+      output.setNextHopIp(UNSET_ROUTE_NEXT_HOP_IP);
+    }
+    return outcome(output, () -> evaluation.apply(input, output));
+  }
+
+  /**
+   * Returns the decision of {@code evaluation} and the route it built in {@code output}, or the
+   * type of the exception it threw.
+   */
+  private static Object outcome(AbstractRouteBuilder<?, ?> output, BooleanSupplier evaluation) {
+    try {
+      boolean accepted = evaluation.getAsBoolean();
+      return ImmutableList.of(accepted, output.build());
+    } catch (RuntimeException e) {
+      return e.getClass();
+    }
+  }
+
+  /**
+   * Returns routes for the networks referenced by the route filter lists of {@code c}, plus a few
+   * fixed ones, with several sets of BGP attributes.
+   */
+  private static List<AbstractRoute> sampleRoutes(Configuration c) {
+    SortedSet<Prefix> networks = new TreeSet<>();
+    networks.add(Prefix.ZERO);
+    networks.add(Prefix.parse("10.0.0.0/8"));
+    networks.add(Prefix.parse("192.168.1.0/24"));
+    for (RouteFilterList list : c.getRouteFilterLists().values()) {
+      for (RouteFilterLine line : list.getLines()) {
+        if (!line.getIpWildcard().isPrefix()) {
+          continue;
+        }
+        Prefix prefix = line.getIpWildcard().toPrefix();
+        networks.add(prefix);
+        for (int length :
+            ImmutableSet.of(line.getLengthRange().getStart(), line.getLengthRange().getEnd())) {
+          if (length >= 0 && length <= Prefix.MAX_PREFIX_LENGTH) {
+            networks.add(Prefix.create(prefix.getStartIp(), length));
+          }
+        }
+      }
+    }
+    ImmutableList.Builder<AbstractRoute> routes = ImmutableList.builder();
+    for (Prefix network : networks) {
+      routes.add(
+          bgpRoute(network)
+              .setAsPath(AsPath.empty())
+              .setOriginType(OriginType.IGP)
+              .setLocalPreference(100)
+              .build());
+      routes.add(
+          bgpRoute(network)
+              .setAsPath(AsPath.ofSingletonAsSets(65001L, 65002L))
+              .setCommunities(
+                  ImmutableSet.of(StandardCommunity.of(65000, 100), StandardCommunity.of(1, 1)))
+              .setOriginType(OriginType.EGP)
+              .setLocalPreference(200)
+              .setMetric(10)
+              .setTag(5L)
+              .build());
+      routes.add(
+          bgpRoute(network)
+              .setAsPath(AsPath.ofSingletonAsSets(1L, 2L, 3L, 4L))
+              .setCommunities(
+                  ImmutableSet.of(
+                      StandardCommunity.of(2, 2),
+                      StandardCommunity.of(100, 1),
+                      StandardCommunity.of(65535, 65281)))
+              .setOriginType(OriginType.INCOMPLETE)
+              .setLocalPreference(50)
+              .setMetric(100)
+              .setTag(100L)
+              .build());
+      routes.add(
+          StaticRoute.builder()
+              .setNetwork(network)
+              .setNextHopIp(Ip.parse("10.0.0.3"))
+              .setAdministrativeCost(1)
+              .setTag(100L)
+              .build());
+    }
+    return routes.build();
+  }
+
+  private static Bgpv4Route.Builder bgpRoute(Prefix network) {
+    return Bgpv4Route.builder()
+        .setNetwork(network)
+        .setNextHopIp(Ip.parse("10.0.0.2"))
+        .setOriginatorIp(Ip.parse("10.0.0.2"))
+        .setReceivedFromIp(Ip.parse("10.0.0.2"))
+        .setProtocol(RoutingProtocol.BGP);
+  }
+}
@@ -9,8 +9,10 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
@@ -334,4 +336,75 @@ public class FibImplTest {
     Set<AbstractRoute> fibRoutesEth2 = getTopLevelRoutesByInterface(fib, "Eth2");
     assertThat(fibRoutesEth2, empty());
   }
+
+  @Test
+  public void testUpdateUnchangedRib() {
+    Rib rib = new Rib();
+    rib.mergeRoute(
+        annotateRoute(
+            StaticRoute.builder()
+                .setNetwork(Prefix.parse("1.1.1.0/24"))
+                .setNextHopInterface("Eth1")
+                .setAdministrativeCost(1)
+                .build()));
+
+    FibImpl fib = new FibImpl(rib);
+
+    assertThat(fib.update(rib), sameInstance(fib));
+  }
+
+  @Test
+  public void testUpdateReResolvesDependentRoutes() {
+    Rib rib = new Rib();
+    StaticRoute interfaceRoute =
+        StaticRoute.builder()
+            .setNetwork(Prefix.parse("1.1.1.0/24"))
+            .setNextHopInterface("Eth1")
+            .setAdministrativeCost(1)
+            .build();
+    StaticRoute recursiveRoute =
+        StaticRoute.builder()
+            .setNetwork(Prefix.parse("2.2.2.0/24"))
+            .setNextHopIp(Ip.parse("1.1.1.1"))
+            .setAdministrativeCost(1)
+            .build();
+    StaticRoute unrelatedRoute =
+        StaticRoute.builder()
+            .setNetwork(Prefix.parse("3.3.3.0/24"))
+            .setNextHopIp(Ip.parse("1.1.1.3"))
+            .setAdministrativeCost(1)
+            .build();
+    rib.mergeRoute(annotateRoute(interfaceRoute));
+    rib.mergeRoute(annotateRoute(recursiveRoute));
+    rib.mergeRoute(annotateRoute(unrelatedRoute));
+    FibImpl fib = new FibImpl(rib);
+
+    // A more specific route for the next hop of recursiveRoute only
+    StaticRoute moreSpecificRoute =
+        StaticRoute.builder()
+            .setNetwork(Prefix.parse("1.1.1.1/32"))
+            .setNextHopInterface("Eth2")
+            .setAdministrativeCost(1)
+            .build();
+    rib.mergeRoute(annotateRoute(moreSpecificRoute));
+    FibImpl updated = fib.update(rib);
+
+    assertThat(updated.allEntries(), equalTo(new FibImpl(rib).allEntries()));
+    assertThat(
+        getTopLevelRoutesByInterface(updated, "Eth2"),
+        containsInAnyOrder(recursiveRoute, moreSpecificRoute));
+    assertThat(getTopLevelRoutesByInterface(updated, "Eth1"), hasItem(unrelatedRoute));
+
+    // Removing the interface route leaves only recursiveRoute resolvable
+    rib.removeRoute(annotateRoute(interfaceRoute));
+    FibImpl updatedAgain = updated.update(rib);
+
+    assertThat(updatedAgain.allEntries(), equalTo(new FibImpl(rib).allEntries()));
+    assertThat(getTopLevelRoutesByInterface(updatedAgain, "Eth1"), empty());
+    assertThat(
+        updatedAgain.allEntries().stream()
+            .map(FibEntry::getTopLevelRoute)
+            .collect(ImmutableSet.toImmutableSet()),
+        containsInAnyOrder(recursiveRoute, moreSpecificRoute));
+  }
 }
@@ -0,0 +1,94 @@
+package org.batfish.dataplane.ibdp;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.testing.EqualsTester;
+import org.batfish.datamodel.BgpSessionProperties;
+import org.batfish.datamodel.BgpSessionProperties.SessionType;
+import org.batfish.datamodel.Bgpv4Route;
+import org.batfish.datamodel.Ip;
+import org.batfish.datamodel.OriginType;
+import org.batfish.datamodel.Prefix;
+import org.batfish.datamodel.RoutingProtocol;
+import org.batfish.datamodel.bgp.Ipv4UnicastAddressFamily;
+import org.batfish.dataplane.ibdp.BgpUpdateGroups.ExportResult;
+import org.batfish.dataplane.ibdp.BgpUpdateGroups.UpdateGroupKey;
+import org.junit.Test;
+
+/** Tests of {@link BgpUpdateGroups}. */
+public final class BgpUpdateGroupsTest {
+
+  private static final Ipv4UnicastAddressFamily AF =
+      Ipv4UnicastAddressFamily.builder().setExportPolicy("export").build();
+
+  private static BgpSessionProperties session(Ip peerIp, long peerAs) {
+    return BgpSessionProperties.builder()
+        .setHeadIp(Ip.parse("10.0.0.1"))
+        .setHeadAs(1L)
+        .setTailIp(peerIp)
+        .setTailAs(peerAs)
+        .setSessionType(SessionType.IBGP)
+        .build();
+  }
+
+  private static UpdateGroupKey key(BgpSessionProperties session, boolean routeReflectorClient) {
+    return new UpdateGroupKey(AF, null, session, routeReflectorClient, 200, ImmutableSet.of());
+  }
+
+  private static Bgpv4Route route(Ip nextHopIp) {
+    return Bgpv4Route.builder()
+        .setNetwork(Prefix.parse("1.1.1.0/24"))
+        .setOriginatorIp(Ip.parse("2.2.2.2"))
+        .setOriginType(OriginType.IGP)
+        .setProtocol(RoutingProtocol.IBGP)
+        .setNextHopIp(nextHopIp)
+        .build();
+  }
+
+  @Test
+  public void testKeyIgnoresPeerAddress() {
+    Ip peer1 = Ip.parse("10.0.0.2");
+    Ip peer2 = Ip.parse("10.0.0.3");
+    new EqualsTester()
+        .addEqualityGroup(key(session(peer1, 1L), false), key(session(peer2, 1L), false))
+        .addEqualityGroup(key(session(peer1, 1L), true))
+        .addEqualityGroup(key(session(peer1, 2L), false))
+        .testEquals();
+  }
+
+  @Test
+  public void testResultsSharedWithinGroup() {
+    BgpUpdateGroups groups = new BgpUpdateGroups();
+    Bgpv4Route candidate = route(Ip.parse("3.3.3.3"));
+    Bgpv4Route exported = route(Ip.parse("10.0.0.1"));
+    ExportResult<Bgpv4Route> result = ExportResult.exported(exported);
+
+    Ip peerIp = Ip.parse("10.0.0.2");
+    groups.put(key(session(peerIp, 1L), false), candidate, result, peerIp);
+
+    assertThat(
+        groups.get(key(session(Ip.parse("10.0.0.3"), 1L), false), candidate),
+        sameInstance(result));
+    assertThat(groups.get(key(session(Ip.parse("10.0.0.3"), 1L), true), candidate), nullValue());
+  }
+
+  @Test
+  public void testResultsWithPeerNextHopNotShared() {
+    BgpUpdateGroups groups = new BgpUpdateGroups();
+    Ip peerIp = Ip.parse("10.0.0.2");
+    Bgpv4Route candidate = route(Ip.parse("3.3.3.3"));
+    UpdateGroupKey key = key(session(peerIp, 1L), false);
+
+    // The next hop may have been set to the peer's address by the export policy
+    groups.put(key, candidate, ExportResult.exported(route(peerIp)), peerIp);
+    assertThat(groups.get(key, candidate), nullValue());
+
+    groups.put(key, candidate, ExportResult.filteredByPolicy(), peerIp);
+    ExportResult<Bgpv4Route> filtered = groups.get(key, candidate);
+    assertThat(filtered.isFilteredByPolicy(), equalTo(true));
+  }
+}
@@ -0,0 +1,117 @@
+package org.batfish.dataplane.ibdp;
+
+import static org.batfish.dataplane.ibdp.TestUtils.annotateRoute;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSortedSet;
+import java.util.List;
+import org.batfish.datamodel.ConcreteInterfaceAddress;
+import org.batfish.datamodel.Configuration;
+import org.batfish.datamodel.ConfigurationFormat;
+import org.batfish.datamodel.Edge;
+import org.batfish.datamodel.Flow;
+import org.batfish.datamodel.FlowDisposition;
+import org.batfish.datamodel.Ip;
+import org.batfish.datamodel.NetworkFactory;
+import org.batfish.datamodel.Prefix;
+import org.batfish.datamodel.StaticRoute;
+import org.batfish.datamodel.Topology;
+import org.batfish.datamodel.Vrf;
+import org.batfish.datamodel.flow.TraceAndReverseFlow;
+import org.junit.Before;
+import org.junit.Test;
+
+/** Tests of {@link CachingTracerouteEngine}. */
+public final class CachingTracerouteEngineTest {
+
+  private static final String HOSTNAME = "n1";
+  private static final Ip IP = Ip.parse("1.1.1.1");
+  private static final Flow FLOW =
+      Flow.builder()
+          .setIngressNode(HOSTNAME)
+          .setIngressVrf(Configuration.DEFAULT_VRF_NAME)
+          .setSrcIp(IP)
+          .setDstIp(IP)
+          .build();
+
+  private Node _node;
+
+  @Before
+  public void setup() {
+    NetworkFactory nf = new NetworkFactory();
+    Configuration c =
+        nf.configurationBuilder()
+            .setHostname(HOSTNAME)
+            .setConfigurationFormat(ConfigurationFormat.CISCO_IOS)
+            .build();
+    Vrf vrf = nf.vrfBuilder().setName(Configuration.DEFAULT_VRF_NAME).setOwner(c).build();
+    nf.interfaceBuilder()
+        .setOwner(c)
+        .setVrf(vrf)
+        .setName("i1")
+        .setAddress(ConcreteInterfaceAddress.create(IP, 24))
+        .build();
+    _node = new Node(c);
+    _node.getVirtualRouters().values().forEach(VirtualRouter::computeFib);
+  }
+
+  private IncrementalDataPlane dataPlane() {
+    return IncrementalDataPlane.builder()
+        .setNodes(ImmutableMap.of(HOSTNAME, _node))
+        .setLayer3Topology(Topology.EMPTY)
+        .build();
+  }
+
+  private static List<TraceAndReverseFlow> trace(CachingTracerouteEngine engine) {
+    return engine.computeTracesAndReverseFlows(ImmutableSet.of(FLOW), false).get(FLOW);
+  }
+
+  @Test
+  public void testReuseWithUnchangedFibs() {
+    CachingTracerouteEngine engine = new CachingTracerouteEngine(dataPlane(), Topology.EMPTY, null);
+    List<TraceAndReverseFlow> traces = trace(engine);
+    assertThat(traces.get(0).getTrace().getDisposition(), equalTo(FlowDisposition.ACCEPTED));
+
+    assertThat(
+        trace(new CachingTracerouteEngine(dataPlane(), Topology.EMPTY, engine)),
+        sameInstance(traces));
+  }
+
+  @Test
+  public void testNoReuseWithChangedFib() {
+    CachingTracerouteEngine engine = new CachingTracerouteEngine(dataPlane(), Topology.EMPTY, null);
+    List<TraceAndReverseFlow> traces = trace(engine);
+
+    VirtualRouter vr = _node.getVirtualRouters().get(Configuration.DEFAULT_VRF_NAME);
+    vr.getMainRib()
+        .mergeRoute(
+            annotateRoute(
+                StaticRoute.builder()
+                    .setNetwork(Prefix.parse("2.2.2.0/24"))
+                    .setNextHopInterface("i1")
+                    .setAdministrativeCost(1)
+                    .build()));
+    vr.computeFib();
+    List<TraceAndReverseFlow> newTraces =
+        trace(new CachingTracerouteEngine(dataPlane(), Topology.EMPTY, engine));
+
+    assertThat(newTraces, not(sameInstance(traces)));
+    assertThat(newTraces.get(0).getTrace().getDisposition(), equalTo(FlowDisposition.ACCEPTED));
+  }
+
+  @Test
+  public void testNoReuseWithChangedTopology() {
+    CachingTracerouteEngine engine = new CachingTracerouteEngine(dataPlane(), Topology.EMPTY, null);
+    List<TraceAndReverseFlow> traces = trace(engine);
+
+    Topology topology = new Topology(ImmutableSortedSet.of(Edge.of(HOSTNAME, "i1", "n2", "i2")));
+    assertThat(
+        trace(new CachingTracerouteEngine(dataPlane(), topology, engine)),
+        not(sameInstance(traces)));
+  }
+}
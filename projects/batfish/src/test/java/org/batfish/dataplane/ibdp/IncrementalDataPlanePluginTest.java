@@ -4,6 +4,7 @@ import static org.batfish.datamodel.Configuration.DEFAULT_VRF_NAME;
 import static org.batfish.datamodel.ExprAclLine.REJECT_ALL;
 import static org.batfish.datamodel.matchers.AbstractRouteDecoratorMatchers.hasPrefix;
 import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.hasSize;
@@ -42,6 +43,7 @@ import org.batfish.datamodel.BgpActivePeerConfig;
 import org.batfish.datamodel.BgpPeerConfigId;
 import org.batfish.datamodel.BgpProcess;
 import org.batfish.datamodel.BgpSessionProperties;
+import org.batfish.datamodel.Bgpv4Route;
 import org.batfish.datamodel.ConcreteInterfaceAddress;
 import org.batfish.datamodel.Configuration;
 import org.batfish.datamodel.ConfigurationFormat;
@@ -896,4 +898,36 @@ public class IncrementalDataPlanePluginTest {
 
     assertNotNull(deserializedDataPlane.getForwardingAnalysis());
   }
+
+  @Test
+  public void testGetBgpRoutesForNetworkDeserialized() throws IOException {
+    String testrigName = "ebgp-accept-routerid-match";
+    List<String> configurationNames = ImmutableList.of("r1", "r2", "r3");
+
+    Batfish batfish =
+        BatfishTestUtils.getBatfishFromTestrigText(
+            TestrigText.builder()
+                .setConfigurationText(TESTRIGS_PREFIX + testrigName, configurationNames)
+                .build(),
+            _folder);
+    IncrementalDataPlanePlugin dataPlanePlugin = new IncrementalDataPlanePlugin();
+    dataPlanePlugin.initialize(batfish);
+    DataPlane deserializedDataPlane =
+        SerializationUtils.clone(
+            dataPlanePlugin.computeDataPlane(batfish.getSnapshot())._dataPlane);
+
+    // r3's loopback is learned by r1 over eBGP
+    Prefix r3Loopback0Prefix = Prefix.parse("3.0.0.3/32");
+    Set<Bgpv4Route> routes =
+        deserializedDataPlane.getBgpRoutes("r1", DEFAULT_VRF_NAME, r3Loopback0Prefix);
+    assertThat(routes, not(empty()));
+    assertThat(
+        routes,
+        equalTo(
+            deserializedDataPlane.getBgpRoutes().get("r1", DEFAULT_VRF_NAME).stream()
+                .filter(r -> r.getNetwork().equals(r3Loopback0Prefix))
+                .collect(ImmutableSet.toImmutableSet())));
+    assertThat(
+        deserializedDataPlane.getBgpRoutes("r1", "nonexistent", r3Loopback0Prefix), empty());
+  }
 }
@@ -7,6 +7,8 @@ import static org.batfish.datamodel.RoutingProtocol.OSPF_IA;
 import static org.batfish.datamodel.ospf.OspfTopologyUtils.computeOspfTopology;
 import static org.batfish.dataplane.ibdp.TestUtils.assertNoRoute;
 import static org.batfish.dataplane.ibdp.TestUtils.assertRoute;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSortedMap;
@@ -150,6 +152,34 @@ public class OspfTest {
       Long maxMetricStubNetworks,
       Long maxMetricSummaryNetworks,
       Long maxMetricTransitLinks) {
+    return getOspfRoutes(
+        new IncrementalDataPlaneSettings(),
+        areaA,
+        areaB,
+        areaC,
+        areaD,
+        areaE,
+        areaF,
+        areaG,
+        maxMetricExternalNetworks,
+        maxMetricStubNetworks,
+        maxMetricSummaryNetworks,
+        maxMetricTransitLinks);
+  }
+
+  private static SortedMap<String, SortedMap<String, Set<AbstractRoute>>> getOspfRoutes(
+      IncrementalDataPlaneSettings settings,
+      long areaA,
+      long areaB,
+      long areaC,
+      long areaD,
+      long areaE,
+      long areaF,
+      long areaG,
+      Long maxMetricExternalNetworks,
+      Long maxMetricStubNetworks,
+      Long maxMetricSummaryNetworks,
+      Long maxMetricTransitLinks) {
 
     String l0Name = "Loopback0";
     String l1Name = "Loopback1";
@@ -345,9 +375,15 @@ public class OspfTest {
             .put(c3.getHostname(), c3)
             .put(c4.getHostname(), c4)
             .build();
+    return computeRoutes(settings, configurations);
+  }
+
+  /** Compute the data plane of {@code configurations} and return the routes of every node. */
+  private static SortedMap<String, SortedMap<String, Set<AbstractRoute>>> computeRoutes(
+      IncrementalDataPlaneSettings settings, SortedMap<String, Configuration> configurations) {
     IncrementalBdpEngine engine =
         new IncrementalBdpEngine(
-            new IncrementalDataPlaneSettings(),
+            settings,
             new BatfishLogger(BatfishLogger.LEVELSTR_OUTPUT, false));
     OspfTopologyUtils.initNeighborConfigs(NetworkConfigurations.of(configurations));
     Topology topology = TopologyUtil.synthesizeL3Topology(configurations);
@@ -700,6 +736,64 @@ public class OspfTest {
     assertRoute(routesByNode, OSPF, C4_NAME, C2_E2_3_ADDRESS, 2L);
   }
 
+  @Test
+  public void testOspfIntraAreaSpf() {
+    IncrementalDataPlaneSettings spfSettings = new IncrementalDataPlaneSettings();
+    spfSettings
+        .getConfig()
+        .setProperty(IncrementalDataPlaneSettings.PROP_OSPF_INTRA_AREA_SPF, true);
+
+    // Single area
+    assertThat(
+        getOspfRoutes(
+            spfSettings,
+            0L,
+            0L,
+            0L,
+            0L,
+            0L,
+            0L,
+            0L,
+            MAX_METRIC_EXTERNAL_NETWORKS,
+            MAX_METRIC_STUB_NETWORKS,
+            null,
+            MAX_METRIC_TRANSIT_LINKS),
+        equalTo(
+            getOspfRoutes(
+                0L,
+                0L,
+                0L,
+                0L,
+                0L,
+                0L,
+                0L,
+                MAX_METRIC_EXTERNAL_NETWORKS,
+                MAX_METRIC_STUB_NETWORKS,
+                null,
+                MAX_METRIC_TRANSIT_LINKS)));
+
+    // Intra-area routes are still converted to inter-area routes by the ABR
+    SortedMap<String, SortedMap<String, Set<AbstractRoute>>> routesByNode =
+        getOspfRoutes(
+            spfSettings,
+            1L,
+            1L,
+            0L,
+            0L,
+            0L,
+            0L,
+            0L,
+            MAX_METRIC_EXTERNAL_NETWORKS,
+            MAX_METRIC_STUB_NETWORKS,
+            MAX_METRIC_SUMMARY_NETWORKS,
+            MAX_METRIC_TRANSIT_LINKS);
+    assertRoute(routesByNode, OSPF_IA, C1_NAME, C3_L0_ADDRESS, 16711681L);
+    assertRoute(routesByNode, OSPF, C2_NAME, C4_L0_ADDRESS, 65537L);
+    assertRoute(routesByNode, OSPF, C3_NAME, C4_L0_ADDRESS, 2L);
+    assertRoute(routesByNode, OSPF_IA, C4_NAME, C1_L0_ADDRESS, 16711682L);
+    assertRoute(routesByNode, OSPF_IA, C4_NAME, C1_E1_2_ADDRESS, 16711682L);
+  }
+
   @Test
   public void testOspfDualAreaBackboneInterAreaPropagationMaxMetricTransitStubSummary() {
     SortedMap<String, SortedMap<String, Set<AbstractRoute>>> routesByNode =
@@ -1064,6 +1158,39 @@ public class OspfTest {
     assertNoRoute(routes, "r3", Prefix.parse("2.2.2.0/24"));
   }
 
+  @Test
+  public void testOspfDistributeListOnTransitRouter() throws IOException {
+    // r1 -- r2 -- r3 in a single area, r2 filters r1's 1.1.1.0/24 with an inbound distribute-list
+    String[] configurationNames =
+        new String[] {
+          "org/batfish/dataplane/ibdp/ospf-distribute-lists-transit/configs/r1",
+          "org/batfish/dataplane/ibdp/ospf-distribute-lists-transit/configs/r2",
+          "org/batfish/dataplane/ibdp/ospf-distribute-lists-transit/configs/r3"
+        };
+    IncrementalDataPlaneSettings spfSettings = new IncrementalDataPlaneSettings();
+    spfSettings
+        .getConfig()
+        .setProperty(IncrementalDataPlaneSettings.PROP_OSPF_INTRA_AREA_SPF, true);
+
+    SortedMap<String, SortedMap<String, Set<AbstractRoute>>> routes =
+        computeRoutes(
+            new IncrementalDataPlaneSettings(),
+            BatfishTestUtils.parseTextConfigs(_folder, configurationNames));
+    SortedMap<String, SortedMap<String, Set<AbstractRoute>>> spfRoutes =
+        computeRoutes(spfSettings, BatfishTestUtils.parseTextConfigs(_folder, configurationNames));
+
+    // The distribute-list only keeps the route out of r2's own main RIB. The route is still
+    // advertised past r2, so r3 learns it with r2 as next hop, whether intra-area routes are
+    // exchanged hop by hop or computed with SPF.
+    for (SortedMap<String, SortedMap<String, Set<AbstractRoute>>> routesByNode :
+        ImmutableList.of(routes, spfRoutes)) {
+      assertNoRoute(routesByNode, "r2", Prefix.parse("1.1.1.0/24"));
+      assertRoute(
+          routesByNode, OSPF, "r3", Prefix.parse("1.1.1.0/24"), 12, Ip.parse("192.168.23.2"));
+    }
+    assertThat(spfRoutes, equalTo(routes));
+  }
+
   @Test
   public void testLoopbackRoutes() throws IOException {
     Batfish batfish =
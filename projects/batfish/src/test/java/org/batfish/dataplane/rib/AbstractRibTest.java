@@ -94,6 +94,14 @@ public class AbstractRibTest {
     return routes;
   }
 
+  @Test
+  public void testGetTypedRoutesForNetwork() {
+    List<StaticRoute> routes = setupOverlappingRoutes();
+
+    assertThat(_rib.getTypedRoutes(Prefix.parse("10.0.0.0/9")), contains(routes.get(1)));
+    assertThat(_rib.getTypedRoutes(Prefix.parse("10.0.0.0/10")), empty());
+  }
+
   /** Ensure that only one copy of a route is stored, regardless of how many times we add it */
   @Test
   public void testRepeatedAdd() {
@@ -517,4 +525,75 @@ public class AbstractRibTest {
         contains(
             new RouteAdvertisement<>(route2, Reason.WITHDRAW), new RouteAdvertisement<>(route1)));
   }
+
+  @Test
+  public void testDigest() {
+    List<StaticRoute> routes = setupOverlappingRoutes();
+    long digest = _rib.getDigest();
+
+    // Same routes in a different order have the same digest
+    StaticRib reversed = new StaticRib();
+    for (int i = routes.size() - 1; i >= 0; i--) {
+      reversed.mergeRouteGetDelta(routes.get(i));
+    }
+    assertThat(reversed.getDigest(), equalTo(digest));
+
+    // Merging an existing route does not change the digest
+    _rib.mergeRouteGetDelta(routes.get(0));
+    assertThat(_rib.getDigest(), equalTo(digest));
+
+    // Removing a route and adding it back restores the digest
+    _rib.removeRouteGetDelta(routes.get(0));
+    assertThat(_rib.getDigest(), not(equalTo(digest)));
+    _rib.mergeRouteGetDelta(routes.get(0));
+    assertThat(_rib.getDigest(), equalTo(digest));
+
+    // Removing all routes results in the digest of an empty RIB
+    routes.forEach(_rib::removeRouteGetDelta);
+    assertThat(_rib.getDigest(), equalTo(new StaticRib().getDigest()));
+    reversed.clear();
+    assertThat(reversed.getDigest(), equalTo(new StaticRib().getDigest()));
+  }
+
+  @Test
+  public void testDigestReplaceAndBackup() {
+    Bgpv4Rib rib =
+        new Bgpv4Rib(
+            null, BgpTieBreaker.ROUTER_ID, 1, MultipathEquivalentAsPathMatchMode.EXACT_PATH, true);
+    Ip originator1 = Ip.parse("1.1.1.1");
+    Ip originator2 = Ip.parse("2.2.2.2");
+    Bgpv4Route.Builder routeBuilder =
+        new Bgpv4Route.Builder()
+            .setNetwork(Prefix.ZERO)
+            .setLocalPreference(100)
+            .setOriginType(OriginType.INCOMPLETE)
+            .setOriginatorIp(originator1)
+            .setProtocol(RoutingProtocol.IBGP)
+            .setReceivedFromIp(originator1);
+    Bgpv4Route route1 = routeBuilder.build();
+    Bgpv4Route route2 =
+        routeBuilder
+            .setLocalPreference(2000)
+            .setOriginatorIp(originator2)
+            .setReceivedFromIp(originator2)
+            .build();
+
+    Bgpv4Rib onlyRoute1 =
+        new Bgpv4Rib(
+            null, BgpTieBreaker.ROUTER_ID, 1, MultipathEquivalentAsPathMatchMode.EXACT_PATH, true);
+    onlyRoute1.mergeRoute(route1);
+    Bgpv4Rib onlyRoute2 =
+        new Bgpv4Rib(
+            null, BgpTieBreaker.ROUTER_ID, 1, MultipathEquivalentAsPathMatchMode.EXACT_PATH, true);
+    onlyRoute2.mergeRoute(route2);
+
+    // Route 2 replaces route 1
+    rib.mergeRoute(route1);
+    rib.mergeRoute(route2);
+    assertThat(rib.getDigest(), equalTo(onlyRoute2.getDigest()));
+
+    // Route 1 is restored from backups when route 2 is withdrawn
+    rib.removeRoute(route2);
+    assertThat(rib.getDigest(), equalTo(onlyRoute1.getDigest()));
+  }
 }
@@ -1,6 +1,8 @@
 package org.batfish.dataplane.rib;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.equalTo;
 
 import com.google.common.collect.ImmutableList;
@@ -57,4 +59,22 @@ public class BgpRibTest {
       }
     }
   }
+
+  @Test
+  public void testGetTypedRoutesForNetworkBestPathOnly() {
+    BgpRib<Bgpv4Route> rib = new Bgpv4Rib(null, BgpTieBreaker.ROUTER_ID, 1, null, false);
+    Prefix prefix = Prefix.parse("10.0.0.0/8");
+    Bgpv4Route.Builder rb =
+        Bgpv4Route.builder()
+            .setNetwork(prefix)
+            .setNextHopIp(Ip.ZERO)
+            .setOriginType(OriginType.IGP)
+            .setProtocol(RoutingProtocol.IBGP);
+    Bgpv4Route best = rb.setOriginatorIp(Ip.ZERO).build();
+    rib.mergeRoute(rb.setOriginatorIp(Ip.parse("1.1.1.1")).build());
+    rib.mergeRoute(best);
+
+    assertThat(rib.getTypedRoutes(prefix), contains(best));
+    assertThat(rib.getTypedRoutes(Prefix.parse("10.0.0.0/9")), empty());
+  }
 }
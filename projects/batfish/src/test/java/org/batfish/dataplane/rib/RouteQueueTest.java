@@ -0,0 +1,76 @@
+package org.batfish.dataplane.rib;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.batfish.datamodel.Ip;
+import org.batfish.datamodel.Prefix;
+import org.batfish.datamodel.StaticRoute;
+import org.batfish.dataplane.rib.RouteAdvertisement.Reason;
+import org.junit.Test;
+
+/** Tests of {@link RouteQueue} */
+public class RouteQueueTest {
+
+  private static RouteAdvertisement<StaticRoute> advertisement(String prefix, Reason reason) {
+    return RouteAdvertisement.<StaticRoute>builder()
+        .setRoute(
+            StaticRoute.builder()
+                .setNetwork(Prefix.parse(prefix))
+                .setNextHopIp(Ip.ZERO)
+                .setAdministrativeCost(1)
+                .build())
+        .setReason(reason)
+        .build();
+  }
+
+  @Test
+  public void testDigest() {
+    RouteAdvertisement<StaticRoute> a1 = advertisement("1.1.1.0/24", Reason.ADD);
+    RouteAdvertisement<StaticRoute> a2 = advertisement("2.2.2.0/24", Reason.ADD);
+    RouteAdvertisement<StaticRoute> w1 = advertisement("1.1.1.0/24", Reason.WITHDRAW);
+
+    RouteQueue<StaticRoute> q1 = new RouteQueue<>();
+    q1.add(a1);
+    q1.add(a2);
+    RouteQueue<StaticRoute> q2 = new RouteQueue<>();
+    q2.addAll(ImmutableList.of(a2, a1));
+    RouteQueue<StaticRoute> q3 = new RouteQueue<>();
+    q3.addAll(ImmutableList.of(w1, a2));
+
+    // Order-independent, but depends on the reason
+    assertThat(q1.getDigest(), equalTo(q2.getDigest()));
+    assertThat(q1.getDigest(), not(equalTo(q3.getDigest())));
+
+    // Removal is reflected in the digest
+    RouteQueue<StaticRoute> onlyA2 = new RouteQueue<>();
+    onlyA2.add(a2);
+    assertThat(q1.remove(), equalTo(a1));
+    assertThat(q1.getDigest(), equalTo(onlyA2.getDigest()));
+    q1.clear();
+    assertThat(q1.getDigest(), equalTo(new RouteQueue<StaticRoute>().getDigest()));
+  }
+
+  @Test
+  public void testDigestOfQueues() {
+    RouteQueue<StaticRoute> q = new RouteQueue<>();
+    q.add(advertisement("1.1.1.0/24", Reason.ADD));
+    RouteQueue<StaticRoute> empty = new RouteQueue<>();
+
+    // The digest depends on which queue the advertisement is in
+    assertThat(
+        RouteQueue.getDigest(ImmutableMap.of("a", q, "b", empty)),
+        not(equalTo(RouteQueue.getDigest(ImmutableMap.of("a", empty, "b", q)))));
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testRemoveObjectUnsupported() {
+    RouteAdvertisement<StaticRoute> a = advertisement("1.1.1.0/24", Reason.ADD);
+    RouteQueue<StaticRoute> q = new RouteQueue<>();
+    q.add(a);
+    q.remove(a);
+  }
+}
@@ -0,0 +1,68 @@
+package org.batfish.dataplane.traceroute;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import java.util.HashMap;
+import java.util.Map;
+import org.batfish.datamodel.EmptyIpSpace;
+import org.batfish.datamodel.Fib;
+import org.batfish.datamodel.Ip;
+import org.batfish.datamodel.IpSpace;
+import org.batfish.datamodel.MockDataPlane;
+import org.batfish.datamodel.MockFib;
+import org.batfish.datamodel.MockForwardingAnalysis;
+import org.batfish.datamodel.Topology;
+import org.batfish.datamodel.UniverseIpSpace;
+import org.junit.Test;
+
+/** Tests of {@link TracerouteEngineImplContext}. */
+public final class TracerouteEngineImplContextTest {
+
+  @Test
+  public void testRepliesToArpMemoized() {
+    Map<String, IpSpace> arpReplies = new HashMap<>();
+    arpReplies.put("iface", UniverseIpSpace.INSTANCE);
+    TracerouteEngineImplContext ctxt =
+        new TracerouteEngineImplContext(
+            MockDataPlane.builder()
+                .setForwardingAnalysis(
+                    MockForwardingAnalysis.builder()
+                        .setArpReplies(ImmutableMap.of("node", arpReplies))
+                        .build())
+                .build(),
+            Topology.EMPTY,
+            ImmutableSet.of(),
+            ImmutableSet.of(),
+            ImmutableMap.of(),
+            false);
+
+    Ip ip1 = Ip.parse("1.1.1.1");
+    Ip ip2 = Ip.parse("2.2.2.2");
+    assertTrue(ctxt.repliesToArp("node", "iface", ip1));
+
+    // Evaluations of the same IpSpace for the same IP are memoized; other IPs are evaluated
+    arpReplies.put("iface", EmptyIpSpace.INSTANCE);
+    assertTrue(ctxt.repliesToArp("node", "iface", ip1));
+    assertFalse(ctxt.repliesToArp("node", "iface", ip2));
+  }
+
+  @Test
+  public void testFibsNotWrapped() {
+    Fib fib = MockFib.builder().build();
+    TracerouteEngineImplContext ctxt =
+        new TracerouteEngineImplContext(
+            MockDataPlane.builder().build(),
+            Topology.EMPTY,
+            ImmutableSet.of(),
+            ImmutableSet.of(),
+            ImmutableMap.of("node", ImmutableMap.of("vrf", fib)),
+            false);
+
+    assertThat(ctxt.getFib("node", "vrf").get(), sameInstance(fib));
+  }
+}
@@ -1,7 +1,10 @@
 package org.batfish.job;
 
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.junit.Assert.assertEquals;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import java.util.ArrayList;
@@ -118,13 +121,48 @@ public class BatfishJobExecutorTest {
         Lists.newArrayList(new BfTestJob(settings, "result1")), failureCauses, true);
   }
 
+  @Test
+  public void testOrderJobsLargestFirst() {
+    Settings settings = new Settings();
+    BatfishJobExecutor executor = BatfishJobExecutor.getBatfishJobExecutor(settings, _logger);
+    BfTestJob small = new BfTestJob(settings, "small", 1L);
+    BfTestJob large = new BfTestJob(settings, "large", 100L);
+    BfTestJob medium = new BfTestJob(settings, "medium", 10L);
+    List<BfTestJob> jobs = ImmutableList.of(small, large, medium);
+
+    assertThat(executor.orderJobs(jobs), contains(large, medium, small));
+  }
+
+  @Test
+  public void testOrderJobsSequential() {
+    Settings settings = new Settings();
+    settings.setSequential(true);
+    BatfishJobExecutor executor = BatfishJobExecutor.getBatfishJobExecutor(settings, _logger);
+    BfTestJob small = new BfTestJob(settings, "small", 1L);
+    BfTestJob large = new BfTestJob(settings, "large", 100L);
+    List<BfTestJob> jobs = ImmutableList.of(small, large);
+
+    assertThat(executor.orderJobs(jobs), contains(small, large));
+  }
+
   /** Class for Batfish test job */
   private class BfTestJob extends BatfishJob<BfTestResult> {
+    private long _estimatedCost;
     private String _testValue;
 
     public BfTestJob(Settings settings, String testValue) {
+      this(settings, testValue, 0L);
+    }
+
+    public BfTestJob(Settings settings, String testValue, long estimatedCost) {
       super(settings);
       _testValue = testValue;
+      _estimatedCost = estimatedCost;
+    }
+
+    @Override
+    public long getEstimatedCost() {
+      return _estimatedCost;
     }
 
     @Override
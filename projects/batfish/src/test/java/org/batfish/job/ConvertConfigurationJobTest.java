@@ -2,14 +2,31 @@ package org.batfish.job;
 
 import static org.batfish.job.ConvertConfigurationJob.finalizeConfiguration;
 import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasKey;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
 
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableMultimap;
+import java.util.HashMap;
+import java.util.Map;
+import javax.annotation.Nullable;
+import org.apache.commons.lang3.SerializationUtils;
+import org.batfish.common.BatfishLogger;
+import org.batfish.common.NetworkSnapshot;
 import org.batfish.common.VendorConversionException;
 import org.batfish.common.Warnings;
+import org.batfish.common.runtime.RuntimeData;
+import org.batfish.config.Settings;
 import org.batfish.datamodel.Configuration;
 import org.batfish.datamodel.ConfigurationFormat;
 import org.batfish.datamodel.LineAction;
 import org.batfish.datamodel.routing_policy.communities.CommunityMatchExprReference;
+import org.batfish.identifiers.NetworkId;
+import org.batfish.identifiers.SnapshotId;
+import org.batfish.vendor.VendorConfiguration;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
@@ -31,4 +48,117 @@ public final class ConvertConfigurationJobTest {
     _thrown.expectMessage(containsString("Undefined reference"));
     finalizeConfiguration(c, new Warnings());
   }
+
+  /** A {@link ConversionCache} that keeps serialized results in memory and counts its hits. */
+  private static final class TestConversionCache implements ConversionCache {
+    private final Map<String, byte[]> _results = new HashMap<>();
+    private int _hits;
+
+    @Nullable
+    @Override
+    public ConversionResult load(String key) {
+      byte[] serialized = _results.get(key);
+      if (serialized == null) {
+        return null;
+      }
+      _hits++;
+      return SerializationUtils.deserialize(serialized);
+    }
+
+    @Override
+    public void store(String key, ConversionResult result) {
+      _results.put(key, SerializationUtils.serialize(result));
+    }
+  }
+
+  private static Settings settings() {
+    Settings settings = new Settings();
+    settings.setLogger(new BatfishLogger("debug", false));
+    return settings;
+  }
+
+  private static VendorConfiguration parseCisco(String text) {
+    return new ParseVendorConfigurationJob(
+            new Settings(),
+            new NetworkSnapshot(new NetworkId("net"), new SnapshotId("ss")),
+            text,
+            "configs/c1",
+            new Warnings(),
+            ConfigurationFormat.CISCO_IOS,
+            ImmutableMultimap.of(),
+            null)
+        .call()
+        .getVendorConfiguration();
+  }
+
+  private static ConvertConfigurationJob job(
+      VendorConfiguration vc,
+      @Nullable RuntimeData runtimeData,
+      @Nullable ConversionCache cache,
+      @Nullable String snapshotInputsKey) {
+    return new ConvertConfigurationJob(settings(), runtimeData, vc, "c1", cache, snapshotInputsKey);
+  }
+
+  private static ConvertConfigurationResult convert(
+      VendorConfiguration vc, @Nullable RuntimeData runtimeData, ConversionCache cache) {
+    return job(vc, runtimeData, cache, "inputs").call();
+  }
+
+  @Test
+  public void testConversionCacheReusesUnchangedConfiguration() {
+    String text = "hostname c1\ninterface Loopback0\n ip address 10.0.0.1 255.255.255.255\n";
+    TestConversionCache cache = new TestConversionCache();
+
+    ConvertConfigurationResult first = convert(parseCisco(text), null, cache);
+    assertThat(first.getFailureCause(), nullValue());
+    assertThat(cache._results.size(), equalTo(1));
+    assertThat(cache._hits, equalTo(0));
+
+    // a separately parsed copy of the same text is served from the cache
+    ConvertConfigurationResult second = convert(parseCisco(text), null, cache);
+    assertThat(second.getFailureCause(), nullValue());
+    assertThat(cache._hits, equalTo(1));
+    assertThat(second.getConfigurations(), hasKey("c1"));
+    assertThat(
+        second.getConfigurations().get("c1").getAllInterfaces().keySet(),
+        equalTo(first.getConfigurations().get("c1").getAllInterfaces().keySet()));
+  }
+
+  @Test
+  public void testComputeCacheKeyDependsOnInputs() {
+    String text = "hostname c1\ninterface Loopback0\n ip address 10.0.0.1 255.255.255.255\n";
+    String key = job(parseCisco(text), null, null, "inputs").computeCacheKey();
+
+    assertThat(key, not(nullValue()));
+    assertThat(job(parseCisco(text), null, null, "inputs").computeCacheKey(), equalTo(key));
+    assertThat(
+        job(parseCisco(text + " shutdown\n"), null, null, "inputs").computeCacheKey(),
+        not(equalTo(key)));
+    RuntimeData runtimeData = RuntimeData.builder().setInterfaceLineUp("Loopback0", false).build();
+    assertThat(
+        job(parseCisco(text), runtimeData, null, "inputs").computeCacheKey(), not(equalTo(key)));
+    assertThat(
+        job(parseCisco(text), null, null, "otherInputs").computeCacheKey(), not(equalTo(key)));
+  }
+
+  @Test
+  public void testComputeCacheKeyIgnoresVendorConfigurationState() {
+    String text = "hostname c1\ninterface Loopback0\n ip address 10.0.0.1 255.255.255.255\n";
+    VendorConfiguration vc = parseCisco(text);
+    String key = job(vc, null, null, "inputs").computeCacheKey();
+
+    // the key only depends on the parsed input, not on the object graph it produced
+    vc.setHostname("other");
+    assertThat(job(vc, null, null, "inputs").computeCacheKey(), equalTo(key));
+  }
+
+  @Test
+  public void testComputeCacheKeyWithoutParseResultKey() {
+    String text = "hostname c1\ninterface Loopback0\n ip address 10.0.0.1 255.255.255.255\n";
+    VendorConfiguration vc = parseCisco(text);
+    assertThat(job(vc, null, null, null).computeCacheKey(), nullValue());
+
+    vc.setParseResultKey(null);
+    assertThat(job(vc, null, null, "inputs").computeCacheKey(), nullValue());
+  }
 }
@@ -0,0 +1,67 @@
+package org.batfish.job;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import com.google.common.collect.ImmutableMultimap;
+import java.util.Map.Entry;
+import org.batfish.common.NetworkSnapshot;
+import org.batfish.common.Warnings;
+import org.batfish.config.Settings;
+import org.batfish.datamodel.ConfigurationFormat;
+import org.batfish.grammar.CountingParserATNSimulator;
+import org.batfish.grammar.DfaCacheStatistics.Counts;
+import org.batfish.grammar.cisco.CiscoCombinedParser;
+import org.batfish.identifiers.NetworkId;
+import org.batfish.identifiers.SnapshotId;
+import org.junit.Test;
+
+/** Tests of {@link ParserWarmUp}. */
+public class ParserWarmUpTest {
+
+  private static ParseVendorConfigurationResult parse(ConfigurationFormat format, String text) {
+    return new ParseVendorConfigurationJob(
+            new Settings(),
+            new NetworkSnapshot(new NetworkId("net"), new SnapshotId("ss")),
+            text,
+            "filename",
+            new Warnings(),
+            format,
+            ImmutableMultimap.of(),
+            null)
+        .call();
+  }
+
+  @Test
+  public void testSamplesParse() {
+    for (Entry<ConfigurationFormat, String> sample : ParserWarmUp.SAMPLES.entrySet()) {
+      assertThat(
+          sample.getKey().toString(),
+          parse(sample.getKey(), sample.getValue()).getFailureCause(),
+          nullValue());
+    }
+  }
+
+  /** Parses {@code text} as Cisco IOS, recording DFA cache hits and misses in {@code counts}. */
+  private static void parseCisco(String text, Counts counts) {
+    CiscoCombinedParser cp =
+        new CiscoCombinedParser(text, new Settings(), ConfigurationFormat.CISCO_IOS);
+    cp.getParser()
+        .setInterpreter(new CountingParserATNSimulator(cp.getParser().getInterpreter(), counts));
+    cp.parse();
+  }
+
+  @Test
+  public void testWarmCacheServesRepeatedInput() {
+    String text = ParserWarmUp.SAMPLES.get(ConfigurationFormat.CISCO_IOS);
+    parseCisco(text, new Counts());
+
+    // Identical input is predicted entirely from the DFA cache shared with the first parse.
+    Counts counts = new Counts();
+    parseCisco(text, counts);
+    assertThat(counts.getHits(), greaterThan(0L));
+    assertThat(counts.getMisses(), equalTo(0L));
+  }
+}
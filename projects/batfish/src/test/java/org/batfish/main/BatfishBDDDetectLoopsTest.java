@@ -4,6 +4,9 @@ import static org.batfish.datamodel.FlowDisposition.LOOP;
 import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.Assert.assertThat;
 
 import com.google.common.collect.ImmutableSet;
@@ -13,6 +16,7 @@ import java.util.List;
 import java.util.Set;
 import java.util.SortedMap;
 import java.util.stream.Collectors;
+import org.batfish.bddreachability.BDDReachabilityAnalysisFactories;
 import org.batfish.common.NetworkSnapshot;
 import org.batfish.datamodel.Configuration;
 import org.batfish.datamodel.Flow;
@@ -57,4 +61,45 @@ public class BatfishBDDDetectLoopsTest {
             .collect(Collectors.toSet());
     assertThat(dispositions, equalTo(ImmutableSet.of(LOOP)));
   }
+
+  @Test
+  public void testLoopsRepeated() throws IOException {
+    initNetwork(true);
+    // the second call reuses the reachability factory cached by the first
+    Set<Flow> flows = _batfish.bddLoopDetection(_batfish.getSnapshot());
+    assertThat(_batfish.bddLoopDetection(_batfish.getSnapshot()), equalTo(flows));
+    assertThat(flows, hasSize(2));
+  }
+
+  @Test
+  public void testCachedFactoriesReused() throws IOException {
+    initNetwork(true);
+    NetworkSnapshot snapshot = _batfish.getSnapshot();
+    _batfish.bddLoopDetection(snapshot);
+    BDDReachabilityAnalysisFactories factories =
+        _batfish.getCachedBddReachabilityAnalysisFactories(snapshot);
+    _batfish.bddLoopDetection(snapshot);
+    assertThat(
+        _batfish.getCachedBddReachabilityAnalysisFactories(snapshot), sameInstance(factories));
+  }
+
+  @Test
+  public void testNodeTableBounded() throws IOException {
+    initNetwork(true);
+    // every question exceeds the limit, so each one starts from a fresh BDDPacket
+    _batfish.getSettings().setBddReachabilityMaxNodeTableSize(0);
+    NetworkSnapshot snapshot = _batfish.getSnapshot();
+    assertThat(_batfish.bddLoopDetection(snapshot), hasSize(2));
+    BDDReachabilityAnalysisFactories previous =
+        _batfish.getCachedBddReachabilityAnalysisFactories(snapshot);
+    int nodeTableSize = previous.getNodeTableSize();
+    for (int i = 0; i < 20; i++) {
+      assertThat(_batfish.bddLoopDetection(snapshot), hasSize(2));
+      BDDReachabilityAnalysisFactories current =
+          _batfish.getCachedBddReachabilityAnalysisFactories(snapshot);
+      assertThat(current, not(sameInstance(previous)));
+      assertThat(current.getNodeTableSize(), lessThanOrEqualTo(nodeTableSize));
+      previous = current;
+    }
+  }
 }
@@ -0,0 +1,100 @@
+package org.batfish.main;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.batfish.main.BatfishTestUtils.TEST_REFERENCE_SNAPSHOT;
+import static org.batfish.main.BatfishTestUtils.TEST_SNAPSHOT;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import org.batfish.bddreachability.TestNetwork;
+import org.batfish.common.BfConsts;
+import org.batfish.datamodel.SnapshotMetadata;
+import org.batfish.main.Batfish.TestrigSettings;
+import org.batfish.storage.FileBasedStorage;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/** Tests of reusing the data plane of the parent of a forked snapshot. */
+public final class BatfishDataPlaneReuseTest {
+
+  private static final String CONFIG_TEXT = "hostname node1\n";
+
+  @Rule public TemporaryFolder _temp = new TemporaryFolder();
+
+  /**
+   * Returns a {@link Batfish} whose reference snapshot is a fork of its base snapshot. The input of
+   * each snapshot is a single configuration file, with text {@code parentText} and {@code
+   * forkText} respectively.
+   */
+  private Batfish forkedBatfish(String parentText, String forkText) throws IOException {
+    Batfish batfish =
+        BatfishTestUtils.getBatfish(new TestNetwork()._configs, new TestNetwork()._configs, _temp);
+    writeConfig(batfish.getSnapshotTestrigSettings(), parentText);
+    writeConfig(batfish.getReferenceTestrigSettings(), forkText);
+    new FileBasedStorage(batfish.getSettings().getStorageBase(), batfish.getLogger())
+        .storeSnapshotMetadata(
+            new SnapshotMetadata(Instant.now(), TEST_SNAPSHOT.getSnapshot()),
+            TEST_REFERENCE_SNAPSHOT.getNetwork(),
+            TEST_REFERENCE_SNAPSHOT.getSnapshot());
+    return batfish;
+  }
+
+  private static void writeConfig(TestrigSettings tr, String text) throws IOException {
+    Path configsDir = tr.getInputPath().resolve(BfConsts.RELPATH_CONFIGURATIONS_DIR);
+    Files.createDirectories(configsDir);
+    Files.write(configsDir.resolve("node1.cfg"), text.getBytes(UTF_8));
+  }
+
+  @Test
+  public void testReuseUnchangedFork() throws IOException {
+    Batfish batfish = forkedBatfish(CONFIG_TEXT, CONFIG_TEXT);
+    batfish.computeDataPlane(TEST_SNAPSHOT);
+    String fingerprint = batfish.computeDataPlaneFingerprint(TEST_REFERENCE_SNAPSHOT);
+    assertThat(fingerprint, equalTo(batfish.computeDataPlaneFingerprint(TEST_SNAPSHOT)));
+
+    assertThat(batfish.reuseParentDataPlane(TEST_REFERENCE_SNAPSHOT, fingerprint), notNullValue());
+    assertThat(
+        batfish.loadDataPlane(TEST_REFERENCE_SNAPSHOT).getRibs(),
+        equalTo(batfish.loadDataPlane(TEST_SNAPSHOT).getRibs()));
+  }
+
+  @Test
+  public void testNoReuseChangedFork() throws IOException {
+    Batfish batfish = forkedBatfish(CONFIG_TEXT, CONFIG_TEXT + "domain-name fork.example.com\n");
+    batfish.computeDataPlane(TEST_SNAPSHOT);
+    String fingerprint = batfish.computeDataPlaneFingerprint(TEST_REFERENCE_SNAPSHOT);
+    assertThat(fingerprint, not(equalTo(batfish.computeDataPlaneFingerprint(TEST_SNAPSHOT))));
+
+    assertThat(batfish.reuseParentDataPlane(TEST_REFERENCE_SNAPSHOT, fingerprint), nullValue());
+  }
+
+  @Test
+  public void testNoFingerprintWithoutInput() throws IOException {
+    Batfish batfish =
+        BatfishTestUtils.getBatfish(new TestNetwork()._configs, new TestNetwork()._configs, _temp);
+
+    assertThat(batfish.computeDataPlaneFingerprint(TEST_SNAPSHOT), nullValue());
+  }
+
+  @Test
+  public void testNoReuseWithoutParent() throws IOException {
+    Batfish batfish =
+        BatfishTestUtils.getBatfish(new TestNetwork()._configs, new TestNetwork()._configs, _temp);
+    writeConfig(batfish.getSnapshotTestrigSettings(), CONFIG_TEXT);
+    writeConfig(batfish.getReferenceTestrigSettings(), CONFIG_TEXT);
+    batfish.computeDataPlane(TEST_SNAPSHOT);
+
+    assertThat(
+        batfish.reuseParentDataPlane(
+            TEST_REFERENCE_SNAPSHOT, batfish.computeDataPlaneFingerprint(TEST_REFERENCE_SNAPSHOT)),
+        nullValue());
+  }
+}
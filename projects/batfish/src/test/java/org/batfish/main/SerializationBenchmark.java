@@ -0,0 +1,125 @@
+package org.batfish.main;
+
+import com.google.common.collect.ImmutableList;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.batfish.common.util.CommonUtil;
+import org.batfish.common.util.serialization.ObjectSerializer;
+import org.batfish.common.util.serialization.SerializationFormat;
+import org.batfish.datamodel.Configuration;
+import org.batfish.vendor.VendorConfiguration;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Compares bytes written and encode/decode time of each {@link SerializationFormat} on the vendor
+ * and vendor-independent configurations of real snapshots.
+ *
+ * <p>Usage: {@code SerializationBenchmark [snapshot-dir...]}, where each snapshot directory
+ * contains a {@code configs} subdirectory. Defaults to the snapshots of the example network in
+ * {@code networks/}.
+ */
+public final class SerializationBenchmark {
+
+  private static final List<String> DEFAULT_SNAPSHOTS =
+      ImmutableList.of(
+          "networks/example/live", "networks/example/candidate", "networks/example/live-with-isp");
+
+  private static final int WARMUP_ITERATIONS = 5;
+  private static final int MEASURED_ITERATIONS = 20;
+
+  public static void main(String[] args) throws IOException {
+    List<String> snapshotDirs = args.length > 0 ? ImmutableList.copyOf(args) : DEFAULT_SNAPSHOTS;
+    for (String snapshotDir : snapshotDirs) {
+      TemporaryFolder folder = new TemporaryFolder();
+      folder.create();
+      try {
+        Batfish batfish =
+            BatfishTestUtils.getBatfishFromTestrigText(
+                TestrigText.builder()
+                    .setConfigurationText(readConfigs(Paths.get(snapshotDir)))
+                    .build(),
+                folder);
+        Map<String, VendorConfiguration> vendorConfigs =
+            batfish.loadVendorConfigurations(batfish.getSnapshot());
+        SortedMap<String, Configuration> configs =
+            batfish.loadConfigurations(batfish.getSnapshot());
+        System.out.printf("%s: %d nodes%n", snapshotDir, configs.size());
+        for (SerializationFormat format : SerializationFormat.values()) {
+          benchmark("  vendor  ", format, vendorConfigs.values());
+          benchmark("  vi      ", format, configs.values());
+        }
+      } finally {
+        folder.delete();
+      }
+    }
+  }
+
+  private static SortedMap<String, String> readConfigs(Path snapshotDir) throws IOException {
+    try (Stream<Path> files = Files.list(snapshotDir.resolve("configs"))) {
+      return files.collect(
+          Collectors.toMap(
+              path -> path.getFileName().toString(),
+              CommonUtil::readFile,
+              (a, b) -> a,
+              TreeMap::new));
+    }
+  }
+
+  private static void benchmark(
+      String label, SerializationFormat format, Iterable<? extends Serializable> objects)
+      throws IOException {
+    ObjectSerializer serializer = format.getSerializer();
+    long bytes = 0;
+    long lz4Bytes = 0;
+    for (Serializable object : objects) {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      serializer.serialize(object, out);
+      bytes += out.size();
+      ByteArrayOutputStream lz4Out = new ByteArrayOutputStream();
+      format.serializeToLz4Data(object, lz4Out);
+      lz4Bytes += lz4Out.size();
+    }
+
+    long encodeNanos = 0;
+    long decodeNanos = 0;
+    for (int i = 0; i < WARMUP_ITERATIONS + MEASURED_ITERATIONS; i++) {
+      for (Serializable object : objects) {
+        long start = System.nanoTime();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        serializer.serialize(object, out);
+        long encoded = System.nanoTime();
+        try {
+          serializer.deserialize(new ByteArrayInputStream(out.toByteArray()), Serializable.class);
+        } catch (ClassNotFoundException e) {
+          throw new IOException(e);
+        }
+        long decoded = System.nanoTime();
+        if (i >= WARMUP_ITERATIONS) {
+          encodeNanos += encoded - start;
+          decodeNanos += decoded - encoded;
+        }
+      }
+    }
+    System.out.printf(
+        "%s%-8s %,12d bytes %,12d bytes (lz4) encode %8.2f ms decode %8.2f ms%n",
+        label,
+        format,
+        bytes,
+        lz4Bytes,
+        encodeNanos / 1e6 / MEASURED_ITERATIONS,
+        decodeNanos / 1e6 / MEASURED_ITERATIONS);
+  }
+
+  private SerializationBenchmark() {}
+}
@@ -0,0 +1,116 @@
+package org.batfish.bddreachability;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableTable;
+import com.google.common.collect.Table;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import net.sf.javabdd.BDD;
+import org.batfish.bddreachability.transition.Transition;
+import org.batfish.benchmarks.ClosDataPlane;
+import org.batfish.benchmarks.ClosFabric;
+import org.batfish.common.bdd.BDDPacket;
+import org.batfish.datamodel.FlowDisposition;
+import org.batfish.datamodel.UniverseIpSpace;
+import org.batfish.datamodel.acl.AclLineMatchExprs;
+import org.batfish.specifier.InterfaceLinkLocation;
+import org.batfish.specifier.IpSpaceAssignment;
+import org.batfish.specifier.Location;
+import org.batfish.symbolic.state.Query;
+import org.batfish.symbolic.state.StateExpr;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of the forward and backward {@link BDDReachabilityUtils#fixpoint} over the
+ * reachability graph of a {@link ClosDataPlane}, from every server interface to every successful
+ * disposition.
+ *
+ * <p>Lives in the package of {@link BDDReachabilityUtils}, whose fixpoint methods are
+ * package-private. Building the graph is not measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class BDDReachabilityFixpointBenchmark {
+
+  /** The reachability graph and the roots of each direction. */
+  @State(Scope.Benchmark)
+  public static class Graph {
+
+    Table<StateExpr, StateExpr, Transition> _forwardEdgeTable;
+    Map<StateExpr, BDD> _forwardRoots;
+    Map<StateExpr, BDD> _backwardRoots;
+
+    @Setup(Level.Trial)
+    public void setup(ClosDataPlane dataPlane) {
+      BDDPacket pkt = new BDDPacket();
+      ImmutableSet.Builder<Location> locations = ImmutableSet.builder();
+      for (int leaf = 0; leaf < dataPlane._leaves; leaf++) {
+        for (int subnet = 0; subnet < dataPlane._subnetsPerLeaf; subnet++) {
+          locations.add(
+              new InterfaceLinkLocation(
+                  ClosFabric.leafHostname(leaf), ClosFabric.serverInterface(subnet)));
+        }
+      }
+      BDDReachabilityAnalysis analysis =
+          new BDDReachabilityAnalysisFactory(
+                  pkt,
+                  dataPlane._configs,
+                  dataPlane._dataPlane.getForwardingAnalysis(),
+                  new IpsRoutedOutInterfacesFactory(dataPlane._dataPlane.getFibs()),
+                  false,
+                  false)
+              .bddReachabilityAnalysis(
+                  IpSpaceAssignment.builder()
+                      .assign(locations.build(), UniverseIpSpace.INSTANCE)
+                      .build(),
+                  AclLineMatchExprs.TRUE,
+                  ImmutableSet.of(),
+                  ImmutableSet.of(),
+                  dataPlane._configs.keySet(),
+                  FlowDisposition.SUCCESS_DISPOSITIONS);
+
+      ImmutableTable.Builder<StateExpr, StateExpr, Transition> edges = ImmutableTable.builder();
+      analysis
+          .getForwardEdgeMap()
+          .forEach(
+              (preState, postStates) ->
+                  postStates.forEach(
+                      (postState, transition) -> edges.put(preState, postState, transition)));
+      _forwardEdgeTable = edges.build();
+
+      BDD one = pkt.getFactory().one();
+      _forwardRoots = new HashMap<>();
+      analysis.getIngressLocationStates().forEach(state -> _forwardRoots.put(state, one));
+      _backwardRoots = new HashMap<>();
+      _backwardRoots.put(Query.INSTANCE, one);
+    }
+  }
+
+  @Benchmark
+  public Map<StateExpr, BDD> forwardFixpoint(Graph graph) {
+    Map<StateExpr, BDD> reachable = new HashMap<>(graph._forwardRoots);
+    BDDReachabilityUtils.forwardFixpoint(graph._forwardEdgeTable, reachable);
+    return reachable;
+  }
+
+  @Benchmark
+  public Map<StateExpr, BDD> backwardFixpoint(Graph graph) {
+    Map<StateExpr, BDD> reachable = new HashMap<>(graph._backwardRoots);
+    BDDReachabilityUtils.backwardFixpoint(graph._forwardEdgeTable, reachable);
+    return reachable;
+  }
+}
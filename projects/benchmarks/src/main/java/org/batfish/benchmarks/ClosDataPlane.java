@@ -0,0 +1,52 @@
+package org.batfish.benchmarks;
+
+import static com.google.common.base.Preconditions.checkState;
+
+import java.util.SortedMap;
+import org.batfish.common.plugin.DataPlanePlugin.ComputeDataPlaneResult;
+import org.batfish.datamodel.Configuration;
+import org.batfish.datamodel.DataPlane;
+import org.batfish.datamodel.Prefix;
+import org.batfish.datamodel.RoutingProtocol;
+import org.batfish.datamodel.Topology;
+import org.batfish.dataplane.ibdp.IncrementalBdpEngineBenchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/** The configurations and computed data plane of a {@link ClosFabric}, shared by benchmarks. */
+@State(Scope.Benchmark)
+public class ClosDataPlane {
+
+  @Param({"4"})
+  public int _spines;
+
+  @Param({"16", "64"})
+  public int _leaves;
+
+  @Param({"8"})
+  public int _subnetsPerLeaf;
+
+  public SortedMap<String, Configuration> _configs;
+  public DataPlane _dataPlane;
+  public Topology _layer3Topology;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    _configs = ClosFabric.configurations(_spines, _leaves, _subnetsPerLeaf, 16);
+    ComputeDataPlaneResult result = IncrementalBdpEngineBenchmark.computeDataPlane(_configs);
+    _dataPlane = result._dataPlane;
+    _layer3Topology = result._topologies.getLayer3Topology();
+
+    // guard against a generator change silently breaking the fabric
+    Prefix farSubnet = ClosFabric.serverSubnet(_leaves - 1, _subnetsPerLeaf - 1);
+    long paths =
+        _dataPlane.getRibs().get(ClosFabric.leafHostname(0)).get(Configuration.DEFAULT_VRF_NAME)
+            .longestPrefixMatch(farSubnet.getStartIp()).stream()
+            .filter(route -> route.getRoute().getProtocol() == RoutingProtocol.BGP)
+            .count();
+    checkState(paths == _spines, "Expected %s paths to %s, got %s", _spines, farSubnet, paths);
+  }
+}
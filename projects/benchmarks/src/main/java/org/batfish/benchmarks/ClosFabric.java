@@ -0,0 +1,390 @@
+package org.batfish.benchmarks;
+
+import static com.google.common.base.Preconditions.checkState;
+
+import com.google.common.collect.HashMultimap;
+import java.util.Map.Entry;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import org.apache.commons.lang3.SerializationUtils;
+import org.batfish.common.BatfishLogger;
+import org.batfish.common.NetworkSnapshot;
+import org.batfish.config.Settings;
+import org.batfish.datamodel.Configuration;
+import org.batfish.datamodel.ConfigurationFormat;
+import org.batfish.datamodel.Ip;
+import org.batfish.datamodel.Prefix;
+import org.batfish.identifiers.NetworkId;
+import org.batfish.identifiers.SnapshotId;
+import org.batfish.job.ConvertConfigurationJob;
+import org.batfish.job.ConvertConfigurationResult;
+import org.batfish.job.ParseVendorConfigurationJob;
+import org.batfish.job.ParseVendorConfigurationResult;
+import org.batfish.main.Batfish;
+import org.batfish.vendor.VendorConfiguration;
+
+/**
+ * Generates the configurations of a two-tier Clos fabric: every leaf runs eBGP to every spine,
+ * advertises its loopback and server subnets, and filters traffic arriving from its servers.
+ *
+ * <p>Spines are in AS {@value #SPINE_AS}, leaf {@code i} is in AS {@code 65001 + i}. Leaf
+ * configurations carry an ACL and a prefix list of {@code filterLines} lines each, so parsing, ACL
+ * and routing policy costs can be scaled independently of the size of the fabric.
+ */
+public final class ClosFabric {
+
+  public static final long SPINE_AS = 65000L;
+
+  /** Name of the ACL applied to traffic from the servers of each leaf. */
+  public static final String SERVERS_ACL = "SERVERS-IN";
+
+  /** Name of the routing policy applied to routes from the spines at each leaf. */
+  public static final String SPINE_IMPORT_POLICY = "SPINE-IN";
+
+  private static final long LINK_BASE = Ip.parse("10.0.0.0").asLong();
+  private static final long LOOPBACK_BASE = Ip.parse("10.64.0.0").asLong();
+  private static final long SERVER_BASE = Ip.parse("10.128.0.0").asLong();
+
+  public static String spineHostname(int spine) {
+    return String.format("spine-%03d", spine);
+  }
+
+  public static String leafHostname(int leaf) {
+    return String.format("leaf-%03d", leaf);
+  }
+
+  public static long leafAs(int leaf) {
+    return SPINE_AS + 1 + leaf;
+  }
+
+  /** Returns the name of the interface of {@code leaf} facing its {@code subnet}-th servers. */
+  public static String serverInterface(int subnet) {
+    return "Ethernet" + (101 + subnet);
+  }
+
+  /** Returns the {@code subnet}-th server subnet of {@code leaf}. */
+  public static Prefix serverSubnet(int leaf, int subnet) {
+    return Prefix.create(Ip.create(SERVER_BASE + (((long) leaf << 8) + subnet << 8)), 24);
+  }
+
+  private static Ip loopback(long node) {
+    return Ip.create(LOOPBACK_BASE + node);
+  }
+
+  /** Returns the address on the link between {@code spine} and {@code leaf}. */
+  private static Ip linkIp(int spine, int leaf, boolean leafSide) {
+    return Ip.create(LINK_BASE + (((long) spine << 10) + leaf << 1) + (leafSide ? 1 : 0));
+  }
+
+  /** Returns the Cisco IOS configuration text of every node of the fabric, keyed by filename. */
+  public static SortedMap<String, String> ciscoConfigs(
+      int spines, int leaves, int subnetsPerLeaf, int filterLines) {
+    SortedMap<String, String> configs = new TreeMap<>();
+    for (int spine = 0; spine < spines; spine++) {
+      configs.put(spineHostname(spine) + ".cfg", spineCiscoConfig(spine, leaves));
+    }
+    for (int leaf = 0; leaf < leaves; leaf++) {
+      configs.put(
+          leafHostname(leaf) + ".cfg", leafCiscoConfig(leaf, spines, subnetsPerLeaf, filterLines));
+    }
+    return configs;
+  }
+
+  public static String spineCiscoConfig(int spine, int leaves) {
+    StringBuilder sb = new StringBuilder();
+    Ip loopback = loopback(spine);
+    sb.append("!\nhostname ").append(spineHostname(spine)).append("\n!\n");
+    sb.append("interface Loopback0\n ip address ").append(loopback).append(" 255.255.255.255\n!\n");
+    for (int leaf = 0; leaf < leaves; leaf++) {
+      sb.append("interface Ethernet").append(leaf + 1).append('\n');
+      sb.append(" description ").append(leafHostname(leaf)).append('\n');
+      sb.append(" ip address ").append(linkIp(spine, leaf, false)).append(" 255.255.255.254\n");
+      sb.append(" no shutdown\n!\n");
+    }
+    sb.append("router bgp ").append(SPINE_AS).append('\n');
+    sb.append(" bgp router-id ").append(loopback).append('\n');
+    sb.append(" maximum-paths 64\n");
+    sb.append(" network ").append(loopback).append(" mask 255.255.255.255\n");
+    for (int leaf = 0; leaf < leaves; leaf++) {
+      Ip peer = linkIp(spine, leaf, true);
+      sb.append(" neighbor ").append(peer).append(" remote-as ").append(leafAs(leaf)).append('\n');
+      sb.append(" neighbor ").append(peer).append(" send-community\n");
+    }
+    sb.append("!\nend\n");
+    return sb.toString();
+  }
+
+  public static String leafCiscoConfig(int leaf, int spines, int subnetsPerLeaf, int filterLines) {
+    StringBuilder sb = new StringBuilder();
+    Ip loopback = loopback(0x8000 + leaf);
+    sb.append("!\nhostname ").append(leafHostname(leaf)).append("\n!\n");
+    sb.append("interface Loopback0\n ip address ").append(loopback).append(" 255.255.255.255\n!\n");
+    for (int spine = 0; spine < spines; spine++) {
+      sb.append("interface Ethernet").append(spine + 1).append('\n');
+      sb.append(" description ").append(spineHostname(spine)).append('\n');
+      sb.append(" ip address ").append(linkIp(spine, leaf, true)).append(" 255.255.255.254\n");
+      sb.append(" no shutdown\n!\n");
+    }
+    for (int subnet = 0; subnet < subnetsPerLeaf; subnet++) {
+      Prefix prefix = serverSubnet(leaf, subnet);
+      sb.append("interface ").append(serverInterface(subnet)).append('\n');
+      sb.append(" description servers\n");
+      sb.append(" ip address ")
+          .append(Ip.create(prefix.getStartIp().asLong() + 1))
+          .append(" 255.255.255.0\n");
+      sb.append(" ip access-group ").append(SERVERS_ACL).append(" in\n");
+      sb.append(" no shutdown\n!\n");
+    }
+
+    sb.append("ip access-list extended ").append(SERVERS_ACL).append('\n');
+    for (int i = 0; i < filterLines; i++) {
+      sb.append(' ').append(ciscoAclLine(i)).append('\n');
+    }
+    sb.append(" permit ip any any\n!\n");
+
+    for (int i = 0; i < filterLines; i++) {
+      sb.append("ip prefix-list BOGONS seq ")
+          .append(5 * (i + 1))
+          .append(" permit ")
+          .append(bogon(i))
+          .append(" le 32\n");
+    }
+    sb.append("ip prefix-list SERVERS seq 5 permit 10.128.0.0/9 ge 24 le 24\n");
+    sb.append("ip prefix-list LOOPBACKS seq 5 permit 10.64.0.0/16 ge 32\n!\n");
+    sb.append("ip community-list standard NO-TRANSIT permit 65000:666\n");
+    sb.append("ip as-path access-list 1 permit ^65000_\n!\n");
+
+    sb.append("route-map ").append(SPINE_IMPORT_POLICY).append(" deny 10\n");
+    sb.append(" match ip address prefix-list BOGONS\n!\n");
+    sb.append("route-map ").append(SPINE_IMPORT_POLICY).append(" deny 20\n");
+    sb.append(" match community NO-TRANSIT\n!\n");
+    sb.append("route-map ").append(SPINE_IMPORT_POLICY).append(" permit 30\n");
+    sb.append(" match as-path 1\n");
+    sb.append(" set local-preference 200\n");
+    sb.append(" set community 65000:1 additive\n!\n");
+    sb.append("route-map ").append(SPINE_IMPORT_POLICY).append(" permit 40\n!\n");
+    sb.append("route-map SPINE-OUT permit 10\n");
+    sb.append(" match ip address prefix-list SERVERS\n");
+    sb.append(" set community ").append(leafAs(leaf)).append(":100\n!\n");
+    sb.append("route-map SPINE-OUT permit 20\n");
+    sb.append(" match ip address prefix-list LOOPBACKS\n!\n");
+
+    sb.append("router bgp ").append(leafAs(leaf)).append('\n');
+    sb.append(" bgp router-id ").append(loopback).append('\n');
+    sb.append(" maximum-paths 64\n");
+    sb.append(" network ").append(loopback).append(" mask 255.255.255.255\n");
+    for (int subnet = 0; subnet < subnetsPerLeaf; subnet++) {
+      sb.append(" network ")
+          .append(serverSubnet(leaf, subnet).getStartIp())
+          .append(" mask 255.255.255.0\n");
+    }
+    for (int spine = 0; spine < spines; spine++) {
+      Ip peer = linkIp(spine, leaf, false);
+      sb.append(" neighbor ").append(peer).append(" remote-as ").append(SPINE_AS).append('\n');
+      sb.append(" neighbor ").append(peer).append(" send-community\n");
+      sb.append(" neighbor ").append(peer).append(" route-map ");
+      sb.append(SPINE_IMPORT_POLICY).append(" in\n");
+      sb.append(" neighbor ").append(peer).append(" route-map SPINE-OUT out\n");
+    }
+    sb.append("!\nend\n");
+    return sb.toString();
+  }
+
+  /**
+   * Returns the flattened Juniper configuration text of a leaf, equivalent to {@link
+   * #leafCiscoConfig}.
+   */
+  public static String leafJuniperConfig(
+      int leaf, int spines, int subnetsPerLeaf, int filterLines) {
+    StringBuilder sb = new StringBuilder();
+    Ip loopback = loopback(0x8000 + leaf);
+    sb.append("set system host-name ").append(leafHostname(leaf)).append('\n');
+    sb.append("set interfaces lo0 unit 0 family inet address ").append(loopback).append("/32\n");
+    for (int spine = 0; spine < spines; spine++) {
+      String iface = "set interfaces xe-0/0/" + spine + " unit 0 ";
+      sb.append(iface).append("description ").append(spineHostname(spine)).append('\n');
+      sb.append(iface)
+          .append("family inet address ")
+          .append(linkIp(spine, leaf, true))
+          .append("/31\n");
+    }
+    for (int subnet = 0; subnet < subnetsPerLeaf; subnet++) {
+      Prefix prefix = serverSubnet(leaf, subnet);
+      String iface = "set interfaces xe-0/1/" + subnet + " unit 0 ";
+      sb.append(iface).append("description servers\n");
+      sb.append(iface)
+          .append("family inet address ")
+          .append(Ip.create(prefix.getStartIp().asLong() + 1))
+          .append("/24\n");
+      sb.append(iface).append("family inet filter input ").append(SERVERS_ACL).append('\n');
+    }
+
+    String filter = "set firewall family inet filter " + SERVERS_ACL + " term ";
+    for (int i = 0; i < filterLines; i++) {
+      String term = filter + "t" + i + " ";
+      int a = (i >> 8) & 0xFF;
+      int b = i & 0xFF;
+      switch (i % 4) {
+        case 0:
+          sb.append(term).append("from protocol tcp\n");
+          sb.append(term).append(String.format("from source-address 10.%d.%d.0/24%n", a, b));
+          sb.append(term).append("from destination-port ").append(1024 + i % 50000).append('\n');
+          sb.append(term).append("then discard\n");
+          break;
+        case 1:
+          sb.append(term).append("from protocol udp\n");
+          sb.append(term).append(String.format("from destination-address 10.128.%d.0/24%n", b));
+          sb.append(term)
+              .append(String.format("from destination-port %d-%d%n", 2000 + b, 3000 + b));
+          sb.append(term).append("then accept\n");
+          break;
+        case 2:
+          sb.append(term).append("from protocol icmp\n");
+          sb.append(term)
+              .append(String.format("from source-address 10.%d.%d.%d/32%n", a, b, i % 251));
+          sb.append(term).append("from icmp-type echo-request\n");
+          sb.append(term).append("then discard\n");
+          break;
+        default:
+          sb.append(term).append("from protocol tcp\n");
+          sb.append(term).append(String.format("from source-address 10.%d.0.0/16%n", a));
+          sb.append(term).append(String.format("from destination-address 10.128.%d.0/24%n", b));
+          sb.append(term).append("from destination-port 8000-65535\n");
+          sb.append(term).append("then accept\n");
+          break;
+      }
+    }
+    sb.append(filter).append("default then accept\n");
+
+    for (int i = 0; i < filterLines; i++) {
+      sb.append("set policy-options prefix-list BOGONS ").append(bogon(i)).append('\n');
+    }
+    sb.append("set policy-options community NO-TRANSIT members 65000:666\n");
+    sb.append("set policy-options community FROM-SPINE members 65000:1\n");
+    sb.append("set policy-options community SERVERS members ")
+        .append(leafAs(leaf))
+        .append(":100\n");
+    sb.append("set policy-options as-path VIA-SPINE \"^65000 .*\"\n");
+    String in = "set policy-options policy-statement " + SPINE_IMPORT_POLICY + " term ";
+    sb.append(in).append("bogons from prefix-list-filter BOGONS orlonger\n");
+    sb.append(in).append("bogons then reject\n");
+    sb.append(in).append("no-transit from community NO-TRANSIT\n");
+    sb.append(in).append("no-transit then reject\n");
+    sb.append(in).append("via-spine from as-path VIA-SPINE\n");
+    sb.append(in).append("via-spine then local-preference 200\n");
+    sb.append(in).append("via-spine then community add FROM-SPINE\n");
+    sb.append(in).append("via-spine then accept\n");
+    sb.append(in).append("default then accept\n");
+    String out = "set policy-options policy-statement SPINE-OUT term ";
+    sb.append(out).append("servers from route-filter 10.128.0.0/9 prefix-length-range /24-/24\n");
+    sb.append(out).append("servers then community add SERVERS\n");
+    sb.append(out).append("servers then accept\n");
+    sb.append(out).append("loopbacks from route-filter 10.64.0.0/16 prefix-length-range /32-/32\n");
+    sb.append(out).append("loopbacks then accept\n");
+    sb.append(out).append("default then reject\n");
+
+    sb.append("set routing-options router-id ").append(loopback).append('\n');
+    sb.append("set routing-options autonomous-system ").append(leafAs(leaf)).append('\n');
+    String group = "set protocols bgp group SPINES ";
+    sb.append(group).append("type external\n");
+    sb.append(group).append("peer-as ").append(SPINE_AS).append('\n');
+    sb.append(group).append("import ").append(SPINE_IMPORT_POLICY).append('\n');
+    sb.append(group).append("export SPINE-OUT\n");
+    sb.append(group).append("multipath\n");
+    for (int spine = 0; spine < spines; spine++) {
+      sb.append(group).append("neighbor ").append(linkIp(spine, leaf, false)).append('\n');
+    }
+    return sb.toString();
+  }
+
+  /** Returns the {@code i}-th line of the {@link #SERVERS_ACL} of {@link #leafCiscoConfig}. */
+  private static String ciscoAclLine(int i) {
+    int a = (i >> 8) & 0xFF;
+    int b = i & 0xFF;
+    switch (i % 4) {
+      case 0:
+        return String.format("deny tcp 10.%d.%d.0 0.0.0.255 any eq %d", a, b, 1024 + i % 50000);
+      case 1:
+        return String.format(
+            "permit udp any 10.128.%d.0 0.0.0.255 range %d %d", b, 2000 + b, 3000 + b);
+      case 2:
+        return String.format("deny icmp host 10.%d.%d.%d any echo", a, b, i % 251);
+      default:
+        return String.format(
+            "permit tcp 10.%d.0.0 0.0.255.255 10.128.%d.0 0.0.0.255 gt 8000", a, b);
+    }
+  }
+
+  /** Returns the {@code i}-th prefix of the bogon prefix list, all within 100.64.0.0/10. */
+  private static String bogon(int i) {
+    return String.format("100.%d.%d.0/24", 64 + ((i >> 8) & 0x3F), i & 0xFF);
+  }
+
+  /**
+   * Returns settings that make parsing and conversion fail on any line of a generated configuration
+   * that Batfish does not understand, so changes to the generator cannot silently shrink what is
+   * benchmarked.
+   */
+  public static Settings strictSettings() {
+    Settings settings = new Settings();
+    settings.setLogger(new BatfishLogger(BatfishLogger.LEVELSTR_WARN, false));
+    settings.setDisableUnrecognized(true);
+    settings.setHaltOnConvertError(true);
+    settings.setHaltOnParseError(true);
+    settings.setThrowOnLexerError(true);
+    settings.setThrowOnParserError(true);
+    return settings;
+  }
+
+  /**
+   * Parses and converts Cisco IOS configuration texts to vendor-independent configurations the same
+   * way {@link Batfish} does, but without storage.
+   */
+  public static SortedMap<String, Configuration> convertCiscoConfigs(
+      SortedMap<String, String> configTexts) {
+    Settings settings = strictSettings();
+    NetworkSnapshot snapshot =
+        new NetworkSnapshot(new NetworkId("benchmark"), new SnapshotId("benchmark"));
+    SortedMap<String, Configuration> configs = new TreeMap<>();
+    for (Entry<String, String> entry : configTexts.entrySet()) {
+      ParseVendorConfigurationResult parseResult =
+          new ParseVendorConfigurationJob(
+                  settings,
+                  snapshot,
+                  entry.getValue(),
+                  entry.getKey(),
+                  Batfish.buildWarnings(settings),
+                  ConfigurationFormat.CISCO_IOS,
+                  HashMultimap.create(),
+                  null)
+              .call();
+      VendorConfiguration vendorConfiguration = parseResult.getVendorConfiguration();
+      checkState(
+          vendorConfiguration != null,
+          "Failed to parse %s: %s",
+          entry.getKey(),
+          parseResult.getFailureCause());
+      ConvertConfigurationResult convertResult =
+          new ConvertConfigurationJob(settings, null, vendorConfiguration, entry.getKey()).call();
+      checkState(
+          convertResult.getFailureCause() == null,
+          "Failed to convert %s: %s",
+          entry.getKey(),
+          convertResult.getFailureCause());
+      // Batfish stores converted configurations and loads them back before computing the data
+      // plane, which also initializes their transient state.
+      convertResult
+          .getConfigurations()
+          .forEach((hostname, config) -> configs.put(hostname, SerializationUtils.clone(config)));
+    }
+    return configs;
+  }
+
+  /** Returns the vendor-independent configurations of a fabric. */
+  public static SortedMap<String, Configuration> configurations(
+      int spines, int leaves, int subnetsPerLeaf, int filterLines) {
+    return convertCiscoConfigs(ciscoConfigs(spines, leaves, subnetsPerLeaf, filterLines));
+  }
+
+  private ClosFabric() {}
+}
@@ -0,0 +1,35 @@
+package org.batfish.benchmarks;
+
+import java.util.SortedMap;
+import java.util.concurrent.TimeUnit;
+import org.batfish.datamodel.AbstractRoute;
+import org.batfish.datamodel.AnnotatedRoute;
+import org.batfish.datamodel.FibImpl;
+import org.batfish.datamodel.GenericRib;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/** Benchmarks of building the {@link FibImpl} of every VRF of a {@link ClosDataPlane}. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FibBenchmark {
+
+  @Benchmark
+  public void buildFibs(ClosDataPlane dataPlane, Blackhole blackhole) {
+    for (SortedMap<String, GenericRib<AnnotatedRoute<AbstractRoute>>> ribs :
+        dataPlane._dataPlane.getRibs().values()) {
+      for (GenericRib<AnnotatedRoute<AbstractRoute>> rib : ribs.values()) {
+        blackhole.consume(new FibImpl(rib));
+      }
+    }
+  }
+}
@@ -0,0 +1,80 @@
+package org.batfish.benchmarks;
+
+import static com.google.common.base.Preconditions.checkState;
+
+import java.util.concurrent.TimeUnit;
+import net.sf.javabdd.BDD;
+import org.batfish.common.bdd.BDDPacket;
+import org.batfish.common.bdd.BDDSourceManager;
+import org.batfish.common.bdd.IpAccessListToBddImpl;
+import org.batfish.datamodel.Configuration;
+import org.batfish.datamodel.IpAccessList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of converting the server ACL of a {@link ClosFabric} leaf to a {@link BDD} with {@link
+ * IpAccessListToBddImpl}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IpAccessListToBddBenchmark {
+
+  /** A converted leaf configuration and its server ACL. */
+  @State(Scope.Benchmark)
+  public static class Acl {
+
+    @Param({"100", "1000", "5000"})
+    public int _aclLines;
+
+    Configuration _config;
+    IpAccessList _acl;
+
+    @Setup(Level.Trial)
+    public void setup() {
+      _config = ClosFabric.configurations(1, 1, 1, _aclLines).get(ClosFabric.leafHostname(0));
+      _acl = _config.getIpAccessLists().get(ClosFabric.SERVERS_ACL);
+      checkState(_acl != null, "Missing ACL %s", ClosFabric.SERVERS_ACL);
+    }
+  }
+
+  /**
+   * A {@link BDDPacket}, recreated each iteration so that BDD nodes and operation caches left by
+   * earlier conversions do not accumulate over the run.
+   */
+  @State(Scope.Thread)
+  public static class Packet {
+    BDDPacket _pkt;
+    BDDSourceManager _srcManager;
+
+    @Setup(Level.Iteration)
+    public void setup(Acl acl) {
+      _pkt = new BDDPacket();
+      _srcManager = BDDSourceManager.forIpAccessList(_pkt, acl._config, acl._acl);
+    }
+  }
+
+  @Benchmark
+  public void toBdd(Acl acl, Packet packet) {
+    new IpAccessListToBddImpl(
+            packet._pkt,
+            packet._srcManager,
+            acl._config.getIpAccessLists(),
+            acl._config.getIpSpaces())
+        .toBdd(acl._acl)
+        .free();
+  }
+}
@@ -0,0 +1,85 @@
+package org.batfish.benchmarks;
+
+import static com.google.common.base.Preconditions.checkState;
+
+import java.util.concurrent.TimeUnit;
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.batfish.config.Settings;
+import org.batfish.datamodel.ConfigurationFormat;
+import org.batfish.grammar.BatfishCombinedParser;
+import org.batfish.grammar.cisco.CiscoCombinedParser;
+import org.batfish.grammar.flatjuniper.FlatJuniperCombinedParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of {@link BatfishCombinedParser#parse} on the Cisco IOS and flattened Juniper
+ * configurations of a large {@link ClosFabric} leaf.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ParserBenchmark {
+
+  private static final int SPINES = 16;
+  private static final int SUBNETS = 48;
+
+  /** Configuration texts of a leaf. */
+  @State(Scope.Benchmark)
+  public static class Texts {
+
+    @Param({"1000", "10000"})
+    public int _filterLines;
+
+    Settings _settings;
+    String _cisco;
+    String _juniper;
+
+    @Setup(Level.Trial)
+    public void setup() {
+      _settings = ClosFabric.strictSettings();
+      _cisco = ClosFabric.leafCiscoConfig(0, SPINES, SUBNETS, _filterLines);
+      _juniper = ClosFabric.leafJuniperConfig(0, SPINES, SUBNETS, _filterLines);
+      checkParses(ciscoParser(this));
+      checkParses(juniperParser(this));
+    }
+  }
+
+  @Benchmark
+  public ParserRuleContext parseCisco(Texts texts) {
+    return ciscoParser(texts).parse();
+  }
+
+  @Benchmark
+  public ParserRuleContext parseJuniper(Texts texts) {
+    return juniperParser(texts).parse();
+  }
+
+  private static CiscoCombinedParser ciscoParser(Texts texts) {
+    return new CiscoCombinedParser(texts._cisco, texts._settings, ConfigurationFormat.CISCO_IOS);
+  }
+
+  private static FlatJuniperCombinedParser juniperParser(Texts texts) {
+    return new FlatJuniperCombinedParser(texts._juniper, texts._settings, null);
+  }
+
+  private static void checkParses(BatfishCombinedParser<?, ?> parser) {
+    parser.parse();
+    checkState(
+        parser.getErrors().isEmpty(),
+        "Generated configuration does not parse cleanly:\n%s",
+        String.join("\n", parser.getErrors()));
+  }
+}
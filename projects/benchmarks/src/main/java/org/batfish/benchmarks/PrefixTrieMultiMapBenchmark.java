@@ -0,0 +1,173 @@
+package org.batfish.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.batfish.datamodel.Ip;
+import org.batfish.datamodel.Prefix;
+import org.batfish.datamodel.PrefixTrieMultiMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks of {@link PrefixTrieMultiMap}, which backs every RIB and FIB, on route sets shaped
+ * like a BGP table: mostly /24s, with more-specifics nested in shorter aggregates.
+ *
+ * <p>Run with {@code java -jar benchmarks-bundle-<version>.jar PrefixTrieMultiMapBenchmark -prof
+ * gc} to also report allocation rates.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PrefixTrieMultiMapBenchmark {
+
+  private static final int LOOKUPS = 1 << 16;
+
+  /** Generated routes and a trie holding them. */
+  @State(Scope.Benchmark)
+  public static class Routes {
+
+    @Param({"10000", "100000", "500000"})
+    public int _numRoutes;
+
+    Prefix[] _prefixes;
+    Ip[] _lookups;
+    PrefixTrieMultiMap<Integer> _trie;
+
+    @Setup(Level.Trial)
+    public void setup() {
+      Random random = new Random(0);
+      _prefixes = generatePrefixes(random, _numRoutes);
+      _lookups = new Ip[LOOKUPS];
+      for (int i = 0; i < LOOKUPS; i++) {
+        // mostly destinations covered by some route, as in forwarding
+        _lookups[i] =
+            random.nextInt(5) == 0
+                ? Ip.create(random.nextInt() & 0xFFFFFFFFL)
+                : randomIpIn(random, _prefixes[random.nextInt(_prefixes.length)]);
+      }
+      _trie = populate(_prefixes);
+    }
+  }
+
+  /** A fresh trie for each invocation, for benchmarks that mutate it. */
+  @State(Scope.Thread)
+  public static class FreshTrie {
+    PrefixTrieMultiMap<Integer> _trie;
+
+    @Setup(Level.Invocation)
+    public void setup(Routes routes) {
+      _trie = populate(routes._prefixes);
+    }
+  }
+
+  @Benchmark
+  public PrefixTrieMultiMap<Integer> insert(Routes routes) {
+    return populate(routes._prefixes);
+  }
+
+  @Benchmark
+  public PrefixTrieMultiMap<Integer> remove(Routes routes, FreshTrie fresh) {
+    Prefix[] prefixes = routes._prefixes;
+    for (int i = 0; i < prefixes.length; i++) {
+      fresh._trie.remove(prefixes[i], i);
+    }
+    return fresh._trie;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(LOOKUPS)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  public void longestPrefixMatch(Routes routes, Blackhole blackhole) {
+    for (Ip ip : routes._lookups) {
+      blackhole.consume(routes._trie.longestPrefixMatch(ip));
+    }
+  }
+
+  @Benchmark
+  public Object getAllElements(Routes routes) {
+    return routes._trie.getAllElements();
+  }
+
+  private static PrefixTrieMultiMap<Integer> populate(Prefix[] prefixes) {
+    PrefixTrieMultiMap<Integer> trie = new PrefixTrieMultiMap<>(Prefix.ZERO);
+    for (int i = 0; i < prefixes.length; i++) {
+      trie.put(prefixes[i], i);
+    }
+    return trie;
+  }
+
+  /**
+   * Returns {@code count} unicast prefixes with a length distribution approximating that of the
+   * IPv4 Internet routing table. About a third of them are more-specifics of an earlier, shorter
+   * prefix.
+   */
+  static Prefix[] generatePrefixes(Random random, int count) {
+    List<Prefix> aggregates = new ArrayList<>();
+    Prefix[] prefixes = new Prefix[count];
+    for (int i = 0; i < count; i++) {
+      int length = randomPrefixLength(random);
+      Prefix prefix;
+      if (!aggregates.isEmpty() && random.nextInt(3) == 0) {
+        Prefix aggregate = aggregates.get(random.nextInt(aggregates.size()));
+        prefix =
+            Prefix.create(
+                randomIpIn(random, aggregate), Math.max(length, aggregate.getPrefixLength() + 1));
+      } else {
+        // 1.0.0.0 through 223.255.255.255
+        long start = 0x01000000L + (random.nextInt() & 0xFFFFFFFFL) % 0xDF000000L;
+        prefix = Prefix.create(Ip.create(start), length);
+      }
+      if (prefix.getPrefixLength() < 24) {
+        aggregates.add(prefix);
+      }
+      prefixes[i] = prefix;
+    }
+    return prefixes;
+  }
+
+  private static int randomPrefixLength(Random random) {
+    int p = random.nextInt(100);
+    if (p < 58) {
+      return 24;
+    } else if (p < 68) {
+      return 23;
+    } else if (p < 80) {
+      return 22;
+    } else if (p < 85) {
+      return 21;
+    } else if (p < 90) {
+      return 20;
+    } else if (p < 93) {
+      return 19;
+    } else if (p < 96) {
+      return 17 + random.nextInt(2);
+    } else if (p < 98) {
+      return 16;
+    } else if (p < 99) {
+      return 8 + random.nextInt(8);
+    } else {
+      return 25 + random.nextInt(8);
+    }
+  }
+
+  private static Ip randomIpIn(Random random, Prefix prefix) {
+    long hostBits = (1L << (Prefix.MAX_PREFIX_LENGTH - prefix.getPrefixLength())) - 1;
+    return Ip.create(prefix.getStartIp().asLong() | (random.nextInt() & hostBits));
+  }
+}
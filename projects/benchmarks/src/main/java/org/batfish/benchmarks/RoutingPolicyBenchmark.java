@@ -0,0 +1,114 @@
+package org.batfish.benchmarks;
+
+import static com.google.common.base.Preconditions.checkState;
+
+import com.google.common.collect.ImmutableSet;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.batfish.datamodel.AsPath;
+import org.batfish.datamodel.Bgpv4Route;
+import org.batfish.datamodel.Configuration;
+import org.batfish.datamodel.Ip;
+import org.batfish.datamodel.OriginType;
+import org.batfish.datamodel.Prefix;
+import org.batfish.datamodel.RoutingProtocol;
+import org.batfish.datamodel.bgp.community.Community;
+import org.batfish.datamodel.bgp.community.StandardCommunity;
+import org.batfish.datamodel.routing_policy.Environment;
+import org.batfish.datamodel.routing_policy.Environment.Direction;
+import org.batfish.datamodel.routing_policy.RoutingPolicy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks of {@link RoutingPolicy#call} on BGP routes, using the import policy of a {@link
+ * ClosFabric} leaf: a bogon prefix list, a community match and an AS-path match with attribute
+ * rewrites.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RoutingPolicyBenchmark {
+
+  private static final int ROUTES = 1 << 12;
+
+  /** A converted leaf configuration, its import policy and routes to run through it. */
+  @State(Scope.Benchmark)
+  public static class Policy {
+
+    @Param({"100", "1000"})
+    public int _prefixListLines;
+
+    Configuration _config;
+    RoutingPolicy _policy;
+    Bgpv4Route[] _routes;
+
+    @Setup(Level.Trial)
+    public void setup() {
+      _config =
+          ClosFabric.configurations(1, 1, 1, _prefixListLines).get(ClosFabric.leafHostname(0));
+      _policy = _config.getRoutingPolicies().get(ClosFabric.SPINE_IMPORT_POLICY);
+      checkState(_policy != null, "Missing policy %s", ClosFabric.SPINE_IMPORT_POLICY);
+
+      Random random = new Random(0);
+      Prefix[] prefixes = PrefixTrieMultiMapBenchmark.generatePrefixes(random, ROUTES);
+      Ip neighbor = Ip.parse("10.0.0.0");
+      _routes = new Bgpv4Route[ROUTES];
+      for (int i = 0; i < ROUTES; i++) {
+        // a tenth of the routes are bogons, a tenth are tagged no-transit
+        Prefix prefix =
+            random.nextInt(10) == 0
+                ? Prefix.create(Ip.create((100L << 24) + ((64 + random.nextInt(64)) << 16)), 24)
+                : prefixes[i];
+        ImmutableSet.Builder<Community> communities = ImmutableSet.builder();
+        communities.add(StandardCommunity.of(65000 + random.nextInt(64), 100));
+        if (random.nextInt(10) == 0) {
+          communities.add(StandardCommunity.of(65000, 666));
+        }
+        _routes[i] =
+            Bgpv4Route.builder()
+                .setNetwork(prefix)
+                .setNextHopIp(neighbor)
+                .setOriginatorIp(neighbor)
+                .setReceivedFromIp(neighbor)
+                .setOriginType(OriginType.IGP)
+                .setProtocol(RoutingProtocol.BGP)
+                .setAsPath(
+                    AsPath.ofSingletonAsSets(
+                        random.nextBoolean() ? ClosFabric.SPINE_AS : 65100L,
+                        65001L + random.nextInt(64),
+                        (long) 1 + random.nextInt(64000)))
+                .setCommunities(communities.build())
+                .build();
+      }
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ROUTES)
+  public void call(Policy policy, Blackhole blackhole) {
+    for (Bgpv4Route route : policy._routes) {
+      Environment environment =
+          Environment.builder(policy._config)
+              .setOriginalRoute(route)
+              .setOutputRoute(route.toBuilder())
+              .setDirection(Direction.IN)
+              .build();
+      blackhole.consume(policy._policy.call(environment).getBooleanValue());
+    }
+  }
+}
@@ -0,0 +1,96 @@
+package org.batfish.benchmarks;
+
+import static com.google.common.base.Preconditions.checkState;
+
+import com.google.common.collect.ImmutableSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.batfish.datamodel.Flow;
+import org.batfish.datamodel.Ip;
+import org.batfish.datamodel.IpProtocol;
+import org.batfish.datamodel.Prefix;
+import org.batfish.datamodel.flow.TraceAndReverseFlow;
+import org.batfish.dataplane.TracerouteEngineImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of tracing flows between the servers of different leaves of a {@link ClosDataPlane}
+ * with {@link TracerouteEngineImpl}. Every flow takes a multipath route through all spines and
+ * passes the server ACL at its ingress leaf.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TracerouteBenchmark {
+
+  private static final int FLOWS = 256;
+
+  /** Flows from the servers of random leaves to those of other random leaves. */
+  @State(Scope.Benchmark)
+  public static class Flows {
+
+    TracerouteEngineImpl _engine;
+    Set<Flow> _flows;
+
+    @Setup(Level.Trial)
+    public void setup(ClosDataPlane dataPlane) {
+      _engine = new TracerouteEngineImpl(dataPlane._dataPlane, dataPlane._layer3Topology);
+      Random random = new Random(0);
+      ImmutableSet.Builder<Flow> flows = ImmutableSet.builder();
+      for (int i = 0; i < FLOWS; i++) {
+        int srcLeaf = random.nextInt(dataPlane._leaves);
+        int dstLeaf = (srcLeaf + 1 + random.nextInt(dataPlane._leaves - 1)) % dataPlane._leaves;
+        int srcSubnet = random.nextInt(dataPlane._subnetsPerLeaf);
+        flows.add(
+            Flow.builder()
+                .setIngressNode(ClosFabric.leafHostname(srcLeaf))
+                .setIngressInterface(ClosFabric.serverInterface(srcSubnet))
+                .setSrcIp(randomHost(random, ClosFabric.serverSubnet(srcLeaf, srcSubnet)))
+                .setDstIp(
+                    randomHost(
+                        random,
+                        ClosFabric.serverSubnet(
+                            dstLeaf, random.nextInt(dataPlane._subnetsPerLeaf))))
+                .setIpProtocol(IpProtocol.TCP)
+                .setSrcPort(49152 + random.nextInt(16384))
+                .setDstPort(443)
+                .build());
+      }
+      _flows = flows.build();
+
+      Map<Flow, List<TraceAndReverseFlow>> traces =
+          _engine.computeTracesAndReverseFlows(_flows, ImmutableSet.of(), false);
+      checkState(
+          traces.values().stream()
+              .flatMap(List::stream)
+              .allMatch(trace -> trace.getTrace().getDisposition().isSuccessful()),
+          "Expected all flows to be delivered");
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(FLOWS)
+  public Map<Flow, List<TraceAndReverseFlow>> computeTraces(Flows flows) {
+    return flows._engine.computeTracesAndReverseFlows(flows._flows, ImmutableSet.of(), false);
+  }
+
+  private static Ip randomHost(Random random, Prefix subnet) {
+    return Ip.create(subnet.getStartIp().asLong() + 2 + random.nextInt(250));
+  }
+}
@@ -0,0 +1,78 @@
+package org.batfish.dataplane.ibdp;
+
+import com.google.common.collect.ImmutableSet;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.concurrent.TimeUnit;
+import org.batfish.benchmarks.ClosFabric;
+import org.batfish.common.BatfishLogger;
+import org.batfish.common.plugin.DataPlanePlugin.ComputeDataPlaneResult;
+import org.batfish.common.topology.TopologyUtil;
+import org.batfish.datamodel.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of {@link IncrementalBdpEngine#computeDataPlane} on eBGP {@link ClosFabric}s.
+ *
+ * <p>Lives in the package of the engine, whose entry point is package-private.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class IncrementalBdpEngineBenchmark {
+
+  /** The configurations of a fabric. */
+  @State(Scope.Benchmark)
+  public static class Fabric {
+
+    @Param({"4"})
+    public int _spines;
+
+    @Param({"16", "64"})
+    public int _leaves;
+
+    @Param({"8"})
+    public int _subnetsPerLeaf;
+
+    SortedMap<String, Configuration> _configs;
+
+    @Setup(Level.Trial)
+    public void setup() {
+      _configs = ClosFabric.configurations(_spines, _leaves, _subnetsPerLeaf, 16);
+    }
+  }
+
+  @Benchmark
+  public ComputeDataPlaneResult computeDataPlane(Fabric fabric) {
+    return computeDataPlane(fabric._configs);
+  }
+
+  /**
+   * Computes the data plane of {@code configs}, with a layer-3 topology inferred from interface
+   * addresses. Also used by other benchmarks to set up a data plane.
+   */
+  public static ComputeDataPlaneResult computeDataPlane(Map<String, Configuration> configs) {
+    return new IncrementalBdpEngine(
+            new IncrementalDataPlaneSettings(),
+            new BatfishLogger(BatfishLogger.LEVELSTR_WARN, false))
+        .computeDataPlane(
+            configs,
+            TopologyContext.builder()
+                .setLayer3Topology(TopologyUtil.synthesizeL3Topology(configs))
+                .build(),
+            ImmutableSet.of());
+  }
+}
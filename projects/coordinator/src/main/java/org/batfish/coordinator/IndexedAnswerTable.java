@@ -0,0 +1,254 @@
+package org.batfish.coordinator;
+
+import static java.util.Comparator.comparing;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.common.primitives.Ints;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+import org.batfish.common.AnswerRowsOptions;
+import org.batfish.common.ColumnFilter;
+import org.batfish.common.ColumnSortOption;
+import org.batfish.datamodel.answers.AnswerSummary;
+import org.batfish.datamodel.table.ColumnMetadata;
+import org.batfish.datamodel.table.Row;
+import org.batfish.datamodel.table.TableAnswerElement;
+import org.batfish.datamodel.table.TableMetadata;
+import org.batfish.datamodel.table.TableViewRow;
+
+/**
+ * A {@link TableAnswerElement} prepared for repeated filtering, sorting, and paging.
+ *
+ * <p>Rows are addressed by their index in the raw table. The lower-cased text of each filtered
+ * column is computed once and kept as a column index, and the filtered, sorted, projected, and
+ * uniquified rows for each {@link AnswerRowsOptions} are cached as a {@link View}, so that paging
+ * through an answer only has to slice an existing view. The cached views are bounded by the number
+ * of rows they hold, relative to the size of the table.
+ */
+@ParametersAreNonnullByDefault
+final class IndexedAnswerTable {
+
+  /**
+   * The rows of an {@link IndexedAnswerTable} selected by an {@link AnswerRowsOptions}, before
+   * applying its row offset and maximum number of rows.
+   */
+  static final class View {
+
+    /** Indices of the raw rows in this view, in order */
+    private final int[] _ids;
+
+    /** Rows projected to the selected columns, parallel to {@link #_ids}, or null if unprojected */
+    private final @Nullable List<Row> _projectedRows;
+
+    /** The number of raw rows that matched the filters */
+    private final int _numResults;
+
+    private final IndexedAnswerTable _table;
+
+    private final TableMetadata _tableMetadata;
+
+    private View(
+        IndexedAnswerTable table,
+        int[] ids,
+        @Nullable List<Row> projectedRows,
+        int numResults,
+        TableMetadata tableMetadata) {
+      _table = table;
+      _ids = ids;
+      _projectedRows = projectedRows;
+      _numResults = numResults;
+      _tableMetadata = tableMetadata;
+    }
+
+    int getNumResults() {
+      return _numResults;
+    }
+
+    /** The number of row ids and projected rows held by this view, plus one for the view itself */
+    private int getWeight() {
+      return _ids.length + (_projectedRows != null ? _projectedRows.size() : 0) + 1;
+    }
+
+    @Nonnull
+    TableMetadata getTableMetadata() {
+      return _tableMetadata;
+    }
+
+    /** Returns at most {@code maxRows} rows of this view, starting at {@code rowOffset}. */
+    @Nonnull
+    List<TableViewRow> page(int rowOffset, int maxRows) {
+      int start = Math.min(rowOffset, _ids.length);
+      int end = (int) Math.min((long) start + maxRows, _ids.length);
+      ImmutableList.Builder<TableViewRow> rows = ImmutableList.builder();
+      for (int i = start; i < end; i++) {
+        Row row = _projectedRows != null ? _projectedRows.get(i) : _table._rows.get(_ids[i]);
+        rows.add(new TableViewRow(_ids[i], row));
+      }
+      return rows.build();
+    }
+  }
+
+  /**
+   * The cached views of a table may hold this many row ids and projected rows per row of the table,
+   * enough for one projected view of every row
+   */
+  private static final int MAX_CACHED_VIEW_ROWS_PER_ROW = 2;
+
+  /** Additional weight allowed for cached views, so that small tables can still cache a few */
+  private static final int MIN_CACHED_VIEWS_WEIGHT = 16;
+
+  /** Lower-cased text of each row's value, for each column that has been filtered on */
+  private final Map<String, String[]> _filterTexts;
+
+  private final List<Row> _rows;
+
+  private final TableAnswerElement _table;
+
+  private final long _maxViewsWeight;
+
+  private final Map<AnswerRowsOptions, View> _views;
+
+  IndexedAnswerTable(TableAnswerElement table) {
+    _table = table;
+    _rows = ImmutableList.copyOf(table.getRowsList());
+    _filterTexts = new ConcurrentHashMap<>();
+    _maxViewsWeight = (long) MAX_CACHED_VIEW_ROWS_PER_ROW * _rows.size() + MIN_CACHED_VIEWS_WEIGHT;
+    // a single segment, so that any one view fits within the bound
+    _views =
+        CacheBuilder.newBuilder()
+            .concurrencyLevel(1)
+            .maximumWeight(_maxViewsWeight)
+            .<AnswerRowsOptions, View>weigher((options, view) -> view.getWeight())
+            .build()
+            .asMap();
+  }
+
+  @Nonnull
+  TableAnswerElement getTable() {
+    return _table;
+  }
+
+  int getNumRows() {
+    return _rows.size();
+  }
+
+  /**
+   * An upper bound on the number of rows held by this table, counting the row ids and projected
+   * rows of its cached views as rows.
+   */
+  int getWeight() {
+    return Ints.saturatedCast(_rows.size() + _maxViewsWeight);
+  }
+
+  /** Returns a copy of the raw table's summary, or a new summary if it has none. */
+  @Nonnull
+  AnswerSummary copySummary() {
+    AnswerSummary summary = _table.getSummary();
+    return summary == null
+        ? new AnswerSummary()
+        : new AnswerSummary(
+            summary.getNotes(),
+            summary.getNumFailed(),
+            summary.getNumPassed(),
+            summary.getNumResults());
+  }
+
+  /**
+   * Returns the {@link View} selected by {@code options}, ignoring its row offset and maximum
+   * number of rows, using {@code comparators} to build the comparator for a non-empty sort order.
+   */
+  @Nonnull
+  View getView(
+      AnswerRowsOptions options, Function<List<ColumnSortOption>, Comparator<Row>> comparators) {
+    AnswerRowsOptions key =
+        new AnswerRowsOptions(
+            options.getColumns(),
+            options.getFilters(),
+            Integer.MAX_VALUE,
+            0,
+            options.getSortOrder(),
+            options.getUniqueRows());
+    return _views.computeIfAbsent(key, k -> computeView(k, comparators));
+  }
+
+  @VisibleForTesting
+  int getNumCachedViews() {
+    return _views.size();
+  }
+
+  private @Nonnull View computeView(
+      AnswerRowsOptions options, Function<List<ColumnSortOption>, Comparator<Row>> comparators) {
+    int[] ids = filter(options.getFilters());
+    int numResults = ids.length;
+    if (!options.getSortOrder().isEmpty()) {
+      Comparator<Row> comparator = comparators.apply(options.getSortOrder());
+      ids =
+          Arrays.stream(ids)
+              .boxed()
+              .sorted(comparing(_rows::get, comparator))
+              .mapToInt(Integer::intValue)
+              .toArray();
+    }
+    if (options.getColumns().isEmpty()) {
+      if (options.getUniqueRows()) {
+        Set<Row> seen = new HashSet<>();
+        ids = Arrays.stream(ids).filter(id -> seen.add(_rows.get(id))).toArray();
+      }
+      return new View(this, ids, null, numResults, _table.getMetadata());
+    }
+    // project to desired columns, uniquifying if desired
+    Set<Row> seen = new HashSet<>();
+    List<Row> projectedRows = new ArrayList<>(ids.length);
+    IntStream.Builder projectedIds = IntStream.builder();
+    for (int id : ids) {
+      Row row = Row.builder().putAll(_rows.get(id), options.getColumns()).build();
+      if (!options.getUniqueRows() || seen.add(row)) {
+        projectedRows.add(row);
+        projectedIds.add(id);
+      }
+    }
+    Map<String, ColumnMetadata> columnMap = new LinkedHashMap<>(_table.getMetadata().toColumnMap());
+    columnMap.keySet().retainAll(options.getColumns());
+    TableMetadata tableMetadata =
+        new TableMetadata(
+            ImmutableList.copyOf(columnMap.values()), _table.getMetadata().getTextDesc());
+    return new View(
+        this,
+        projectedIds.build().toArray(),
+        ImmutableList.copyOf(projectedRows),
+        numResults,
+        tableMetadata);
+  }
+
+  /** Returns the indices of the rows matching all of {@code filters}, in order. */
+  private @Nonnull int[] filter(List<ColumnFilter> filters) {
+    IntStream ids = IntStream.range(0, _rows.size());
+    for (ColumnFilter filter : filters) {
+      String[] texts = _filterTexts.computeIfAbsent(filter.getColumn(), this::computeFilterTexts);
+      String filterText = filter.getFilterText().toLowerCase();
+      ids = ids.filter(id -> texts[id].contains(filterText));
+    }
+    return ids.toArray();
+  }
+
+  /** Computes the text matched by {@link ColumnFilter#matches} for each row in {@code column}. */
+  private @Nonnull String[] computeFilterTexts(String column) {
+    return _rows.stream()
+        .map(row -> row.get(column).toString().toLowerCase())
+        .toArray(String[]::new);
+  }
+}
@@ -184,6 +184,11 @@ public class Main {
     _workManager = workManager;
   }
 
+  @VisibleForTesting
+  static void setPoolMgr(PoolMgr poolManager) {
+    _poolManager = poolManager;
+  }
+
   public static void setAuthorizer(Authorizer authorizer) {
     _authorizer = authorizer;
   }
@@ -27,7 +27,15 @@ public class PoolMgr {
   static final class WorkerStatusRefreshTask implements Runnable {
     @Override
     public void run() {
-      Main.getPoolMgr().refreshWorkerStatus();
+      try {
+        Main.getPoolMgr().refreshWorkerStatus();
+      } catch (Exception e) {
+        // an exception escaping a periodic task would cancel all of its future runs
+        Main.getLogger()
+            .errorf(
+                "Got exception refreshing worker status: %s\n",
+                Throwables.getStackTraceAsString(e));
+      }
     }
   }
 
@@ -35,6 +43,9 @@ public class PoolMgr {
 
   private final Settings _settings;
 
+  /** Called when a worker is observed becoming idle. Does nothing until it is set. */
+  @Nullable private volatile Runnable _workerIdleListener;
+
   // the key should be of the form <ip or hostname>:<port>
   private Map<String, WorkerStatus> _workerPool;
 
@@ -112,6 +123,7 @@ public class PoolMgr {
     // _logger.debug("PM:RefreshWorkerStatus: refreshing status of " + worker
     // +"\n");
     Client client = null;
+    boolean becameIdle = false;
     try {
       // Client client = ClientBuilder.newClient();
       client =
@@ -164,9 +176,11 @@ public class PoolMgr {
 
         // update the status, except leave the ones with TRYINGTOASSIGN
         // alone
-        if (getWorkerStatus(worker).getStatus() != WorkerStatus.StatusCode.TRYINGTOASSIGN) {
+        WorkerStatus.StatusCode oldStatus = getWorkerStatus(worker).getStatus();
+        if (oldStatus != WorkerStatus.StatusCode.TRYINGTOASSIGN) {
           updateWorkerStatus(
               worker, status ? WorkerStatus.StatusCode.IDLE : WorkerStatus.StatusCode.BUSY);
+          becameIdle = status && oldStatus != WorkerStatus.StatusCode.IDLE;
         }
       }
     } catch (ProcessingException e) {
@@ -181,6 +195,20 @@ public class PoolMgr {
         client.close();
       }
     }
+
+    // a worker that just became available can take queued work right away
+    Runnable workerIdleListener = _workerIdleListener;
+    if (becameIdle && workerIdleListener != null) {
+      workerIdleListener.run();
+    }
+  }
+
+  /**
+   * Sets the action to take when a worker is observed becoming idle. The pool manager starts
+   * before the work manager, so status refreshes until then do not notify anyone.
+   */
+  public void setWorkerIdleListener(Runnable workerIdleListener) {
+    _workerIdleListener = workerIdleListener;
   }
 
   public void startPoolManager() {
@@ -90,6 +90,7 @@ public class PoolMgrService {
       String workerVersion = null;
       List<String> workersToAdd = new LinkedList<>();
       List<String> workersToDelete = new LinkedList<>();
+      List<String> idleWorkers = new LinkedList<>();
 
       for (MultivaluedMap.Entry<String, List<String>> entry : queryParams.entrySet()) {
         _logger.infof("PMS:updatePool: key = %s value = %s\n", entry.getKey(), entry.getValue());
@@ -108,6 +109,13 @@ public class PoolMgrService {
               workersToDelete.add(worker);
             }
           }
+        } else if (entry.getKey().equals(CoordConsts.SVC_KEY_IDLE_WORKER)) {
+          for (String worker : entry.getValue()) {
+            // don't add empty values; occurs for keys without values
+            if (!worker.equals("")) {
+              idleWorkers.add(worker);
+            }
+          }
         } else if (entry.getKey().equals(CoordConsts.SVC_KEY_VERSION)) {
           if (entry.getValue().size() > 1) {
             return new JSONArray(
@@ -137,6 +145,11 @@ public class PoolMgrService {
           Main.getPoolMgr().addToPool(worker);
         }
       }
+
+      // workers report that they finished their task; handled off the request thread
+      for (String worker : idleWorkers) {
+        Main.getWorkMgr().reportWorkerIdle(worker);
+      }
     } catch (Exception e) {
       _logger.errorf("PMS:updatePool exception: %s\n", Throwables.getStackTraceAsString(e));
       return new JSONArray(Arrays.asList(CoordConsts.SVC_KEY_FAILURE, e.getMessage()));
@@ -20,13 +20,15 @@ import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.Comparators;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSortedMap;
 import com.google.common.collect.ImmutableSortedSet;
-import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.errorprone.annotations.MustBeClosed;
 import io.opentracing.ActiveSpan;
 import io.opentracing.References;
@@ -49,7 +51,6 @@ import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
@@ -61,8 +62,13 @@ import java.util.SortedMap;
 import java.util.SortedSet;
 import java.util.TreeSet;
 import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -112,7 +118,6 @@ import org.batfish.datamodel.answers.AnswerElement;
 import org.batfish.datamodel.answers.AnswerMetadata;
 import org.batfish.datamodel.answers.AnswerMetadataUtil;
 import org.batfish.datamodel.answers.AnswerStatus;
-import org.batfish.datamodel.answers.AnswerSummary;
 import org.batfish.datamodel.answers.AutoCompleteUtils;
 import org.batfish.datamodel.answers.AutocompleteSuggestion;
 import org.batfish.datamodel.answers.InputValidationNotes;
@@ -222,10 +227,16 @@ public class WorkMgr extends AbstractCoordinator {
   }
 
   static final class AssignWorkTask implements Runnable {
+    @Override
+    public void run() {
+      Main.getWorkMgr().triggerAssignWork();
+    }
+  }
+
+  static final class CheckTaskTask implements Runnable {
     @Override
     public void run() {
       Main.getWorkMgr().checkTasks();
-      Main.getWorkMgr().assignWork();
     }
   }
 
@@ -237,6 +248,38 @@ public class WorkMgr extends AbstractCoordinator {
   private static final String SNAPSHOT_PACKAGING_INSTRUCTIONS_URL =
       "https://github.com/batfish/batfish/wiki/Packaging-snapshots-for-analysis";
 
+  /**
+   * Bound on the total number of rows in cached answer tables, including the rows held by their
+   * cached views
+   */
+  private static final long MAX_CACHED_ANSWER_ROWS = 1_000_000L;
+
+  private static final int WORKER_IDLE_REPORT_THREADS = 4;
+
+  private static final int MAX_QUEUED_WORKER_IDLE_REPORTS = 1024;
+
+  /**
+   * Indexed tables of recently processed successful table answers, keyed by the {@link AnswerId}
+   * under which the answer is stored, so that repeated requests for rows of the same answer are
+   * neither reloaded nor re-parsed. Answers are never rewritten under the same final answer ID.
+   */
+  private final Cache<AnswerId, IndexedAnswerTable> _answerTables;
+
+  /** Runs the assignment of queued work to idle workers, one assignment round at a time */
+  private final ExecutorService _assignmentDispatcher;
+
+  /** Whether an assignment round has been requested but has not yet started */
+  private final AtomicBoolean _assignmentRequested;
+
+  /** Sends assigned work to workers, so that a slow worker does not hold up other assignments */
+  private final ExecutorService _assignmentSenders;
+
+  /**
+   * Handles reports from workers that they finished their task. Bounded, since reports come from
+   * the network; reports that do not fit are dropped and left to the periodic task check.
+   */
+  private final ExecutorService _workerIdleReportHandlers;
+
   private final IdManager _idManager;
 
   private final BatfishLogger _logger;
@@ -257,6 +300,27 @@ public class WorkMgr extends AbstractCoordinator {
     _storage = storage;
     _logger = logger;
     _workQueueMgr = new WorkQueueMgr(logger);
+    _assignmentDispatcher =
+        Executors.newSingleThreadExecutor(
+            new ThreadFactoryBuilder().setDaemon(true).setNameFormat("assign-work").build());
+    _assignmentRequested = new AtomicBoolean();
+    _assignmentSenders =
+        Executors.newCachedThreadPool(
+            new ThreadFactoryBuilder().setDaemon(true).setNameFormat("send-work-%d").build());
+    _workerIdleReportHandlers =
+        new ThreadPoolExecutor(
+            WORKER_IDLE_REPORT_THREADS,
+            WORKER_IDLE_REPORT_THREADS,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(MAX_QUEUED_WORKER_IDLE_REPORTS),
+            new ThreadFactoryBuilder().setDaemon(true).setNameFormat("worker-idle-%d").build(),
+            new ThreadPoolExecutor.DiscardPolicy());
+    _answerTables =
+        CacheBuilder.newBuilder()
+            .maximumWeight(MAX_CACHED_ANSWER_ROWS)
+            .<AnswerId, IndexedAnswerTable>weigher((answerId, table) -> table.getWeight())
+            .build();
   }
 
   @VisibleForTesting
@@ -264,34 +328,53 @@ public class WorkMgr extends AbstractCoordinator {
     return _storage;
   }
 
+  /**
+   * Requests that queued work be assigned to idle workers. Called whenever work is queued or a
+   * worker may have become idle; requests made while an assignment round is pending are coalesced
+   * into that round.
+   */
+  void triggerAssignWork() {
+    if (_assignmentRequested.compareAndSet(false, true)) {
+      _assignmentDispatcher.execute(
+          () -> {
+            _assignmentRequested.set(false);
+            assignWork();
+          });
+    }
+  }
+
+  /** Pairs unassigned work with idle workers until either runs out. */
   private void assignWork() {
 
     try {
-      QueuedWork work = _workQueueMgr.getWorkForAssignment();
+      while (true) {
+        QueuedWork work = _workQueueMgr.getWorkForAssignment();
 
-      // get out if no work was found
-      if (work == null) {
-        // _logger.info("WM:AssignWork: No unassigned work\n");
-        return;
-      }
+        // get out if no work was found
+        if (work == null) {
+          // _logger.info("WM:AssignWork: No unassigned work\n");
+          return;
+        }
 
-      String idleWorker = Main.getPoolMgr().getWorkerForAssignment();
+        String idleWorker = Main.getPoolMgr().getWorkerForAssignment();
 
-      // get out if no idle worker was found, but release the work first
-      if (idleWorker == null) {
-        _workQueueMgr.markAssignmentFailure(work);
+        // get out if no idle worker was found, but release the work first
+        if (idleWorker == null) {
+          _workQueueMgr.markAssignmentFailure(work);
 
-        _logger.info("WM:AssignWork: No idle worker\n");
-        return;
-      }
+          _logger.info("WM:AssignWork: No idle worker\n");
+          return;
+        }
 
-      assignWork(work, idleWorker);
+        _assignmentSenders.execute(() -> assignWork(work, idleWorker));
+      }
     } catch (Exception e) {
       _logger.errorf("Got exception in assignWork: %s\n", Throwables.getStackTraceAsString(e));
     }
   }
 
-  private void assignWork(QueuedWork work, String worker) {
+  @VisibleForTesting
+  void assignWork(QueuedWork work, String worker) {
 
     _logger.infof("WM:AssignWork: Trying to assign %s to %s\n", work, worker);
 
@@ -404,6 +487,32 @@ public class WorkMgr extends AbstractCoordinator {
     }
 
     Main.getPoolMgr().markAssignmentResult(worker, assigned);
+
+    // the work was dropped, so the worker is free to take other work
+    if (assignmentError) {
+      triggerAssignWork();
+    }
+  }
+
+  /**
+   * Handles a report from {@code worker} that it has finished its task, by checking the work
+   * assigned to it right away instead of waiting for the next periodic check. Returns without
+   * waiting for the check.
+   */
+  public void reportWorkerIdle(String worker) {
+    _workerIdleReportHandlers.execute(() -> workerIdle(worker));
+  }
+
+  private void workerIdle(String worker) {
+    try {
+      for (QueuedWork work : _workQueueMgr.getWorkForChecking(worker)) {
+        checkTask(work, worker);
+      }
+      Main.getPoolMgr().refreshWorkerStatus(worker);
+    } catch (Exception e) {
+      _logger.errorf("Got exception in workerIdle: %s\n", Throwables.getStackTraceAsString(e));
+    }
+    triggerAssignWork();
   }
 
   private void checkTasks() {
@@ -537,9 +646,11 @@ public class WorkMgr extends AbstractCoordinator {
       _logger.errorf("exception: %s\n", Throwables.getStackTraceAsString(e));
     }
 
-    // if the task ended, send a hint to the pool manager to look up worker status
+    // if the task ended, send a hint to the pool manager to look up worker status, and try to
+    // give the worker (or work unblocked by this task) something to do
     if (task.getStatus().isTerminated()) {
       Main.getPoolMgr().refreshWorkerStatus(worker);
+      triggerAssignWork();
     }
   }
 
@@ -881,6 +992,22 @@ public class WorkMgr extends AbstractCoordinator {
       @Nullable String referenceSnapshot,
       @Nullable String analysis)
       throws IOException {
+    AnswerId finalAnswerId =
+        getFinalAnswerId(network, snapshot, question, referenceSnapshot, analysis);
+    return finalAnswerId == null ? null : _storage.loadAnswer(finalAnswerId);
+  }
+
+  /**
+   * Get the ID of the final answer to the specified question, computing the final answer if
+   * needed. Returns {@code null} if the question is not answered.
+   */
+  private @Nullable AnswerId getFinalAnswerId(
+      String network,
+      String snapshot,
+      String question,
+      @Nullable String referenceSnapshot,
+      @Nullable String analysis)
+      throws IOException {
     NetworkId networkId = _idManager.getNetworkId(network);
     AnalysisId analysisId = analysis != null ? _idManager.getAnalysisId(analysis, networkId) : null;
     QuestionId questionId = _idManager.getQuestionId(question, networkId, analysisId);
@@ -904,16 +1031,14 @@ public class WorkMgr extends AbstractCoordinator {
       return null;
     }
     AnswerMetadata baseAnswerMetadata = _storage.loadAnswerMetadata(baseAnswerId);
-    AnswerId finalAnswerId =
-        computeFinalAnswerAndId(
-            baseAnswerMetadata,
-            networkId,
-            snapshotId,
-            questionId,
-            baseAnswerId,
-            referenceSnapshotId,
-            analysisId);
-    return _storage.loadAnswer(finalAnswerId);
+    return computeFinalAnswerAndId(
+        baseAnswerMetadata,
+        networkId,
+        snapshotId,
+        questionId,
+        baseAnswerId,
+        referenceSnapshotId,
+        analysisId);
   }
 
   /**
@@ -2286,33 +2411,26 @@ public class WorkMgr extends AbstractCoordinator {
     } catch (Exception e) {
       throw new BatfishException(String.format("Failed to queue work: %s", e.getMessage()), e);
     }
-    // as an optimization trigger AssignWork to see if we can schedule this (or another) work
+    // trigger AssignWork to see if we can schedule this (or another) work right away
     if (success) {
-      Thread thread = new Thread(this::assignWork);
-      thread.start();
+      triggerAssignWork();
     }
     return success;
   }
 
   public void startWorkManager() {
-    // for some bizarre reason, this ordering of scheduling checktask before
-    // assignwork, is important
-    // in the other order, assignwork never fires
-    // TODO: track this down
-    // _checkWorkTask = new CheckTaskTask();
-    // _checkService = Executors.newScheduledThreadPool(1);
-    // _checkFuture = _checkService.scheduleAtFixedRate(_checkWorkTask, 0,
-    // Main.getSettings().getPeriodCheckWorkMs(),
-    // TimeUnit.MILLISECONDS);
-
     loadPlugins();
 
-    Executors.newScheduledThreadPool(1)
-        .scheduleAtFixedRate(
-            new AssignWorkTask(),
-            0,
-            Main.getSettings().getPeriodAssignWorkMs(),
-            TimeUnit.MILLISECONDS);
+    Main.getPoolMgr().setWorkerIdleListener(this::triggerAssignWork);
+
+    // Work is assigned as soon as it is queued or a worker frees up. The periodic assignment only
+    // retries assignments that failed, e.g., because a worker was unreachable. Task checks run on
+    // their own thread, so they are not held up by assignment and vice versa.
+    ScheduledExecutorService service = Executors.newScheduledThreadPool(2);
+    service.scheduleWithFixedDelay(
+        new CheckTaskTask(), 0, Main.getSettings().getPeriodCheckWorkMs(), TimeUnit.MILLISECONDS);
+    service.scheduleAtFixedRate(
+        new AssignWorkTask(), 0, Main.getSettings().getPeriodAssignWorkMs(), TimeUnit.MILLISECONDS);
   }
 
   public int syncSnapshotsSyncNow(String networkName, String pluginId, boolean force) {
@@ -2461,7 +2579,7 @@ public class WorkMgr extends AbstractCoordinator {
       }
       TableAnswerElement rawTable = (TableAnswerElement) rawAnswer.getAnswerElements().get(0);
       Answer answer = new Answer();
-      answer.setStatus(rawAnswer.getStatus());
+      answer.setStatus(AnswerStatus.SUCCESS);
       answer.addAnswerElement(processAnswerTable(rawTable, options));
       return answer;
     } catch (Exception e) {
@@ -2486,7 +2604,14 @@ public class WorkMgr extends AbstractCoordinator {
       if (rawAnswer.getStatus() != AnswerStatus.SUCCESS) {
         return rawAnswer;
       }
-      return filterAnswer(rawAnswer, options);
+      AnswerElement answerElement = rawAnswer.getAnswerElements().get(0);
+      if (!(answerElement instanceof TableAnswerElement)) {
+        return rawAnswer;
+      }
+      Answer answer = new Answer();
+      answer.setStatus(AnswerStatus.SUCCESS);
+      answer.addAnswerElement(processAnswerTable2((TableAnswerElement) answerElement, options));
+      return answer;
     } catch (Exception e) {
       _logger.errorf(
           "Failed to convert answer string to Answer: %s\n", Throwables.getStackTraceAsString(e));
@@ -2494,6 +2619,109 @@ public class WorkMgr extends AbstractCoordinator {
     }
   }
 
+  /**
+   * Returns the rows of the answer to the specified question selected by {@code options}, as
+   * {@link #processAnswerRows(String, AnswerRowsOptions)} would for its answer string. The indexed
+   * table of the answer is cached under the ID of the stored answer.
+   */
+  public @Nonnull Answer getAnswerRows(
+      String network,
+      String snapshot,
+      String question,
+      @Nullable String referenceSnapshot,
+      @Nullable String analysis,
+      AnswerRowsOptions options) {
+    return getAnswerRows(
+        network,
+        snapshot,
+        question,
+        referenceSnapshot,
+        analysis,
+        table -> processAnswerTable(table, options));
+  }
+
+  /**
+   * Returns the rows of the answer to the specified question selected by {@code options}, as
+   * {@link #processAnswerRows2(String, AnswerRowsOptions)} would for its answer string. The indexed
+   * table of the answer is cached under the ID of the stored answer.
+   */
+  public @Nonnull Answer getAnswerRows2(
+      String network,
+      String snapshot,
+      String question,
+      @Nullable String referenceSnapshot,
+      @Nullable String analysis,
+      AnswerRowsOptions options) {
+    return getAnswerRows(
+        network,
+        snapshot,
+        question,
+        referenceSnapshot,
+        analysis,
+        table -> processAnswerTable2(table, options));
+  }
+
+  private @Nonnull Answer getAnswerRows(
+      String network,
+      String snapshot,
+      String question,
+      @Nullable String referenceSnapshot,
+      @Nullable String analysis,
+      Function<IndexedAnswerTable, AnswerElement> processTable) {
+    AnswerId answerId;
+    try {
+      answerId = getFinalAnswerId(network, snapshot, question, referenceSnapshot, analysis);
+    } catch (IOException e) {
+      String message =
+          String.format(
+              "Could not get answer: network=%s, snapshot=%s, question=%s, referenceSnapshot=%s, analysis=%s: %s",
+              network,
+              snapshot,
+              question,
+              referenceSnapshot,
+              analysis,
+              Throwables.getStackTraceAsString(e));
+      return Answer.failureAnswer(message, null);
+    }
+    if (answerId == null) {
+      Answer answer = Answer.failureAnswer("Not answered", null);
+      answer.setStatus(AnswerStatus.NOTFOUND);
+      return answer;
+    }
+    try {
+      IndexedAnswerTable table = _answerTables.getIfPresent(answerId);
+      if (table == null) {
+        Answer rawAnswer =
+            BatfishObjectMapper.mapper()
+                .readValue(_storage.loadAnswer(answerId), new TypeReference<Answer>() {});
+        // If the AnswerStatus is not SUCCESS, the answer cannot have any AnswerElements related to
+        // actual answers (but, e.g., it might have a BatfishStackTrace). Return that as-is.
+        if (rawAnswer.getStatus() != AnswerStatus.SUCCESS) {
+          return rawAnswer;
+        }
+        AnswerElement answerElement = rawAnswer.getAnswerElements().get(0);
+        if (!(answerElement instanceof TableAnswerElement)) {
+          return rawAnswer;
+        }
+        table = new IndexedAnswerTable((TableAnswerElement) answerElement);
+        _answerTables.put(answerId, table);
+      }
+      Answer answer = new Answer();
+      answer.setStatus(AnswerStatus.SUCCESS);
+      answer.addAnswerElement(processTable.apply(table));
+      return answer;
+    } catch (Exception e) {
+      _logger.errorf(
+          "Failed to convert answer string to Answer: %s\n", Throwables.getStackTraceAsString(e));
+      return Answer.failureAnswer(e.getMessage(), null);
+    }
+  }
+
+  @VisibleForTesting
+  long getNumCachedAnswerTables() {
+    return _answerTables.size();
+  }
+
   /** Filter the supplied rawAnswer based on the options provided */
   public Answer filterAnswer(Answer rawAnswer, AnswerRowsOptions options) {
     AnswerElement answerElement = rawAnswer.getAnswerElements().get(0);
@@ -2510,97 +2738,52 @@ public class WorkMgr extends AbstractCoordinator {
   @VisibleForTesting
   @Nonnull
   TableAnswerElement processAnswerTable(TableAnswerElement rawTable, AnswerRowsOptions options) {
-    Map<String, ColumnMetadata> rawColumnMap = rawTable.getMetadata().toColumnMap();
-    List<Row> filteredRows =
-        rawTable.getRowsList().stream()
-            .filter(row -> options.getFilters().stream().allMatch(filter -> filter.matches(row)))
-            .collect(ImmutableList.toImmutableList());
+    return processAnswerTable(new IndexedAnswerTable(rawTable), options);
+  }
 
-    Stream<Row> rowStream = filteredRows.stream();
-    if (!options.getSortOrder().isEmpty()) {
-      // sort using specified sort order
-      rowStream = rowStream.sorted(buildComparator(rawColumnMap, options.getSortOrder()));
-    }
-    TableAnswerElement table;
-    if (options.getColumns().isEmpty()) {
-      table = new TableAnswerElement(rawTable.getMetadata());
-    } else {
-      // project to desired columns
-      rowStream =
-          rowStream.map(rawRow -> Row.builder().putAll(rawRow, options.getColumns()).build());
-      Map<String, ColumnMetadata> columnMap = new LinkedHashMap<>(rawColumnMap);
-      columnMap.keySet().retainAll(options.getColumns());
-      List<ColumnMetadata> columnMetadata =
-          columnMap.values().stream().collect(ImmutableList.toImmutableList());
-      table =
-          new TableAnswerElement(
-              new TableMetadata(columnMetadata, rawTable.getMetadata().getTextDesc()));
-    }
-    if (options.getUniqueRows()) {
-      // uniquify if desired
-      rowStream = rowStream.distinct();
-    }
+  private @Nonnull TableAnswerElement processAnswerTable(
+      IndexedAnswerTable rawTable, AnswerRowsOptions options) {
+    IndexedAnswerTable.View view = getView(rawTable, options);
+    TableAnswerElement table = new TableAnswerElement(view.getTableMetadata());
     // offset, truncate, and add to table
-    rowStream.skip(options.getRowOffset()).limit(options.getMaxRows()).forEach(table::addRow);
-    table.setSummary(rawTable.getSummary() != null ? rawTable.getSummary() : new AnswerSummary());
-    table.getSummary().setNumResults(filteredRows.size());
+    view.page(options.getRowOffset(), options.getMaxRows()).stream()
+        .map(TableViewRow::getRow)
+        .forEach(table::addRow);
+    table.setSummary(rawTable.copySummary());
+    table.getSummary().setNumResults(view.getNumResults());
     return table;
   }
 
   @VisibleForTesting
   @Nonnull
   TableView processAnswerTable2(TableAnswerElement rawTable, AnswerRowsOptions options) {
-    Map<Row, Integer> rowIds = Maps.newIdentityHashMap();
-    CommonUtil.forEachWithIndex(rawTable.getRowsList(), (i, row) -> rowIds.put(row, i));
-    Map<String, ColumnMetadata> rawColumnMap = rawTable.getMetadata().toColumnMap();
-    List<Row> filteredRows =
-        rawTable.getRowsList().stream()
-            .filter(row -> options.getFilters().stream().allMatch(filter -> filter.matches(row)))
-            .collect(ImmutableList.toImmutableList());
+    return processAnswerTable2(new IndexedAnswerTable(rawTable), options);
+  }
 
-    Stream<Row> rowStream = filteredRows.stream();
-    if (!options.getSortOrder().isEmpty()) {
-      // sort using specified sort order
-      rowStream = rowStream.sorted(buildComparator(rawColumnMap, options.getSortOrder()));
-    }
-    TableMetadata tableMetadata;
-    if (options.getColumns().isEmpty()) {
-      tableMetadata = rawTable.getMetadata();
-    } else {
-      // project to desired columns
-      rowStream =
-          rowStream.map(
-              rawRow -> {
-                Row row = Row.builder().putAll(rawRow, options.getColumns()).build();
-                rowIds.put(row, rowIds.get(rawRow));
-                return row;
-              });
-      Map<String, ColumnMetadata> columnMap = new LinkedHashMap<>(rawColumnMap);
-      columnMap.keySet().retainAll(options.getColumns());
-      List<ColumnMetadata> columnMetadata =
-          columnMap.values().stream().collect(ImmutableList.toImmutableList());
-      tableMetadata = new TableMetadata(columnMetadata, rawTable.getMetadata().getTextDesc());
-    }
-    if (options.getUniqueRows()) {
-      // uniquify if desired
-      rowStream = rowStream.distinct();
-    }
-    // offset, truncate, and add to table
+  private @Nonnull TableView processAnswerTable2(
+      IndexedAnswerTable rawTable, AnswerRowsOptions options) {
+    IndexedAnswerTable.View view = getView(rawTable, options);
+    // offset and truncate
     TableView tableView =
         new TableView(
             options,
-            rowStream
-                .skip(options.getRowOffset())
-                .limit(options.getMaxRows())
-                .map(row -> new TableViewRow(rowIds.get(row), row))
-                .collect(ImmutableList.toImmutableList()),
-            tableMetadata);
-    tableView.setSummary(
-        rawTable.getSummary() != null ? rawTable.getSummary() : new AnswerSummary());
-    tableView.getSummary().setNumResults(filteredRows.size());
+            view.page(options.getRowOffset(), options.getMaxRows()),
+            view.getTableMetadata());
+    tableView.setSummary(rawTable.copySummary());
+    tableView.getSummary().setNumResults(view.getNumResults());
     return tableView;
   }
 
+  /**
+   * Filter, sort, project, and uniquify the rows of {@code rawTable} as specified in {@code
+   * options}
+   */
+  private @Nonnull IndexedAnswerTable.View getView(
+      IndexedAnswerTable rawTable, AnswerRowsOptions options) {
+    Map<String, ColumnMetadata> rawColumnMap = rawTable.getTable().getMetadata().toColumnMap();
+    return rawTable.getView(options, sortOrder -> buildComparator(rawColumnMap, sortOrder));
+  }
+
   @VisibleForTesting
   @Nonnull
   Comparator<Row> buildComparator(
@@ -2770,6 +2953,11 @@ public class WorkMgr extends AbstractCoordinator {
     return _idManager;
   }
 
+  @VisibleForTesting
+  WorkQueueMgr getWorkQueueMgr() {
+    return _workQueueMgr;
+  }
+
   /** Fetch metadata for snapshot. Returns {@code null} if network or snapshot does not exist. */
   public @Nullable SnapshotMetadata getSnapshotMetadata(String network, String snapshot)
       throws IOException {
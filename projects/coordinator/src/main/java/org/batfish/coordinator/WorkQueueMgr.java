@@ -360,6 +360,19 @@ public class WorkQueueMgr {
     return workToCheck;
   }
 
+  /** Like {@link #getWorkForChecking()}, but only for work assigned to {@code worker}. */
+  @Nonnull
+  public synchronized List<QueuedWork> getWorkForChecking(String worker) {
+    List<QueuedWork> workToCheck = new ArrayList<>();
+    for (QueuedWork work : _queueIncompleteWork) {
+      if (work.getStatus() == WorkStatusCode.ASSIGNED && worker.equals(work.getAssignedWorker())) {
+        work.setStatus(WorkStatusCode.CHECKINGSTATUS);
+        workToCheck.add(work);
+      }
+    }
+    return workToCheck;
+  }
+
   public synchronized List<QueuedWork> listIncompleteWork(
       NetworkId networkId, @Nullable SnapshotId snapshotId, @Nullable WorkType workType) {
     List<QueuedWork> retList = new LinkedList<>();
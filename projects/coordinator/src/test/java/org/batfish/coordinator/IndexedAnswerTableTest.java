@@ -0,0 +1,178 @@
+package org.batfish.coordinator;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.sameInstance;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import org.batfish.common.AnswerRowsOptions;
+import org.batfish.common.ColumnFilter;
+import org.batfish.common.ColumnSortOption;
+import org.batfish.datamodel.answers.Schema;
+import org.batfish.datamodel.table.ColumnMetadata;
+import org.batfish.datamodel.table.Row;
+import org.batfish.datamodel.table.TableAnswerElement;
+import org.batfish.datamodel.table.TableMetadata;
+import org.batfish.datamodel.table.TableViewRow;
+import org.junit.Before;
+import org.junit.Test;
+
+/** Tests of {@link IndexedAnswerTable}. */
+public final class IndexedAnswerTableTest {
+
+  private static final String KEY = "key";
+  private static final String VAL = "val";
+
+  private static final Row ROW0 = Row.of(KEY, "b", VAL, 1);
+  private static final Row ROW1 = Row.of(KEY, "A", VAL, 2);
+  private static final Row ROW2 = Row.of(KEY, "c", VAL, 1);
+  private static final Row ROW3 = Row.of(KEY, "a", VAL, 3);
+
+  private AtomicInteger _comparatorsBuilt;
+  private Function<List<ColumnSortOption>, Comparator<Row>> _comparators;
+  private IndexedAnswerTable _table;
+
+  @Before
+  public void setup() {
+    TableAnswerElement table =
+        new TableAnswerElement(
+            new TableMetadata(
+                ImmutableList.of(
+                    new ColumnMetadata(KEY, Schema.STRING, "key"),
+                    new ColumnMetadata(VAL, Schema.INTEGER, "val"))));
+    ImmutableList.of(ROW0, ROW1, ROW2, ROW3).forEach(table::addRow);
+    _table = new IndexedAnswerTable(table);
+    _comparatorsBuilt = new AtomicInteger();
+    _comparators =
+        sortOrder -> {
+          _comparatorsBuilt.incrementAndGet();
+          return Comparator.comparing(row -> row.getInteger(sortOrder.get(0).getColumn()));
+        };
+  }
+
+  private static AnswerRowsOptions options(
+      List<ColumnFilter> filters,
+      List<ColumnSortOption> sortOrder,
+      int rowOffset,
+      int maxRows,
+      boolean uniqueRows,
+      String... columns) {
+    return new AnswerRowsOptions(
+        ImmutableSet.copyOf(columns), filters, maxRows, rowOffset, sortOrder, uniqueRows);
+  }
+
+  @Test
+  public void testFilterIsCaseInsensitive() {
+    IndexedAnswerTable.View view =
+        _table.getView(
+            options(
+                ImmutableList.of(new ColumnFilter(KEY, "a")),
+                ImmutableList.of(),
+                0,
+                Integer.MAX_VALUE,
+                false),
+            _comparators);
+
+    assertThat(
+        view.page(0, Integer.MAX_VALUE),
+        contains(new TableViewRow(1, ROW1), new TableViewRow(3, ROW3)));
+    assertThat(view.getNumResults(), equalTo(2));
+  }
+
+  @Test
+  public void testSortIsStableAndKeepsRowIds() {
+    IndexedAnswerTable.View view =
+        _table.getView(
+            options(
+                ImmutableList.of(),
+                ImmutableList.of(new ColumnSortOption(VAL, false)),
+                0,
+                Integer.MAX_VALUE,
+                false),
+            _comparators);
+
+    assertThat(
+        view.page(0, Integer.MAX_VALUE),
+        contains(
+            new TableViewRow(0, ROW0),
+            new TableViewRow(2, ROW2),
+            new TableViewRow(1, ROW1),
+            new TableViewRow(3, ROW3)));
+  }
+
+  @Test
+  public void testProjectUnique() {
+    IndexedAnswerTable.View view =
+        _table.getView(
+            options(ImmutableList.of(), ImmutableList.of(), 0, Integer.MAX_VALUE, true, VAL),
+            _comparators);
+
+    assertThat(
+        view.page(0, Integer.MAX_VALUE),
+        contains(
+            new TableViewRow(0, Row.of(VAL, 1)),
+            new TableViewRow(1, Row.of(VAL, 2)),
+            new TableViewRow(3, Row.of(VAL, 3))));
+    assertThat(view.getNumResults(), equalTo(4));
+    assertThat(
+        view.getTableMetadata().getColumnMetadata(),
+        contains(new ColumnMetadata(VAL, Schema.INTEGER, "val")));
+  }
+
+  @Test
+  public void testPage() {
+    IndexedAnswerTable.View view =
+        _table.getView(
+            options(ImmutableList.of(), ImmutableList.of(), 0, Integer.MAX_VALUE, false),
+            _comparators);
+
+    assertThat(view.page(1, 2), contains(new TableViewRow(1, ROW1), new TableViewRow(2, ROW2)));
+    assertThat(view.page(3, Integer.MAX_VALUE), contains(new TableViewRow(3, ROW3)));
+    assertThat(view.page(5, 1), empty());
+  }
+
+  @Test
+  public void testViewsCachedAcrossPages() {
+    List<ColumnSortOption> sortOrder = ImmutableList.of(new ColumnSortOption(VAL, true));
+    IndexedAnswerTable.View view =
+        _table.getView(options(ImmutableList.of(), sortOrder, 0, 2, false), _comparators);
+
+    assertThat(
+        _table.getView(options(ImmutableList.of(), sortOrder, 2, 2, false), _comparators),
+        sameInstance(view));
+    assertThat(_comparatorsBuilt.get(), equalTo(1));
+    assertThat(_table.getNumCachedViews(), equalTo(1));
+
+    _table.getView(options(ImmutableList.of(), sortOrder, 0, 2, false, VAL), _comparators);
+    assertThat(_comparatorsBuilt.get(), equalTo(2));
+    assertThat(_table.getNumCachedViews(), equalTo(2));
+  }
+
+  @Test
+  public void testCachedViewsBoundedByRows() {
+    // 9 distinct views of all 4 rows, each weighing 5, against a budget of 2 * 4 + 16 = 24
+    for (List<ColumnFilter> filters :
+        ImmutableList.of(
+            ImmutableList.of(new ColumnFilter(KEY, "")),
+            ImmutableList.of(new ColumnFilter(VAL, "")),
+            ImmutableList.of(new ColumnFilter(KEY, ""), new ColumnFilter(VAL, "")))) {
+      for (List<ColumnSortOption> sortOrder :
+          ImmutableList.<List<ColumnSortOption>>of(
+              ImmutableList.of(),
+              ImmutableList.of(new ColumnSortOption(VAL, false)),
+              ImmutableList.of(new ColumnSortOption(VAL, true)))) {
+        _table.getView(options(filters, sortOrder, 0, Integer.MAX_VALUE, false), _comparators);
+      }
+    }
+    assertThat(_table.getNumCachedViews(), lessThanOrEqualTo(4));
+    assertThat(_table.getWeight(), equalTo(4 + 24));
+  }
+}
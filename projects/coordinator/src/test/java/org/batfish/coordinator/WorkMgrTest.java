@@ -59,10 +59,15 @@ import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Queue;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
 import org.batfish.common.AnswerRowsOptions;
@@ -2148,6 +2153,83 @@ public final class WorkMgrTest {
     assertThat(processedRows, equalTo(table.getRowsList()));
   }
 
+  @Test
+  public void testGetAnswerRows() throws IOException {
+    String network = "network";
+    String snapshot = "snapshot";
+    String questionName = "question";
+    String columnName = "col";
+    TableAnswerElement table =
+        new TableAnswerElement(
+            new TableMetadata(
+                ImmutableList.of(new ColumnMetadata(columnName, Schema.STRING, "desc"))));
+    table.addRow(Row.of(columnName, "a"));
+    table.addRow(Row.of(columnName, "b"));
+    Answer answer = new Answer();
+    answer.addAnswerElement(table);
+    answer.setStatus(AnswerStatus.SUCCESS);
+    _manager.initNetwork(network, null);
+    uploadTestSnapshot(network, snapshot);
+    setupQuestionAndAnswer(network, snapshot, questionName, null, answer);
+
+    List<Row> firstPage =
+        ((TableAnswerElement)
+                _manager
+                    .getAnswerRows(
+                        network,
+                        snapshot,
+                        questionName,
+                        null,
+                        null,
+                        new AnswerRowsOptions(
+                            ImmutableSet.of(), ImmutableList.of(), 1, 0, ImmutableList.of(), false))
+                    .getAnswerElements()
+                    .get(0))
+            .getRowsList();
+    List<Row> secondPage =
+        ((TableView)
+                _manager
+                    .getAnswerRows2(
+                        network,
+                        snapshot,
+                        questionName,
+                        null,
+                        null,
+                        new AnswerRowsOptions(
+                            ImmutableSet.of(), ImmutableList.of(), 1, 1, ImmutableList.of(), false))
+                    .getAnswerElements()
+                    .get(0))
+            .getInnerRows();
+
+    assertThat(firstPage, contains(Row.of(columnName, "a")));
+    assertThat(secondPage, contains(Row.of(columnName, "b")));
+    // both pages are served from the same cached table
+    assertThat(_manager.getNumCachedAnswerTables(), equalTo(1L));
+  }
+
+  @Test
+  public void testGetAnswerRowsNotAnswered() throws IOException {
+    String network = "network";
+    String snapshot = "snapshot";
+    String questionName = "question";
+    _manager.initNetwork(network, null);
+    uploadTestSnapshot(network, snapshot);
+    setupQuestionAndAnswer(network, snapshot, questionName, null, null);
+
+    Answer answer =
+        _manager.getAnswerRows(
+            network,
+            snapshot,
+            questionName,
+            null,
+            null,
+            new AnswerRowsOptions(
+                ImmutableSet.of(), ImmutableList.of(), 1, 0, ImmutableList.of(), false));
+
+    assertThat(answer.getStatus(), equalTo(AnswerStatus.NOTFOUND));
+    assertThat(_manager.getNumCachedAnswerTables(), equalTo(0L));
+  }
+
   @Test
   public void testProcessAnswerRowsFailure() throws IOException {
     String columnName = "issue";
@@ -3501,4 +3583,67 @@ public final class WorkMgrTest {
     // Confirm filter options were applied correctly
     assertThat(processedRows, equalTo(table.getRowsList()));
   }
+
+  @Test
+  public void testTriggerAssignWorkCoalesced() throws Exception {
+    String network = "network";
+    String snapshot = "snapshot";
+    _manager.initNetwork(network, null);
+    WorkMgrTestUtils.initSnapshotWithTopology(network, snapshot, ImmutableSet.of());
+    NetworkId networkId = _idManager.getNetworkId(network);
+    WorkDetails details =
+        WorkDetails.builder()
+            .setNetworkId(networkId)
+            .setSnapshotId(_idManager.getSnapshotId(snapshot, networkId))
+            .setWorkType(WorkType.UNKNOWN)
+            .build();
+
+    int numWork = 5;
+    CountDownLatch allAssigned = new CountDownLatch(numWork);
+    Set<String> assignedWorkers = Sets.newConcurrentHashSet();
+    // Records assignments instead of sending work to real workers
+    WorkMgr workMgr =
+        new WorkMgr(Main.getSettings(), Main.getLogger(), _idManager, _storage) {
+          @Override
+          void assignWork(QueuedWork work, String worker) {
+            assignedWorkers.add(worker);
+            allAssigned.countDown();
+          }
+        };
+    Main.setWorkMgr(workMgr);
+    List<String> workers = new ArrayList<>();
+    for (int i = 0; i < numWork; i++) {
+      workers.add("worker" + i);
+      workMgr
+          .getWorkQueueMgr()
+          .queueUnassignedWork(new QueuedWork(new WorkItem(network, snapshot), details));
+    }
+    Main.setPoolMgr(new FixedPoolMgr(workers));
+
+    // Requests made while a round is pending are merged into it, but no queued work is left behind
+    for (int i = 0; i < 100; i++) {
+      workMgr.triggerAssignWork();
+    }
+
+    assertTrue(allAssigned.await(10, TimeUnit.SECONDS));
+    assertThat(assignedWorkers, equalTo(ImmutableSet.copyOf(workers)));
+    assertThat(workMgr.getWorkQueueMgr().getWorkForAssignment(), nullValue());
+  }
+
+  /** A pool of workers that are each idle exactly once */
+  private static final class FixedPoolMgr extends PoolMgr {
+
+    private final Queue<String> _idleWorkers;
+
+    private FixedPoolMgr(List<String> idleWorkers) {
+      super(Main.getSettings(), Main.getLogger());
+      _idleWorkers = new ConcurrentLinkedQueue<>(idleWorkers);
+    }
+
+    @Nullable
+    @Override
+    public String getWorkerForAssignment() {
+      return _idleWorkers.poll();
+    }
+  }
 }
@@ -309,6 +309,32 @@ public final class WorkQueueMgrTest {
     assertThat(works0, iterableWithSize(0));
   }
 
+  @Test
+  public void getWorkForCheckingWorker() throws Exception {
+    String snapshot = "snapshot";
+    WorkMgrTestUtils.initSnapshotWithTopology(NETWORK, snapshot, ImmutableSet.of());
+    WorkDetails details =
+        WorkDetails.builder()
+            .setNetworkId(_networkId)
+            .setSnapshotId(_idManager.getSnapshotId(snapshot, _networkId))
+            .setWorkType(WorkType.UNKNOWN)
+            .build();
+    QueuedWork work1 = new QueuedWork(new WorkItem(NETWORK, snapshot), details);
+    QueuedWork work2 = new QueuedWork(new WorkItem(NETWORK, snapshot), details);
+    QueuedWork work3 = new QueuedWork(new WorkItem(NETWORK, snapshot), details);
+    _workQueueMgr.queueUnassignedWork(work1);
+    _workQueueMgr.queueUnassignedWork(work2);
+    _workQueueMgr.queueUnassignedWork(work3);
+    work1.setAssignment("worker1");
+    work2.setAssignment("worker2");
+
+    // only assigned work of the given worker is checked, and only once
+    assertThat(_workQueueMgr.getWorkForChecking("worker1"), contains(work1));
+    assertThat(work1.getStatus(), equalTo(WorkStatusCode.CHECKINGSTATUS));
+    assertThat(work2.getStatus(), equalTo(WorkStatusCode.ASSIGNED));
+    assertThat(_workQueueMgr.getWorkForChecking("worker1"), iterableWithSize(0));
+  }
+
   @Test
   public void getCompletedWorkFilter() throws Exception {
     String snapshot1 = "snapshot1";
@@ -73,9 +73,9 @@ public final class BidirectionalReachabilityAnswerer extends Answerer {
             .setSpecialize(false)
             .build();
 
-    BDDPacket bddPacket = new BDDPacket();
     BidirectionalReachabilityResult result =
-        _batfish.bidirectionalReachability(snapshot, bddPacket, parameters);
+        _batfish.bidirectionalReachability(snapshot, parameters);
+    BDDPacket bddPacket = result.getBddPacket();
 
     Map<Location, BDD> answerBdds = getAnswerBdds(result, _returnFlowType);
 
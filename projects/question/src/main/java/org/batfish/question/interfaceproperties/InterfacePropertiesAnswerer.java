@@ -25,6 +25,8 @@ import org.batfish.datamodel.table.Row;
 import org.batfish.datamodel.table.Row.RowBuilder;
 import org.batfish.datamodel.table.TableAnswerElement;
 import org.batfish.datamodel.table.TableMetadata;
+import org.batfish.specifier.AllInterfacesInterfaceSpecifier;
+import org.batfish.specifier.AllNodesNodeSpecifier;
 import org.batfish.specifier.InterfaceSpecifier;
 import org.batfish.specifier.NodeSpecifier;
 import org.batfish.specifier.SpecifierContext;
@@ -85,14 +87,35 @@ public class InterfacePropertiesAnswerer extends Answerer {
     TableMetadata tableMetadata = createTableMetadata(question);
     TableAnswerElement answer = new TableAnswerElement(tableMetadata);
 
-    Multiset<Row> propertyRows =
-        getProperties(
-            question.getPropertySpecifier(),
-            _batfish.specifierContext(snapshot),
-            question.getNodeSpecifier(),
-            question.getInterfaceSpecifier(),
-            question.getOnlyActive(),
-            tableMetadata.toColumnMap());
+    Multiset<Row> propertyRows;
+    if (question.getNodeSpecifier() instanceof AllNodesNodeSpecifier
+        && question.getInterfaceSpecifier() instanceof AllInterfacesInterfaceSpecifier) {
+      // Each row only depends on its own node, so rows can be computed as nodes are loaded.
+      Multiset<Row> rows = HashMultiset.create();
+      _batfish.forEachConfiguration(
+          snapshot,
+          c ->
+              c.getAllInterfaces().values().stream()
+                  .filter(iface -> !question.getOnlyActive() || iface.getActive())
+                  .forEach(
+                      iface ->
+                          rows.add(
+                              getRow(
+                                  question.getPropertySpecifier(),
+                                  c.getHostname(),
+                                  iface,
+                                  tableMetadata.toColumnMap()))));
+      propertyRows = rows;
+    } else {
+      propertyRows =
+          getProperties(
+              question.getPropertySpecifier(),
+              _batfish.specifierContext(snapshot),
+              question.getNodeSpecifier(),
+              question.getInterfaceSpecifier(),
+              question.getOnlyActive(),
+              tableMetadata.toColumnMap());
+    }
 
     answer.postProcessAnswer(question, propertyRows);
     return answer;
@@ -147,32 +170,40 @@ public class InterfacePropertiesAnswerer extends Answerer {
         if (excludeShutInterfaces && !iface.getActive()) {
           continue;
         }
-        RowBuilder row =
-            Row.builder(columns)
-                .put(COL_INTERFACE, NodeInterfacePair.of(nodeName, iface.getName()));
-
-        for (String property : propertySpecifier.getMatchingProperties()) {
-          PropertyDescriptor<Interface> propertyDescriptor =
-              InterfacePropertySpecifier.getPropertyDescriptor(property);
-          try {
-            PropertySpecifier.fillProperty(propertyDescriptor, iface, property, row);
-          } catch (ClassCastException e) {
-            throw new BatfishException(
-                String.format(
-                    "Type mismatch between property value ('%s') and Schema ('%s') for property '%s' for interface '%s': %s",
-                    propertyDescriptor.getGetter().apply(iface),
-                    propertyDescriptor.getSchema(),
-                    property,
-                    iface,
-                    e.getMessage()),
-                e);
-          }
-        }
-
-        rows.add(row.build());
+        rows.add(getRow(propertySpecifier, nodeName, iface, columns));
       }
     }
 
     return rows;
   }
+
+  /** Gets the {@link Row} of properties of {@code iface} on node {@code nodeName}. */
+  private static Row getRow(
+      InterfacePropertySpecifier propertySpecifier,
+      String nodeName,
+      Interface iface,
+      Map<String, ColumnMetadata> columns) {
+    RowBuilder row =
+        Row.builder(columns).put(COL_INTERFACE, NodeInterfacePair.of(nodeName, iface.getName()));
+
+    for (String property : propertySpecifier.getMatchingProperties()) {
+      PropertyDescriptor<Interface> propertyDescriptor =
+          InterfacePropertySpecifier.getPropertyDescriptor(property);
+      try {
+        PropertySpecifier.fillProperty(propertyDescriptor, iface, property, row);
+      } catch (ClassCastException e) {
+        throw new BatfishException(
+            String.format(
+                "Type mismatch between property value ('%s') and Schema ('%s') for property '%s' for interface '%s': %s",
+                propertyDescriptor.getGetter().apply(iface),
+                propertyDescriptor.getSchema(),
+                property,
+                iface,
+                e.getMessage()),
+            e);
+      }
+    }
+
+    return row.build();
+  }
 }
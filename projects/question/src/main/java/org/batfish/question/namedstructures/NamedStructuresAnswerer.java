@@ -25,6 +25,7 @@ import org.batfish.datamodel.table.Row;
 import org.batfish.datamodel.table.Row.RowBuilder;
 import org.batfish.datamodel.table.TableAnswerElement;
 import org.batfish.datamodel.table.TableMetadata;
+import org.batfish.specifier.AllNodesNodeSpecifier;
 
 public class NamedStructuresAnswerer extends Answerer {
 
@@ -83,6 +84,13 @@ public class NamedStructuresAnswerer extends Answerer {
 
     Multiset<Row> rows = HashMultiset.create();
 
+    if (!question.getIndicatePresence()) {
+      for (String nodeName : nodes) {
+        rows.addAll(nodeDefinitions(question, configurations.get(nodeName), columns));
+      }
+      return rows;
+    }
+
     for (String structureType : question.getStructureTypeSpecifier().getMatchingProperties()) {
       RowBuilder row = Row.builder(columns).put(COL_STRUCTURE_TYPE, structureType);
 
@@ -104,22 +112,9 @@ public class NamedStructuresAnswerer extends Answerer {
           Object namedStructuresMap = structTypeMapGetter.apply(configurations.get(nodeName));
 
           if (namedStructuresMap instanceof Map<?, ?>) {
-            if (question.getIndicatePresence()) {
-              row.put(COL_STRUCTURE_NAME, structName)
-                  .put(
-                      COL_PRESENT_ON_NODE,
-                      ((Map<?, ?>) namedStructuresMap).containsKey(structName));
-              rows.add(row.build());
-            } else {
-              if (((Map<?, ?>) namedStructuresMap).containsKey(structName)) {
-                row.put(COL_STRUCTURE_NAME, structName)
-                    .put(
-                        COL_STRUCTURE_DEFINITION,
-                        insertedObject(
-                            ((Map<?, ?>) namedStructuresMap).get(structName), structureType));
-                rows.add(row.build());
-              }
-            }
+            row.put(COL_STRUCTURE_NAME, structName)
+                .put(COL_PRESENT_ON_NODE, ((Map<?, ?>) namedStructuresMap).containsKey(structName));
+            rows.add(row.build());
           }
         }
       }
@@ -130,19 +125,66 @@ public class NamedStructuresAnswerer extends Answerer {
   @Override
   public TableAnswerElement answer(NetworkSnapshot snapshot) {
     NamedStructuresQuestion question = (NamedStructuresQuestion) _question;
-    Map<String, Configuration> configurations = _batfish.loadConfigurations(snapshot);
-    Set<String> nodes = question.getNodeSpecifier().resolve(_batfish.specifierContext(snapshot));
-
     TableMetadata tableMetadata = createMetadata(question);
 
-    Multiset<Row> propertyRows =
-        rawAnswer(question, nodes, configurations, tableMetadata.toColumnMap());
+    Multiset<Row> propertyRows;
+    if (question.getNodeSpecifier() instanceof AllNodesNodeSpecifier
+        && !question.getIndicatePresence()) {
+      // Without presence indication, each row only depends on its own node, so rows can be
+      // computed as nodes are loaded.
+      Multiset<Row> rows = HashMultiset.create();
+      _batfish.forEachConfiguration(
+          snapshot, c -> rows.addAll(nodeDefinitions(question, c, tableMetadata.toColumnMap())));
+      propertyRows = rows;
+    } else {
+      Map<String, Configuration> configurations = _batfish.loadConfigurations(snapshot);
+      Set<String> nodes = question.getNodeSpecifier().resolve(_batfish.specifierContext(snapshot));
+      propertyRows = rawAnswer(question, nodes, configurations, tableMetadata.toColumnMap());
+    }
 
     TableAnswerElement answer = new TableAnswerElement(tableMetadata);
     answer.postProcessAnswer(question, propertyRows);
     return answer;
   }
 
+  /**
+   * Returns the rows defining the structures of {@code configuration} matching {@code question},
+   * i.e. the rows of {@link #rawAnswer} for that node when presence is not indicated.
+   */
+  @VisibleForTesting
+  static Multiset<Row> nodeDefinitions(
+      NamedStructuresQuestion question,
+      Configuration configuration,
+      Map<String, ColumnMetadata> columns) {
+    Multiset<Row> rows = HashMultiset.create();
+    RowBuilder row = Row.builder(columns).put(COL_NODE, new Node(configuration.getHostname()));
+
+    for (String structureType : question.getStructureTypeSpecifier().getMatchingProperties()) {
+      row.put(COL_STRUCTURE_TYPE, structureType);
+      Object namedStructuresMap =
+          NamedStructurePropertySpecifier.JAVA_MAP
+              .get(structureType)
+              .getGetter()
+              .apply(configuration);
+      if (!(namedStructuresMap instanceof Map<?, ?>)) {
+        continue;
+      }
+      for (Map.Entry<?, ?> entry : ((Map<?, ?>) namedStructuresMap).entrySet()) {
+        String structName = (String) entry.getKey();
+        if (!question.getStructureNamePattern().matcher(structName).matches()) {
+          continue;
+        }
+        if (question.getIgnoreGenerated() && isAutoGenerated(structName)) {
+          continue;
+        }
+        row.put(COL_STRUCTURE_NAME, structName)
+            .put(COL_STRUCTURE_DEFINITION, insertedObject(entry.getValue(), structureType));
+        rows.add(row.build());
+      }
+    }
+    return rows;
+  }
+
   /** Returns all structures of type {@code structureType} across {@code nodes} */
   public static Set<String> getAllStructureNamesOfType(
       String structureType, Set<String> nodes, Map<String, Configuration> configurations) {
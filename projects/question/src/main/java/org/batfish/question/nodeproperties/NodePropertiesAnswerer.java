@@ -10,6 +10,7 @@ import javax.annotation.Nonnull;
 import org.batfish.common.Answerer;
 import org.batfish.common.NetworkSnapshot;
 import org.batfish.common.plugin.IBatfish;
+import org.batfish.datamodel.Configuration;
 import org.batfish.datamodel.answers.Schema;
 import org.batfish.datamodel.pojo.Node;
 import org.batfish.datamodel.questions.DisplayHints;
@@ -21,6 +22,7 @@ import org.batfish.datamodel.table.Row;
 import org.batfish.datamodel.table.Row.RowBuilder;
 import org.batfish.datamodel.table.TableAnswerElement;
 import org.batfish.datamodel.table.TableMetadata;
+import org.batfish.specifier.AllNodesNodeSpecifier;
 import org.batfish.specifier.NodeSpecifier;
 import org.batfish.specifier.SpecifierContext;
 
@@ -70,12 +72,22 @@ public class NodePropertiesAnswerer extends Answerer {
     NodePropertiesQuestion question = (NodePropertiesQuestion) _question;
     TableMetadata tableMetadata = createTableMetadata(question);
 
-    Multiset<Row> propertyRows =
-        getProperties(
-            question.getPropertySpecifier(),
-            _batfish.specifierContext(snapshot),
-            question.getNodeSpecifier(),
-            tableMetadata.toColumnMap());
+    Multiset<Row> propertyRows;
+    if (question.getNodeSpecifier() instanceof AllNodesNodeSpecifier) {
+      // Each row only depends on its own node, so rows can be computed as nodes are loaded.
+      Multiset<Row> rows = HashMultiset.create();
+      _batfish.forEachConfiguration(
+          snapshot,
+          c -> rows.add(getRow(question.getPropertySpecifier(), c, tableMetadata.toColumnMap())));
+      propertyRows = rows;
+    } else {
+      propertyRows =
+          getProperties(
+              question.getPropertySpecifier(),
+              _batfish.specifierContext(snapshot),
+              question.getNodeSpecifier(),
+              tableMetadata.toColumnMap());
+    }
 
     TableAnswerElement answer = new TableAnswerElement(tableMetadata);
     answer.postProcessAnswer(question, propertyRows);
@@ -100,20 +112,25 @@ public class NodePropertiesAnswerer extends Answerer {
     Multiset<Row> rows = HashMultiset.create();
 
     for (String nodeName : nodeSpecifier.resolve(ctxt)) {
-      RowBuilder row = Row.builder(columns).put(COL_NODE, new Node(nodeName));
+      rows.add(getRow(propertySpecifier, ctxt.getConfigs().get(nodeName), columns));
+    }
+
+    return rows;
+  }
 
-      for (String property : propertySpecifier.getMatchingProperties()) {
-        PropertySpecifier.fillProperty(
-            NodePropertySpecifier.getPropertyDescriptor(property),
-            ctxt.getConfigs().get(nodeName),
-            property,
-            row);
-      }
+  /** Gets the {@link Row} of properties of the node with configuration {@code configuration}. */
+  private static Row getRow(
+      NodePropertySpecifier propertySpecifier,
+      Configuration configuration,
+      Map<String, ColumnMetadata> columns) {
+    RowBuilder row = Row.builder(columns).put(COL_NODE, new Node(configuration.getHostname()));
 
-      rows.add(row.build());
+    for (String property : propertySpecifier.getMatchingProperties()) {
+      PropertySpecifier.fillProperty(
+          NodePropertySpecifier.getPropertyDescriptor(property), configuration, property, row);
     }
 
-    return rows;
+    return row.build();
   }
 
   /** Returns the name of the column that contains the value of property {@code property} */
@@ -92,12 +92,19 @@ public class RoutesAnswerer extends Answerer {
       case BGP:
         rows =
             getBgpRibRoutes(
-                dp.getBgpRoutes(), RibProtocol.BGP, matchingNodes, network, protocolSpec, vrfRegex);
+                dp.getBgpRoutes(),
+                dp::getBgpRoutes,
+                RibProtocol.BGP,
+                matchingNodes,
+                network,
+                protocolSpec,
+                vrfRegex);
         break;
       case EVPN:
         rows =
             getEvpnRoutes(
                 dp.getEvpnRoutes(),
+                dp::getEvpnRoutes,
                 RibProtocol.EVPN,
                 matchingNodes,
                 network,
@@ -140,11 +147,13 @@ public class RoutesAnswerer extends Answerer {
       case BGP:
         dp = _batfish.loadDataPlane(snapshot);
         routesGroupedByKeyInBase =
-            groupBgpRoutes(dp.getBgpRoutes(), matchingNodes, vrfRegex, network, vrfRegex);
+            groupBgpRoutes(
+                dp.getBgpRoutes(), dp::getBgpRoutes, matchingNodes, vrfRegex, network, vrfRegex);
 
         dp = _batfish.loadDataPlane(reference);
         routesGroupedByKeyInDelta =
-            groupBgpRoutes(dp.getBgpRoutes(), matchingNodes, vrfRegex, network, vrfRegex);
+            groupBgpRoutes(
+                dp.getBgpRoutes(), dp::getBgpRoutes, matchingNodes, vrfRegex, network, vrfRegex);
         routesDiffRaw = getRoutesDiff(routesGroupedByKeyInBase, routesGroupedByKeyInDelta);
         rows = getBgpRouteRowsDiff(routesDiffRaw, RibProtocol.BGP);
         break;
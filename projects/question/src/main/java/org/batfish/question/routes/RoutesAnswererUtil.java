@@ -125,6 +125,52 @@ public class RoutesAnswererUtil {
         .orElse(null);
   }
 
+  /** Looks up the routes of a node's VRF for exactly a given network. */
+  @FunctionalInterface
+  interface NetworkRoutesLookup<R> {
+    Set<R> lookup(String hostname, String vrfName, Prefix network);
+  }
+
+  /** Returns a {@link NetworkRoutesLookup} that scans all the routes of a VRF in {@code routes}. */
+  private static <R extends AbstractRouteDecorator> NetworkRoutesLookup<R> scanningLookup(
+      Table<String, String, Set<R>> routes) {
+    return (hostname, vrfName, network) -> {
+      Set<R> vrfRoutes = routes.get(hostname, vrfName);
+      return vrfRoutes == null
+          ? ImmutableSet.of()
+          : vrfRoutes.stream()
+              .filter(route -> route.getNetwork().equals(network))
+              .collect(ImmutableSet.toImmutableSet());
+    };
+  }
+
+  /**
+   * Returns the routes of a node's VRF for exactly {@code network} using {@code networkRoutes}, or
+   * all its {@code routes} if {@code network} is {@code null}.
+   */
+  private static <R> Set<R> vrfRoutes(
+      Set<R> routes,
+      NetworkRoutesLookup<R> networkRoutes,
+      String hostname,
+      String vrfName,
+      @Nullable Prefix network) {
+    return network == null ? routes : networkRoutes.lookup(hostname, vrfName, network);
+  }
+
+  /**
+   * Returns the routes of {@code rib} for exactly {@code network}, or all its routes if {@code
+   * network} is {@code null}.
+   */
+  private static Set<AbstractRoute> ribRoutes(
+      GenericRib<? extends AbstractRouteDecorator> rib, @Nullable Prefix network) {
+    if (network == null) {
+      return rib.getRoutes();
+    }
+    return rib.getTypedRoutes(network).stream()
+        .map(AbstractRouteDecorator::getAbstractRoute)
+        .collect(ImmutableSet.toImmutableSet());
+  }
+
   /**
    * Returns a {@link Multiset} of {@link Row}s for all routes present in all RIBs
    *
@@ -153,11 +199,8 @@ public class RoutesAnswererUtil {
             vrfMap.forEach(
                 (vrfName, rib) -> {
                   if (compiledVrfRegex.matcher(vrfName).matches()) {
-                    rib.getRoutes().stream()
-                        .filter(
-                            route ->
-                                (network == null || network.equals(route.getNetwork()))
-                                    && protocolSpec.getProtocols().contains(route.getProtocol()))
+                    ribRoutes(rib, network).stream()
+                        .filter(route -> protocolSpec.getProtocols().contains(route.getProtocol()))
                         .forEach(
                             route ->
                                 rows.add(
@@ -188,6 +231,28 @@ public class RoutesAnswererUtil {
       @Nullable Prefix network,
       RoutingProtocolSpecifier protocolSpec,
       String vrfRegex) {
+    return getBgpRibRoutes(
+        bgpRoutes,
+        scanningLookup(bgpRoutes),
+        ribProtocol,
+        matchingNodes,
+        network,
+        protocolSpec,
+        vrfRegex);
+  }
+
+  /**
+   * Like {@link #getBgpRibRoutes(Table, RibProtocol, Set, Prefix, RoutingProtocolSpecifier,
+   * String)}, but looks up the routes for {@code network}, if set, with {@code networkRoutes}.
+   */
+  static Multiset<Row> getBgpRibRoutes(
+      Table<String, String, Set<Bgpv4Route>> bgpRoutes,
+      NetworkRoutesLookup<Bgpv4Route> networkRoutes,
+      RibProtocol ribProtocol,
+      Set<String> matchingNodes,
+      @Nullable Prefix network,
+      RoutingProtocolSpecifier protocolSpec,
+      String vrfRegex) {
     Multiset<Row> rows = HashMultiset.create();
     Map<String, ColumnMetadata> columnMetadataMap = getTableMetadata(ribProtocol).toColumnMap();
     Pattern compiledVrfRegex = Pattern.compile(vrfRegex);
@@ -198,13 +263,9 @@ public class RoutesAnswererUtil {
                 .forEach(
                     (vrfName, routes) -> {
                       if (compiledVrfRegex.matcher(vrfName).matches()) {
-                        routes.stream()
+                        vrfRoutes(routes, networkRoutes, hostname, vrfName, network).stream()
                             .filter(
-                                route ->
-                                    (network == null || network.equals(route.getNetwork()))
-                                        && protocolSpec
-                                            .getProtocols()
-                                            .contains(route.getProtocol()))
+                                route -> protocolSpec.getProtocols().contains(route.getProtocol()))
                             .forEach(
                                 route ->
                                     rows.add(
@@ -222,6 +283,28 @@ public class RoutesAnswererUtil {
       @Nullable Prefix network,
       RoutingProtocolSpecifier protocolSpec,
       String vrfRegex) {
+    return getEvpnRoutes(
+        evpnRoutes,
+        scanningLookup(evpnRoutes),
+        ribProtocol,
+        matchingNodes,
+        network,
+        protocolSpec,
+        vrfRegex);
+  }
+
+  /**
+   * Like {@link #getEvpnRoutes(Table, RibProtocol, Set, Prefix, RoutingProtocolSpecifier, String)},
+   * but looks up the routes for {@code network}, if set, with {@code networkRoutes}.
+   */
+  static Multiset<Row> getEvpnRoutes(
+      Table<String, String, Set<EvpnRoute<?, ?>>> evpnRoutes,
+      NetworkRoutesLookup<EvpnRoute<?, ?>> networkRoutes,
+      RibProtocol ribProtocol,
+      Set<String> matchingNodes,
+      @Nullable Prefix network,
+      RoutingProtocolSpecifier protocolSpec,
+      String vrfRegex) {
     Multiset<Row> rows = HashMultiset.create();
     Map<String, ColumnMetadata> columnMetadataMap = getTableMetadata(ribProtocol).toColumnMap();
     Pattern compiledVrfRegex = Pattern.compile(vrfRegex);
@@ -232,13 +315,9 @@ public class RoutesAnswererUtil {
                 .forEach(
                     (vrfName, routes) -> {
                       if (compiledVrfRegex.matcher(vrfName).matches()) {
-                        routes.stream()
+                        vrfRoutes(routes, networkRoutes, hostname, vrfName, network).stream()
                             .filter(
-                                route ->
-                                    (network == null || network.equals(route.getNetwork()))
-                                        && protocolSpec
-                                            .getProtocols()
-                                            .contains(route.getProtocol()))
+                                route -> protocolSpec.getProtocols().contains(route.getProtocol()))
                             .forEach(
                                 route ->
                                     rows.add(
@@ -586,11 +665,8 @@ public class RoutesAnswererUtil {
             vrfMap.forEach(
                 (vrfName, rib) -> {
                   if (compiledVrfRegex.matcher(vrfName).matches()) {
-                    rib.getRoutes().stream()
-                        .filter(
-                            route ->
-                                (network == null || network.equals(route.getNetwork()))
-                                    && protocolSpec.getProtocols().contains(route.getProtocol()))
+                    ribRoutes(rib, network).stream()
+                        .filter(route -> protocolSpec.getProtocols().contains(route.getProtocol()))
                         .forEach(
                             route ->
                                 routesGroups
@@ -639,6 +715,21 @@ public class RoutesAnswererUtil {
       String vrfRegex,
       @Nullable Prefix network,
       String protocolRegex) {
+    return groupBgpRoutes(
+        bgpRoutes, scanningLookup(bgpRoutes), matchingNodes, vrfRegex, network, protocolRegex);
+  }
+
+  /**
+   * Like {@link #groupBgpRoutes(Table, Set, String, Prefix, String)}, but looks up the routes for
+   * {@code network}, if set, with {@code networkRoutes}.
+   */
+  static Map<RouteRowKey, Map<RouteRowSecondaryKey, SortedSet<RouteRowAttribute>>> groupBgpRoutes(
+      Table<String, String, Set<Bgpv4Route>> bgpRoutes,
+      NetworkRoutesLookup<Bgpv4Route> networkRoutes,
+      Set<String> matchingNodes,
+      String vrfRegex,
+      @Nullable Prefix network,
+      String protocolRegex) {
     Map<RouteRowKey, Map<RouteRowSecondaryKey, SortedSet<RouteRowAttribute>>> routesGroups =
         new HashMap<>();
     Pattern compiledProtocolRegex = Pattern.compile(protocolRegex, Pattern.CASE_INSENSITIVE);
@@ -650,13 +741,12 @@ public class RoutesAnswererUtil {
                 .forEach(
                     (vrfName, routes) -> {
                       if (compiledVrfRegex.matcher(vrfName).matches()) {
-                        routes.stream()
+                        vrfRoutes(routes, networkRoutes, hostname, vrfName, network).stream()
                             .filter(
                                 route ->
-                                    (network == null || network.equals(route.getNetwork()))
-                                        && compiledProtocolRegex
-                                            .matcher(route.getProtocol().protocolName())
-                                            .matches())
+                                    compiledProtocolRegex
+                                        .matcher(route.getProtocol().protocolName())
+                                        .matches())
                             .forEach(
                                 route ->
                                     routesGroups
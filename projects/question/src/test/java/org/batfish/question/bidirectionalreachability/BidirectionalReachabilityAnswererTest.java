@@ -35,7 +35,7 @@ public final class BidirectionalReachabilityAnswererTest {
     {
       Map<Location, BDD> success = ImmutableMap.of(loc, bdd1);
       BidirectionalReachabilityResult result =
-          new BidirectionalReachabilityResult(success, ImmutableMap.of());
+          new BidirectionalReachabilityResult(pkt, success, ImmutableMap.of());
       assertEquals(getAnswerBdds(result, SUCCESS), success);
       assertTrue(getAnswerBdds(result, FAILURE).isEmpty());
       assertTrue(getAnswerBdds(result, MULTIPATH_INCONSISTENT).isEmpty());
@@ -45,7 +45,7 @@ public final class BidirectionalReachabilityAnswererTest {
     {
       Map<Location, BDD> failure = ImmutableMap.of(loc, bdd1);
       BidirectionalReachabilityResult result =
-          new BidirectionalReachabilityResult(ImmutableMap.of(), failure);
+          new BidirectionalReachabilityResult(pkt, ImmutableMap.of(), failure);
       assertTrue(getAnswerBdds(result, SUCCESS).isEmpty());
       assertEquals(getAnswerBdds(result, FAILURE), failure);
       assertTrue(getAnswerBdds(result, MULTIPATH_INCONSISTENT).isEmpty());
@@ -56,7 +56,7 @@ public final class BidirectionalReachabilityAnswererTest {
       Map<Location, BDD> success = ImmutableMap.of(loc, bdd1.or(bdd2));
       Map<Location, BDD> failure = ImmutableMap.of(loc, bdd2.or(bdd3));
       BidirectionalReachabilityResult result =
-          new BidirectionalReachabilityResult(success, failure);
+          new BidirectionalReachabilityResult(pkt, success, failure);
       assertEquals(getAnswerBdds(result, SUCCESS), ImmutableMap.of(loc, bdd1));
       assertEquals(getAnswerBdds(result, FAILURE), ImmutableMap.of(loc, bdd3));
       assertEquals(getAnswerBdds(result, MULTIPATH_INCONSISTENT), ImmutableMap.of(loc, bdd2));
@@ -68,7 +68,7 @@ public final class BidirectionalReachabilityAnswererTest {
     {
       Map<Location, BDD> successAndFailure = ImmutableMap.of(loc, bdd1);
       BidirectionalReachabilityResult result =
-          new BidirectionalReachabilityResult(successAndFailure, successAndFailure);
+          new BidirectionalReachabilityResult(pkt, successAndFailure, successAndFailure);
       assertEquals(getAnswerBdds(result, SUCCESS), successAndFailure);
       assertEquals(getAnswerBdds(result, FAILURE), successAndFailure);
       assertEquals(getAnswerBdds(result, MULTIPATH_INCONSISTENT), successAndFailure);
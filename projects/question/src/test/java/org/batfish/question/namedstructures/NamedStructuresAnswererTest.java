@@ -17,6 +17,7 @@ import org.batfish.datamodel.NetworkFactory;
 import org.batfish.datamodel.pojo.Node;
 import org.batfish.datamodel.questions.NamedStructurePropertySpecifier;
 import org.batfish.datamodel.routing_policy.RoutingPolicy;
+import org.batfish.datamodel.table.ColumnMetadata;
 import org.batfish.datamodel.table.Row;
 import org.junit.Test;
 
@@ -101,6 +102,28 @@ public class NamedStructuresAnswererTest {
     assertThat(rows, equalTo(expected));
   }
 
+  @Test
+  public void testNodeDefinitionsMatchesRawAnswer() {
+    NetworkFactory nf = new NetworkFactory();
+    Configuration c =
+        nf.configurationBuilder().setConfigurationFormat(ConfigurationFormat.CISCO_IOS).build();
+    nf.routingPolicyBuilder().setOwner(c).setName("rp1").build();
+    nf.routingPolicyBuilder().setOwner(c).setName("~rp2").build();
+    nf.vrfBuilder().setOwner(c).build();
+
+    Map<String, Configuration> configurations = ImmutableMap.of(c.getHostname(), c);
+    NamedStructuresQuestion question =
+        new NamedStructuresQuestion(ALL_NODES, null, null, null, false);
+    Map<String, ColumnMetadata> columns =
+        NamedStructuresAnswerer.createMetadata(question).toColumnMap();
+
+    assertThat(
+        NamedStructuresAnswerer.nodeDefinitions(question, c, columns),
+        equalTo(
+            NamedStructuresAnswerer.rawAnswer(
+                question, configurations.keySet(), configurations, columns)));
+  }
+
   @Test
   public void testRawAnswerIgnoreGenerated() {
 